@@ -14,18 +14,26 @@
  */
 package org.apache.geode.connectors.jdbc;
 
+import static org.apache.geode.util.internal.GeodeGlossary.GEMFIRE_PREFIX;
+
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CopyHelper;
 import org.apache.geode.annotations.Experimental;
+import org.apache.geode.cache.Region;
 import org.apache.geode.cache.asyncqueue.AsyncEvent;
 import org.apache.geode.cache.asyncqueue.AsyncEventListener;
 import org.apache.geode.connectors.jdbc.internal.AbstractJdbcCallback;
+import org.apache.geode.connectors.jdbc.internal.JdbcAsyncWriterStats;
 import org.apache.geode.connectors.jdbc.internal.SqlHandler;
+import org.apache.geode.connectors.jdbc.internal.SqlHandler.BatchedWrite;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.pdx.PdxInstance;
@@ -39,19 +47,40 @@ import org.apache.geode.pdx.PdxInstance;
 public class JdbcAsyncWriter extends AbstractJdbcCallback implements AsyncEventListener {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * The maximum number of rows sent to the database in one JDBC batch. With the default of zero
+   * each event is written with its own statement.
+   */
+  static final int BATCH_SIZE =
+      Integer.getInteger(GEMFIRE_PREFIX + "JdbcAsyncWriter.BATCH_SIZE", 0);
+
   private final LongAdder totalEvents = new LongAdder();
   private final LongAdder successfulEvents = new LongAdder();
   private final LongAdder failedEvents = new LongAdder();
   private final LongAdder ignoredEvents = new LongAdder();
 
+  private final int batchSize;
+
+  /** Created with the first batch, since the cache is only known once events arrive */
+  private volatile JdbcAsyncWriterStats stats;
+
   @SuppressWarnings("unused")
   public JdbcAsyncWriter() {
     super();
+    this.batchSize = BATCH_SIZE;
   }
 
   // Constructor for test purposes only
   JdbcAsyncWriter(SqlHandler sqlHandler, InternalCache cache) {
+    this(sqlHandler, cache, 0, null);
+  }
+
+  // Constructor for test purposes only
+  JdbcAsyncWriter(SqlHandler sqlHandler, InternalCache cache, int batchSize,
+      JdbcAsyncWriterStats stats) {
     super(sqlHandler, cache);
+    this.batchSize = batchSize;
+    this.stats = stats;
   }
 
   @Override
@@ -71,7 +100,11 @@ public class JdbcAsyncWriter extends AbstractJdbcCallback implements AsyncEventL
     Boolean initialPdxReadSerialized = cache.getPdxReadSerializedOverride();
     cache.setPdxReadSerializedOverride(true);
     try {
-      processEventsList(events);
+      if (batchSize > 0) {
+        processEventsInBatches(events);
+      } else {
+        processEventsList(events);
+      }
     } finally {
       cache.setPdxReadSerializedOverride(initialPdxReadSerialized);
     }
@@ -96,6 +129,54 @@ public class JdbcAsyncWriter extends AbstractJdbcCallback implements AsyncEventL
     }
   }
 
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private void processEventsInBatches(List<AsyncEvent> events) {
+    List<AsyncEvent> batchedEvents = new ArrayList<>(events.size());
+    List<BatchedWrite<Object>> writes = new ArrayList<>(events.size());
+    for (AsyncEvent event : events) {
+      if (eventCanBeIgnored(event.getOperation())) {
+        changeIgnoredEvents(1);
+        continue;
+      }
+      try {
+        writes.add(new BatchedWrite<>(event.getOperation(), event.getKey(), getPdxInstance(event)));
+        batchedEvents.add(event);
+      } catch (RuntimeException ex) {
+        changeFailedEvents(1);
+        logger.error("Exception processing event {}", event, ex);
+      }
+    }
+    if (writes.isEmpty()) {
+      return;
+    }
+
+    Region region = batchedEvents.get(0).getRegion();
+    JdbcAsyncWriterStats batchStats = getStats(region);
+    long statStart = batchStats.startBatch();
+    long start = System.nanoTime();
+    Map<Integer, Exception> failures;
+    try {
+      failures = getSqlHandler().writeBatch(region, writes, batchSize);
+    } catch (SQLException | RuntimeException ex) {
+      changeFailedEvents(writes.size());
+      logger.error("Exception writing batch of {} events", writes.size(), ex);
+      return;
+    } finally {
+      batchStats.endBatch(statStart, writes.size());
+      if (logger.isDebugEnabled()) {
+        logger.debug("Wrote batch of {} events in {} ms", writes.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      }
+    }
+
+    for (Map.Entry<Integer, Exception> failure : failures.entrySet()) {
+      logger.error("Exception processing event {}", batchedEvents.get(failure.getKey()),
+          failure.getValue());
+    }
+    changeFailedEvents(failures.size());
+    changeSuccessfulEvents(writes.size() - failures.size());
+  }
+
   long getTotalEvents() {
     return totalEvents.longValue();
   }
@@ -112,6 +193,28 @@ public class JdbcAsyncWriter extends AbstractJdbcCallback implements AsyncEventL
     return ignoredEvents.longValue();
   }
 
+  private JdbcAsyncWriterStats getStats(Region<?, ?> region) {
+    JdbcAsyncWriterStats result = stats;
+    if (result == null) {
+      synchronized (this) {
+        result = stats;
+        if (result == null) {
+          result = new JdbcAsyncWriterStats(cache.getDistributedSystem(), region.getName());
+          stats = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void close() {
+    JdbcAsyncWriterStats result = stats;
+    if (result != null) {
+      result.close();
+    }
+  }
+
   private void changeSuccessfulEvents(long delta) {
     successfulEvents.add(delta);
   }
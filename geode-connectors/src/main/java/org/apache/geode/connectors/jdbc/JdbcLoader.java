@@ -14,23 +14,45 @@
  */
 package org.apache.geode.connectors.jdbc;
 
+import static org.apache.geode.util.internal.GeodeGlossary.GEMFIRE_PREFIX;
+
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.geode.annotations.Experimental;
-import org.apache.geode.cache.CacheLoader;
+import org.apache.geode.cache.BulkCacheLoader;
 import org.apache.geode.cache.CacheLoaderException;
 import org.apache.geode.cache.LoaderHelper;
+import org.apache.geode.cache.Region;
 import org.apache.geode.connectors.jdbc.internal.AbstractJdbcCallback;
 import org.apache.geode.connectors.jdbc.internal.SqlHandler;
 import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.pdx.PdxInstance;
 
 /**
  * This class provides loading from a data source using JDBC.
+ * <p>
+ * The keys of a getAll are read with queries of up to {@link #BULK_LOAD_CHUNK_SIZE} keys each, and
+ * concurrent loads of the same key share one query.
  *
  * @since Geode 1.4
  */
 @Experimental
-public class JdbcLoader<K, V> extends AbstractJdbcCallback implements CacheLoader<K, V> {
+public class JdbcLoader<K, V> extends AbstractJdbcCallback implements BulkCacheLoader<K, V> {
+
+  /**
+   * The maximum number of keys read by one query of a bulk load.
+   */
+  static final int BULK_LOAD_CHUNK_SIZE =
+      Integer.getInteger(GEMFIRE_PREFIX + "JdbcLoader.BULK_LOAD_CHUNK_SIZE", 100);
+
+  private final ConcurrentMap<Object, CompletableFuture<PdxInstance>> inFlightLoads =
+      new ConcurrentHashMap<>();
 
   @SuppressWarnings("unused")
   public JdbcLoader() {
@@ -50,12 +72,63 @@ public class JdbcLoader<K, V> extends AbstractJdbcCallback implements CacheLoade
   @SuppressWarnings("unchecked")
   public V load(LoaderHelper<K, V> helper) throws CacheLoaderException {
     checkInitialized(helper.getRegion());
-    try {
+    K key = helper.getKey();
+    CompletableFuture<PdxInstance> load = new CompletableFuture<>();
+    CompletableFuture<PdxInstance> inFlightLoad = inFlightLoads.putIfAbsent(key, load);
+    if (inFlightLoad != null) {
       // The following cast to V is to keep the compiler happy
       // but is erased at runtime and no actual cast happens.
-      return (V) getSqlHandler().read(helper.getRegion(), helper.getKey());
+      return (V) copy(join(inFlightLoad));
+    }
+    try {
+      PdxInstance value = getSqlHandler().read(helper.getRegion(), key);
+      load.complete(value);
+      return (V) value;
+    } catch (SQLException e) {
+      load.completeExceptionally(e);
+      throw JdbcConnectorException.createException(e);
+    } catch (RuntimeException e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlightLoads.remove(key, load);
+    }
+  }
+
+  /**
+   * @return the values of the keys that were read. Like {@link #load} it always maps the keys to
+   *         PdxInstances.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public Map<K, V> loadAll(Region<K, V> region, Collection<K> keys, Object aCallbackArgument)
+      throws CacheLoaderException {
+    checkInitialized(region);
+    try {
+      return (Map<K, V>) getSqlHandler().readAll(region, keys, BULK_LOAD_CHUNK_SIZE);
     } catch (SQLException e) {
       throw JdbcConnectorException.createException(e);
     }
   }
+
+  private PdxInstance join(CompletableFuture<PdxInstance> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw JdbcConnectorException.createException((SQLException) cause);
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Returns a PdxInstance of its own for each thread that shares a load.
+   */
+  private PdxInstance copy(PdxInstance value) {
+    return value == null ? null : value.createWriter();
+  }
 }
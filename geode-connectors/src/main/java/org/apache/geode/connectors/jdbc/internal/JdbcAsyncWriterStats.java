@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.connectors.jdbc.internal;
+
+import static org.apache.geode.distributed.internal.DistributionStats.getStatTime;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * Statistics about the JDBC batches written by a JdbcAsyncWriter.
+ */
+public class JdbcAsyncWriterStats {
+  // statistics type
+  private static final StatisticsType statsType;
+  private static final String statsTypeName = "JdbcAsyncWriterStats";
+  private static final String statsTypeDescription =
+      "Statistics about the batches a JDBC async writer writes to its database";
+
+  private static final int batchesWrittenId;
+  private static final int batchWriteTimeId;
+  private static final int batchesInProgressId;
+  private static final int batchedEventsId;
+
+  private final Statistics stats;
+
+  static {
+    final StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+    statsType = f.createType(statsTypeName, statsTypeDescription, new StatisticDescriptor[] {
+        f.createLongCounter("batchesWritten", "Number of batches written to the database",
+            "operations"),
+        f.createLongCounter("batchWriteTime",
+            "Amount of time spent writing batches to the database", "nanoseconds"),
+        f.createLongGauge("batchesInProgress",
+            "Number of batches currently being written to the database", "operations"),
+        f.createLongCounter("batchedEvents",
+            "Number of events in the batches written to the database", "operations"),});
+
+    batchesWrittenId = statsType.nameToId("batchesWritten");
+    batchWriteTimeId = statsType.nameToId("batchWriteTime");
+    batchesInProgressId = statsType.nameToId("batchesInProgress");
+    batchedEventsId = statsType.nameToId("batchedEvents");
+  }
+
+  public JdbcAsyncWriterStats(StatisticsFactory f, String name) {
+    this.stats = f.createAtomicStatistics(statsType, name);
+  }
+
+  /**
+   * @return the timestamp that marks the start of the operation
+   */
+  public long startBatch() {
+    stats.incLong(batchesInProgressId, 1);
+    return getStatTime();
+  }
+
+  /**
+   * @param start the timestamp taken when the operation started
+   * @param events the number of events in the batch
+   */
+  public void endBatch(long start, int events) {
+    stats.incLong(batchWriteTimeId, getStatTime() - start);
+    stats.incLong(batchesInProgressId, -1);
+    stats.incLong(batchesWrittenId, 1);
+    stats.incLong(batchedEventsId, events);
+  }
+
+  public long getBatchesWritten() {
+    return stats.getLong(batchesWrittenId);
+  }
+
+  public long getBatchWriteTime() {
+    return stats.getLong(batchWriteTimeId);
+  }
+
+  public long getBatchesInProgress() {
+    return stats.getLong(batchesInProgressId);
+  }
+
+  public long getBatchedEvents() {
+    return stats.getLong(batchedEventsId);
+  }
+
+  public void close() {
+    stats.close();
+  }
+}
@@ -18,11 +18,18 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.sql.DataSource;
 
@@ -48,6 +55,7 @@ public class SqlHandler {
   private final DataSource dataSource;
   private final TableMetaDataView tableMetaData;
   private final Map<String, FieldMapping> pdxToFieldMappings = new HashMap<>();
+  private final Map<List<Object>, String> sqlStrings = new ConcurrentHashMap<>();
   private volatile SqlToPdxInstance sqlToPdxInstance;
 
   public SqlHandler(InternalCache cache, String regionName,
@@ -134,6 +142,93 @@ public class SqlHandler {
     return result;
   }
 
+  /**
+   * Reads the rows of the given keys with queries of at most {@code maxKeysPerQuery} keys each.
+   * Tables with more than one key column are not supported.
+   *
+   * @return the read values by key. A key mapped to null has no row. The keys of a table with more
+   *         than one key column, and keys whose rows cannot be matched to them, are left out.
+   */
+  public <K, V> Map<K, PdxInstance> readAll(Region<K, V> region, Collection<K> keys,
+      int maxKeysPerQuery) throws SQLException {
+    Map<K, PdxInstance> result = new HashMap<>();
+    List<String> keyColumnNames = tableMetaData.getKeyColumnNames();
+    if (keyColumnNames.size() != 1 || keys.isEmpty()) {
+      return result;
+    }
+    String keyColumnName = keyColumnNames.get(0);
+    String keyFieldName = getFieldNameForColumn(keyColumnName);
+    if (keyFieldName == null) {
+      return result;
+    }
+
+    List<K> keyList = new ArrayList<>(keys);
+    try (Connection connection = getConnection();
+        PreparedStatements statements = new PreparedStatements(connection)) {
+      for (int start = 0; start < keyList.size(); start += maxKeysPerQuery) {
+        List<K> chunk = keyList.subList(start, Math.min(start + maxKeysPerQuery, keyList.size()));
+        readChunk(statements, keyColumnName, keyFieldName, chunk, result);
+      }
+    }
+    return result;
+  }
+
+  private <K> void readChunk(PreparedStatements statements, String keyColumnName,
+      String keyFieldName, List<K> keys, Map<K, PdxInstance> result) throws SQLException {
+    Map<Object, K> requestedKeys = new HashMap<>();
+    for (K key : keys) {
+      requestedKeys.put(key, key);
+    }
+    Set<K> readKeys = new HashSet<>();
+    Set<K> ambiguousKeys = new HashSet<>();
+    boolean allRowsMatched = true;
+
+    List<Object> sqlKey = Arrays.asList("SELECT IN", keyColumnName, keys.size());
+    String sql = sqlStrings.computeIfAbsent(sqlKey,
+        k -> new SqlStatementFactory(tableMetaData.getIdentifierQuoteString())
+            .createSelectInQueryString(tableMetaData.getQuotedTablePath(), keyColumnName,
+                keys.size()));
+    PreparedStatement statement = statements.get(sql);
+    int index = 0;
+    for (K key : keys) {
+      index = setValuesFromColumnData(statement, createKeyColumnDataList(tableMetaData, key),
+          index);
+    }
+    try (ResultSet resultSet = statement.executeQuery()) {
+      while (resultSet.next()) {
+        PdxInstance value = getSqlToPdxInstance().createFromCurrentRow(resultSet);
+        K key = requestedKeys.get(value.getField(keyFieldName));
+        if (key == null) {
+          // the key of the row has a different type than the requested key
+          allRowsMatched = false;
+        } else if (!readKeys.add(key)) {
+          allRowsMatched = false;
+          ambiguousKeys.add(key);
+        } else {
+          result.put(key, value);
+        }
+      }
+    }
+
+    if (allRowsMatched) {
+      for (K key : requestedKeys.values()) {
+        if (!readKeys.contains(key)) {
+          result.put(key, null);
+        }
+      }
+    }
+    result.keySet().removeAll(ambiguousKeys);
+  }
+
+  private String getFieldNameForColumn(String columnName) {
+    for (FieldMapping fieldMapping : this.pdxToFieldMappings.values()) {
+      if (columnName.equals(fieldMapping.getJdbcName())) {
+        return fieldMapping.getPdxName();
+      }
+    }
+    return null;
+  }
+
   private SqlToPdxInstance getSqlToPdxInstance() {
     SqlToPdxInstance result = this.sqlToPdxInstance;
     if (result == null) {
@@ -250,6 +345,184 @@ public class SqlHandler {
     }
   }
 
+  /**
+   * Writes the given entries with JDBC batches, in the order of the list. Consecutive entries that
+   * use the same SQL statement and have different keys are sent in one batch of at most
+   * {@code maxBatchSize} rows, and the statements are prepared once per connection. Each batch is
+   * written in its own transaction. If the batch fails it is rolled back, whatever update counts
+   * the driver reported, and all of its entries are written again on their own the way
+   * {@link #write} does it, before any later entry is written. A create or update of a committed
+   * batch that changed no row is written again the same way.
+   *
+   * @return the exceptions of the entries that could not be written, by their index in the list
+   * @throws SQLException if no connection could be obtained
+   */
+  public <K, V> Map<Integer, Exception> writeBatch(Region<K, V> region,
+      List<BatchedWrite<K>> writes, int maxBatchSize) throws SQLException {
+    Map<Integer, Exception> failures = new TreeMap<>();
+    try (Connection connection = getConnection();
+        PreparedStatements statements = new PreparedStatements(connection)) {
+      List<Integer> batchIndexes = new ArrayList<>();
+      List<EntryColumnData> batch = new ArrayList<>();
+      Set<K> batchKeys = new HashSet<>();
+      String batchSql = null;
+      Operation batchOperation = null;
+      for (int i = 0; i < writes.size(); i++) {
+        BatchedWrite<K> write = writes.get(i);
+        Operation operation = write.getOperation();
+        EntryColumnData entryColumnData;
+        String sql;
+        try {
+          if (write.getValue() == null && !operation.isDestroy()) {
+            throw new IllegalArgumentException(
+                "PdxInstance cannot be null for non-destroy operations");
+          }
+          entryColumnData =
+              getEntryColumnData(tableMetaData, write.getKey(), write.getValue(), operation);
+          sql = getSqlString(tableMetaData, entryColumnData, operation);
+        } catch (RuntimeException ex) {
+          failures.put(i, ex);
+          continue;
+        }
+        // an entry whose key is already in the batch is written after the batch, so that its
+        // write cannot be reordered with the earlier one when either is written again
+        if (!batch.isEmpty() && (!sql.equals(batchSql) || batch.size() >= maxBatchSize
+            || batchKeys.contains(write.getKey()))) {
+          executeBatch(statements, batchSql, batchOperation, batch, batchIndexes, failures);
+          batch.clear();
+          batchKeys.clear();
+          batchIndexes.clear();
+        }
+        batchSql = sql;
+        batchOperation = operation;
+        batch.add(entryColumnData);
+        batchKeys.add(write.getKey());
+        batchIndexes.add(i);
+      }
+      if (!batch.isEmpty()) {
+        executeBatch(statements, batchSql, batchOperation, batch, batchIndexes, failures);
+      }
+    }
+    return failures;
+  }
+
+  private void executeBatch(PreparedStatements statements, String sql, Operation operation,
+      List<EntryColumnData> batch, List<Integer> batchIndexes, Map<Integer, Exception> failures) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("Writing batch of {} rows with SQL string:{}", batch.size(), sql);
+    }
+    Connection connection = statements.getConnection();
+    int[] updateCounts;
+    PreparedStatement statement = null;
+    boolean autoCommit = true;
+    boolean transactionStarted = false;
+    try {
+      statement = statements.get(sql);
+      for (EntryColumnData entryColumnData : batch) {
+        setValuesInStatement(statement, entryColumnData, operation);
+        statement.addBatch();
+      }
+      autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+      transactionStarted = true;
+      updateCounts = statement.executeBatch();
+      connection.commit();
+    } catch (SQLException ex) {
+      // drivers may report rows before the failure as written that the rollback, or the implicit
+      // transaction of the batch, discards, so every row is written again
+      if (logger.isDebugEnabled()) {
+        logger.debug("Writing batch of {} rows failed, writing them one at a time", batch.size(),
+            ex);
+      }
+      updateCounts = new int[0];
+      if (transactionStarted) {
+        rollback(connection);
+      }
+      clearBatch(statement);
+    } finally {
+      if (transactionStarted) {
+        restoreAutoCommit(connection, autoCommit);
+      }
+    }
+
+    for (int i = 0; i < batch.size(); i++) {
+      int updateCount = i < updateCounts.length ? updateCounts[i] : Statement.EXECUTE_FAILED;
+      if (updateCount > 0 || updateCount == Statement.SUCCESS_NO_INFO) {
+        continue;
+      }
+      // Destroy action not guaranteed to modify any database rows
+      if (updateCount == 0 && operation.isDestroy()) {
+        continue;
+      }
+      try {
+        retryWrite(statements, batch.get(i), operation);
+      } catch (SQLException | RuntimeException ex) {
+        failures.put(batchIndexes.get(i), ex);
+      }
+    }
+  }
+
+  private void rollback(Connection connection) {
+    try {
+      connection.rollback();
+    } catch (SQLException ex) {
+      logger.debug("Could not roll back JDBC batch", ex);
+    }
+  }
+
+  private void restoreAutoCommit(Connection connection, boolean autoCommit) {
+    try {
+      connection.setAutoCommit(autoCommit);
+    } catch (SQLException ex) {
+      logger.debug("Could not restore JDBC auto-commit", ex);
+    }
+  }
+
+  private void clearBatch(PreparedStatement statement) {
+    if (statement == null) {
+      return;
+    }
+    try {
+      statement.clearBatch();
+    } catch (SQLException ex) {
+      logger.debug("Could not clear JDBC batch", ex);
+    }
+  }
+
+  /**
+   * Writes an entry of a batch on its own, the same way {@link #write} does it.
+   */
+  private void retryWrite(PreparedStatements statements, EntryColumnData entryColumnData,
+      Operation operation) throws SQLException {
+    int updateCount = 0;
+    SQLException firstSqlEx = null;
+    try {
+      updateCount = executeWriteStatement(
+          statements.get(getSqlString(tableMetaData, entryColumnData, operation)),
+          entryColumnData, operation);
+    } catch (SQLException e) {
+      if (operation.isDestroy()) {
+        throw e;
+      }
+      firstSqlEx = e;
+    }
+
+    if (operation.isDestroy()) {
+      return;
+    }
+
+    if (updateCount <= 0) {
+      Operation upsertOp = getOppositeOperation(operation);
+      updateCount = executeWriteStatement(
+          statements.get(getSqlString(tableMetaData, entryColumnData, upsertOp)),
+          entryColumnData, operation);
+    }
+
+    if (updateCount <= 0 && firstSqlEx != null) {
+      throw firstSqlEx;
+    }
+  }
+
   private Operation getOppositeOperation(Operation operation) {
     return operation.isUpdate() ? Operation.CREATE : Operation.UPDATE;
   }
@@ -275,6 +548,40 @@ public class SqlHandler {
 
   private String getSqlString(TableMetaDataView tableMetaData, EntryColumnData entryColumnData,
       Operation operation) {
+    if (!operation.isCreate() && !operation.isUpdate() && !operation.isDestroy()
+        && !operation.isGet()) {
+      throw new InternalGemFireException("unsupported operation " + operation);
+    }
+    // the SQL of an operation only depends on the columns, so it is built once per column list
+    List<Object> sqlKey = Arrays.asList(getStatementType(operation),
+        getColumnNames(entryColumnData.getEntryKeyColumnData()),
+        getColumnNames(entryColumnData.getEntryValueColumnData()));
+    return sqlStrings.computeIfAbsent(sqlKey,
+        k -> createSqlString(tableMetaData, entryColumnData, operation));
+  }
+
+  private static String getStatementType(Operation operation) {
+    if (operation.isCreate()) {
+      return "INSERT";
+    } else if (operation.isUpdate()) {
+      return "UPDATE";
+    } else if (operation.isDestroy()) {
+      return "DELETE";
+    } else {
+      return "SELECT";
+    }
+  }
+
+  private static List<String> getColumnNames(List<ColumnData> columnDataList) {
+    List<String> columnNames = new ArrayList<>(columnDataList.size());
+    for (ColumnData columnData : columnDataList) {
+      columnNames.add(columnData.getColumnName());
+    }
+    return columnNames;
+  }
+
+  private String createSqlString(TableMetaDataView tableMetaData,
+      EntryColumnData entryColumnData, Operation operation) {
     SqlStatementFactory statementFactory =
         new SqlStatementFactory(tableMetaData.getIdentifierQuoteString());
     String tableName = tableMetaData.getQuotedTablePath();
@@ -284,10 +591,8 @@ public class SqlHandler {
       return statementFactory.createUpdateSqlString(tableName, entryColumnData);
     } else if (operation.isDestroy()) {
       return statementFactory.createDestroySqlString(tableName, entryColumnData);
-    } else if (operation.isGet()) {
-      return statementFactory.createSelectQueryString(tableName, entryColumnData);
     } else {
-      throw new InternalGemFireException("unsupported operation " + operation);
+      return statementFactory.createSelectQueryString(tableName, entryColumnData);
     }
   }
 
@@ -365,4 +670,74 @@ public class SqlHandler {
   public interface DataSourceFactory {
     public DataSource getDataSource(String dataSourceName);
   }
+
+  /**
+   * An entry to write with {@link #writeBatch}.
+   */
+  public static class BatchedWrite<K> {
+    private final Operation operation;
+    private final K key;
+    private final PdxInstance value;
+
+    public BatchedWrite(Operation operation, K key, PdxInstance value) {
+      this.operation = operation;
+      this.key = key;
+      this.value = value;
+    }
+
+    public Operation getOperation() {
+      return operation;
+    }
+
+    public K getKey() {
+      return key;
+    }
+
+    public PdxInstance getValue() {
+      return value;
+    }
+  }
+
+  /**
+   * The statements prepared on a connection, by their SQL string. They are closed together with
+   * the connection.
+   */
+  private static class PreparedStatements implements AutoCloseable {
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    PreparedStatements(Connection connection) {
+      this.connection = connection;
+    }
+
+    Connection getConnection() {
+      return connection;
+    }
+
+    PreparedStatement get(String sql) throws SQLException {
+      PreparedStatement statement = statements.get(sql);
+      if (statement == null) {
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+      }
+      return statement;
+    }
+
+    @Override
+    public void close() throws SQLException {
+      SQLException firstSqlEx = null;
+      for (PreparedStatement statement : statements.values()) {
+        try {
+          statement.close();
+        } catch (SQLException e) {
+          if (firstSqlEx == null) {
+            firstSqlEx = e;
+          }
+        }
+      }
+      if (firstSqlEx != null) {
+        throw firstSqlEx;
+      }
+    }
+  }
 }
@@ -29,6 +29,21 @@ class SqlStatementFactory {
         new StringBuilder("SELECT * FROM ").append(quotedTablePath));
   }
 
+  String createSelectInQueryString(String quotedTablePath, String keyColumnName, int keyCount) {
+    StringBuilder query = new StringBuilder("SELECT * FROM ")
+        .append(quotedTablePath)
+        .append(" WHERE ")
+        .append(quote).append(keyColumnName).append(quote)
+        .append(" IN (");
+    for (int i = 0; i < keyCount; i++) {
+      if (i > 0) {
+        query.append(',');
+      }
+      query.append('?');
+    }
+    return query.append(')').toString();
+  }
+
   String createDestroySqlString(String quotedTablePath, EntryColumnData entryColumnData) {
     return addKeyColumnsToQuery(entryColumnData,
         new StringBuilder("DELETE FROM ").append(quotedTablePath));
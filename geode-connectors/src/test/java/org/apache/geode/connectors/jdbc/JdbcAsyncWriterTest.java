@@ -17,12 +17,15 @@ package org.apache.geode.connectors.jdbc;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -30,11 +33,15 @@ import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.apache.geode.StatisticsFactory;
 import org.apache.geode.cache.Operation;
 import org.apache.geode.cache.asyncqueue.AsyncEvent;
+import org.apache.geode.connectors.jdbc.internal.JdbcAsyncWriterStats;
 import org.apache.geode.connectors.jdbc.internal.SqlHandler;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.InternalRegion;
+import org.apache.geode.internal.statistics.StatisticsManager;
+import org.apache.geode.internal.statistics.StripedStatisticsImpl;
 import org.apache.geode.test.fake.Fakes;
 
 public class JdbcAsyncWriterTest {
@@ -44,12 +51,19 @@ public class JdbcAsyncWriterTest {
 
   private JdbcAsyncWriter writer;
   private InternalCache cache;
+  private JdbcAsyncWriterStats stats;
 
   @Before
   public void setUp() {
     sqlHandler = mock(SqlHandler.class);
     region = mock(InternalRegion.class);
     cache = Fakes.cache();
+    StatisticsManager statisticsManager = mock(StatisticsManager.class);
+    StatisticsFactory statisticsFactory = mock(StatisticsFactory.class);
+    when(statisticsFactory.createAtomicStatistics(any(), any()))
+        .thenAnswer(invocation -> new StripedStatisticsImpl(invocation.getArgument(0),
+            invocation.getArgument(1), 1, 1, statisticsManager));
+    stats = new JdbcAsyncWriterStats(statisticsFactory, "region");
 
     writer = new JdbcAsyncWriter(sqlHandler, cache);
 
@@ -103,6 +117,60 @@ public class JdbcAsyncWriterTest {
     assertThat(writer.getTotalEvents()).isEqualTo(3);
   }
 
+  @Test
+  public void writesProvidedEventsInOneBatchWhenBatchingIsEnabled() throws Exception {
+    writer = new JdbcAsyncWriter(sqlHandler, cache, 10, stats);
+    when(sqlHandler.writeBatch(any(), any(), anyInt())).thenReturn(Collections.emptyMap());
+    List<AsyncEvent> events = new ArrayList<>();
+    events.add(createMockEvent());
+    events.add(createMockEvent(Operation.LOCAL_LOAD_CREATE));
+    events.add(createMockEvent());
+
+    writer.processEvents(events);
+
+    verify(sqlHandler, times(1)).writeBatch(eq(region), any(), eq(10));
+    verify(sqlHandler, times(0)).write(any(), any(), any(), any());
+    assertThat(writer.getSuccessfulEvents()).isEqualTo(2);
+    assertThat(writer.getIgnoredEvents()).isEqualTo(1);
+    assertThat(writer.getTotalEvents()).isEqualTo(3);
+    assertThat(stats.getBatchesWritten()).isEqualTo(1);
+    assertThat(stats.getBatchedEvents()).isEqualTo(2);
+    assertThat(stats.getBatchesInProgress()).isZero();
+  }
+
+  @Test
+  public void countsTheFailedEventsOfABatch() throws Exception {
+    writer = new JdbcAsyncWriter(sqlHandler, cache, 10, stats);
+    when(sqlHandler.writeBatch(any(), any(), anyInt()))
+        .thenReturn(Collections.singletonMap(1, new SQLException("test exception")));
+    List<AsyncEvent> events = new ArrayList<>();
+    events.add(createMockEvent());
+    events.add(createMockEvent());
+    events.add(createMockEvent());
+
+    writer.processEvents(events);
+
+    assertThat(writer.getSuccessfulEvents()).isEqualTo(2);
+    assertThat(writer.getFailedEvents()).isEqualTo(1);
+    assertThat(writer.getTotalEvents()).isEqualTo(3);
+  }
+
+  @Test
+  public void countsAllEventsOfABatchAsFailedIfTheBatchCannotBeWritten() throws Exception {
+    writer = new JdbcAsyncWriter(sqlHandler, cache, 10, stats);
+    when(sqlHandler.writeBatch(any(), any(), anyInt()))
+        .thenThrow(new SQLException("test exception"));
+    List<AsyncEvent> events = new ArrayList<>();
+    events.add(createMockEvent());
+    events.add(createMockEvent());
+
+    writer.processEvents(events);
+
+    assertThat(writer.getSuccessfulEvents()).isZero();
+    assertThat(writer.getFailedEvents()).isEqualTo(2);
+    assertThat(stats.getBatchesWritten()).isEqualTo(1);
+  }
+
   private AsyncEvent createMockEvent(Operation op) {
     AsyncEvent event = mock(AsyncEvent.class);
     when(event.getOperation()).thenReturn(op);
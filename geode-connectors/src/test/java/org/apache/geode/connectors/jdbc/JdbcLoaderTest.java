@@ -14,19 +14,29 @@
  */
 package org.apache.geode.connectors.jdbc;
 
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import org.apache.geode.cache.LoaderHelper;
+import org.apache.geode.cache.Region;
 import org.apache.geode.connectors.jdbc.internal.SqlHandler;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.InternalRegion;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.WritablePdxInstance;
 import org.apache.geode.test.fake.Fakes;
 
 public class JdbcLoaderTest {
@@ -54,4 +64,42 @@ public class JdbcLoaderTest {
 
     verify(sqlHandler, times(1)).read(any(), any());
   }
+
+  @Test
+  public void loadAllReadsAllKeysFromSqlHandler() throws Exception {
+    @SuppressWarnings("unchecked")
+    Region<Object, Object> region = mock(InternalRegion.class);
+    List<Object> keys = Arrays.asList("key1", "key2");
+
+    loader.loadAll(region, keys, null);
+
+    verify(sqlHandler, times(1)).readAll(eq(region), eq(keys),
+        eq(JdbcLoader.BULK_LOAD_CHUNK_SIZE));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void concurrentLoadsOfTheSameKeyShareOneRead() throws Exception {
+    when(loaderHelper.getKey()).thenReturn("key");
+    LoaderHelper<Object, Object> otherLoaderHelper = mock(LoaderHelper.class);
+    when(otherLoaderHelper.getRegion()).thenReturn(mock(InternalRegion.class));
+    when(otherLoaderHelper.getKey()).thenReturn("key");
+    PdxInstance value = mock(PdxInstance.class);
+    WritablePdxInstance copy = mock(WritablePdxInstance.class);
+    when(value.createWriter()).thenReturn(copy);
+    AtomicReference<Object> otherResult = new AtomicReference<>();
+    Thread otherLoad = new Thread(() -> otherResult.set(loader.load(otherLoaderHelper)));
+    when(sqlHandler.read(any(), any())).thenAnswer(invocation -> {
+      otherLoad.start();
+      await().until(() -> otherLoad.getState() == Thread.State.WAITING);
+      return value;
+    });
+
+    Object result = loader.load(loaderHelper);
+    otherLoad.join();
+
+    assertThat(result).isSameAs(value);
+    assertThat(otherResult.get()).isSameAs(copy);
+    verify(sqlHandler, times(1)).read(any(), any());
+  }
 }
@@ -19,11 +19,14 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.JDBCType;
 import java.sql.PreparedStatement;
@@ -33,6 +36,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.sql.DataSource;
@@ -42,11 +47,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 
 import org.apache.geode.InternalGemFireException;
 import org.apache.geode.cache.Operation;
 import org.apache.geode.cache.Region;
 import org.apache.geode.connectors.jdbc.JdbcConnectorException;
+import org.apache.geode.connectors.jdbc.internal.SqlHandler.BatchedWrite;
 import org.apache.geode.connectors.jdbc.internal.SqlHandler.DataSourceFactory;
 import org.apache.geode.connectors.jdbc.internal.configuration.FieldMapping;
 import org.apache.geode.connectors.jdbc.internal.configuration.RegionMapping;
@@ -644,6 +651,37 @@ public class SqlHandlerTest {
     verify(updateStatement).close();
   }
 
+  @Test
+  public void readAllReadsTheKeysInChunksAndMapsKeysWithoutRowsToNull() throws Exception {
+    setupEmptyResultSet();
+    FieldMapping keyFieldMapping = mock(FieldMapping.class);
+    when(keyFieldMapping.getJdbcName()).thenReturn(KEY_COLUMN);
+    when(keyFieldMapping.getPdxName()).thenReturn("keyField");
+    when(regionMapping.getFieldMappings()).thenReturn(Arrays.asList(keyFieldMapping));
+    createSqlHandler();
+
+    Map<Object, PdxInstance> result =
+        handler.readAll(region, Arrays.asList("key1", "key2", "key3"), 2);
+
+    assertThat(result).containsOnlyKeys("key1", "key2", "key3");
+    assertThat(result.values()).containsOnlyNulls();
+    verify(connection, times(2)).prepareStatement(any());
+    verify(statement, times(2)).executeQuery();
+    verify(statement).setObject(1, "key1");
+    verify(statement).setObject(2, "key2");
+    verify(statement).setObject(1, "key3");
+  }
+
+  @Test
+  public void readAllLeavesOutTheKeysOfATableWithACompositeKey() throws Exception {
+    when(tableMetaDataView.getKeyColumnNames()).thenReturn(Arrays.asList("fieldOne", "fieldTwo"));
+
+    Map<Object, PdxInstance> result = handler.readAll(region, Arrays.asList("key1", "key2"), 10);
+
+    assertThat(result).isEmpty();
+    verify(statement, times(0)).executeQuery();
+  }
+
   private void setupEmptyResultSet() throws SQLException {
     ResultSet result = mock(ResultSet.class);
     when(result.next()).thenReturn(false);
@@ -1039,4 +1077,133 @@ public class SqlHandlerTest {
     assertThatThrownBy(() -> handler.getConnection())
         .isInstanceOf(SQLException.class).hasMessage("test exception");
   }
+
+  @Test
+  public void writeBatchSendsConsecutiveWritesOfTheSameStatementInOneBatch() throws Exception {
+    when(statement.executeBatch()).thenReturn(new int[] {1, 1});
+    when(value.getFieldNames()).thenReturn(Collections.emptyList());
+    List<BatchedWrite<Object>> writes = Arrays.asList(
+        new BatchedWrite<>(Operation.CREATE, "key1", value),
+        new BatchedWrite<>(Operation.CREATE, "key2", value));
+
+    Map<Integer, Exception> failures = handler.writeBatch(region, writes, 10);
+
+    assertThat(failures).isEmpty();
+    verify(connection, times(1)).prepareStatement(any());
+    verify(statement).setObject(1, "key1");
+    verify(statement).setObject(1, "key2");
+    verify(statement, times(2)).addBatch();
+    verify(statement, times(1)).executeBatch();
+    verify(statement, times(0)).executeUpdate();
+    verify(statement).close();
+  }
+
+  @Test
+  public void writeBatchCommitsEachBatchInItsOwnTransaction() throws Exception {
+    when(connection.getAutoCommit()).thenReturn(true);
+    when(statement.executeBatch()).thenReturn(new int[] {1, 1}).thenReturn(new int[] {1});
+    List<BatchedWrite<Object>> writes = Arrays.asList(
+        new BatchedWrite<>(Operation.DESTROY, "key1", null),
+        new BatchedWrite<>(Operation.DESTROY, "key2", null),
+        new BatchedWrite<>(Operation.DESTROY, "key3", null));
+
+    Map<Integer, Exception> failures = handler.writeBatch(region, writes, 2);
+
+    assertThat(failures).isEmpty();
+    InOrder inOrder = inOrder(connection, statement);
+    for (int i = 0; i < 2; i++) {
+      inOrder.verify(connection).setAutoCommit(false);
+      inOrder.verify(statement).executeBatch();
+      inOrder.verify(connection).commit();
+      inOrder.verify(connection).setAutoCommit(true);
+    }
+    verify(connection, never()).rollback();
+  }
+
+  @Test
+  public void writeBatchSplitsBatchesAtTheMaximumBatchSize() throws Exception {
+    when(statement.executeBatch()).thenReturn(new int[] {1, 1}).thenReturn(new int[] {1});
+    List<BatchedWrite<Object>> writes = Arrays.asList(
+        new BatchedWrite<>(Operation.DESTROY, "key1", null),
+        new BatchedWrite<>(Operation.DESTROY, "key2", null),
+        new BatchedWrite<>(Operation.DESTROY, "key3", null));
+
+    Map<Integer, Exception> failures = handler.writeBatch(region, writes, 2);
+
+    assertThat(failures).isEmpty();
+    verify(connection, times(1)).prepareStatement(any());
+    verify(statement, times(2)).executeBatch();
+  }
+
+  @Test
+  public void writeBatchRetriesUpdatesThatChangedNoRowAsInserts() throws Exception {
+    when(statement.executeBatch()).thenReturn(new int[] {1, 0});
+    PreparedStatement insertStatement = mock(PreparedStatement.class);
+    when(insertStatement.executeUpdate()).thenReturn(1);
+    when(connection.prepareStatement(any())).thenReturn(statement).thenReturn(insertStatement);
+    when(value.getFieldNames()).thenReturn(Collections.emptyList());
+    List<BatchedWrite<Object>> writes = Arrays.asList(
+        new BatchedWrite<>(Operation.UPDATE, "key1", value),
+        new BatchedWrite<>(Operation.UPDATE, "key2", value));
+
+    Map<Integer, Exception> failures = handler.writeBatch(region, writes, 10);
+
+    assertThat(failures).isEmpty();
+    verify(statement, times(1)).executeUpdate();
+    verify(insertStatement).setObject(1, "key2");
+    verify(insertStatement, times(1)).executeUpdate();
+    verify(statement).close();
+    verify(insertStatement).close();
+  }
+
+  @Test
+  public void writeBatchWritesRepeatedKeysInSeparateBatchesInEventOrder() throws Exception {
+    when(statement.executeBatch()).thenReturn(new int[] {0}).thenReturn(new int[] {1});
+    PreparedStatement insertStatement = mock(PreparedStatement.class);
+    when(insertStatement.executeUpdate()).thenReturn(1);
+    when(connection.prepareStatement(any())).thenReturn(statement).thenReturn(insertStatement);
+    when(value.getFieldNames()).thenReturn(Collections.emptyList());
+    List<BatchedWrite<Object>> writes = Arrays.asList(
+        new BatchedWrite<>(Operation.UPDATE, "key1", value),
+        new BatchedWrite<>(Operation.UPDATE, "key1", value));
+
+    Map<Integer, Exception> failures = handler.writeBatch(region, writes, 10);
+
+    assertThat(failures).isEmpty();
+    InOrder inOrder = inOrder(statement, insertStatement);
+    inOrder.verify(statement).executeBatch();
+    inOrder.verify(statement).executeUpdate();
+    inOrder.verify(insertStatement).executeUpdate();
+    inOrder.verify(statement).executeBatch();
+    verify(statement, times(2)).addBatch();
+    verify(insertStatement, times(1)).executeUpdate();
+  }
+
+  @Test
+  public void writeBatchRollsBackAFailedBatchAndWritesEveryRowAgain() throws Exception {
+    when(connection.getAutoCommit()).thenReturn(true);
+    SQLException failure = new SQLException("test exception");
+    // the count of the first row must not be trusted, since the failed batch is rolled back
+    when(statement.executeBatch())
+        .thenThrow(new BatchUpdateException(new int[] {1}, failure));
+    when(statement.executeUpdate()).thenReturn(1).thenThrow(failure);
+    List<BatchedWrite<Object>> writes = Arrays.asList(
+        new BatchedWrite<>(Operation.DESTROY, "key1", null),
+        new BatchedWrite<>(Operation.DESTROY, "key2", null),
+        new BatchedWrite<>(Operation.CREATE, "key3", null));
+
+    Map<Integer, Exception> failures = handler.writeBatch(region, writes, 10);
+
+    assertThat(failures).containsOnlyKeys(1, 2);
+    assertThat(failures.get(1)).isSameAs(failure);
+    assertThat(failures.get(2)).isInstanceOf(IllegalArgumentException.class);
+    InOrder inOrder = inOrder(connection, statement);
+    inOrder.verify(connection).setAutoCommit(false);
+    inOrder.verify(statement).executeBatch();
+    inOrder.verify(connection).rollback();
+    inOrder.verify(connection).setAutoCommit(true);
+    inOrder.verify(statement, times(2)).executeUpdate();
+    verify(connection, never()).commit();
+    verify(statement).clearBatch();
+  }
 }
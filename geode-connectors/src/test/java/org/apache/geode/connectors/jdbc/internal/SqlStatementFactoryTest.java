@@ -61,6 +61,17 @@ public class SqlStatementFactoryTest {
     assertThat(statement).isEqualTo(expectedStatement);
   }
 
+  @Test
+  public void getSelectInQueryString() throws Exception {
+    String expectedStatement = String.format("SELECT * FROM %s WHERE %s IN (?,?,?)",
+        QUOTED_TABLE_PATH, quoted(KEY_COLUMN_1_NAME));
+
+    String statement =
+        factory.createSelectInQueryString(QUOTED_TABLE_PATH, KEY_COLUMN_1_NAME, 3);
+
+    assertThat(statement).isEqualTo(expectedStatement);
+  }
+
   @Test
   public void getDestroySqlString() throws Exception {
     String expectedStatement =
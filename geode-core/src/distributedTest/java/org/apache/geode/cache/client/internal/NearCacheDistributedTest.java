@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.test.dunit.rules.ClientVM;
+import org.apache.geode.test.dunit.rules.ClusterStartupRule;
+import org.apache.geode.test.dunit.rules.MemberVM;
+import org.apache.geode.test.junit.categories.ClientSubscriptionTest;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+@Category({ClientSubscriptionTest.class})
+public class NearCacheDistributedTest implements Serializable {
+
+  private static final String REGION_NAME = "region";
+
+  @Rule
+  public ClusterStartupRule cluster = new ClusterStartupRule();
+
+  private MemberVM server;
+
+  private ClientVM client;
+
+  @Before
+  public void setUp() throws Exception {
+    server = cluster.startServerVM(0, s -> s.withRegion(RegionShortcut.REPLICATE, REGION_NAME));
+    int serverPort = server.getPort();
+    // at most one key keeps its invalidation interest
+    client = cluster.startClientVM(1, c -> {
+      System.setProperty(GeodeGlossary.GEMFIRE_PREFIX + "NearCache.ENABLED", "true");
+      System.setProperty(GeodeGlossary.GEMFIRE_PREFIX + "NearCache.MAX_KEYS", "1");
+      c.withPoolSubscription(true).withServerConnection(serverPort);
+    });
+    server.invoke(() -> {
+      Region<String, String> region = ClusterStartupRule.getCache().getRegion(REGION_NAME);
+      region.put("a", "a1");
+      region.put("b", "b1");
+    });
+    client.invoke(() -> ClusterStartupRule.getClientCache()
+        .createClientRegionFactory(ClientRegionShortcut.CACHING_PROXY).create(REGION_NAME));
+  }
+
+  @Test
+  public void keyWhoseInterestWasDroppedIsFetchedFromTheServerAgain() {
+    client.invoke(() -> {
+      Region<String, String> region = getClientRegion();
+      assertThat(region.get("a")).isEqualTo("a1");
+      assertThat(region.get("b")).isEqualTo("b1");
+      // loading b dropped the interest in a
+      await().untilAsserted(() -> assertThat(region.containsKey("a")).isFalse());
+    });
+
+    server.invoke(() -> ClusterStartupRule.getCache().getRegion(REGION_NAME).put("a", "a2"));
+
+    client.invoke(() -> assertThat(getClientRegion().get("a")).isEqualTo("a2"));
+  }
+
+  @Test
+  public void keyWithInterestIsInvalidatedWhenItChangesOnTheServer() {
+    client.invoke(() -> assertThat(getClientRegion().get("a")).isEqualTo("a1"));
+
+    server.invoke(() -> ClusterStartupRule.getCache().getRegion(REGION_NAME).put("a", "a2"));
+
+    client.invoke(() -> await()
+        .untilAsserted(() -> assertThat(getClientRegion().get("a")).isEqualTo("a2")));
+  }
+
+  private static Region<String, String> getClientRegion() {
+    return ClusterStartupRule.getClientCache().getRegion(REGION_NAME);
+  }
+}
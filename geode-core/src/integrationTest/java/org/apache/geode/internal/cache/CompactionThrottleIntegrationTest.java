@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.cache.RegionShortcut.LOCAL_PERSISTENT;
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.DiskStoreFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * Verifies that a rate limited compaction of several oplogs at once does not hold the locks of
+ * the disk store while it waits for its I/O budget, and that it copies every live entry forward.
+ */
+public class CompactionThrottleIntegrationTest {
+
+  private static final String CONCURRENT_OPLOG_COMPACTIONS =
+      GeodeGlossary.GEMFIRE_PREFIX + "CONCURRENT_OPLOG_COMPACTIONS";
+  private static final String COMPACTION_MAX_BYTES_PER_SECOND =
+      GeodeGlossary.GEMFIRE_PREFIX + "COMPACTION_MAX_BYTES_PER_SECOND";
+
+  private static final int ENTRIES = 200;
+  private static final int VALUE_SIZE = 1000;
+
+  private final Properties config = new Properties();
+  private Cache cache;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /**
+   * The properties are read when DiskStoreImpl is initialized, which is before the first test
+   * since every integration test class runs in its own JVM.
+   */
+  @BeforeClass
+  public static void setUpClass() {
+    System.setProperty(CONCURRENT_OPLOG_COMPACTIONS, "4");
+    System.setProperty(COMPACTION_MAX_BYTES_PER_SECOND, "50000");
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    System.clearProperty(CONCURRENT_OPLOG_COMPACTIONS);
+    System.clearProperty(COMPACTION_MAX_BYTES_PER_SECOND);
+  }
+
+  @Before
+  public void setUp() {
+    config.setProperty(MCAST_PORT, "0");
+    config.setProperty(LOCATORS, "");
+    DiskStoreImpl.SET_IGNORE_PREALLOCATE = true;
+  }
+
+  @After
+  public void tearDown() {
+    try {
+      if (cache != null) {
+        cache.close();
+      }
+    } finally {
+      DiskStoreImpl.SET_IGNORE_PREALLOCATE = false;
+    }
+  }
+
+  @Test
+  public void throttledCompactionDoesNotBlockOperationsThatNeedTheCompactorLock()
+      throws Exception {
+    createCache();
+    Region<Integer, byte[]> data = createRegion("data");
+    Region<Integer, byte[]> other = createRegion("other");
+    for (int i = 0; i < ENTRIES; i++) {
+      data.put(i, createValue(i));
+    }
+    for (int i = 0; i < ENTRIES; i += 2) {
+      data.destroy(i);
+    }
+    other.put(0, createValue(0));
+    DiskStoreImpl diskStore = ((LocalRegion) data).getDiskStore();
+    DiskStoreStats stats = diskStore.getStats();
+
+    CompletableFuture<Boolean> compaction =
+        CompletableFuture.supplyAsync(diskStore::forceCompaction);
+    await().until(() -> stats.getCompactThrottleTime() > 0);
+
+    // clearing a region needs the compactor write lock of the disk store
+    other.clear();
+    long throttleTimeAfterClear = stats.getCompactThrottleTime();
+
+    assertThat(compaction.get()).isTrue();
+    assertThat(stats.getCompactThrottleTime()).isGreaterThan(throttleTimeAfterClear);
+    // every other entry of the compacted oplogs was destroyed
+    assertThat(stats.getCompactGarbagePercent()).isBetween(1, 100);
+    assertThat(other).isEmpty();
+    verifyData(data);
+
+    cache.close();
+    createCache();
+    verifyData(createRegion("data"));
+  }
+
+  private void createCache() {
+    cache = new CacheFactory(config).create();
+    DiskStoreFactory diskStoreFactory = cache.createDiskStoreFactory();
+    diskStoreFactory.setAutoCompact(false);
+    diskStoreFactory.setAllowForceCompaction(true);
+    diskStoreFactory.setCompactionThreshold(100);
+    diskStoreFactory.setDiskDirs(new File[] {getDiskDir()});
+    ((DiskStoreFactoryImpl) diskStoreFactory).setMaxOplogSizeInBytes(20 * VALUE_SIZE);
+    diskStoreFactory.create("diskStore");
+  }
+
+  private File getDiskDir() {
+    File diskDir = new File(temporaryFolder.getRoot(), "diskStore");
+    if (!diskDir.exists()) {
+      assertThat(diskDir.mkdir()).isTrue();
+    }
+    return diskDir;
+  }
+
+  private Region<Integer, byte[]> createRegion(String name) {
+    return cache.<Integer, byte[]>createRegionFactory(LOCAL_PERSISTENT)
+        .setDiskStoreName("diskStore").setDiskSynchronous(true).create(name);
+  }
+
+  private void verifyData(Region<Integer, byte[]> data) {
+    assertThat(data).hasSize(ENTRIES / 2);
+    for (int i = 0; i < ENTRIES; i++) {
+      if (i % 2 == 0) {
+        assertThat(data.get(i)).isNull();
+      } else {
+        assertThat(data.get(i)).isEqualTo(createValue(i));
+      }
+    }
+  }
+
+  private static byte[] createValue(int key) {
+    byte[] value = new byte[VALUE_SIZE];
+    Arrays.fill(value, (byte) key);
+    return value;
+  }
+}
@@ -562,15 +562,13 @@ public class HARegionQueueIntegrationTest {
       boolean puttingGIIDataInQueue)
       throws InterruptedException, IOException, ClassNotFoundException {
     StoppableReentrantReadWriteLock giiLock = mock(StoppableReentrantReadWriteLock.class);
-    StoppableReentrantReadWriteLock rwLock =
-        new StoppableReentrantReadWriteLock(cache.getCancelCriterion());
 
     when(giiLock.writeLock()).thenReturn(mock(StoppableWriteLock.class));
     when(giiLock.readLock()).thenReturn(mock(StoppableReadLock.class));
 
     return new HARegionQueue("haRegion+" + index, haRegion, cache, haContainer,
-        null, (byte) 1, true, mock(HARegionQueueStats.class), giiLock, rwLock,
-        mock(CancelCriterion.class), puttingGIIDataInQueue, mock(StatisticsClock.class));
+        null, (byte) 1, true, mock(HARegionQueueStats.class), giiLock, mock(CancelCriterion.class),
+        puttingGIIDataInQueue, mock(StatisticsClock.class));
   }
 
   private HARegionQueue createHARegionQueue(Map haContainer, int index)
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan.parallel;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.asyncqueue.AsyncEventQueue;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.offheap.MemoryAllocator;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * Verifies that a parallel queue stored off-heap frees the off-heap memory of its events once
+ * they are dispatched.
+ */
+public class OffHeapParallelGatewaySenderQueueIntegrationTest {
+
+  private static final String OFF_HEAP_QUEUE =
+      GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.OFF_HEAP_QUEUE";
+
+  private InternalCache cache;
+
+  /**
+   * The property is read when ParallelGatewaySenderQueue is initialized, which is before the first
+   * test since every integration test class runs in its own JVM.
+   */
+  @BeforeClass
+  public static void setUpClass() {
+    System.setProperty(OFF_HEAP_QUEUE, "true");
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    System.clearProperty(OFF_HEAP_QUEUE);
+  }
+
+  @Before
+  public void setUp() {
+    Properties config = new Properties();
+    config.setProperty(MCAST_PORT, "0");
+    config.setProperty(LOCATORS, "");
+    config.setProperty(OFF_HEAP_MEMORY_SIZE, "10m");
+    cache = (InternalCache) new CacheFactory(config).create();
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void dispatchedEventsReleaseTheirOffHeapMemory() {
+    AsyncEventQueue queue = cache.createAsyncEventQueueFactory().setParallel(true)
+        .create("queue", events -> true);
+    Region<Integer, String> region = cache.<Integer, String>createRegionFactory(
+        RegionShortcut.PARTITION).addAsyncEventQueueId(queue.getId()).create("region");
+    MemoryAllocator offHeapStore = cache.getOffHeapStore();
+
+    for (int i = 0; i < 100; i++) {
+      region.put(i, "value" + i);
+    }
+
+    await().untilAsserted(() -> assertThat(queue.size()).isZero());
+    // the data region is on the heap, so only the queued events used off-heap memory
+    await().untilAsserted(() -> assertThat(offHeapStore.getUsedMemory()).isZero());
+  }
+}
@@ -178,4 +178,30 @@ public class JSONFormatterBasicJUnitTest {
     assertThat(pdxInstance.hasField(nonExistentField)).isFalse();
     assertThat(deserializedJsonObjectString).isEqualTo(jsonObjectString.getBytes());
   }
+
+  @Test
+  @Parameters({"true", "false"})
+  public void nestedObjectAsStringRoundTrips(String usePdxInstanceSortedHelper) {
+    System.setProperty(JSONFormatter.SORT_JSON_FIELD_NAMES_PROPERTY, usePdxInstanceSortedHelper);
+    String jsonObjectString =
+        "{\"a\":1,\"b\":\"x\",\"c\":{\"d\":[1,300,\"y\",{\"e\":null}],\"f\":true},\"g\":2.5}";
+
+    PdxInstance pdxInstance = JSONFormatter.fromJSON(jsonObjectString);
+    String deserializedJsonObjectString = JSONFormatter.toJSON(pdxInstance);
+
+    assertThat(pdxInstance.getField("c")).isInstanceOf(PdxInstance.class);
+    assertThat(deserializedJsonObjectString).isEqualTo(jsonObjectString);
+  }
+
+  @Test
+  public void documentsWithSameFieldsAreEqualAndShareTheirType() {
+    String jsonObjectString = "{\"a\":1,\"b\":{\"c\":[\"x\",2]}}";
+
+    PdxInstance first = JSONFormatter.fromJSON(jsonObjectString);
+    PdxInstance second = JSONFormatter.fromJSON(jsonObjectString);
+
+    assertThat(second).isEqualTo(first);
+    assertThat(((PdxInstance) second.getField("b")).getField("c"))
+        .isEqualTo(((PdxInstance) first.getField("b")).getField("c"));
+  }
 }
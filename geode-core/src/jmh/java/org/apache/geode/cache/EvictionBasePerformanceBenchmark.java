@@ -43,12 +43,16 @@ public class EvictionBasePerformanceBenchmark {
   @Param({"true", "false"})
   public String useAsync;
 
+  @Param({"0", "5"})
+  public String sampleSize;
+
   Cache cache;
   Region<String, String> region;
 
   @Setup(Level.Trial)
   public void setup() {
     System.setProperty("geode." + SystemPropertyHelper.EVICTION_SCAN_ASYNC, useAsync);
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SAMPLE_SIZE, sampleSize);
     cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
     region = createRegion(cache, MAX_ENTRIES);
   }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+
+/**
+ * Measures the hit rate of the eviction lists for a trace of skewed reads of a working set that
+ * fits the region, interrupted by scans of keys that are read once. A miss loads the value with a
+ * put, and the hits and misses are reported as secondary results.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class EvictionHitRateBenchmark {
+  private static final int MAX_ENTRIES = 10_000;
+
+  private static final int WORKING_SET = MAX_ENTRIES / 2;
+
+  private static final int TRACE_PERIOD = 100_000;
+
+  private static final int SCAN_LENGTH = 2 * MAX_ENTRIES;
+
+  @Param({"async", "sync", "sampled", "tinylfu"})
+  public String evictionList;
+
+  Cache cache;
+  Region<Integer, String> region;
+  Random random = new Random(0);
+  int operation;
+  int nextScanKey = WORKING_SET;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SCAN_ASYNC,
+        Boolean.toString(evictionList.equals("async")));
+    if (evictionList.equals("sampled")) {
+      System.setProperty("geode." + SystemPropertyHelper.EVICTION_SAMPLE_SIZE, "5");
+    }
+    if (evictionList.equals("tinylfu")) {
+      System.setProperty("geode." + SystemPropertyHelper.EVICTION_TINY_LFU, "true");
+    }
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    region = cache.<Integer, String>createRegionFactory(RegionShortcut.LOCAL)
+        .setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(MAX_ENTRIES, EvictionAction.LOCAL_DESTROY))
+        .create("testRegion");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class HitCounters {
+    public long hits;
+    public long misses;
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String get(HitCounters counters) {
+    Integer key = nextKey();
+    String value = region.get(key);
+    if (value == null) {
+      counters.misses++;
+      region.put(key, "value");
+    } else {
+      counters.hits++;
+    }
+    return value;
+  }
+
+  private Integer nextKey() {
+    if (operation++ % TRACE_PERIOD < SCAN_LENGTH) {
+      return nextScanKey++;
+    }
+    double skewed = random.nextDouble();
+    return (int) (WORKING_SET * skewed * skewed);
+  }
+}
@@ -47,6 +47,9 @@ public class EvictionWithPartiallyMarkedListsBenchmark {
   @Param({"true", "false"})
   public String useAsync;
 
+  @Param({"0", "5"})
+  public String sampleSize;
+
   @Param({"95", "90", "75", "50", "25", "10"})
   public int markedPercentage;
 
@@ -66,6 +69,7 @@ public class EvictionWithPartiallyMarkedListsBenchmark {
   @Setup(Level.Trial)
   public void setup() {
     System.setProperty("geode." + SystemPropertyHelper.EVICTION_SCAN_ASYNC, useAsync);
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SAMPLE_SIZE, sampleSize);
     cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
     region = createRegion(cache, maxEntries);
     for (int i = 0; i < maxEntries; i++) {
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark compares the throughput and the compressed size of the DictionaryCompressor and
+ * the SnappyCompressor on small JSON values, which the DictionaryCompressor is meant for. The
+ * compressedBytes and uncompressedBytes counters of the compress benchmark give the ratio.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Measurement(iterations = 10)
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DictionaryCompressorBenchmark {
+  private static final int VALUES = 1024;
+
+  @Param({"dictionary", "snappy"})
+  public String codec;
+
+  private Compressor compressor;
+  private byte[][] values;
+  private byte[][] compressedValues;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    compressor = codec.equals("snappy") ? new SnappyCompressor() : new DictionaryCompressor();
+    Random random = new Random(0);
+    values = new byte[VALUES][];
+    for (int i = 0; i < VALUES; i++) {
+      values[i] = json(i, random);
+    }
+    // compress enough values for the DictionaryCompressor to train its dictionary
+    for (int i = 0; i < DictionaryCompressor.SAMPLES * DictionaryCompressor.SAMPLE_INTERVAL; i++) {
+      compressor.compress(values[i % VALUES]);
+    }
+    compressedValues = new byte[VALUES][];
+    for (int i = 0; i < VALUES; i++) {
+      compressedValues[i] = compressor.compress(values[i]);
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Sizes {
+    public long compressedBytes;
+    public long uncompressedBytes;
+    int index;
+  }
+
+  @Benchmark
+  public byte[] compress(Sizes sizes) {
+    byte[] value = values[sizes.index++ & (VALUES - 1)];
+    byte[] compressed = compressor.compress(value);
+    sizes.uncompressedBytes += value.length;
+    sizes.compressedBytes += compressed.length;
+    return compressed;
+  }
+
+  @Benchmark
+  public byte[] decompress(Sizes sizes) {
+    return compressor.decompress(compressedValues[sizes.index++ & (VALUES - 1)]);
+  }
+
+  private static byte[] json(int id, Random random) {
+    return ("{\"id\":" + id + ",\"name\":\"customer" + random.nextInt(100000)
+        + "\",\"address\":{\"street\":\"" + random.nextInt(1000) + " main street\","
+        + "\"city\":\"springfield\",\"zip\":\"" + random.nextInt(100000) + "\"},"
+        + "\"status\":\"" + (random.nextBoolean() ? "active" : "inactive") + "\",\"balance\":"
+        + random.nextInt(1000000) + "}").getBytes(UTF_8);
+  }
+}
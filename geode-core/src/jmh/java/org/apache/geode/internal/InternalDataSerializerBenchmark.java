@@ -17,6 +17,7 @@
 package org.apache.geode.internal;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
@@ -39,7 +40,8 @@ import org.apache.geode.internal.serialization.KnownVersion;
 
 
 /**
- * Test throughput of InternalDataSerializer.readString
+ * Test throughput of InternalDataSerializer.readString and the allocation rate of serializing
+ * values with and without pooled buffers. Run with "-prof gc" to see the allocation rates.
  */
 
 @State(Scope.Thread)
@@ -48,6 +50,7 @@ public class InternalDataSerializerBenchmark {
 
   private final ByteArrayDataInput dataInput = new ByteArrayDataInput();
   private byte[] serializedBytes;
+  private final ArrayList<String> value = new ArrayList<>();
 
   @Setup(Level.Trial)
   public void setup() throws IOException {
@@ -59,6 +62,9 @@ public class InternalDataSerializerBenchmark {
           "expected first byte to be " + DSCODE.STRING_BYTES.toByte() + " but it was " + bytes[0]);
     }
     serializedBytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+    for (int i = 0; i < 10; i++) {
+      value.add("value-" + i);
+    }
   }
 
   @Benchmark
@@ -72,4 +78,28 @@ public class InternalDataSerializerBenchmark {
     return result;
   }
 
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] serializeWithNewBufferBenchmark() throws IOException {
+    try (HeapDataOutputStream hdos = new HeapDataOutputStream(KnownVersion.CURRENT)) {
+      DataSerializer.writeObject(value, hdos);
+      return hdos.toByteArray();
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] serializeWithPooledBufferBenchmark() throws IOException {
+    try (HeapDataOutputStream hdos = new PooledHeapDataOutputStream(KnownVersion.CURRENT)) {
+      DataSerializer.writeObject(value, hdos);
+      return hdos.toByteArray();
+    }
+  }
+
 }
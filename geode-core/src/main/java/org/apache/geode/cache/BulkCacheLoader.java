@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.geode.annotations.Experimental;
+
+/**
+ * A <code>CacheLoader</code> that can also load the values of many keys at once, for example with
+ * one database query.
+ * <p>
+ * When {@link Region#getAll(Collection, Object)} is called on a member that would load some of the
+ * keys with its local loader, those keys are first passed to {@link #loadAll loadAll}. The values
+ * it returns are then used by the loads of the individual keys in place of calls to
+ * {@link #load load}, so the values are added to the region exactly as if they had been loaded one
+ * at a time. Keys that <code>loadAll</code> leaves out are loaded with <code>load</code>.
+ * <p>
+ * Experimental: The bulk cache loader API is a new addition to Geode and may change.
+ *
+ * @since Geode 1.15
+ */
+@Experimental("The bulk cache loader API is a new addition to Geode and may change")
+public interface BulkCacheLoader<K, V> extends CacheLoader<K, V> {
+
+  /**
+   * Loads the values of the given keys.
+   *
+   * @param region the region the keys are loaded for
+   * @param keys the keys to load
+   * @param aCallbackArgument the callback argument passed to <code>getAll</code>
+   * @return the loaded values by key. A key mapped to <code>null</code> has no value. A key that is
+   *         not in the map is loaded with {@link #load load}.
+   * @throws CacheLoaderException if an error occurs. The keys are then loaded with
+   *         {@link #load load}.
+   */
+  Map<K, V> loadAll(Region<K, V> region, Collection<K> keys, Object aCallbackArgument)
+      throws CacheLoaderException;
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.asyncqueue;
+
+import java.util.List;
+
+import org.apache.geode.annotations.Experimental;
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.Region;
+
+/**
+ * A batch of <code>AsyncEvent</code>s delivered to a <code>BulkAsyncEventListener</code>. The
+ * fields of the events can be read by index, so that a listener writing the batch to a sink can
+ * read one field of all events at a time. Values are only deserialized when
+ * {@link #getDeserializedValue(int)} is called.
+ * <p>
+ * The batch is a view of the queued events; it does not copy their fields into columns. Reading a
+ * field by index reads it from the event at that index.
+ * <p>
+ * Experimental: The bulk async event listener API is a new addition to Geode and may change.
+ *
+ * @since Geode 1.15
+ */
+@Experimental("The bulk async event listener API is a new addition to Geode and may change")
+public interface AsyncEventBatch {
+
+  /**
+   * Returns the events of this batch in the order they were queued in.
+   */
+  List<AsyncEvent> getEvents();
+
+  /**
+   * Returns the number of events in this batch.
+   */
+  default int size() {
+    return getEvents().size();
+  }
+
+  /**
+   * Returns the region of the event at the given index.
+   */
+  default Region getRegion(int index) {
+    return getEvents().get(index).getRegion();
+  }
+
+  /**
+   * Returns the operation of the event at the given index.
+   */
+  default Operation getOperation(int index) {
+    return getEvents().get(index).getOperation();
+  }
+
+  /**
+   * Returns the key of the event at the given index.
+   */
+  default Object getKey(int index) {
+    return getEvents().get(index).getKey();
+  }
+
+  /**
+   * Returns the serialized value of the event at the given index without deserializing it.
+   */
+  default byte[] getSerializedValue(int index) {
+    return getEvents().get(index).getSerializedValue();
+  }
+
+  /**
+   * Returns the deserialized value of the event at the given index.
+   */
+  default Object getDeserializedValue(int index) {
+    return getEvents().get(index).getDeserializedValue();
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.asyncqueue;
+
+import java.util.List;
+
+import org.apache.geode.annotations.Experimental;
+import org.apache.geode.cache.asyncqueue.internal.AsyncEventBatchImpl;
+
+/**
+ * An <code>AsyncEventListener</code> that processes each batch as a whole, for example by writing
+ * it to a database in one bulk operation, and may process only part of a batch.
+ * <p>
+ * A listener that returns fewer events than the size of the batch has the processed events removed
+ * from the queue. The remaining events are delivered again at the start of the next batch, so the
+ * listener paces the queue by how many events of each batch it takes.
+ * <p>
+ * Experimental: The bulk async event listener API is a new addition to Geode and may change.
+ *
+ * @since Geode 1.15
+ */
+@Experimental("The bulk async event listener API is a new addition to Geode and may change")
+public interface BulkAsyncEventListener extends AsyncEventListener {
+
+  /**
+   * Processes a batch of events. This method will asynchronously be called when events are queued
+   * to be processed. The size of the batch will be up to batch size events where batch size is
+   * defined in the <code>AsyncEventQueueFactory</code>.
+   *
+   * @param batch The batch of events to process
+   *
+   * @return the number of events from the start of the batch that were processed
+   */
+  int processBatch(AsyncEventBatch batch);
+
+  @Override
+  default boolean processEvents(List<AsyncEvent> events) {
+    return processBatch(new AsyncEventBatchImpl(events)) == events.size();
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.asyncqueue.internal;
+
+import java.util.List;
+
+import org.apache.geode.cache.asyncqueue.AsyncEvent;
+import org.apache.geode.cache.asyncqueue.AsyncEventBatch;
+
+/**
+ * An {@link AsyncEventBatch} over the list of events peeked from a queue. The list is not copied.
+ */
+public class AsyncEventBatchImpl implements AsyncEventBatch {
+
+  private final List<AsyncEvent> events;
+
+  public AsyncEventBatchImpl(List<AsyncEvent> events) {
+    this.events = events;
+  }
+
+  @Override
+  public List<AsyncEvent> getEvents() {
+    return events;
+  }
+
+  @Override
+  public int size() {
+    return events.size();
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.geode.InternalGemFireError;
 import org.apache.geode.cache.client.ServerConnectivityException;
 import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.PooledHeapDataOutputStream;
 import org.apache.geode.internal.cache.PutAllPartialResultException;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.tier.MessageType;
@@ -88,6 +89,7 @@ public abstract class AbstractOp implements Op {
     }
     getMessage().setComms(cnx.getSocket(), cnx.getInputStream(), cnx.getOutputStream(),
         cnx.getCommBuffer(), cnx.getStats());
+    getMessage().setCompactMessageFormat(cnx.getCompactMessageFormat());
     try {
       sendMessage(cnx);
     } finally {
@@ -126,7 +128,7 @@ public abstract class AbstractOp implements Op {
         }
         userId = id;
       }
-      try (HeapDataOutputStream hdos = new HeapDataOutputStream(KnownVersion.CURRENT)) {
+      try (HeapDataOutputStream hdos = PooledHeapDataOutputStream.create(KnownVersion.CURRENT)) {
         hdos.writeLong(cnx.getConnectionID());
         hdos.writeLong(userId);
         getMessage().setSecurePart(((ConnectionImpl) cnx).encryptBytes(hdos.toByteArray()));
@@ -192,6 +194,7 @@ public abstract class AbstractOp implements Op {
     if (msg != null) {
       msg.setComms(cnx.getSocket(), cnx.getInputStream(), cnx.getOutputStream(),
           cnx.getCommBuffer(), cnx.getStats());
+      msg.setCompactMessageFormat(cnx.getCompactMessageFormat());
       if (msg instanceof ChunkedMessage) {
         try {
           return processResponse(msg, cnx);
@@ -54,9 +54,11 @@ import org.apache.geode.internal.cache.tier.ClientSideHandshake;
 import org.apache.geode.internal.cache.tier.CommunicationMode;
 import org.apache.geode.internal.cache.tier.Encryptor;
 import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
+import org.apache.geode.internal.cache.tier.sockets.CompactMessageFormat;
 import org.apache.geode.internal.cache.tier.sockets.EncryptorImpl;
 import org.apache.geode.internal.cache.tier.sockets.Handshake;
 import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+import org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat;
 import org.apache.geode.internal.security.SecurityService;
 import org.apache.geode.internal.serialization.ByteArrayDataInput;
 import org.apache.geode.internal.serialization.KnownVersion;
@@ -254,6 +256,18 @@ public class ClientSideHandshakeImpl extends Handshake implements ClientSideHand
         serverQStatus.setPdxSize(remotePdxSize);
       }
 
+      // Read whether the server accepted the compact message format
+      if (requestsCompactMessageFormat(communicationMode, false)
+          && CompactMessageFormat.isSupportedBy(member.getVersionOrdinal())) {
+        serverQStatus.setCompactMessageFormat(dis.readBoolean());
+      }
+
+      // Read whether the gateway receiver accepted compressed batches
+      if (requestsCompressedGatewayBatches(communicationMode, false)
+          && CompressedGatewayBatchFormat.isSupportedBy(conn.getWanSiteVersion())) {
+        serverQStatus.setCompressedGatewayBatches(dis.readBoolean());
+      }
+
       return serverQStatus;
     } catch (IOException ex) {
       CancelCriterion stopper = system.getCancelCriterion();
@@ -377,7 +391,14 @@ public class ClientSideHandshakeImpl extends Handshake implements ClientSideHand
       DataSerializer.writeObject(id, idOut);
 
       byte[] overrides = getOverrides();
-      for (final byte override : overrides) {
+      for (int i = 0; i < overrides.length; i++) {
+        byte override = overrides[i];
+        if (i == 0 && requestsCompactMessageFormat(communicationMode, isCallbackConnection)) {
+          override |= CompactMessageFormat.COMPACT_MESSAGE_FORMAT_OVERRIDE;
+        }
+        if (i == 0 && requestsCompressedGatewayBatches(communicationMode, isCallbackConnection)) {
+          override |= CompressedGatewayBatchFormat.COMPRESSED_BATCH_OVERRIDE;
+        }
         hdos.writeByte(override);
       }
 
@@ -400,6 +421,30 @@ public class ClientSideHandshakeImpl extends Handshake implements ClientSideHand
     return acceptanceCode;
   }
 
+  /**
+   * Returns true if the compact message format is requested for a connection. It is only requested
+   * for connections that send operations, not for subscription feeds.
+   */
+  private boolean requestsCompactMessageFormat(CommunicationMode communicationMode,
+      boolean isCallbackConnection) {
+    if (isCallbackConnection || overrideClientVersion > 0
+        || !CompactMessageFormat.isRequestedByClient()) {
+      return false;
+    }
+    return CompactMessageFormat.isSupportedBy(communicationMode.isWAN()
+        ? KnownVersion.CURRENT_ORDINAL : currentClientVersion.ordinal());
+  }
+
+  /**
+   * Returns true if compressed batches are requested for a connection. They are only requested by
+   * gateway senders.
+   */
+  private boolean requestsCompressedGatewayBatches(CommunicationMode communicationMode,
+      boolean isCallbackConnection) {
+    return communicationMode.isWAN() && !isCallbackConnection && overrideClientVersion <= 0
+        && CompressedGatewayBatchFormat.isRequestedBySender();
+  }
+
   @Override
   protected byte writeCredential(DataOutputStream dos, DataInputStream dis, String authInit,
       boolean isNotification, DistributedMember member, HeapDataOutputStream heapdos)
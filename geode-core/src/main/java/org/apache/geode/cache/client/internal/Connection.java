@@ -23,7 +23,9 @@ import java.nio.ByteBuffer;
 import org.apache.geode.InternalGemFireException;
 import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
 import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.tier.sockets.CompactMessageFormat;
 import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+import org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat;
 
 /**
  * Represents a connection from a client to a server. Instances are created, kept, and used by
@@ -81,6 +83,22 @@ public interface Connection {
 
   void setWanSiteVersion(short wanSiteVersion);
 
+  /**
+   * Returns the state of the compact message format if the server accepted it during the
+   * handshake, or null if messages on this connection use the fixed length format.
+   */
+  default CompactMessageFormat getCompactMessageFormat() {
+    return null;
+  }
+
+  /**
+   * Returns the state of the compressed gateway batch format if the gateway receiver accepted it
+   * during the handshake, or null if batches on this connection are not compressed.
+   */
+  default CompressedGatewayBatchFormat getCompressedGatewayBatchFormat() {
+    return null;
+  }
+
   int getDistributedSystemId();
 
   OutputStream getOutputStream();
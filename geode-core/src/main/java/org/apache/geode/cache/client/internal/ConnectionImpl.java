@@ -36,8 +36,10 @@ import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.distributed.internal.tcpserver.HostAndPort;
 import org.apache.geode.internal.cache.tier.ClientSideHandshake;
 import org.apache.geode.internal.cache.tier.CommunicationMode;
+import org.apache.geode.internal.cache.tier.sockets.CompactMessageFormat;
 import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
 import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+import org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat;
 import org.apache.geode.internal.net.SocketCreator;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
@@ -72,6 +74,10 @@ public class ConnectionImpl implements Connection {
   // handshake
   private short wanSiteVersion = -1;
 
+  private CompactMessageFormat compactMessageFormat;
+
+  private CompressedGatewayBatchFormat compressedGatewayBatchFormat;
+
   private final InternalDistributedSystem ds;
 
   private OutputStream out;
@@ -105,6 +111,12 @@ public class ConnectionImpl implements Connection {
     out = theSocket.getOutputStream();
     in = theSocket.getInputStream();
     status = handshake.handshakeWithServer(this, location, communicationMode);
+    if (status.isCompactMessageFormat()) {
+      compactMessageFormat = new CompactMessageFormat();
+    }
+    if (status.isCompressedGatewayBatches()) {
+      compressedGatewayBatchFormat = new CompressedGatewayBatchFormat();
+    }
     commBuffer = ServerConnection.allocateCommBuffer(socketBufferSize, theSocket);
     if (sender != null) {
       commBufferForAsyncRead = ServerConnection.allocateCommBuffer(socketBufferSize, theSocket);
@@ -302,6 +314,16 @@ public class ConnectionImpl implements Connection {
     this.wanSiteVersion = wanSiteVersion;
   }
 
+  @Override
+  public CompactMessageFormat getCompactMessageFormat() {
+    return compactMessageFormat;
+  }
+
+  @Override
+  public CompressedGatewayBatchFormat getCompressedGatewayBatchFormat() {
+    return compressedGatewayBatchFormat;
+  }
+
   @Override
   public int getDistributedSystemId() {
     return ds.getDistributionManager().getDistributedSystemId();
@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.cache.EntryNotFoundException;
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * Keeps the entries a caching client region loads from its servers coherent without subscribing
+ * to their values.
+ * <p>
+ * The keys of the values loaded by gets are batched and registered as interest that only receives
+ * invalidates, so the servers only track the keys the client cached and send it invalidations for
+ * them. Each batch is registered with {@link InterestResultPolicy#KEYS_VALUES}, which refreshes
+ * the values loaded before the registration took effect.
+ * <p>
+ * The interest in a key is unregistered again when its local entry is destroyed or evicted. At
+ * most a maximum number of keys are registered, and when more values are loaded the interest in
+ * the least recently used keys is unregistered, so the interest of the client is bounded even if
+ * its local entries are never removed. An entry whose key is not registered would no longer be
+ * invalidated, so the local entries of those keys, and of keys whose registration failed, are
+ * destroyed, and their values are fetched from the servers again the next time they are read.
+ * <p>
+ * While the pool has no primary subscription connection invalidations cannot arrive, so if a
+ * maximum staleness is configured, entries last modified longer ago than that are fetched again
+ * from the servers instead of being read locally.
+ */
+public class NearCache {
+  private static final Logger logger = LogService.getLogger();
+
+  static final boolean ENABLED =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "NearCache.ENABLED");
+
+  static final long MAX_STALENESS_MS =
+      Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "NearCache.MAX_STALENESS_MS", 0);
+
+  static final int BATCH_SIZE =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "NearCache.BATCH_SIZE", 100);
+
+  static final long BATCH_INTERVAL_MS =
+      Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "NearCache.BATCH_INTERVAL_MS", 10);
+
+  static final int MAX_KEYS =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "NearCache.MAX_KEYS", 100_000);
+
+  private final LocalRegion region;
+
+  private final ScheduledExecutorService executor;
+
+  private final BooleanSupplier subscriptionConnected;
+
+  private final long maxStaleness;
+
+  private final int batchSize;
+
+  private final long batchInterval;
+
+  private final int maxKeys;
+
+  private final Object lock = new Object();
+
+  /**
+   * The keys registered or being registered, least recently used first. GuardedBy lock
+   */
+  private final Map<Object, Boolean> registeredKeys = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** The keys to register. GuardedBy lock */
+  private final Set<Object> pendingKeys = new LinkedHashSet<>();
+
+  /** The keys to unregister. GuardedBy lock */
+  private final Set<Object> pendingRemovals = new LinkedHashSet<>();
+
+  /**
+   * The keys that were dropped to bound the registered keys, whose local entries are destroyed
+   * before their interest is unregistered. GuardedBy lock
+   */
+  private final Set<Object> pendingLocalDestroys = new LinkedHashSet<>();
+
+  /** GuardedBy lock */
+  private boolean flushScheduled;
+
+  /** Held while registering or unregistering, so that the batches reach the servers in order */
+  private final Object registrationLock = new Object();
+
+  @VisibleForTesting
+  NearCache(LocalRegion region, ScheduledExecutorService executor,
+      BooleanSupplier subscriptionConnected, long maxStaleness, int batchSize,
+      long batchInterval, int maxKeys) {
+    this.region = region;
+    this.executor = executor;
+    this.subscriptionConnected = subscriptionConnected;
+    this.maxStaleness = maxStaleness;
+    this.batchSize = batchSize;
+    this.batchInterval = batchInterval;
+    this.maxKeys = maxKeys;
+  }
+
+  /**
+   * Returns the near cache of the given client region, or null if near caching is disabled or the
+   * region does not cache values from a pool with subscriptions enabled.
+   */
+  public static NearCache create(LocalRegion region) {
+    if (!ENABLED || region.getServerProxy() == null
+        || !region.getAttributes().getDataPolicy().withStorage()
+        || region.getAttributes().getDataPolicy().withReplication()
+        || !(region.getServerProxy().getPool() instanceof PoolImpl)) {
+      return null;
+    }
+    PoolImpl pool = (PoolImpl) region.getServerProxy().getPool();
+    if (!pool.getSubscriptionEnabled()) {
+      return null;
+    }
+    return new NearCache(region, pool.getBackgroundProcessor(),
+        pool::hasPrimarySubscriptionConnection, MAX_STALENESS_MS, BATCH_SIZE, BATCH_INTERVAL_MS,
+        MAX_KEYS);
+  }
+
+  /**
+   * Registers invalidation interest in the given key, whose value was loaded from a server, unless
+   * it is already registered. If more than the maximum number of keys are registered, the local
+   * entry of the least recently used key is destroyed and its interest is unregistered. Keys are
+   * registered and unregistered in batches by the pool's background threads.
+   */
+  public void valueLoaded(Object key) {
+    boolean flushNow;
+    boolean schedule = false;
+    synchronized (lock) {
+      if (registeredKeys.get(key) != null) {
+        return;
+      }
+      registeredKeys.put(key, Boolean.TRUE);
+      // the interest of a key that is loaded again is kept, so its new entry is not destroyed
+      pendingLocalDestroys.remove(key);
+      if (!pendingRemovals.remove(key)) {
+        pendingKeys.add(key);
+      }
+      if (registeredKeys.size() > maxKeys) {
+        Iterator<Object> leastRecentlyUsed = registeredKeys.keySet().iterator();
+        Object removedKey = leastRecentlyUsed.next();
+        leastRecentlyUsed.remove();
+        removed(removedKey);
+        pendingLocalDestroys.add(removedKey);
+      }
+      flushNow = isBatchFull();
+      if (!flushNow && !flushScheduled) {
+        flushScheduled = true;
+        schedule = true;
+      }
+    }
+    requestFlush(flushNow, schedule);
+  }
+
+  /**
+   * Records that the local value of the given key was read, so that its interest is unregistered
+   * after the interest in keys that were used less recently.
+   */
+  public void valueRead(Object key) {
+    synchronized (lock) {
+      registeredKeys.get(key);
+    }
+  }
+
+  /**
+   * Unregisters the interest in the given key, whose local entry was destroyed or evicted, if it
+   * is registered.
+   */
+  public void valueRemoved(Object key) {
+    boolean flushNow;
+    boolean schedule = false;
+    synchronized (lock) {
+      if (registeredKeys.remove(key) == null) {
+        return;
+      }
+      removed(key);
+      flushNow = isBatchFull();
+      if (!flushNow && !flushScheduled) {
+        flushScheduled = true;
+        schedule = true;
+      }
+    }
+    requestFlush(flushNow, schedule);
+  }
+
+  /**
+   * Records that the given key is no longer registered. GuardedBy lock
+   */
+  private void removed(Object key) {
+    // a key that is not registered yet does not need to be unregistered
+    if (!pendingKeys.remove(key)) {
+      pendingRemovals.add(key);
+    }
+  }
+
+  /** GuardedBy lock */
+  private boolean isBatchFull() {
+    return pendingKeys.size() + pendingRemovals.size() >= batchSize;
+  }
+
+  private void requestFlush(boolean flushNow, boolean schedule) {
+    try {
+      if (flushNow) {
+        executor.execute(this::flush);
+      } else if (schedule) {
+        executor.schedule(this::flush, batchInterval, TimeUnit.MILLISECONDS);
+      }
+    } catch (RejectedExecutionException e) {
+      // the pool is closing
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to register near cache interest in {}", region.getFullPath(), e);
+      }
+    }
+  }
+
+  /**
+   * Returns true if the value of the given entry may be too stale to read locally.
+   */
+  public boolean isStale(RegionEntry entry) {
+    return maxStaleness > 0 && !subscriptionConnected.getAsBoolean()
+        && region.cacheTimeMillis() - entry.getLastModified() > maxStaleness;
+  }
+
+  /**
+   * Returns true if entries may currently be stale, that is if {@link #isStale(RegionEntry)} needs
+   * to be checked.
+   */
+  public boolean mayBeStale() {
+    return maxStaleness > 0 && !subscriptionConnected.getAsBoolean();
+  }
+
+  @VisibleForTesting
+  void flush() {
+    synchronized (registrationLock) {
+      List<Object> keys;
+      List<Object> removals;
+      List<Object> localDestroys;
+      synchronized (lock) {
+        flushScheduled = false;
+        keys = new ArrayList<>(pendingKeys);
+        pendingKeys.clear();
+        removals = new ArrayList<>(pendingRemovals);
+        pendingRemovals.clear();
+        localDestroys = new ArrayList<>(pendingLocalDestroys);
+        pendingLocalDestroys.clear();
+      }
+      // destroy the entries while their invalidations still arrive
+      localDestroys.forEach(this::destroyLocally);
+      // a key is in at most one of the lists, so their order does not matter
+      if (!removals.isEmpty()) {
+        unregister(removals);
+      }
+      if (!keys.isEmpty()) {
+        register(keys);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  int getRegisteredKeyCount() {
+    synchronized (lock) {
+      return registeredKeys.size();
+    }
+  }
+
+  private void register(List<Object> keys) {
+    try {
+      region.registerInterestList(keys, InterestResultPolicy.KEYS_VALUES, false, false);
+    } catch (RuntimeException e) {
+      // the entries would not be invalidated, so their values are fetched from the servers again
+      // and registered the next time they are read
+      synchronized (lock) {
+        registeredKeys.keySet().removeAll(keys);
+      }
+      keys.forEach(this::destroyLocally);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to register near cache interest in {} keys of {}", keys.size(),
+            region.getFullPath(), e);
+      }
+    }
+  }
+
+  private void destroyLocally(Object key) {
+    try {
+      region.localDestroy(key);
+    } catch (EntryNotFoundException ignore) {
+      // the entry was already removed
+    } catch (RuntimeException e) {
+      // the region is being closed or destroyed
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to destroy near cache entry {} of {}", key, region.getFullPath(), e);
+      }
+    }
+  }
+
+  private void unregister(List<Object> keys) {
+    try {
+      region.unregisterInterest(keys);
+    } catch (RuntimeException e) {
+      // the servers drop the interest when the client disconnects
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to unregister near cache interest in {} keys of {}", keys.size(),
+            region.getFullPath(), e);
+      }
+    }
+  }
+}
@@ -982,6 +982,13 @@ public class PoolImpl implements InternalPool {
     return ((QueueManagerImpl) queueManager).isPrimaryUpdaterAlive();
   }
 
+  /**
+   * Returns true if the pool has a connection to its primary subscription queue.
+   */
+  public boolean hasPrimarySubscriptionConnection() {
+    return queueManager != null && queueManager.getAllConnectionsNoWait().getPrimary() != null;
+  }
+
   /**
    * Test hook used to simulate a kill of the primaryEndpoint
    */
@@ -28,7 +28,9 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.cache.client.internal.ServerDenyList.FailureTracker;
 import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
 import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.tier.sockets.CompactMessageFormat;
 import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+import org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 
@@ -242,6 +244,16 @@ public class QueueConnectionImpl implements Connection {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public CompactMessageFormat getCompactMessageFormat() {
+    return getConnection().getCompactMessageFormat();
+  }
+
+  @Override
+  public CompressedGatewayBatchFormat getCompressedGatewayBatchFormat() {
+    return getConnection().getCompressedGatewayBatchFormat();
+  }
+
   @Override
   public void setConnectionID(long id) {
     this.clientToServerConn.get().setConnectionID(id);
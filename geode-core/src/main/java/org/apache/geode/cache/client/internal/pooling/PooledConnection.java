@@ -27,7 +27,9 @@ import org.apache.geode.cache.client.internal.ConnectionStats;
 import org.apache.geode.cache.client.internal.Endpoint;
 import org.apache.geode.cache.client.internal.Op;
 import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.tier.sockets.CompactMessageFormat;
 import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+import org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat;
 
 /**
  * A connection managed by the connection manager. Keeps track of the current state of the
@@ -370,6 +372,16 @@ public class PooledConnection implements Connection {
     getConnection().setWanSiteVersion(wanSiteVersion);
   }
 
+  @Override
+  public CompactMessageFormat getCompactMessageFormat() {
+    return getConnection().getCompactMessageFormat();
+  }
+
+  @Override
+  public CompressedGatewayBatchFormat getCompressedGatewayBatchFormat() {
+    return getConnection().getCompressedGatewayBatchFormat();
+  }
+
   public void setConnection(Connection newConnection) {
     this.connection = newConnection;
   }
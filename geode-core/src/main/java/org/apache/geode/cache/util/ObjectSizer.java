@@ -77,4 +77,24 @@ public interface ObjectSizer {
 
   int sizeof(Object o);
 
+  /**
+   * Returns the size of a value after a {@link org.apache.geode.Delta} was applied to it. This is
+   * called instead of {@link #sizeof(Object)} when the entry size is recalculated after a delta,
+   * see {@link org.apache.geode.Delta#getForceRecalculateSize()}.
+   *
+   * <p>
+   * Sizers of values whose deltas change their size in a way that the value can tell, for example
+   * by remembering how many bytes its last delta added, should override this method to adjust the
+   * size before the delta instead of sizing the whole value again. By default the whole value is
+   * sized with {@link #sizeof(Object)}.
+   *
+   * @param value the value after the delta was applied to it
+   * @param sizeBeforeDelta the size of the value before the delta was applied to it
+   *
+   * @since Geode 1.15
+   */
+  default int sizeofDelta(Object value, int sizeBeforeDelta) {
+    return sizeof(value);
+  }
+
 }
@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An implementation of {@link Compressor} for the deflate compression codec that compresses
+ * values with a dictionary trained from samples of the compressed values. Small values that
+ * compress poorly on their own, like small JSON or PDX values, share most of their field names and
+ * structure with the dictionary and compress much better with it.
+ *
+ * <p>
+ * The first dictionary is trained once enough values were sampled, and it is refreshed from new
+ * samples after every refresh interval of compressions. Each compressed value records the version
+ * of the dictionary it was compressed with, and all versions are kept so that values compressed
+ * with an older dictionary remain readable. The dictionaries are kept in memory only, so an
+ * instance should be used by one region, which never writes compressed values to disk.
+ *
+ * <p>
+ * Optionally the decompressed forms of the most recently decompressed values are cached, so that
+ * reads of hot entries do not decompress them repeatedly. The cache only helps values that are
+ * kept on the heap, since values stored off-heap are copied before they are decompressed. The cache
+ * is split into stripes with their own locks and least recently used order, so that concurrent
+ * reads of different values do not contend on one lock.
+ *
+ * <p>
+ * Deflate is used rather than Snappy, which the {@link SnappyCompressor} uses, because Snappy has
+ * no dictionary support, and without a dictionary small values barely compress. Deflate runs at
+ * its fastest level. See DictionaryCompressorBenchmark for how the two codecs compare.
+ *
+ * @since Geode 1.15
+ */
+public class DictionaryCompressor implements Compressor, Serializable {
+  private static final long serialVersionUID = 3197542466071632856L;
+
+  /** The largest dictionary that deflate can use */
+  static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+  /** The number of values sampled for each dictionary */
+  static final int SAMPLES = 64;
+
+  /** One in how many compressed values is sampled */
+  static final int SAMPLE_INTERVAL = 16;
+
+  private static final int MAX_SAMPLE_SIZE = MAX_DICTIONARY_SIZE / SAMPLES;
+
+  private static final int DEFAULT_REFRESH_INTERVAL = 1 << 20;
+
+  /** Version 0 is compressed without a dictionary */
+  private static final int MAX_VERSION = 255;
+
+  /** The dictionary version and the length of the uncompressed value */
+  private static final int HEADER_SIZE = 5;
+
+  /** The most stripes the decompressed value cache is split into */
+  static final int MAX_CACHE_STRIPES = 16;
+
+  private final int decompressedCacheSize;
+
+  private final long refreshInterval;
+
+  private final transient AtomicReferenceArray<byte[]> dictionaries =
+      new AtomicReferenceArray<>(MAX_VERSION + 1);
+
+  private transient volatile int currentVersion;
+
+  private final transient AtomicLong compressions = new AtomicLong();
+
+  /** The most recent samples, oldest first. GuardedBy itself */
+  private final transient List<byte[]> samples = new ArrayList<>(SAMPLES);
+
+  /** GuardedBy samples */
+  private transient long trainedAt;
+
+  /** Keyed by the identity of the compressed values */
+  private final transient DecompressedCache decompressedCache;
+
+  private final transient ThreadLocal<Deflater> deflaters =
+      ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+
+  private final transient ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+  /**
+   * Create a new instance of the DictionaryCompressor that does not cache decompressed values.
+   */
+  public DictionaryCompressor() {
+    this(0);
+  }
+
+  /**
+   * Create a new instance of the DictionaryCompressor.
+   *
+   * @param decompressedCacheSize the number of recently decompressed values to cache, or 0 to not
+   *        cache decompressed values
+   */
+  public DictionaryCompressor(int decompressedCacheSize) {
+    this(decompressedCacheSize, DEFAULT_REFRESH_INTERVAL);
+  }
+
+  DictionaryCompressor(int decompressedCacheSize, long refreshInterval) {
+    if (decompressedCacheSize < 0) {
+      throw new IllegalArgumentException("decompressedCacheSize must not be negative");
+    }
+    this.decompressedCacheSize = decompressedCacheSize;
+    this.refreshInterval = refreshInterval;
+    decompressedCache =
+        decompressedCacheSize > 0 ? new DecompressedCache(decompressedCacheSize) : null;
+  }
+
+  /**
+   * Returns the version of the dictionary that values are currently compressed with, or 0 if they
+   * are compressed without a dictionary.
+   */
+  int getDictionaryVersion() {
+    return currentVersion;
+  }
+
+  @Override
+  public byte[] compress(byte[] input) {
+    long count = compressions.incrementAndGet();
+    if (count % SAMPLE_INTERVAL == 0) {
+      sample(input, count);
+    }
+
+    int version = currentVersion;
+    Deflater deflater = deflaters.get();
+    deflater.reset();
+    if (version != 0) {
+      deflater.setDictionary(dictionaries.get(version));
+    }
+    deflater.setInput(input);
+    deflater.finish();
+
+    byte[] output = new byte[HEADER_SIZE + input.length / 2 + 64];
+    output[0] = (byte) version;
+    output[1] = (byte) (input.length >>> 24);
+    output[2] = (byte) (input.length >>> 16);
+    output[3] = (byte) (input.length >>> 8);
+    output[4] = (byte) input.length;
+    int length = HEADER_SIZE;
+    while (!deflater.finished()) {
+      if (length == output.length) {
+        output = Arrays.copyOf(output, output.length * 2);
+      }
+      length += deflater.deflate(output, length, output.length - length);
+    }
+    return Arrays.copyOf(output, length);
+  }
+
+  @Override
+  public byte[] decompress(byte[] input) {
+    if (decompressedCache != null) {
+      byte[] cached = decompressedCache.get(input);
+      if (cached != null) {
+        return cached.clone();
+      }
+    }
+
+    if (input.length < HEADER_SIZE) {
+      throw new CompressionException("Compressed value is missing its header");
+    }
+    int version = input[0] & 0xff;
+    int length = ((input[1] & 0xff) << 24) | ((input[2] & 0xff) << 16)
+        | ((input[3] & 0xff) << 8) | (input[4] & 0xff);
+
+    Inflater inflater = inflaters.get();
+    inflater.reset();
+    inflater.setInput(input, HEADER_SIZE, input.length - HEADER_SIZE);
+    byte[] output = new byte[length];
+    try {
+      int offset = 0;
+      while (offset < length) {
+        int count = inflater.inflate(output, offset, length - offset);
+        if (count == 0) {
+          if (inflater.needsDictionary()) {
+            byte[] dictionary = dictionaries.get(version);
+            if (dictionary == null) {
+              throw new CompressionException("Unknown dictionary version " + version);
+            }
+            inflater.setDictionary(dictionary);
+          } else if (inflater.finished() || inflater.needsInput()) {
+            throw new CompressionException("Compressed value is truncated");
+          }
+        }
+        offset += count;
+      }
+    } catch (DataFormatException e) {
+      throw new CompressionException(e);
+    }
+
+    if (decompressedCache != null) {
+      decompressedCache.put(input, output.clone());
+    }
+    return output;
+  }
+
+  /**
+   * Adds the given value to the samples, and trains a new dictionary from the samples when it is
+   * time to.
+   */
+  private void sample(byte[] input, long count) {
+    synchronized (samples) {
+      if (samples.size() == SAMPLES) {
+        samples.remove(0);
+      }
+      samples.add(Arrays.copyOf(input, Math.min(input.length, MAX_SAMPLE_SIZE)));
+
+      int version = currentVersion;
+      if (samples.size() == SAMPLES && version < MAX_VERSION
+          && (version == 0 || count - trainedAt >= refreshInterval)) {
+        dictionaries.set(version + 1, trainDictionary(samples));
+        currentVersion = version + 1;
+        trainedAt = count;
+      }
+    }
+  }
+
+  /**
+   * Returns a dictionary of the given samples. Deflate finds matches in the dictionary like in
+   * preceding input, so the samples are simply concatenated with the newest one last, where the
+   * matches are cheapest to encode.
+   */
+  static byte[] trainDictionary(List<byte[]> samples) {
+    int size = 0;
+    for (byte[] sample : samples) {
+      size += sample.length;
+    }
+    byte[] dictionary = new byte[Math.min(size, MAX_DICTIONARY_SIZE)];
+    int offset = dictionary.length;
+    for (int i = samples.size() - 1; i >= 0 && offset > 0; i--) {
+      byte[] sample = samples.get(i);
+      int length = Math.min(sample.length, offset);
+      offset -= length;
+      System.arraycopy(sample, sample.length - length, dictionary, offset, length);
+    }
+    return dictionary;
+  }
+
+  /**
+   * A least recently used cache of decompressed values keyed by the identity of their compressed
+   * values. The values are spread over stripes by their identity hash code, and each stripe evicts
+   * its own least recently used value, so the cache holds at most its size in values.
+   */
+  static class DecompressedCache {
+    private final Stripe[] stripes;
+
+    DecompressedCache(int size) {
+      stripes = new Stripe[Math.min(size, MAX_CACHE_STRIPES)];
+      for (int i = 0; i < stripes.length; i++) {
+        stripes[i] = new Stripe(size / stripes.length + (i < size % stripes.length ? 1 : 0));
+      }
+    }
+
+    byte[] get(byte[] compressed) {
+      Stripe stripe = getStripe(compressed);
+      synchronized (stripe) {
+        return stripe.get(compressed);
+      }
+    }
+
+    void put(byte[] compressed, byte[] decompressed) {
+      Stripe stripe = getStripe(compressed);
+      synchronized (stripe) {
+        stripe.put(compressed, decompressed);
+      }
+    }
+
+    int size() {
+      int size = 0;
+      for (Stripe stripe : stripes) {
+        synchronized (stripe) {
+          size += stripe.size();
+        }
+      }
+      return size;
+    }
+
+    private Stripe getStripe(byte[] compressed) {
+      return stripes[(System.identityHashCode(compressed) & Integer.MAX_VALUE) % stripes.length];
+    }
+
+    /** GuardedBy itself */
+    private static class Stripe extends LinkedHashMap<byte[], byte[]> {
+      private static final long serialVersionUID = -5476411387318785553L;
+
+      private final int capacity;
+
+      Stripe(int capacity) {
+        super(16, 0.75f, true);
+        this.capacity = capacity;
+      }
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<byte[], byte[]> eldest) {
+        return size() > capacity;
+      }
+    }
+  }
+
+  // The dictionaries and caches are not serialized, so resolve to a new instance with the same
+  // configuration when deserializing
+  private Object readResolve() throws ObjectStreamException {
+    return new DictionaryCompressor(decompressedCacheSize, refreshInterval);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.getClass().getName().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (other == null) {
+      return false;
+    }
+
+    return this.getClass().getName().equals(other.getClass().getName());
+  }
+}
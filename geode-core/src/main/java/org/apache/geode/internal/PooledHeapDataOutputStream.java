@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.nio.ByteBuffer;
+
+import org.apache.geode.internal.cache.BytesAndBitsForCompactor;
+import org.apache.geode.internal.serialization.KnownVersion;
+
+/**
+ * A HeapDataOutputStream whose initial buffer comes from a {@link SerializationBufferPool} and is
+ * given back when the stream is closed. It is meant for the common pattern of serializing an
+ * object, calling {@link #toByteArray()} and closing the stream, so it must always be closed.
+ * <p>
+ * {@link #toByteArray()} always returns bytes that are owned by the caller. Buffers returned by
+ * {@link #toByteBuffer()} may be the pooled buffer and must not be used after the stream is closed.
+ */
+public class PooledHeapDataOutputStream extends HeapDataOutputStream {
+
+  private final SerializationBufferPool pool;
+
+  private ByteBuffer pooledBuffer;
+
+  public PooledHeapDataOutputStream(KnownVersion version) {
+    this(INITIAL_CAPACITY, version);
+  }
+
+  public PooledHeapDataOutputStream(int allocSize, KnownVersion version) {
+    this(SerializationBufferPool.getInstance(), allocSize, version);
+  }
+
+  PooledHeapDataOutputStream(SerializationBufferPool pool, int allocSize, KnownVersion version) {
+    this(pool, pool.acquire(allocSize), version);
+  }
+
+  private PooledHeapDataOutputStream(SerializationBufferPool pool, ByteBuffer pooledBuffer,
+      KnownVersion version) {
+    super(pooledBuffer, version, false);
+    this.pool = pool;
+    this.pooledBuffer = pooledBuffer;
+  }
+
+  /**
+   * Creates a stream for serializing one object. The stream is pooled unless pooling has been
+   * disabled with {@link SerializationBufferPool#DISABLE_POOLED_BUFFERS_PROPERTY}.
+   */
+  public static HeapDataOutputStream create(KnownVersion version) {
+    if (SerializationBufferPool.isEnabled()) {
+      return new PooledHeapDataOutputStream(version);
+    }
+    return new HeapDataOutputStream(version);
+  }
+
+  /**
+   * Returns a new byte array with the contents of this stream. Unlike
+   * {@link HeapDataOutputStream#toByteArray()} this never returns the array of the pooled buffer.
+   */
+  @Override
+  public byte[] toByteArray() {
+    ByteBuffer bb = toByteBuffer();
+    if (bb != pooledBuffer && bb.hasArray() && bb.arrayOffset() == 0
+        && bb.limit() == bb.capacity()) {
+      // the contents outgrew the pooled buffer and were consolidated into an exactly sized buffer
+      return bb.array();
+    }
+    byte[] result = new byte[bb.remaining()];
+    bb.duplicate().get(result);
+    return result;
+  }
+
+  @Override
+  public void sendTo(BytesAndBitsForCompactor wrapper, byte userBits) {
+    byte[] bytes = toByteArray();
+    wrapper.setData(bytes, userBits, bytes.length, true /* is Reusable */);
+  }
+
+  /**
+   * Gives the pooled buffer back. Closing a stream more than once has no further effect.
+   */
+  @Override
+  public void close() {
+    super.close();
+    if (pooledBuffer != null) {
+      ByteBuffer released = pooledBuffer;
+      pooledBuffer = null;
+      // drop our reference so that writing after close can not corrupt a reused buffer
+      buffer = ByteBuffer.allocate(0);
+      pool.release(released);
+    }
+  }
+}
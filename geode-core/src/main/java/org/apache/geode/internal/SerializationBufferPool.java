@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.annotations.internal.MakeNotStatic;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * A pool of heap ByteBuffers used as the initial buffer of {@link PooledHeapDataOutputStream}s.
+ * Buffers come in a few size classes. Each thread first reuses the buffer it released last for a
+ * size class and then falls back to a small shared queue of buffers released by other threads.
+ * Requests larger than the largest size class are allocated and never pooled.
+ * <p>
+ * Every buffer that is acquired must be released exactly once and must not be used after it is
+ * released. The pool tracks the identity of each pooled buffer it hands out. A buffer that is
+ * released twice, or that was not acquired from this pool, is rejected. Tests can also detect
+ * buffers that are never released.
+ */
+public class SerializationBufferPool {
+
+  /**
+   * If true, serialization call sites allocate a new buffer for each object instead of using this
+   * pool.
+   */
+  public static final String DISABLE_POOLED_BUFFERS_PROPERTY =
+      GeodeGlossary.GEMFIRE_PREFIX + "disablePooledSerializationBuffers";
+
+  private static final boolean ENABLED = !Boolean.getBoolean(DISABLE_POOLED_BUFFERS_PROPERTY);
+
+  static final int[] SIZE_CLASSES = {256, 1024, 4 * 1024, 16 * 1024, 64 * 1024};
+
+  static final int MAX_SHARED_BUFFERS = 16;
+
+  @MakeNotStatic
+  private static final SerializationBufferPool instance = new SerializationBufferPool();
+
+  private final ThreadLocal<SoftReference<ByteBuffer>[]> threadBuffers = new ThreadLocal<>();
+
+  private final Queue<ByteBuffer>[] sharedBuffers;
+
+  private final AtomicInteger[] sharedBufferCounts;
+
+  /** The pooled buffers that have been acquired and not yet released */
+  private final Set<BufferIdentity> outstanding = ConcurrentHashMap.newKeySet();
+
+  @SuppressWarnings("unchecked")
+  @VisibleForTesting
+  SerializationBufferPool() {
+    sharedBuffers = new Queue[SIZE_CLASSES.length];
+    sharedBufferCounts = new AtomicInteger[SIZE_CLASSES.length];
+    for (int i = 0; i < SIZE_CLASSES.length; i++) {
+      sharedBuffers[i] = new ConcurrentLinkedQueue<>();
+      sharedBufferCounts[i] = new AtomicInteger();
+    }
+  }
+
+  public static SerializationBufferPool getInstance() {
+    return instance;
+  }
+
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /**
+   * Returns a cleared buffer whose capacity is at least minimumSize. If the size is pooled the
+   * buffer must be given back with {@link #release(ByteBuffer)}.
+   */
+  public ByteBuffer acquire(int minimumSize) {
+    int sizeClass = getSizeClass(minimumSize);
+    if (sizeClass == -1) {
+      return ByteBuffer.allocate(minimumSize);
+    }
+    ByteBuffer result = null;
+    SoftReference<ByteBuffer>[] buffers = threadBuffers.get();
+    if (buffers != null && buffers[sizeClass] != null) {
+      result = buffers[sizeClass].get();
+      buffers[sizeClass] = null;
+    }
+    if (result == null) {
+      result = sharedBuffers[sizeClass].poll();
+      if (result != null) {
+        sharedBufferCounts[sizeClass].decrementAndGet();
+      }
+    }
+    if (result == null) {
+      result = ByteBuffer.allocate(SIZE_CLASSES[sizeClass]);
+    } else {
+      result.clear();
+    }
+    outstanding.add(new BufferIdentity(result));
+    return result;
+  }
+
+  /**
+   * Gives back a buffer returned by {@link #acquire(int)}. Buffers that are not pooled are ignored.
+   *
+   * @throws IllegalStateException if the buffer is the size of a pooled buffer but is not
+   *         outstanding, because it was already released or was not acquired from this pool
+   */
+  @SuppressWarnings("unchecked")
+  public void release(ByteBuffer buffer) {
+    int sizeClass = getSizeClass(buffer.capacity());
+    if (sizeClass == -1 || buffer.capacity() != SIZE_CLASSES[sizeClass]) {
+      return;
+    }
+    if (!outstanding.remove(new BufferIdentity(buffer))) {
+      throw new IllegalStateException(
+          "A serialization buffer was released more than once or was not acquired from this pool");
+    }
+    SoftReference<ByteBuffer>[] buffers = threadBuffers.get();
+    if (buffers == null) {
+      buffers = new SoftReference[SIZE_CLASSES.length];
+      threadBuffers.set(buffers);
+    }
+    if (buffers[sizeClass] == null || buffers[sizeClass].get() == null) {
+      buffers[sizeClass] = new SoftReference<>(buffer);
+    } else if (sharedBufferCounts[sizeClass].incrementAndGet() <= MAX_SHARED_BUFFERS) {
+      sharedBuffers[sizeClass].offer(buffer);
+    } else {
+      sharedBufferCounts[sizeClass].decrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the number of pooled buffers that have been acquired and not yet released.
+   */
+  public int getOutstandingCount() {
+    return outstanding.size();
+  }
+
+  private static int getSizeClass(int size) {
+    for (int i = 0; i < SIZE_CLASSES.length; i++) {
+      if (size <= SIZE_CLASSES[i]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Compares buffers by identity, since ByteBuffer equality depends on the remaining contents.
+   */
+  private static class BufferIdentity {
+    private final ByteBuffer buffer;
+
+    BufferIdentity(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(buffer);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof BufferIdentity && ((BufferIdentity) other).buffer == buffer;
+    }
+  }
+}
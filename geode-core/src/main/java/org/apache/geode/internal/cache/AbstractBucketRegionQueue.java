@@ -40,6 +40,7 @@ import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.internal.cache.wan.GatewaySenderStats;
 import org.apache.geode.internal.cache.wan.parallel.ConcurrentParallelGatewaySenderQueue;
 import org.apache.geode.internal.offheap.OffHeapClearRequired;
+import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.statistics.StatisticsClock;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.util.internal.GeodeGlossary;
@@ -352,10 +353,12 @@ public abstract class AbstractBucketRegionQueue extends BucketRegion {
 
     boolean didPut = false;
     long startPut = getStatisticsClock().getTime();
-    // Value will always be an instanceof GatewaySenderEventImpl which
-    // is never stored offheap so this EntryEventImpl values will never be off-heap.
-    // So the value that ends up being stored in this region is a GatewaySenderEventImpl
-    // which may have a reference to a value stored off-heap.
+    // Value will always be an instanceof GatewaySenderEventImpl, which may have a reference to a
+    // value stored off-heap. If the queue itself is stored off-heap (see
+    // ParallelGatewaySenderQueue.OFF_HEAP_QUEUE) the put serializes the GatewaySenderEventImpl
+    // into off-heap memory and this event retains a reference to the stored value, so the event
+    // must be released once it was added to the queue.
+    @Released
     EntryEventImpl event =
         EntryEventImpl.create(this, Operation.UPDATE, key, value, null, false, getMyId());
     // here avoiding unnecessary validations of key, value. Readniness check
@@ -365,36 +368,40 @@ public abstract class AbstractBucketRegionQueue extends BucketRegion {
     // value, null);
     event.copyOffHeapToHeap();
 
-    if (logger.isDebugEnabled()) {
-      logger.debug("Value : {}", event.getRawNewValue());
-    }
-    waitIfQueueFull();
-
     try {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Value : {}", event.getRawNewValue());
+      }
+      waitIfQueueFull();
 
-      didPut = virtualPut(event, false, false, null, false, startPut, true);
+      try {
 
-      checkReadiness();
-    } catch (RegionDestroyedException rde) {
-      // this can now happen due to a re-balance removing a bucket
-      getPartitionedRegion().checkReadiness();
-      if (isBucketDestroyed()) {
-        throw new ForceReattemptException("Bucket moved", rde);
-      }
-    } finally {
-      if (!didPut) {
-        GatewaySenderEventImpl.release(value);
+        didPut = virtualPut(event, false, false, null, false, startPut, true);
+
+        checkReadiness();
+      } catch (RegionDestroyedException rde) {
+        // this can now happen due to a re-balance removing a bucket
+        getPartitionedRegion().checkReadiness();
+        if (isBucketDestroyed()) {
+          throw new ForceReattemptException("Bucket moved", rde);
+        }
+      } finally {
+        if (!didPut) {
+          GatewaySenderEventImpl.release(value);
+        }
       }
-    }
 
-    // check again if the key exists in failedBatchRemovalMessageKeys,
-    // if yes, then remove it from there and destroy the key from BucketRegionQueue.
-    // This is to reduce the window of race condition described by Darrel in #49196.
-    if (failedBatchRemovalMessageKeys.remove(key) && didPut) {
-      destroyKey(key);
-      didPut = false;
-    } else {
-      addToEventQueue(key, didPut, event);
+      // check again if the key exists in failedBatchRemovalMessageKeys,
+      // if yes, then remove it from there and destroy the key from BucketRegionQueue.
+      // This is to reduce the window of race condition described by Darrel in #49196.
+      if (failedBatchRemovalMessageKeys.remove(key) && didPut) {
+        destroyKey(key);
+        didPut = false;
+      } else {
+        addToEventQueue(key, didPut, event);
+      }
+    } finally {
+      event.release();
     }
     return didPut;
   }
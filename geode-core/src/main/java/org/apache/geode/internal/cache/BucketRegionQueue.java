@@ -19,11 +19,9 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -57,11 +55,11 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
   private static final Logger logger = LogService.getLogger();
 
   /**
-   * The <code>Map</code> mapping the regionName->key to the queue key. This index allows fast
-   * updating of entries in the queue for conflation. This is necesaary for Colocated regions and if
-   * any of the regions use same key for data.
+   * The index mapping the regionName->key to the queue key. This index allows fast updating of
+   * entries in the queue for conflation. This is necesaary for Colocated regions and if any of the
+   * regions use same key for data.
    */
-  private final Map indexes;
+  private final ConflationIndex indexes = new ConflationIndex();
 
   /**
    * A transient deque, but should be treated like as a fifo queue to maintain the eventSeqNum of
@@ -80,7 +78,6 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
       StatisticsClock statisticsClock) {
     super(regionName, attrs, parentRegion, cache, internalRegionArgs, statisticsClock);
     this.keySet();
-    this.indexes = new ConcurrentHashMap<Object, Long>();
   }
 
   @Override
@@ -297,13 +294,9 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
       if (logger.isDebugEnabled()) {
         logger.debug(" The region name is : {}", rName);
       }
-      Map latestIndexesForRegion = (Map) this.indexes.get(rName);
-      if (latestIndexesForRegion == null) {
-        latestIndexesForRegion = new ConcurrentHashMap();
-        this.indexes.put(rName, latestIndexesForRegion);
-      }
-      Long previousTailKey = (Long) latestIndexesForRegion.put(keyToConflate, tailKey);
+      Long previousTailKey = this.indexes.put(rName, keyToConflate, tailKey);
       if (previousTailKey != null) {
+        region.getParallelGatewaySender().getStatistics().incEventsConflatedFromQueue();
         if (logger.isDebugEnabled()) {
           logger.debug("{}: Conflating {} at queue index={} and previousTailKey={} ", this, object,
               tailKey, previousTailKey);
@@ -342,20 +335,14 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
           // Otherwise, remove the index from the indexes map.
           String rName = object.getRegionToConflate();
           Object key = object.getKeyToConflate();
-          Map latestIndexesForRegion = (Map) this.indexes.get(rName);
-          if (latestIndexesForRegion != null) {
-            // Remove the index if appropriate. Verify the qKey is actually the one being referenced
-            // in the index. If it isn't, then another event has been received for the real key. In
-            // that case, don't remove the index since it has already been overwritten.
-            if (latestIndexesForRegion.get(key) == qkey) {
-              Long index = (Long) latestIndexesForRegion.remove(key);
-              if (index != null) {
-                this.getPartitionedRegion().getParallelGatewaySender().getStatistics()
-                    .decConflationIndexesMapSize();
-                if (logger.isDebugEnabled()) {
-                  logger.debug("{}: Removed index {} for {}", this, index, object);
-                }
-              }
+          // Remove the index if appropriate. Verify the qKey is actually the one being referenced
+          // in the index. If it isn't, then another event has been received for the real key. In
+          // that case, don't remove the index since it has already been overwritten.
+          if (this.indexes.remove(rName, key, qkey)) {
+            this.getPartitionedRegion().getParallelGatewaySender().getStatistics()
+                .decConflationIndexesMapSize();
+            if (logger.isDebugEnabled()) {
+              logger.debug("{}: Removed index {} for {}", this, qkey, object);
             }
           }
         }
@@ -364,6 +351,19 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
     return entryFound;
   }
 
+  /**
+   * Returns true if the given peeked event has been conflated by an event that was queued for the
+   * same region and key after it, so that it does not need to be dispatched.
+   */
+  public boolean isConflated(GatewaySenderEventImpl event) {
+    if (!getPartitionedRegion().isConflationEnabled() || !event.shouldBeConflated()
+        || event.getShadowKey() == null || event.getShadowKey() < 0) {
+      return false;
+    }
+    return this.indexes.isSuperseded(event.getRegionToConflate(), event.getKeyToConflate(),
+        event.getShadowKey());
+  }
+
   public void basicDestroy(final EntryEventImpl event, final boolean cacheWrite,
       Object expectedOldValue, boolean forceBasicDestroy)
       throws EntryNotFoundException, CacheWriterException, TimeoutException {
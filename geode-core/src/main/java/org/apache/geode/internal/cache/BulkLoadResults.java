@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.geode.cache.BulkCacheLoader;
+
+/**
+ * The values a {@link BulkCacheLoader} loaded for a getAll, made available to the loads of the
+ * individual keys done by the thread of the getAll.
+ */
+class BulkLoadResults implements AutoCloseable {
+
+  private static final ThreadLocal<BulkLoadResults> current = new ThreadLocal<>();
+
+  private final LocalRegion region;
+
+  private final Map<Object, Object> values;
+
+  private final BulkLoadResults previous;
+
+  private BulkLoadResults(LocalRegion region, Map<?, ?> values, BulkLoadResults previous) {
+    this.region = region;
+    this.values = new HashMap<>(values);
+    this.previous = previous;
+  }
+
+  /**
+   * Makes the given values available to the loads of the current thread until the returned
+   * results are closed.
+   */
+  static BulkLoadResults open(LocalRegion region, Map<?, ?> values) {
+    BulkLoadResults results = new BulkLoadResults(region, values, current.get());
+    current.set(results);
+    return results;
+  }
+
+  /**
+   * Returns the results of the current thread for the given region, which may be a bucket of the
+   * partitioned region the values were loaded for, or null if there are none.
+   */
+  static BulkLoadResults get(LocalRegion region) {
+    BulkLoadResults results = current.get();
+    if (results == null) {
+      return null;
+    }
+    if (results.region == region || (region instanceof BucketRegion
+        && ((BucketRegion) region).getPartitionedRegion() == results.region)) {
+      return results;
+    }
+    return null;
+  }
+
+  boolean containsKey(Object key) {
+    return values.containsKey(key);
+  }
+
+  /**
+   * Removes the value of the given key, so that a later load of the key calls the loader again.
+   */
+  Object remove(Object key) {
+    return values.remove(key);
+  }
+
+  @Override
+  public void close() {
+    if (previous == null) {
+      current.remove();
+    } else {
+      current.set(previous);
+    }
+  }
+}
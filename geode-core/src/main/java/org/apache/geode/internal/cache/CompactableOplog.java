@@ -30,6 +30,18 @@ public interface CompactableOplog {
 
   int compact(OplogCompactor compactor);
 
+  /**
+   * Returns true if the last call of {@link #compact} stopped early so that the compactor can wait
+   * for its I/O budget without holding the locks of this oplog. The next call of compact resumes
+   * the compaction.
+   */
+  boolean isCompactionPaused();
+
+  /**
+   * Returns the percentage of the entries written to this oplog that are no longer live.
+   */
+  int getGarbagePercent();
+
   BytesAndBits getBytesAndBits(DiskRegionView dr, DiskId id, boolean faultIn, boolean bitOnly);
 
   BytesAndBits getNoBuffer(DiskRegion dr, DiskId id);
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket limiting the bytes per second that the compaction of a disk store copies forward,
+ * so that compaction does not compete with foreground writes for all of the disk I/O. The bucket
+ * holds at most a tenth of a second of budget, and compaction that overdraws it waits until the
+ * budget is paid back.
+ * <p>
+ * If a target latency of foreground writes is given the rate adapts to it. Each adjustment
+ * interval the rate is halved if the average latency of the foreground writes exceeded the target,
+ * and otherwise grows back by a tenth of the maximum rate.
+ */
+class CompactionRateLimiter {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  static final long ADJUST_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final long maxBytesPerSecond;
+
+  private final long minBytesPerSecond;
+
+  private final long targetLatencyNanos;
+
+  private final LongSupplier nanoClock;
+
+  /** An exponential moving average that tolerates lost updates from concurrent writes */
+  private volatile long averageLatencyNanos;
+
+  private final LongAdder writes = new LongAdder();
+
+  /** GuardedBy this */
+  private long bytesPerSecond;
+
+  /** GuardedBy this */
+  private double tokens;
+
+  /** GuardedBy this */
+  private long lastRefill;
+
+  /** GuardedBy this */
+  private long lastAdjustment;
+
+  /**
+   * @param maxBytesPerSecond the rate of compaction while foreground writes meet the target
+   * @param targetLatencyNanos the target latency of foreground writes, or 0 to not adapt the rate
+   */
+  CompactionRateLimiter(long maxBytesPerSecond, long targetLatencyNanos, LongSupplier nanoClock) {
+    if (maxBytesPerSecond <= 0) {
+      throw new IllegalArgumentException("maxBytesPerSecond must be positive");
+    }
+    this.maxBytesPerSecond = maxBytesPerSecond;
+    this.minBytesPerSecond = Math.max(1, maxBytesPerSecond / 64);
+    this.targetLatencyNanos = targetLatencyNanos;
+    this.nanoClock = nanoClock;
+    bytesPerSecond = maxBytesPerSecond;
+    tokens = getBurst();
+    lastRefill = nanoClock.getAsLong();
+    lastAdjustment = lastRefill;
+  }
+
+  /**
+   * Records the latency of a foreground write.
+   */
+  void foregroundWrite(long latencyNanos) {
+    writes.increment();
+    long average = averageLatencyNanos;
+    averageLatencyNanos = average + (latencyNanos - average) / 16;
+  }
+
+  /**
+   * Takes the given number of bytes from the budget, and returns how many nanoseconds compaction
+   * should wait before copying more.
+   */
+  synchronized long acquire(long bytes) {
+    long now = nanoClock.getAsLong();
+    adjustRate(now);
+    tokens = Math.min(getBurst(),
+        tokens + (double) (now - lastRefill) * bytesPerSecond / NANOS_PER_SECOND);
+    lastRefill = now;
+    tokens -= bytes;
+    if (tokens >= 0) {
+      return 0;
+    }
+    return (long) (-tokens * NANOS_PER_SECOND / bytesPerSecond);
+  }
+
+  synchronized long getBytesPerSecond() {
+    return bytesPerSecond;
+  }
+
+  private double getBurst() {
+    return bytesPerSecond / 10.0;
+  }
+
+  private void adjustRate(long now) {
+    if (targetLatencyNanos <= 0 || now - lastAdjustment < ADJUST_INTERVAL_NANOS) {
+      return;
+    }
+    lastAdjustment = now;
+    if (writes.sumThenReset() > 0 && averageLatencyNanos > targetLatencyNanos) {
+      bytesPerSecond = Math.max(minBytesPerSecond, bytesPerSecond / 2);
+    } else {
+      bytesPerSecond =
+          Math.min(maxBytesPerSecond, bytesPerSecond + Math.max(1, maxBytesPerSecond / 10));
+    }
+  }
+}
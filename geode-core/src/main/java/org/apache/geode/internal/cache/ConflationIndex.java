@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maps the region and key of each conflatable event in a {@link BucketRegionQueue} to the queue
+ * key of the latest event queued for it.
+ * <p>
+ * The index is split into lock stripes by the hash of the region and key, so replacing the entry
+ * of a key takes one lock and does not contend with puts of keys in other stripes.
+ */
+class ConflationIndex {
+
+  private static final int STRIPES = 16;
+
+  @SuppressWarnings("unchecked")
+  private final Map<IndexKey, Long>[] stripes = new Map[STRIPES];
+
+  ConflationIndex() {
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new HashMap<>();
+    }
+  }
+
+  /**
+   * Makes the given queue key the latest one of the region and key.
+   *
+   * @return the previous latest queue key of the region and key, or null if there was none
+   */
+  Long put(String regionName, Object key, Long queueKey) {
+    IndexKey indexKey = new IndexKey(regionName, key);
+    Map<IndexKey, Long> stripe = getStripe(indexKey);
+    synchronized (stripe) {
+      return stripe.put(indexKey, queueKey);
+    }
+  }
+
+  /**
+   * Removes the entry of the region and key if the given queue key is still the latest one.
+   *
+   * @return true if the entry was removed
+   */
+  boolean remove(String regionName, Object key, Long queueKey) {
+    IndexKey indexKey = new IndexKey(regionName, key);
+    Map<IndexKey, Long> stripe = getStripe(indexKey);
+    synchronized (stripe) {
+      return stripe.remove(indexKey, queueKey);
+    }
+  }
+
+  /**
+   * Returns true if an event was queued for the region and key after the event with the given
+   * queue key.
+   */
+  boolean isSuperseded(String regionName, Object key, long queueKey) {
+    IndexKey indexKey = new IndexKey(regionName, key);
+    Map<IndexKey, Long> stripe = getStripe(indexKey);
+    Long latest;
+    synchronized (stripe) {
+      latest = stripe.get(indexKey);
+    }
+    return latest != null && latest > queueKey;
+  }
+
+  void clear() {
+    for (Map<IndexKey, Long> stripe : stripes) {
+      synchronized (stripe) {
+        stripe.clear();
+      }
+    }
+  }
+
+  int size() {
+    int size = 0;
+    for (Map<IndexKey, Long> stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.size();
+      }
+    }
+    return size;
+  }
+
+  private Map<IndexKey, Long> getStripe(IndexKey indexKey) {
+    int hash = indexKey.hashCode();
+    return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+  }
+
+  private static class IndexKey {
+
+    private final String regionName;
+
+    private final Object key;
+
+    IndexKey(String regionName, Object key) {
+      this.regionName = regionName;
+      this.key = key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof IndexKey)) {
+        return false;
+      }
+      IndexKey that = (IndexKey) o;
+      return Objects.equals(regionName, that.regionName) && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Objects.hashCode(regionName) + Objects.hashCode(key);
+    }
+  }
+}
@@ -47,9 +47,11 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
@@ -61,6 +63,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -227,6 +230,28 @@ public class DiskStoreImpl implements DiskStore {
       GeodeGlossary.GEMFIRE_PREFIX + "MAX_CONCURRENT_COMPACTIONS",
       Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "MAX_CONCURRENT_ROLLS", 1).intValue());
 
+  /**
+   * The number of the oplogs of one compaction that are compacted concurrently, see
+   * MAX_OPLOGS_PER_COMPACTION. Defaults to 1, which compacts them one after the other.
+   */
+  public static final int CONCURRENT_OPLOG_COMPACTIONS =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "CONCURRENT_OPLOG_COMPACTIONS", 1);
+
+  /**
+   * The maximum number of bytes per second that compaction copies forward. Defaults to 0, which
+   * does not limit compaction.
+   */
+  public static final long COMPACTION_MAX_BYTES_PER_SECOND =
+      Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "COMPACTION_MAX_BYTES_PER_SECOND", 0);
+
+  /**
+   * The target latency, in microseconds, of synchronous writes that the rate of a limited
+   * compaction adapts to. Defaults to 0, which keeps the rate at the maximum. For more details see
+   * {@link CompactionRateLimiter}.
+   */
+  public static final long COMPACTION_TARGET_WRITE_LATENCY_MICROS =
+      Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "COMPACTION_TARGET_WRITE_LATENCY_MICROS", 0);
+
   /**
    * This system property indicates that maximum number of delayed write tasks that can be pending
    * before submitting the tasks start blocking. These tasks are things like unpreblow oplogs,
@@ -317,6 +342,9 @@ public class DiskStoreImpl implements DiskStore {
   /** Compactor task which does the compaction. Null if compaction not possible. */
   private final OplogCompactor oplogCompactor;
 
+  /** Limits the I/O of compaction. Null if compaction is not limited. */
+  private final CompactionRateLimiter compactionRateLimiter;
+
   private DiskInitFile initFile = null;
 
   private final ReentrantReadWriteLock compactorLock = new ReentrantReadWriteLock();
@@ -507,6 +535,12 @@ public class DiskStoreImpl implements DiskStore {
     } else {
       this.oplogCompactor = null;
     }
+    if (this.oplogCompactor != null && COMPACTION_MAX_BYTES_PER_SECOND > 0) {
+      this.compactionRateLimiter = new CompactionRateLimiter(COMPACTION_MAX_BYTES_PER_SECOND,
+          TimeUnit.MICROSECONDS.toNanos(COMPACTION_TARGET_WRITE_LATENCY_MICROS), System::nanoTime);
+    } else {
+      this.compactionRateLimiter = null;
+    }
 
     this.diskStoreTaskPool = LoggingExecutors.newFixedThreadPoolWithFeedSize(
         MAX_CONCURRENT_COMPACTIONS, Integer.MAX_VALUE, "Idle OplogCompactor");
@@ -711,6 +745,7 @@ public class DiskStoreImpl implements DiskStore {
     if (!async) {
       dr.getStats().startWrite();
     }
+    long writeStart = !async && compactionRateLimiter != null ? System.nanoTime() : 0;
     try {
       if (!async) {
         acquireReadLock(dr);
@@ -767,6 +802,9 @@ public class DiskStoreImpl implements DiskStore {
       } else {
         dr.getStats().endWrite(start, getStats().endWrite(start));
         dr.getStats().incWrittenBytes(id.getValueLength());
+        if (writeStart != 0) {
+          compactionRateLimiter.foregroundWrite(System.nanoTime() - writeStart);
+        }
       }
     }
   }
@@ -2805,6 +2843,8 @@ public class DiskStoreImpl implements DiskStore {
    *
    */
   class OplogCompactor implements Runnable {
+    private static final long MAX_THROTTLE_SLEEP_NANOS = 100_000_000L;
+
     /** boolean for the thread to continue compaction* */
     private volatile boolean compactorEnabled;
     private volatile boolean scheduled;
@@ -2895,8 +2935,12 @@ public class DiskStoreImpl implements DiskStore {
       long compactionStart = getStats().startCompaction();
       long start = System.nanoTime();
       try {
-        for (int i = 0; i < oplogs.length && keepCompactorRunning(); i++) {
-          totalCount += oplogs[i].compact(this);
+        if (oplogs.length > 1 && CONCURRENT_OPLOG_COMPACTIONS > 1) {
+          totalCount = compactConcurrently(oplogs);
+        } else {
+          for (int i = 0; i < oplogs.length && keepCompactorRunning(); i++) {
+            totalCount += compact(oplogs[i]);
+          }
         }
 
       } finally {
@@ -2908,6 +2952,90 @@ public class DiskStoreImpl implements DiskStore {
       return true;
     }
 
+    /**
+     * Compacts the given oplogs in this thread and up to CONCURRENT_OPLOG_COMPACTIONS - 1 worker
+     * threads, each taking the next oplog that is not compacted yet.
+     */
+    private int compactConcurrently(CompactableOplog[] oplogs) {
+      AtomicInteger nextOplog = new AtomicInteger();
+      Supplier<Integer> worker = () -> {
+        int count = 0;
+        int i;
+        while ((i = nextOplog.getAndIncrement()) < oplogs.length && keepCompactorRunning()) {
+          count += compact(oplogs[i]);
+        }
+        return count;
+      };
+      Executor executor = LoggingExecutors.newThreadOnEachExecute("OplogCompactor Worker");
+      int workers = Math.min(CONCURRENT_OPLOG_COMPACTIONS, oplogs.length);
+      List<CompletableFuture<Integer>> futures = new ArrayList<>(workers - 1);
+      for (int i = 1; i < workers; i++) {
+        futures.add(CompletableFuture.supplyAsync(worker, executor));
+      }
+      int totalCount = worker.get();
+      for (CompletableFuture<Integer> future : futures) {
+        try {
+          totalCount += future.join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+          }
+          if (e.getCause() instanceof Error) {
+            throw (Error) e.getCause();
+          }
+          throw e;
+        }
+      }
+      return totalCount;
+    }
+
+    /**
+     * Compacts the given oplog. When compaction overdraws its I/O budget the oplog pauses its
+     * compaction and releases its locks, so that the compactor waits for the budget without
+     * blocking the operations that need those locks. Then the compaction of the oplog resumes.
+     */
+    private int compact(CompactableOplog oplog) {
+      int count = oplog.compact(this);
+      while (oplog.isCompactionPaused() && keepCompactorRunning()) {
+        waitForBudget();
+        if (!keepCompactorRunning()) {
+          break;
+        }
+        count += oplog.compact(this);
+      }
+      return count;
+    }
+
+    /**
+     * Called by the oplogs being compacted after they copied the given number of bytes forward.
+     *
+     * @return true if compaction overdrew its I/O budget, and the oplog should pause its compaction
+     *         so that the compactor can wait for the budget
+     */
+    boolean bytesCopied(long bytes) {
+      getStats().incCompactedBytes(bytes);
+      return compactionRateLimiter != null && compactionRateLimiter.acquire(bytes) > 0;
+    }
+
+    /**
+     * Waits until compaction has paid back its I/O budget. Must be called without holding the
+     * locks of an oplog or the compactor lock of the disk store.
+     */
+    private void waitForBudget() {
+      long start = System.nanoTime();
+      try {
+        long waitNanos;
+        // wait in steps so that a stopped compactor does not wait for its whole budget
+        while ((waitNanos = compactionRateLimiter.acquire(0)) > 0 && keepCompactorRunning()) {
+          TimeUnit.NANOSECONDS.sleep(Math.min(waitNanos, MAX_THROTTLE_SLEEP_NANOS));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        getStats().incCompactThrottleTime(System.nanoTime() - start);
+      }
+    }
+
     private boolean isClosing() {
       if (getCache().isClosed()) {
         return true;
@@ -2942,12 +3070,17 @@ public class DiskStoreImpl implements DiskStore {
           Thread.currentThread().setName(tName);
 
           StringBuilder buffer = new StringBuilder();
+          int totalGarbagePercent = 0;
           for (int j = 0; j < oplogs.length; ++j) {
-            buffer.append(oplogs[j].toString());
+            int garbagePercent = oplogs[j].getGarbagePercent();
+            totalGarbagePercent += garbagePercent;
+            buffer.append(oplogs[j].toString()).append(" (")
+                .append(garbagePercent).append("% garbage)");
             if (j + 1 < oplogs.length) {
               buffer.append(", ");
             }
           }
+          getStats().setCompactGarbagePercent(totalGarbagePercent / oplogs.length);
           String ids = buffer.toString();
           logger.info("OplogCompactor for {} compaction oplog id(s): {}",
               getName(), ids);
@@ -74,6 +74,9 @@ public class DiskStoreStats {
   private static final int compactUpdateTimeId;
   private static final int compactDeletesId;
   private static final int compactDeleteTimeId;
+  private static final int compactedBytesId;
+  private static final int compactThrottleTimeId;
+  private static final int compactGarbagePercentId;
 
   private static final int openOplogsId;
   private static final int inactiveOplogsId;
@@ -172,6 +175,14 @@ public class DiskStoreStats {
             f.createLongCounter("compactDeleteTime",
                 "Total amount of time, in nanoseconds, spent doing deletes during a compact",
                 "nanoseconds"),
+            f.createLongCounter("compactedBytes",
+                "Total number of value bytes that oplog compacts copied forward", "bytes"),
+            f.createLongCounter("compactThrottleTime",
+                "Total time, in nanoseconds, that oplog compacts waited for their I/O budget",
+                "nanoseconds"),
+            f.createIntGauge("compactGarbagePercent",
+                "Average percentage of garbage in the oplogs of the most recent oplog compact",
+                "percent"),
             f.createIntGauge("compactsInProgress",
                 "current number of oplog compacts that are in progress", "compacts"),
             f.createIntGauge("writesInProgress",
@@ -229,6 +240,9 @@ public class DiskStoreStats {
 
     compactDeletesId = type.nameToId("compactDeletes");
     compactDeleteTimeId = type.nameToId("compactDeleteTime");
+    compactedBytesId = type.nameToId("compactedBytes");
+    compactThrottleTimeId = type.nameToId("compactThrottleTime");
+    compactGarbagePercentId = type.nameToId("compactGarbagePercent");
     compactInsertsId = type.nameToId("compactInserts");
     compactInsertTimeId = type.nameToId("compactInsertTime");
     compactUpdatesId = type.nameToId("compactUpdates");
@@ -542,6 +556,32 @@ public class DiskStoreStats {
     this.stats.incLong(compactUpdateTimeId, getStatTime() - start);
   }
 
+  public void incCompactedBytes(long bytes) {
+    this.stats.incLong(compactedBytesId, bytes);
+  }
+
+  public void incCompactThrottleTime(long nanos) {
+    this.stats.incLong(compactThrottleTimeId, nanos);
+  }
+
+  /**
+   * Returns the total number of nanoseconds that oplog compacts waited for their I/O budget
+   */
+  public long getCompactThrottleTime() {
+    return this.stats.getLong(compactThrottleTimeId);
+  }
+
+  public void setCompactGarbagePercent(int percent) {
+    this.stats.setInt(compactGarbagePercentId, percent);
+  }
+
+  /**
+   * Returns the average percentage of garbage in the oplogs of the most recent oplog compact
+   */
+  public int getCompactGarbagePercent() {
+    return this.stats.getInt(compactGarbagePercentId);
+  }
+
   public long getStatTime() {
     return getTime();
   }
@@ -44,6 +44,7 @@ import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.cache.query.internal.index.IndexProtocol;
 import org.apache.geode.cache.query.internal.index.IndexUtils;
+import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.cache.util.TimestampedEntryEvent;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.DistributedSystem;
@@ -1719,8 +1720,8 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
     if (v instanceof Delta && getRegion().isUsedForPartitionedRegionBucket()) {
       int vSize;
       Object ov = basicGetOldValue();
-      if (ov instanceof CachedDeserializable && !(shouldRecalculateSize((Delta) v))) {
-        vSize = ((CachedDeserializable) ov).getValueSizeInBytes();
+      if (ov instanceof CachedDeserializable) {
+        vSize = calcDeltaValueSize(v, ((CachedDeserializable) ov).getValueSizeInBytes());
       } else {
         vSize = CachedDeserializableFactory.calcMemSize(v, getRegion().getObjectSizer(), false);
       }
@@ -1860,13 +1861,7 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
       // assert event.getNewValue() == null;
       if (wasCD) {
         CachedDeserializable old = (CachedDeserializable) oldValueInVM;
-        int valueSize;
-        if (shouldRecalculateSize((Delta) value)) {
-          valueSize =
-              CachedDeserializableFactory.calcMemSize(value, getRegion().getObjectSizer(), false);
-        } else {
-          valueSize = old.getValueSizeInBytes();
-        }
+        int valueSize = calcDeltaValueSize(value, old.getValueSizeInBytes());
         value = CachedDeserializableFactory.create(value, valueSize, getRegion().getCache());
       }
       setNewValue(value);
@@ -1887,6 +1882,22 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
         || value.getForceRecalculateSize();
   }
 
+  /**
+   * Returns the size of a value that a delta was applied to. The size before the delta is kept
+   * unless the size should be recalculated, in which case the object sizer of the region can adjust
+   * it incrementally.
+   */
+  private int calcDeltaValueSize(Object value, int sizeBeforeDelta) {
+    if (!shouldRecalculateSize((Delta) value)) {
+      return sizeBeforeDelta;
+    }
+    ObjectSizer sizer = getRegion().getObjectSizer();
+    if (sizer != null && !(value instanceof Sizeable)) {
+      return sizer.sizeofDelta(value, sizeBeforeDelta);
+    }
+    return CachedDeserializableFactory.calcMemSize(value, sizer, false);
+  }
+
   void setTXEntryOldValue(Object oldVal, boolean mustBeAvailable) {
     if (Token.isInvalidOrRemoved(oldVal)) {
       oldVal = null;
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Commits the synchronous writes to an oplog in batches. A writer appends its record to the write
+ * buffer of the oplog, takes a ticket from {@link #append} while still holding the oplog lock, and
+ * then waits for its ticket with {@link #await} after releasing its locks.
+ * <p>
+ * There is no dedicated committer thread. The first waiting writer becomes the leader of the next
+ * batch, waits until the batch is at least the given number of bytes or the window since the
+ * first append of the batch has passed, and then commits every write appended so far with one
+ * flush and sync. The other writers wait until a batch that includes their ticket was committed.
+ * <p>
+ * The oplog lock must be acquired before the monitor of this object, never after it.
+ */
+class GroupCommit {
+
+  interface Committer {
+    /**
+     * Makes every write appended so far durable.
+     */
+    void commit() throws IOException;
+  }
+
+  private final long windowNanos;
+
+  private final long maxBytes;
+
+  private final Committer committer;
+
+  private final LongSupplier nanoClock;
+
+  /** The ticket of the last append. GuardedBy this */
+  private long appended;
+
+  /** The ticket of the last committed append. GuardedBy this */
+  private long committed;
+
+  /** GuardedBy this */
+  private boolean committing;
+
+  /** The bytes appended since the last batch was taken. GuardedBy this */
+  private long pendingBytes;
+
+  /** GuardedBy this */
+  private long firstPendingNanos;
+
+  /**
+   * @param windowNanos how long a batch waits for more appends
+   * @param maxBytes the number of appended bytes that commits a batch without waiting
+   */
+  GroupCommit(long windowNanos, long maxBytes, Committer committer, LongSupplier nanoClock) {
+    if (windowNanos < 0) {
+      throw new IllegalArgumentException("windowNanos must not be negative");
+    }
+    this.windowNanos = windowNanos;
+    this.maxBytes = maxBytes;
+    this.committer = committer;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Records that a write of the given number of bytes was appended, and returns the ticket to wait
+   * for. Must be called while holding the lock that the committer flushes under, so that the write
+   * is included in any commit that starts later.
+   */
+  synchronized long append(int bytes) {
+    if (pendingBytes == 0) {
+      firstPendingNanos = nanoClock.getAsLong();
+    }
+    pendingBytes += bytes;
+    if (pendingBytes >= maxBytes) {
+      notifyAll();
+    }
+    return ++appended;
+  }
+
+  /**
+   * Waits until the write with the given ticket was committed, committing a batch if no other
+   * thread is. Must be called without holding the oplog lock.
+   */
+  void await(long ticket) throws IOException, InterruptedException {
+    long batch;
+    synchronized (this) {
+      while (committing) {
+        if (committed >= ticket) {
+          return;
+        }
+        wait();
+      }
+      if (committed >= ticket) {
+        return;
+      }
+      committing = true;
+      try {
+        long remaining;
+        while (pendingBytes > 0 && pendingBytes < maxBytes
+            && (remaining = firstPendingNanos + windowNanos - nanoClock.getAsLong()) > 0) {
+          TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+      } catch (InterruptedException e) {
+        committing = false;
+        notifyAll();
+        throw e;
+      }
+      batch = appended;
+      pendingBytes = 0;
+    }
+
+    boolean done = false;
+    try {
+      committer.commit();
+      done = true;
+    } finally {
+      synchronized (this) {
+        if (done) {
+          committed = Math.max(committed, batch);
+        }
+        committing = false;
+        notifyAll();
+      }
+    }
+  }
+
+  synchronized long getCommitted() {
+    return committed;
+  }
+}
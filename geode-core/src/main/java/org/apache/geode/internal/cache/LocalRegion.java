@@ -36,6 +36,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -76,6 +77,7 @@ import org.apache.geode.annotations.Immutable;
 import org.apache.geode.annotations.VisibleForTesting;
 import org.apache.geode.annotations.internal.MakeNotStatic;
 import org.apache.geode.cache.AttributesMutator;
+import org.apache.geode.cache.BulkCacheLoader;
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.CacheEvent;
@@ -119,6 +121,7 @@ import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.cache.client.internal.Connection;
 import org.apache.geode.cache.client.internal.Endpoint;
+import org.apache.geode.cache.client.internal.NearCache;
 import org.apache.geode.cache.client.internal.PoolImpl;
 import org.apache.geode.cache.client.internal.ServerRegionProxy;
 import org.apache.geode.cache.control.ResourceManager;
@@ -648,6 +651,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     // initialize client to server proxy
     serverRegionProxy =
         getPoolName() != null ? serverRegionProxyConstructor.create(this) : null;
+    nearCache = NearCache.create(this);
     imageState = new UnsharedImageState(getPoolName() != null,
         getDataPolicy().withReplication() || getDataPolicy().isPreloaded(),
         getAttributes().getDataPolicy().withPersistence(), stopper);
@@ -803,6 +807,12 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    */
   private final ServerRegionProxy serverRegionProxy;
 
+  /**
+   * Keeps the values this client region loads from its servers coherent, or null if near caching
+   * is disabled
+   */
+  private final NearCache nearCache;
+
   private final InternalDataView sharedDataView;
 
   @Override
@@ -1368,7 +1378,11 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
           preferCD, clientEvent, returnTombstones, retainResult, true);
       final boolean isCreate = value == null;
       isMiss = value == null || Token.isInvalid(value)
-          || !returnTombstones && value == Token.TOMBSTONE;
+          || !returnTombstones && value == Token.TOMBSTONE
+          || !opScopeIsLocal && isNearCacheStale(key);
+      if (!isMiss && nearCache != null) {
+        nearCache.valueRead(key);
+      }
       // Note: if the value was Token.DESTROYED then getDeserialized returns null
       if (isMiss) {
         // raise the precedence of opScopeIsLocal if scope is local and there is no loader,
@@ -1395,6 +1409,18 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
   }
 
+  /**
+   * Returns true if the local value of the given key may be too stale to read because the near
+   * cache cannot currently receive invalidations for it.
+   */
+  private boolean isNearCacheStale(Object key) {
+    if (nearCache == null || isTX() || !nearCache.mayBeStale()) {
+      return false;
+    }
+    RegionEntry entry = basicGetEntry(key);
+    return entry != null && nearCache.isStale(entry);
+  }
+
   protected long startGet() {
     return getCachePerfStats().startGet();
   }
@@ -1462,8 +1488,11 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
       // stats have now been updated
       if (localValue != null && !Token.isInvalid(localValue)) {
-        result = localValue;
-        return result;
+        if (!isNearCacheStale(keyInfo.getKey())) {
+          result = localValue;
+          return result;
+        }
+        // the value may be stale, so fetch it from the servers again
       }
       isCreate = localValue == null;
       result = findObjectInSystem(keyInfo, isCreate, null, generateCallbacks, localValue,
@@ -2876,6 +2905,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
               // tombstones are destroyed entries
               return null;
             }
+            if (fromServer && nearCache != null) {
+              nearCache.valueLoaded(key);
+            }
           } catch (ConcurrentCacheModificationException ignore) {
             // this means the value attempted to overwrite a newer modification and was rejected
             if (logger.isDebugEnabled()) {
@@ -3790,8 +3822,6 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
                 interestResultPolicy, isDurable, receiveUpdatesAsInvalidates, regionDataPolicy);
           } else {
             if (key instanceof List) {
-              logger.warn(
-                  "Usage of registerInterest(List) has been deprecated. Please use registerInterestForKeys(Iterable)");
               serverKeys = proxy.registerInterestList((List) key, interestResultPolicy, isDurable,
                   receiveUpdatesAsInvalidates, regionDataPolicy);
             } else {
@@ -3877,9 +3907,21 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   @Override
   public void registerInterest(Object key, InterestResultPolicy policy, boolean isDurable,
       boolean receiveValues) {
+    if (key instanceof List) {
+      logger.warn(
+          "Usage of registerInterest(List) has been deprecated. Please use registerInterestForKeys(Iterable)");
+    }
     processSingleInterest(key, InterestType.KEY, policy, isDurable, !receiveValues);
   }
 
+  /**
+   * Registers interest in all the given keys with a single request to the servers.
+   */
+  public void registerInterestList(List<?> keys, InterestResultPolicy policy, boolean isDurable,
+      boolean receiveValues) {
+    processSingleInterest(keys, InterestType.KEY, policy, isDurable, !receiveValues);
+  }
+
   @Override
   public void registerInterestRegex(String regex) {
     registerInterestRegex(regex, false);
@@ -6739,6 +6781,10 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       updateStatsForDestroy();
     }
     entryUserAttributes.remove(event.getKey());
+    if (nearCache != null) {
+      // destroyed and evicted entries no longer need invalidations from the servers
+      nearCache.valueRemoved(event.getKey());
+    }
   }
 
   /**
@@ -8755,19 +8801,69 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     } else {
       // This implementation for a P2P VM is a stop-gap to provide the
       // functionality. It needs to be rewritten more efficiently.
-      for (Object key : keys) {
-        try {
-          allResults.put(key, get(key, callback));
-        } catch (Exception e) {
-          logger.warn(String.format("The following exception occurred attempting to get key=%s",
-              key),
-              e);
+      BulkLoadResults bulkLoadResults = bulkLoad(keys, callback);
+      try {
+        for (Object key : keys) {
+          try {
+            allResults.put(key, get(key, callback));
+          } catch (Exception e) {
+            logger.warn(String.format("The following exception occurred attempting to get key=%s",
+                key),
+                e);
+          }
+        }
+      } finally {
+        if (bulkLoadResults != null) {
+          bulkLoadResults.close();
         }
       }
     }
     return allResults;
   }
 
+  /**
+   * Loads the keys of a getAll that this member would load with its local loader in one call, if
+   * the loader is a {@link BulkCacheLoader}.
+   *
+   * @return the loaded values, to be closed once the keys have been read, or null if nothing was
+   *         loaded
+   */
+  private BulkLoadResults bulkLoad(Collection keys, Object callback) {
+    CacheLoader loader = basicGetLoader();
+    if (!(loader instanceof BulkCacheLoader) || getTXState() != null) {
+      return null;
+    }
+    Collection<Object> keysToLoad = getKeysToBulkLoad(keys, callback);
+    if (keysToLoad.size() < 2) {
+      return null;
+    }
+    Map<?, ?> values;
+    try {
+      values = ((BulkCacheLoader) loader).loadAll(this, keysToLoad, callback);
+    } catch (RuntimeException e) {
+      logger.warn("Bulk load of {} keys failed. The keys will be loaded one at a time.",
+          keysToLoad.size(), e);
+      return null;
+    }
+    if (values == null || values.isEmpty()) {
+      return null;
+    }
+    return BulkLoadResults.open(this, values);
+  }
+
+  /**
+   * Returns the keys a get would load with the local loader of this member.
+   */
+  Collection<Object> getKeysToBulkLoad(Collection<?> keys, Object callback) {
+    Set<Object> keysToLoad = new LinkedHashSet<>();
+    for (Object key : keys) {
+      if (key != null && (!hasStorage() || !containsValueForKey(key))) {
+        keysToLoad.add(key);
+      }
+    }
+    return keysToLoad;
+  }
+
   /**
    * Return false if it will never store entry ekys and values locally; otherwise return true.
    */
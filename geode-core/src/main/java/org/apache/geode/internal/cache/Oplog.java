@@ -42,6 +42,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -180,6 +181,21 @@ public class Oplog implements CompactableOplog, Flushable {
   private static final boolean SYNC_WRITES =
       Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "syncWrites");
 
+  /**
+   * The number of microseconds that a synchronous write waits for other synchronous writes to the
+   * same oplog, so that they are flushed and synced to disk together. The default of 0 flushes
+   * each synchronous write on its own.
+   */
+  private static final long GROUP_COMMIT_MICROS =
+      Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "groupCommitMicros", 0);
+
+  /**
+   * The number of bytes of synchronous writes that are flushed together without waiting any
+   * longer for more writes.
+   */
+  private static final int GROUP_COMMIT_BYTES =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "groupCommitBytes", 256 * 1024);
+
   /**
    * The HighWaterMark of recentValues.
    */
@@ -518,6 +534,15 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   final Object lock = new Object();
 
+  /**
+   * Batches the flushes of synchronous writes, or null if each synchronous write is flushed while
+   * holding the lock.
+   */
+  private final GroupCommit groupCommit = GROUP_COMMIT_MICROS > 0
+      ? new GroupCommit(TimeUnit.MICROSECONDS.toNanos(GROUP_COMMIT_MICROS), GROUP_COMMIT_BYTES,
+          this::commitGroup, System::nanoTime)
+      : null;
+
   final ByteBuffer[] bbArray = new ByteBuffer[2];
 
   private boolean lockedForKRFcreate = false;
@@ -3511,6 +3536,7 @@ public class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    long commitTicket = 0;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicCreate KRF_DEBUG");
@@ -3579,7 +3605,8 @@ public class Oplog implements CompactableOplog, Flushable {
           id.setOplogId(getOplogId());
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          startPosForSynchOp = writeOpLogBytes(this.crf, async, this.groupCommit == null);
+          commitTicket = appendToGroupCommit(async);
           // if (this.crf.currSize != startPosForSynchOp) {
           // assert false;
           // }
@@ -3635,6 +3662,7 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    awaitGroupCommit(commitTicket);
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -4515,6 +4543,7 @@ public class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1L;
+    long commitTicket = 0;
     int adjustment = 0;
     Oplog emptyOplog = null;
     if (DiskStoreImpl.KRF_DEBUG) {
@@ -4548,7 +4577,8 @@ public class Oplog implements CompactableOplog, Flushable {
             long oldOplogId;
             // do the io while holding lock so that switch can set doneAppending
             // Write the data to the opLog for the synch mode
-            startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.crf, async, this.groupCommit == null);
+            commitTicket = appendToGroupCommit(async);
             this.crf.currSize = temp;
             startPosForSynchOp += getOpStateValueOffset();
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES_VERBOSE)) {
@@ -4619,6 +4649,7 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    awaitGroupCommit(commitTicket);
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -4972,6 +5003,7 @@ public class Oplog implements CompactableOplog, Flushable {
 
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    long commitTicket = 0;
     Oplog emptyOplog = null;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
@@ -5021,7 +5053,8 @@ public class Oplog implements CompactableOplog, Flushable {
             // before we flush the crf.
             // However we can't have removes by async if we are doing a sync write
             // because we might be killed right after we do this write.
-            startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.drf, async, this.groupCommit == null);
+            commitTicket = appendToGroupCommit(async);
             setHasDeletes(true);
             if (logger.isDebugEnabled(LogMarker.PERSIST_WRITES_VERBOSE)) {
               logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5053,6 +5086,7 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    awaitGroupCommit(commitTicket);
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -5101,6 +5135,55 @@ public class Oplog implements CompactableOplog, Flushable {
     flushAll(false);
   }
 
+  /**
+   * Takes a ticket for the synchronous write that was just written to the write buffer, or returns
+   * 0 if the write is asynchronous or was already flushed. Must be called while holding the lock.
+   */
+  private long appendToGroupCommit(boolean async) {
+    if (async || this.groupCommit == null) {
+      return 0;
+    }
+    return this.groupCommit.append(getOpStateSize());
+  }
+
+  /**
+   * Waits until the synchronous write with the given ticket was flushed and synced. Must be called
+   * without holding the lock or the backup lock.
+   */
+  private void awaitGroupCommit(long commitTicket) throws IOException, InterruptedException {
+    if (commitTicket != 0) {
+      this.groupCommit.await(commitTicket);
+    }
+  }
+
+  /**
+   * Flushes the write buffers while holding the lock, and then syncs the channels without it so
+   * that writers can fill the write buffers with the next batch meanwhile. The drf is flushed
+   * first, like in {@link #flushAll(boolean, boolean)}.
+   */
+  private void commitGroup() throws IOException {
+    synchronized (this.lock) {
+      flush(this.drf, false);
+      flush(this.crf, false);
+    }
+    if (SYNC_WRITES) {
+      force(this.drf);
+      force(this.crf);
+    }
+  }
+
+  private void force(OplogFile olf) throws IOException {
+    if (olf.RAFClosed || olf.channel == null) {
+      return;
+    }
+    try {
+      // Synch Meta Data as well as content
+      olf.channel.force(true);
+    } catch (ClosedChannelException ignore) {
+      // The oplog was closed, which flushed and synced everything that was written to it
+    }
+  }
+
   private static final int MAX_CHANNEL_RETRIES = 5;
 
   private void flush(OplogFile olf, boolean doSync) throws IOException {
@@ -5805,6 +5888,21 @@ public class Oplog implements CompactableOplog, Flushable {
     return false;
   }
 
+  @Override
+  public boolean isCompactionPaused() {
+    return compactionPaused;
+  }
+
+  @Override
+  public int getGarbagePercent() {
+    long total = this.totalCount.get();
+    if (total <= 0) {
+      return 100;
+    }
+    long live = Math.max(0, Math.min(total, this.totalLiveCount.get()));
+    return (int) (100 - live * 100 / total);
+  }
+
   public boolean hadLiveEntries() {
     return this.totalCount.get() != 0;
   }
@@ -5947,6 +6045,12 @@ public class Oplog implements CompactableOplog, Flushable {
 
   private final Lock compactorLock = new ReentrantLock();
 
+  /**
+   * Whether the last compaction of this oplog paused to wait for the I/O budget of compaction.
+   * Only accessed by the compactor thread.
+   */
+  private boolean compactionPaused;
+
   private void lockCompactor() {
     this.compactorLock.lock();
   }
@@ -5961,6 +6065,7 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   @Override
   public int compact(OplogCompactor compactor) {
+    compactionPaused = false;
     if (!needsCompaction()) {
       return 0; // @todo check new logic that deals with not compacting oplogs
                 // which have unrecovered regions
@@ -6011,6 +6116,7 @@ public class Oplog implements CompactableOplog, Flushable {
             }
             lastDe = de;
             didCompact = false;
+            long bytesCopied = 0;
             synchronized (de) { // fix for bug 41797
               DiskId did = de.getDiskId();
               assert did != null;
@@ -6035,6 +6141,7 @@ public class Oplog implements CompactableOplog, Flushable {
                   getOplogSet().getChild().copyForwardModifyForCompact(dr, de, wrapper);
                   // the did's oplogId will now be set to the current active oplog
                   didCompact = true;
+                  bytesCopied = did.getValueLength();
                 }
               } // did
             } // de
@@ -6052,8 +6159,17 @@ public class Oplog implements CompactableOplog, Flushable {
               if (!wrapper.isReusable()) {
                 wrapper = new BytesAndBitsForCompactor();
               }
+              if (compactor.bytesCopied(bytesCopied)) {
+                // the compactor waits for its I/O budget without holding the locks of this oplog
+                compactionPaused = true;
+                compactFailed = true;
+                break;
+              }
             }
           }
+          if (compactionPaused) {
+            break;
+          }
         }
 
         cleanupAfterCompaction(compactFailed);
@@ -1053,6 +1053,21 @@ class OverflowOplog implements CompactableOplog, Flushable {
     return false;
   }
 
+  @Override
+  public boolean isCompactionPaused() {
+    return compactionPaused;
+  }
+
+  @Override
+  public int getGarbagePercent() {
+    long total = this.totalCount.get();
+    if (total <= 0) {
+      return 100;
+    }
+    long live = Math.max(0, Math.min(total, this.totalLiveCount.get()));
+    return (int) (100 - live * 100 / total);
+  }
+
   public boolean hasNoLiveValues() {
     return this.totalLiveCount.get() <= 0;
   }
@@ -1219,6 +1234,12 @@ class OverflowOplog implements CompactableOplog, Flushable {
 
   private final Lock compactorLock = new ReentrantLock();
 
+  /**
+   * Whether the last compaction of this oplog paused to wait for the I/O budget of compaction.
+   * Only accessed by the compactor thread.
+   */
+  private boolean compactionPaused;
+
   private void lockCompactor() {
     this.compactorLock.lock();
   }
@@ -1229,6 +1250,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
 
   @Override
   public int compact(OplogCompactor compactor) {
+    compactionPaused = false;
     if (!needsCompaction()) {
       return 0;
     }
@@ -1265,6 +1287,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
           }
           lastDe = de;
           didCompact = false;
+          int bytesCopied = 0;
           synchronized (de) { // fix for bug 41797
             DiskId did = de.getDiskId();
             assert did != null;
@@ -1306,6 +1329,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
                 getOplogSet().copyForwardForOverflowCompact(de, valueBytes, length, userBits);
                 // the did's oplogId will now be set to the current active oplog
                 didCompact = true;
+                bytesCopied = length;
               }
             } // did
           } // de
@@ -1321,6 +1345,12 @@ class OverflowOplog implements CompactableOplog, Flushable {
             if (!wrapper.isReusable()) {
               wrapper = new BytesAndBitsForCompactor();
             }
+            if (compactor.bytesCopied(bytesCopied)) {
+              // the compactor waits for its I/O budget without holding the locks of this oplog
+              compactionPaused = true;
+              compactFailed = true;
+              break;
+            }
           }
         }
 
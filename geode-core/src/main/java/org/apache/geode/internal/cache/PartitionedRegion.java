@@ -30,6 +30,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -10049,6 +10050,36 @@ public class PartitionedRegion extends LocalRegion
     return this.getLocalMaxMemory() != 0;
   }
 
+  /**
+   * Returns the keys of the primary buckets of this member that have no value, since the loads of
+   * other keys are done by the members hosting their primaries.
+   */
+  @Override
+  Collection<Object> getKeysToBulkLoad(Collection<?> keys, Object callback) {
+    PartitionedRegionDataStore dataStore = getDataStore();
+    if (dataStore == null) {
+      return Collections.emptySet();
+    }
+    Set<Object> keysToLoad = new LinkedHashSet<>();
+    for (Object key : keys) {
+      if (key == null) {
+        continue;
+      }
+      int bucketId =
+          PartitionedRegionHelper.getHashKey(this, Operation.GET, key, null, callback);
+      BucketRegion bucket = dataStore.getLocalBucketById(bucketId);
+      try {
+        if (bucket != null && bucket.getBucketAdvisor().isPrimary()
+            && !bucket.containsValueForKey(key)) {
+          keysToLoad.add(key);
+        }
+      } catch (RegionDestroyedException ignore) {
+        // the bucket has moved, so its primary loads the key
+      }
+    }
+    return keysToLoad;
+  }
+
   @Override
   public EntryExpiryTask getEntryExpiryTask(Object key) {
     BucketRegion br = this.getDataStore().getLocalBucketByKey(key);
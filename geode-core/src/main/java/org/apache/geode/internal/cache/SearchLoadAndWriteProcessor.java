@@ -800,7 +800,12 @@ public class SearchLoadAndWriteProcessor implements MembershipListener {
           this.aCallbackArgument, netSearchAllowed, true /* netLoadAllowed */, this);
       long statStart = stats.startLoad();
       try {
-        obj = loader.load(loaderHelper);
+        BulkLoadResults bulkLoadResults = BulkLoadResults.get(this.region);
+        if (bulkLoadResults != null && bulkLoadResults.containsKey(this.key)) {
+          obj = bulkLoadResults.remove(this.key);
+        } else {
+          obj = loader.load(loaderHelper);
+        }
         obj = this.region.getCache().convertPdxInstanceIfNeeded(obj, preferCD);
       } finally {
         stats.endLoad(statStart);
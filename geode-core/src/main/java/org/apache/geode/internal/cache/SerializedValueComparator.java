@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import org.apache.geode.annotations.Immutable;
+import org.apache.geode.internal.serialization.DSCODE;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSource;
+
+/**
+ * Compares and hashes values in their serialized form without deserializing them.
+ * <p>
+ * This is only done for values whose serialized form is canonical: values that are equal according
+ * to their equals method always serialize to the same bytes and values with the same bytes are
+ * always equal. These are nulls, strings, boxed primitives, dates and arrays of primitives. For any
+ * other value the comparison result is {@link Result#UNKNOWN} and the caller has to fall back to
+ * comparing the deserialized values.
+ */
+public class SerializedValueComparator {
+
+  public enum Result {
+    EQUAL, NOT_EQUAL, UNKNOWN;
+
+    static Result valueOf(boolean equal) {
+      return equal ? EQUAL : NOT_EQUAL;
+    }
+  }
+
+  @Immutable
+  private static final DSCODE[] CANONICAL_CODES = new DSCODE[128];
+
+  static {
+    for (DSCODE code : EnumSet.of(DSCODE.NULL, DSCODE.STRING, DSCODE.STRING_BYTES,
+        DSCODE.HUGE_STRING, DSCODE.HUGE_STRING_BYTES, DSCODE.BOOLEAN, DSCODE.CHARACTER,
+        DSCODE.BYTE, DSCODE.SHORT, DSCODE.INTEGER, DSCODE.LONG, DSCODE.FLOAT, DSCODE.DOUBLE,
+        DSCODE.DATE, DSCODE.BOOLEAN_ARRAY, DSCODE.CHAR_ARRAY, DSCODE.BYTE_ARRAY,
+        DSCODE.SHORT_ARRAY, DSCODE.INT_ARRAY, DSCODE.LONG_ARRAY, DSCODE.FLOAT_ARRAY,
+        DSCODE.DOUBLE_ARRAY)) {
+      CANONICAL_CODES[code.toByte()] = code;
+    }
+  }
+
+  private SerializedValueComparator() {
+    // no instances
+  }
+
+  /**
+   * Returns true if the values serialized with the given header byte have a canonical serialized
+   * form.
+   */
+  public static boolean isCanonical(byte header) {
+    return getCanonicalCode(header) != null;
+  }
+
+  /**
+   * Compares two values serialized with DataSerializer.writeObject.
+   */
+  public static Result compare(byte[] serialized1, byte[] serialized2) {
+    if (serialized1.length == 0 || serialized2.length == 0) {
+      return Result.UNKNOWN;
+    }
+    if (!isCanonical(serialized1[0]) || !isCanonical(serialized2[0])) {
+      return Result.UNKNOWN;
+    }
+    return Result.valueOf(Arrays.equals(serialized1, serialized2));
+  }
+
+  /**
+   * Compares two values serialized with DataSerializer.writeObject. The sources are not modified.
+   */
+  public static Result compare(ByteSource serialized1, ByteSource serialized2) {
+    if (serialized1.remaining() == 0 || serialized2.remaining() == 0) {
+      return Result.UNKNOWN;
+    }
+    if (!isCanonical(serialized1.get(serialized1.position()))
+        || !isCanonical(serialized2.get(serialized2.position()))) {
+      return Result.UNKNOWN;
+    }
+    return Result.valueOf(serialized1.equals(serialized2));
+  }
+
+  /**
+   * Returns true if {@link #hashCode(ByteSource)} can compute the hash code of the values
+   * serialized with the given header byte.
+   */
+  public static boolean hasHashCode(byte header) {
+    DSCODE code = getCanonicalCode(header);
+    return code != null && code != DSCODE.NULL && !isPrimitiveArray(code);
+  }
+
+  /**
+   * Returns the same hash code as calling hashCode on the deserialized value. The caller must have
+   * checked {@link #hasHashCode(byte)} for the first byte of the serialized value. The source is
+   * not modified.
+   */
+  public static int hashCode(ByteSource serialized) {
+    int p = serialized.position();
+    byte header = serialized.get(p++);
+    DSCODE code = getCanonicalCode(header);
+    if (code == null) {
+      throw new IllegalArgumentException(
+          "Can not compute the hash code of a value serialized as " + header);
+    }
+    switch (code) {
+      case STRING_BYTES:
+        return hashAsciiString(serialized, p + 2, serialized.getShort(p) & 0xFFFF);
+      case HUGE_STRING_BYTES:
+        return hashAsciiString(serialized, p + 4, serialized.getInt(p));
+      case HUGE_STRING:
+        return hashCharString(serialized, p + 4, serialized.getInt(p));
+      case STRING:
+        return hashUtfString(serialized, p + 2, serialized.getShort(p) & 0xFFFF);
+      case BOOLEAN:
+        return Boolean.hashCode(serialized.get(p) != 0);
+      case CHARACTER:
+        return Character.hashCode(serialized.getChar(p));
+      case BYTE:
+        return Byte.hashCode(serialized.get(p));
+      case SHORT:
+        return Short.hashCode(serialized.getShort(p));
+      case INTEGER:
+        return Integer.hashCode(serialized.getInt(p));
+      case LONG:
+      case DATE: // a date has the same hash code as its time
+        return Long.hashCode(serialized.getLong(p));
+      case FLOAT: // written as Float.floatToIntBits
+        return serialized.getInt(p);
+      case DOUBLE: // written as Double.doubleToLongBits
+        return Long.hashCode(serialized.getLong(p));
+      default:
+        throw new IllegalArgumentException(
+            "Can not compute the hash code of a value serialized as " + code);
+    }
+  }
+
+  private static int hashAsciiString(ByteSource serialized, int start, int length) {
+    int h = 0;
+    for (int i = start; i < start + length; i++) {
+      h = 31 * h + (serialized.get(i) & 0xFF);
+    }
+    return h;
+  }
+
+  private static int hashCharString(ByteSource serialized, int start, int length) {
+    int h = 0;
+    for (int i = start; i < start + 2 * length; i += 2) {
+      h = 31 * h + serialized.getChar(i);
+    }
+    return h;
+  }
+
+  /**
+   * Computes the hash code of a string written with DataOutput.writeUTF by decoding its modified
+   * UTF-8 one character at a time.
+   */
+  private static int hashUtfString(ByteSource serialized, int start, int utfLength) {
+    int h = 0;
+    int i = start;
+    int end = start + utfLength;
+    while (i < end) {
+      int b = serialized.get(i) & 0xFF;
+      char c;
+      if (b < 0x80) {
+        c = (char) b;
+        i++;
+      } else if ((b & 0xE0) == 0xC0) {
+        c = (char) (((b & 0x1F) << 6) | (serialized.get(i + 1) & 0x3F));
+        i += 2;
+      } else {
+        c = (char) (((b & 0x0F) << 12) | ((serialized.get(i + 1) & 0x3F) << 6)
+            | (serialized.get(i + 2) & 0x3F));
+        i += 3;
+      }
+      h = 31 * h + c;
+    }
+    return h;
+  }
+
+  private static boolean isPrimitiveArray(DSCODE code) {
+    switch (code) {
+      case BOOLEAN_ARRAY:
+      case CHAR_ARRAY:
+      case BYTE_ARRAY:
+      case SHORT_ARRAY:
+      case INT_ARRAY:
+      case LONG_ARRAY:
+      case FLOAT_ARRAY:
+      case DOUBLE_ARRAY:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static DSCODE getCanonicalCode(byte header) {
+    return header >= 0 ? CANONICAL_CODES[header] : null;
+  }
+}
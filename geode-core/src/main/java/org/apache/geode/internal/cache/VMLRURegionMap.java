@@ -62,7 +62,7 @@ public class VMLRURegionMap extends AbstractRegionMap {
     initialize(owner, attr, internalRegionArgs);
     this.evictionController = evictionController;
     getEvictionController().setPerEntryOverhead(getEntryOverhead());
-    this.lruList = new EvictionListBuilder(getEvictionController()).create();
+    this.lruList = new EvictionListBuilder(getEvictionController(), this::regionEntries).create();
   }
 
   private final EvictionController evictionController;
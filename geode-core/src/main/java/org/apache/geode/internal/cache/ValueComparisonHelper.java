@@ -230,6 +230,17 @@ public class ValueComparisonHelper {
         return false;
       }
       byte[] cdValBytes = (byte[]) cdVal;
+      if (obj instanceof CachedDeserializable && ((CachedDeserializable) obj).isSerialized()) {
+        Object objVal = ((CachedDeserializable) obj).getValue();
+        if (objVal instanceof byte[]) {
+          // values like strings and boxed primitives can be compared without deserializing them
+          SerializedValueComparator.Result result =
+              SerializedValueComparator.compare(cdValBytes, (byte[]) objVal);
+          if (result != SerializedValueComparator.Result.UNKNOWN) {
+            return result == SerializedValueComparator.Result.EQUAL;
+          }
+        }
+      }
       PdxInstance pi = InternalDataSerializer.readPdxInstance(cdValBytes, cache);
       if (pi != null) {
         return ValueComparisonHelper.checkPdxEquals(pi, obj, cache);
@@ -20,6 +20,8 @@ import org.apache.geode.cache.EvictionAlgorithm;
 import org.apache.geode.cache.EvictionAttributes;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.size.SampledClassObjectSizer;
 
 /**
  * Eviction controllers that extend this class evict the least recently used (LRU) entry in the
@@ -60,7 +62,7 @@ public abstract class AbstractEvictionController implements EvictionController {
       StatisticsFactory statsFactory, String statsName) {
     EvictionAlgorithm algorithm = evictionAttributes.getAlgorithm();
     EvictionAction action = evictionAttributes.getAction();
-    ObjectSizer sizer = evictionAttributes.getObjectSizer();
+    ObjectSizer sizer = getSampledSizer(evictionAttributes.getObjectSizer());
     int maximum = evictionAttributes.getMaximum();
     EvictionStats evictionStats;
     EvictionCounters evictionCounters;
@@ -84,6 +86,21 @@ public abstract class AbstractEvictionController implements EvictionController {
     throw new IllegalStateException("Unhandled algorithm " + algorithm);
   }
 
+  /**
+   * Returns a {@link SampledClassObjectSizer} in place of the given built-in object sizer if
+   * sampled sizing is enabled, otherwise the given sizer.
+   */
+  static ObjectSizer getSampledSizer(ObjectSizer sizer) {
+    if (sizer != null && sizer != ObjectSizer.SIZE_CLASS_ONCE
+        && sizer != ObjectSizer.REFLECTION_SIZE) {
+      return sizer;
+    }
+    return SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_SIZE_SAMPLE_INTERVAL)
+        .filter(interval -> interval > 0)
+        .<ObjectSizer>map(SampledClassObjectSizer::new).orElse(sizer);
+  }
+
   /**
    * What to do upon eviction
    */
@@ -14,26 +14,58 @@
  */
 package org.apache.geode.internal.cache.eviction;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.function.Supplier;
 
+import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.lang.SystemPropertyHelper;
 
 public class EvictionListBuilder {
 
   private final boolean evictionScanAsync;
 
+  private final boolean evictionTinyLFU;
+
+  private final int evictionSampleSize;
+
+  private final int evictionSearchMaxEntries;
+
   private final EvictionController controller;
 
+  private final Supplier<Collection<RegionEntry>> entries;
+
   public EvictionListBuilder(EvictionController evictionController) {
+    this(evictionController, null);
+  }
+
+  /**
+   * @param entries the entries of the region map, which the created list may sweep instead of
+   *        keeping its own list of entries
+   */
+  public EvictionListBuilder(EvictionController evictionController,
+      Supplier<Collection<RegionEntry>> entries) {
     this.controller = evictionController;
+    this.entries = entries;
     Optional<Boolean> asyncScan =
         SystemPropertyHelper.getProductBooleanProperty(SystemPropertyHelper.EVICTION_SCAN_ASYNC);
     evictionScanAsync = asyncScan.orElse(true);
+    evictionTinyLFU = SystemPropertyHelper
+        .getProductBooleanProperty(SystemPropertyHelper.EVICTION_TINY_LFU).orElse(false);
+    evictionSampleSize = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_SAMPLE_SIZE).orElse(0);
+    evictionSearchMaxEntries = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_SEARCH_MAX_ENTRIES).orElse(-1);
   }
 
   public EvictionList create() {
     if (this.controller.getEvictionAlgorithm().isLIFO()) {
       return new LIFOList(this.controller);
+    } else if (evictionTinyLFU) {
+      return new TinyLFUList(this.controller);
+    } else if (entries != null && evictionSampleSize > 0) {
+      return new SampledLRUList(this.controller, entries, evictionSampleSize,
+          evictionSearchMaxEntries);
     } else {
       if (evictionScanAsync) {
         return new LRUListWithAsyncSorting(this.controller);
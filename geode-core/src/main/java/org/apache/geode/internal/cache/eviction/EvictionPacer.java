@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+/**
+ * Decides how many bytes to evict in each interval of paced eviction from the memory usage
+ * reported by memory events.
+ * <p>
+ * Each interval evicts a share of the usage above the eviction clear threshold, plus the growth of
+ * the usage expected during the interval. The reported usage of the tenured heap only drops after
+ * a garbage collection, so the bytes evicted since the usage last dropped are treated as already
+ * freed instead of being evicted again, however often the same usage is reported. Once the usage
+ * drops, the collection is assumed to have freed them.
+ */
+class EvictionPacer {
+
+  private final long intervalMillis;
+
+  private final int catchUpIntervals;
+
+  /** GuardedBy this */
+  private long bytesUsed = -1;
+
+  /** GuardedBy this */
+  private long clearBytes;
+
+  /** GuardedBy this */
+  private long lastReportTime;
+
+  /** The evicted bytes that the reported usage may still include. GuardedBy this */
+  private long bytesEvictedSinceDrop;
+
+  /** An exponential moving average of the growth of the usage. GuardedBy this */
+  private double bytesPerMilli;
+
+  /**
+   * @param intervalMillis the time between eviction intervals
+   * @param catchUpIntervals the number of intervals over which the usage above the eviction clear
+   *        threshold is evicted
+   */
+  EvictionPacer(long intervalMillis, int catchUpIntervals) {
+    this.intervalMillis = intervalMillis;
+    this.catchUpIntervals = catchUpIntervals;
+  }
+
+  long getIntervalMillis() {
+    return intervalMillis;
+  }
+
+  /**
+   * Records the memory usage reported at the given time.
+   */
+  synchronized void usageReported(long bytesUsed, long clearBytes, long now) {
+    if (this.bytesUsed >= 0 && bytesUsed < this.bytesUsed) {
+      // a collection freed the evicted bytes, and hides the growth since the last report
+      bytesEvictedSinceDrop = 0;
+    } else if (this.bytesUsed >= 0 && now > lastReportTime) {
+      // without a collection the evicted bytes have not been freed, so they do not offset growth
+      double growth = (double) (bytesUsed - this.bytesUsed) / (now - lastReportTime);
+      bytesPerMilli = bytesPerMilli == 0 ? growth : (bytesPerMilli + growth) / 2;
+    }
+    this.bytesUsed = bytesUsed;
+    this.clearBytes = clearBytes;
+    lastReportTime = now;
+  }
+
+  synchronized void bytesEvicted(long bytes) {
+    bytesEvictedSinceDrop += bytes;
+  }
+
+  /**
+   * Returns the number of bytes to evict in the next interval, at most the given maximum.
+   */
+  synchronized long getBytesToEvict(long maxBytes) {
+    if (bytesUsed < 0) {
+      return maxBytes;
+    }
+    long excess = Math.max(0, bytesUsed - clearBytes - bytesEvictedSinceDrop);
+    long bytes = excess / catchUpIntervals + (long) (bytesPerMilli * intervalMillis);
+    return Math.min(bytes, maxBytes);
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+/**
+ * A count-min sketch estimating how often keys were used, with four bit counters packed sixteen to
+ * a long. Each key has one counter in each of four rows of the table, and its frequency is the
+ * smallest of them. Once ten uses per long of the table were counted all the counters are halved,
+ * so the frequencies favor recent uses.
+ * <p>
+ * The sketch is not thread safe.
+ */
+class FrequencySketch {
+
+  private static final long[] SEEDS =
+      {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final int MAX_FREQUENCY = 15;
+
+  private long[] table = new long[1];
+
+  private int sampleSize = 10;
+
+  private int size;
+
+  /**
+   * Grows the table to count about the given number of keys accurately, discarding the counted
+   * uses if it has to grow.
+   */
+  void ensureCapacity(int maximumSize) {
+    int capacity = Math.min(Math.max(maximumSize, 1), 1 << 30);
+    if (table.length >= capacity) {
+      return;
+    }
+    table = new long[Integer.highestOneBit(capacity - 1) << 1];
+    sampleSize = 10 * table.length;
+    size = 0;
+  }
+
+  int capacity() {
+    return table.length;
+  }
+
+  /**
+   * Returns the estimated number of uses of the given key, at most 15.
+   */
+  int frequency(Object key) {
+    int hash = spread(key);
+    int start = (hash & 3) << 2;
+    int frequency = MAX_FREQUENCY;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Counts a use of the given key.
+   */
+  void increment(Object key) {
+    int hash = spread(key);
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++size >= sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size /= 2;
+  }
+
+  private int indexOf(int hash, int row) {
+    long h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 32;
+    return ((int) h) & (table.length - 1);
+  }
+
+  private static int spread(Object key) {
+    int h = key == null ? 0 : key.hashCode();
+    h = ((h >>> 16) ^ h) * 0x45d9f3b;
+    h = ((h >>> 16) ^ h) * 0x45d9f3b;
+    return (h >>> 16) ^ h;
+  }
+}
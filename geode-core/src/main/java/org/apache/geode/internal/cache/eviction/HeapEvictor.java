@@ -73,6 +73,22 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
   private static final boolean DISABLE_HEAP_EVICTOR_THREAD_POOL = Boolean
       .getBoolean(GEMFIRE_PREFIX + "HeapLRUCapacityController.DISABLE_HEAP_EVICTOR_THREAD_POOL");
 
+  /**
+   * When true, eviction runs in short intervals that each evict as many bytes as the
+   * {@link EvictionPacer} expects to be needed, instead of in fast and slow loops of bursts.
+   */
+  static final boolean PACED_EVICTION =
+      Boolean.getBoolean(GEMFIRE_PREFIX + "HeapLRUCapacityController.pacedEviction");
+
+  static final int PACED_EVICTION_INTERVAL =
+      Integer.getInteger(GEMFIRE_PREFIX + "HeapLRUCapacityController.pacedEvictionInterval", 100);
+
+  /**
+   * With paced eviction, regions whose values are already on disk count this many times their
+   * entries when dividing the bytes to evict, because evicting their values does not write them.
+   */
+  static final int VALUES_ON_DISK_WEIGHT = 4;
+
   private static final long TOTAL_BYTES_TO_EVICT_FROM_HEAP = setTotalBytesToEvictFromHeap();
 
   private static final String EVICTOR_THREAD_NAME = "EvictorThread";
@@ -91,6 +107,9 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
 
   private final StatisticsClock statisticsClock;
 
+  /** Paces the eviction, or null if eviction runs in bursts */
+  private final EvictionPacer pacer;
+
   private volatile int testAbortAfterLoopCount = Integer.MAX_VALUE;
 
   /*
@@ -124,6 +143,7 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     }
 
     this.statisticsClock = statisticsClock;
+    this.pacer = PACED_EVICTION ? new EvictionPacer(PACED_EVICTION_INTERVAL, 10) : null;
   }
 
   protected InternalCache cache() {
@@ -218,27 +238,18 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     return null;
   }
 
-  private void createAndSubmitWeightedRegionEvictionTasks() {
+  private void createAndSubmitWeightedRegionEvictionTasks(long bytesToEvict) {
     List<LocalRegion> allRegionList = getAllSortedRegionList();
     float numEntriesInVM = 0;
     for (LocalRegion region : allRegionList) {
-      if (region instanceof BucketRegion) {
-        numEntriesInVM += ((BucketRegion) region).getSizeForEviction();
-      } else {
-        numEntriesInVM += region.getRegionMap().sizeInVM();
-      }
+      numEntriesInVM += getEvictionWeight(region);
     }
 
     for (LocalRegion region : allRegionList) {
-      float regionEntryCount;
-      if (region instanceof BucketRegion) {
-        regionEntryCount = ((BucketRegion) region).getSizeForEviction();
-      } else {
-        regionEntryCount = region.getRegionMap().sizeInVM();
-      }
+      float regionEntryCount = getEvictionWeight(region);
 
       float percentage = regionEntryCount / numEntriesInVM;
-      long bytesToEvictPerTask = (long) (getTotalBytesToEvict() * percentage);
+      long bytesToEvictPerTask = (long) (bytesToEvict * percentage);
       List<LocalRegion> regionsForSingleTask = new ArrayList<>(1);
       regionsForSingleTask.add(region);
       if (mustEvict()) {
@@ -250,13 +261,39 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     }
   }
 
-  private Set<RegionEvictorTask> createRegionEvictionTasks() {
+  /**
+   * Returns the number of entries of the given region, counted several times with paced eviction
+   * if its values are already on disk.
+   */
+  private float getEvictionWeight(LocalRegion region) {
+    float regionEntryCount;
+    if (region instanceof BucketRegion) {
+      regionEntryCount = ((BucketRegion) region).getSizeForEviction();
+    } else {
+      regionEntryCount = region.getRegionMap().sizeInVM();
+    }
+    if (pacer != null && hasValuesOnDisk(region)) {
+      regionEntryCount *= VALUES_ON_DISK_WEIGHT;
+    }
+    return regionEntryCount;
+  }
+
+  /**
+   * Returns true if evicting the values of the given region only drops them from memory, because
+   * it overflows to disk and persists them.
+   */
+  static boolean hasValuesOnDisk(LocalRegion region) {
+    return region.getEvictionAttributes().getAction().isOverflowToDisk()
+        && region.getDataPolicy().withPersistence();
+  }
+
+  private Set<RegionEvictorTask> createRegionEvictionTasks(long bytesToEvict) {
     if (getEvictorThreadPool() == null) {
       return Collections.emptySet();
     }
 
     int threadsAvailable = MAX_EVICTOR_THREADS;
-    long bytesToEvictPerTask = getTotalBytesToEvict() / threadsAvailable;
+    long bytesToEvictPerTask = bytesToEvict / threadsAvailable;
     List<LocalRegion> allRegionList = getAllRegionList();
     if (allRegionList.isEmpty()) {
       return Collections.emptySet();
@@ -318,6 +355,11 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     // in this VM ...
     if (isRunning() && event.isLocal()) {
       if (event.getState().isEviction()) {
+        if (pacer != null) {
+          pacer.usageReported(event.getBytesUsed(),
+              event.getThresholds().getEvictionThresholdClearBytes(), System.currentTimeMillis());
+        }
+
         // Have we previously received an eviction event and already started eviction ...
         if (this.mustEvict.get()) {
           if (logger.isDebugEnabled()) {
@@ -360,19 +402,26 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
             // Has the test hook been set which will cause eviction to abort early
             if (numEvictionLoopsCompleted < getTestAbortAfterLoopCount()) {
               try {
-                // Submit tasks into the queue to do the evictions
-                if (EVICT_HIGH_ENTRY_COUNT_BUCKETS_FIRST) {
-                  createAndSubmitWeightedRegionEvictionTasks();
-                } else {
-                  for (RegionEvictorTask task : createRegionEvictionTasks()) {
-                    executeInThreadPool(task);
+                long bytesToEvict = pacer != null
+                    ? pacer.getBytesToEvict(getTotalBytesToEvict()) : getTotalBytesToEvict();
+
+                // Submit tasks into the queue to do the evictions, unless paced eviction expects
+                // the evictions that no collection has freed yet to be enough
+                if (bytesToEvict > 0) {
+                  if (EVICT_HIGH_ENTRY_COUNT_BUCKETS_FIRST) {
+                    createAndSubmitWeightedRegionEvictionTasks(bytesToEvict);
+                  } else {
+                    for (RegionEvictorTask task : createRegionEvictionTasks(bytesToEvict)) {
+                      executeInThreadPool(task);
+                    }
                   }
                 }
 
                 // Make sure that another thread isn't processing a new eviction event
                 // and changing the number of fast loops to perform.
                 synchronized (evictionLock) {
-                  int delayTime = getEvictionLoopDelayTime();
+                  int delayTime = pacer != null ? PACED_EVICTION_INTERVAL
+                      : getEvictionLoopDelayTime();
                   if (logger.isDebugEnabled()) {
                     logger.debug(
                         "Eviction loop delay time calculated to be {} milliseconds. Fast Loops={}, Loop #={}",
@@ -431,6 +480,15 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     return this.mustEvict.get();
   }
 
+  /**
+   * Called by the eviction tasks with the number of bytes they evicted.
+   */
+  void bytesEvicted(long bytes) {
+    if (pacer != null) {
+      pacer.bytesEvicted(bytes);
+    }
+  }
+
   public void close() {
     if (isRunning.compareAndSet(true, false)) {
       evictorThreadPool.shutdownNow();
@@ -67,8 +67,8 @@ public class RegionEvictorTask implements Runnable {
   @Override
   public void run() {
     this.stats.incEvictorJobsStarted();
+    long totalBytesEvicted = 0;
     try {
-      long totalBytesEvicted = 0;
       while (true) {
         final long start = statisticsClock.getTime();
         synchronized (this.regions) {
@@ -102,6 +102,7 @@ public class RegionEvictorTask implements Runnable {
         }
       }
     } finally {
+      getHeapEvictor().bytesEvicted(totalBytesEvicted);
       this.stats.incEvictorJobsCompleted();
     }
   }
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.Token;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * Approximates LRU order with a clock hand that sweeps the entries of the region map instead of
+ * keeping the entries in a linked list. Creating, updating and destroying entries therefore does
+ * not touch any shared eviction state, and the list pointers of the entries are not used.
+ * <p>
+ * The hand returns the first entry it passes that has not been used since it last passed it,
+ * clearing the recently used bit of the entries it skips. If the given number of entries in a row
+ * were all recently used, the first of them is returned.
+ * <p>
+ * Entries that cannot be evicted do not count toward the sample, so the number of entries the hand
+ * passes in one call is bounded separately. If the bound is reached before any evictable entry was
+ * found, null is returned and the next call continues from where the hand stopped.
+ */
+public class SampledLRUList implements EvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  /** The default bound of the entries passed in one call, per entry of the sample */
+  static final int SEARCH_ENTRIES_PER_SAMPLE = 10;
+
+  private final EvictionController controller;
+
+  private final Supplier<Collection<RegionEntry>> entries;
+
+  private final int sampleSize;
+
+  private final int maxSearchEntries;
+
+  /** The position of the clock hand in the region map. GuardedBy this */
+  private Iterator<RegionEntry> hand;
+
+  public SampledLRUList(EvictionController controller, Supplier<Collection<RegionEntry>> entries,
+      int sampleSize) {
+    this(controller, entries, sampleSize, -1);
+  }
+
+  /**
+   * @param maxSearchEntries the most entries to pass in one call, or a negative number to pass at
+   *        most {@link #SEARCH_ENTRIES_PER_SAMPLE} times the sample size
+   */
+  public SampledLRUList(EvictionController controller, Supplier<Collection<RegionEntry>> entries,
+      int sampleSize, int maxSearchEntries) {
+    this.controller = controller;
+    this.entries = entries;
+    this.sampleSize = sampleSize;
+    this.maxSearchEntries =
+        maxSearchEntries > 0 ? maxSearchEntries : SEARCH_ENTRIES_PER_SAMPLE * sampleSize;
+  }
+
+  @Override
+  public void closeStats() {
+    getStatistics().close();
+  }
+
+  /**
+   * The entries are found in the region map, so there is nothing to add.
+   */
+  @Override
+  public void appendEntry(EvictionNode evictionNode) {
+    // nothing needed
+  }
+
+  @Override
+  public synchronized EvictableEntry getEvictableEntry() {
+    long numEvals = 0;
+    int sampled = 0;
+    int sweeps = 0;
+    EvictableEntry candidate = null;
+
+    while (sampled < sampleSize && numEvals < maxSearchEntries) {
+      if (hand == null || !hand.hasNext()) {
+        // a full sweep clears the recently used bits, so a second one finds any unused entry
+        if (++sweeps > 2) {
+          break;
+        }
+        hand = entries.get().iterator();
+        if (!hand.hasNext()) {
+          break;
+        }
+      }
+
+      RegionEntry regionEntry = hand.next();
+      numEvals++;
+      if (!(regionEntry instanceof EvictableEntry)) {
+        continue;
+      }
+      EvictableEntry entry = (EvictableEntry) regionEntry;
+      if (!isEvictable(entry)) {
+        continue;
+      }
+
+      if (!entry.isRecentlyUsed()) {
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "returning unused entry: {}", entry);
+        }
+        getStatistics().incEvaluations(numEvals);
+        return entry;
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+        logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "skipping recently used entry {}", entry);
+      }
+      entry.unsetRecentlyUsed();
+      if (candidate == null) {
+        candidate = entry;
+      }
+      sampled++;
+    }
+
+    getStatistics().incEvaluations(numEvals);
+    if (candidate != null) {
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+        logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "greedily picking an available entry");
+      }
+      getStatistics().incGreedyReturns(1);
+    }
+    return candidate;
+  }
+
+  @Override
+  public void destroyEntry(EvictionNode evictionNode) {
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+      logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "destroyEntry called for {}", evictionNode);
+    }
+    getStatistics().incDestroys();
+  }
+
+  @Override
+  public EvictionCounters getStatistics() {
+    return controller.getCounters();
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
+    if (regionVersionVector != null) {
+      return; // when concurrency checks are enabled the clear operation removes entries iteratively
+    }
+
+    synchronized (this) {
+      if (bucketRegion != null) {
+        getStatistics().decrementCounter(bucketRegion.getCounter());
+        bucketRegion.resetCounter();
+      } else {
+        getStatistics().resetCounter();
+      }
+      hand = null;
+    }
+  }
+
+  /**
+   * Returns the number of entries in the region map, which includes entries without a value in
+   * memory.
+   */
+  @Override
+  public int size() {
+    return entries.get().size();
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing needed
+  }
+
+  private boolean isEvictable(EvictableEntry entry) {
+    // entries whose value is on disk, destroyed or invalid have nothing to evict
+    if (entry.isEvicted() || entry.getValueAsToken() != Token.NOT_A_TOKEN) {
+      return false;
+    }
+
+    // If this Entry is part of a transaction, skip it since
+    // eviction should not cause commit conflicts
+    synchronized (entry) {
+      return !entry.isInUseByTransaction();
+    }
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * A frequency aware eviction list in the style of W-TinyLFU, which keeps scans of entries that
+ * are used once from evicting the frequently used entries.
+ * <p>
+ * New entries are added to a small window list. The least recently used entries of a full window
+ * move on to a list of candidates for the main list, which holds all other entries. Each eviction
+ * lets the oldest candidate compete with the least recently used entry of the main list: the one
+ * used less often is evicted and the other one is kept in the main list. The lists evict like
+ * {@link LRUListWithSyncSorting}, moving recently used entries to the tail of the main list, or of
+ * the window list for window entries.
+ * <p>
+ * How often entries were used is estimated with a {@link FrequencySketch} of their keys, counting
+ * their creation and each time the eviction finds them recently used.
+ */
+public class TinyLFUList extends AbstractEvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  private static final int DEFAULT_WINDOW_PERCENT = 1;
+
+  private static final int MIN_SKETCH_CAPACITY = 64;
+
+  /** The last node in the window list after which all new nodes are added */
+  private final EvictionNode windowTail = new GuardNode();
+
+  /** The starting point in the window list for searching for the LRU node */
+  private final EvictionNode windowHead = new GuardNode();
+
+  /** The last node in the list of candidates for the main list */
+  private final EvictionNode candidatesTail = new GuardNode();
+
+  /** The oldest candidate for the main list follows this node */
+  private final EvictionNode candidatesHead = new GuardNode();
+
+  /** The nodes in the window list. GuardedBy this */
+  private final Set<EvictionNode> window = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /** GuardedBy this */
+  private final FrequencySketch sketch = new FrequencySketch();
+
+  private final int windowPercent;
+
+  TinyLFUList(EvictionController controller) {
+    super(controller);
+    windowPercent = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_TINY_LFU_WINDOW_PERCENT)
+        .filter(percent -> percent > 0 && percent < 100).orElse(DEFAULT_WINDOW_PERCENT);
+    sketch.ensureCapacity(MIN_SKETCH_CAPACITY);
+    initEmptyWindow();
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
+    super.clear(regionVersionVector, bucketRegion);
+    if (regionVersionVector == null) {
+      initEmptyWindow();
+    }
+  }
+
+  private synchronized void initEmptyWindow() {
+    window.clear();
+    windowHead.setNext(windowTail);
+    windowTail.setPrevious(windowHead);
+    candidatesHead.setNext(candidatesTail);
+    candidatesTail.setPrevious(candidatesHead);
+  }
+
+  /**
+   * Adds a new node to the tail of the window list, moving the least recently used node of a full
+   * window to the candidates for the main list.
+   */
+  @Override
+  public synchronized void appendEntry(EvictionNode evictionNode) {
+    if (evictionNode.next() != null) {
+      // already in a list
+      return;
+    }
+
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+      logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "adding a Node to window list: {}", evictionNode);
+    }
+
+    linkLast(evictionNode, windowTail);
+    window.add(evictionNode);
+    if (size() > sketch.capacity()) {
+      sketch.ensureCapacity(size() * 2);
+    }
+    sketch.increment(getKey(evictionNode));
+
+    if (window.size() > Math.max(1, size() * windowPercent / 100)) {
+      EvictionNode oldest = windowHead.next();
+      unlinkEntry(oldest);
+      linkLast(oldest, candidatesTail);
+    }
+  }
+
+  @Override
+  protected synchronized void unlinkEntry(EvictionNode evictionNode) {
+    super.unlinkEntry(evictionNode);
+    window.remove(evictionNode);
+  }
+
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    for (;;) {
+      EvictionNode candidate = findVictim(candidatesHead, candidatesTail, tail);
+      EvictionNode victim = findVictim(head, tail, tail);
+
+      if (candidate == null) {
+        if (victim == null) {
+          // only the window has entries
+          victim = findVictim(windowHead, windowTail, windowTail);
+        }
+        return (EvictableEntry) victim;
+      }
+
+      synchronized (this) {
+        if (victim == null) {
+          // the main list is empty, so the candidate competes with the next one
+          linkLastIfUnlinked(candidate, tail);
+          continue;
+        }
+
+        if (sketch.frequency(getKey(candidate)) > sketch.frequency(getKey(victim))) {
+          if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+            logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "admitting candidate {} evicting {}",
+                candidate, victim);
+          }
+          linkLastIfUnlinked(candidate, tail);
+          return (EvictableEntry) victim;
+        }
+
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "rejecting candidate {} keeping {}",
+              candidate, victim);
+        }
+        // the victim keeps its place at the head of the main list
+        if (victim.next() == null) {
+          victim.setPrevious(head);
+          victim.setNext(head.next());
+          head.next().setPrevious(victim);
+          head.setNext(victim);
+          incrementSize();
+        }
+        return (EvictableEntry) candidate;
+      }
+    }
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing needed
+  }
+
+  /**
+   * Removes and returns the least recently used entry of the list with the given guard nodes, or
+   * null if the list has none. Recently used entries are moved to the given tail.
+   */
+  private EvictionNode findVictim(EvictionNode listHead, EvictionNode listTail,
+      EvictionNode usedTail) {
+    long numEvals = 0;
+    try {
+      for (;;) {
+        EvictionNode evictionNode = unlinkFirst(listHead, listTail);
+        if (evictionNode == null) {
+          return null;
+        }
+        numEvals++;
+
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "lru considering {}", evictionNode);
+        }
+
+        if (!isEvictable(evictionNode)) {
+          continue;
+        }
+
+        if (evictionNode.isRecentlyUsed()) {
+          if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+            logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "skipping recently used entry {}",
+                evictionNode);
+          }
+          evictionNode.unsetRecentlyUsed();
+          recordUse(evictionNode, usedTail);
+          continue;
+        }
+
+        return evictionNode;
+      }
+    } finally {
+      getStatistics().incEvaluations(numEvals);
+    }
+  }
+
+  private synchronized EvictionNode unlinkFirst(EvictionNode listHead, EvictionNode listTail) {
+    EvictionNode evictionNode = listHead.next();
+    if (evictionNode == listTail) {
+      return null;
+    }
+    unlinkEntry(evictionNode);
+    return evictionNode;
+  }
+
+  /**
+   * Counts a use of the given unlinked node and adds it back to the given tail.
+   */
+  private synchronized void recordUse(EvictionNode evictionNode, EvictionNode listTail) {
+    sketch.increment(getKey(evictionNode));
+    if (linkLastIfUnlinked(evictionNode, listTail) && listTail == windowTail) {
+      window.add(evictionNode);
+    }
+  }
+
+  private boolean linkLastIfUnlinked(EvictionNode evictionNode, EvictionNode listTail) {
+    if (evictionNode.next() != null) {
+      // appended again while it was unlinked
+      return false;
+    }
+    linkLast(evictionNode, listTail);
+    return true;
+  }
+
+  private void linkLast(EvictionNode evictionNode, EvictionNode listTail) {
+    evictionNode.setNext(listTail);
+    listTail.previous().setNext(evictionNode);
+    evictionNode.setPrevious(listTail.previous());
+    listTail.setPrevious(evictionNode);
+    incrementSize();
+  }
+
+  private static Object getKey(EvictionNode evictionNode) {
+    return ((EvictableEntry) evictionNode).getKey();
+  }
+}
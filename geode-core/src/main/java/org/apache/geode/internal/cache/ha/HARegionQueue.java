@@ -31,7 +31,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +42,7 @@ import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -112,7 +112,6 @@ import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.internal.util.concurrent.StoppableCondition;
 import org.apache.geode.internal.util.concurrent.StoppableReentrantLock;
 import org.apache.geode.internal.util.concurrent.StoppableReentrantReadWriteLock;
-import org.apache.geode.internal.util.concurrent.StoppableReentrantReadWriteLock.StoppableWriteLock;
 import org.apache.geode.logging.internal.executors.LoggingThread;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
@@ -122,16 +121,16 @@ import org.apache.geode.logging.internal.log4j.api.LogService;
  * region (key = 5; value = obj1) would mean that the Object obj1 is at the 5th position in the
  * queue.
  *
- * This class has a field idsAvailable which is guraded by a ReentrantReadWriteLock. The peek
- * threads which do not modify the idsAvailable LinkedhashSet take read lock , thereby increasing
- * the concurrency of peek operations. The threads like take, remove, QRM ,put& expiry take a write
- * lock while operating on the set. <BR>
- * <B>This class is performant for multiple dispatchers that are trying to do non blocking peek </B>
+ * This class has a field idsAvailable which holds the positions of the available events ordered by
+ * their position, which is the sequence number assigned from tailKey. It is a concurrent set, so
+ * put, peek, take, remove, QRM & expiry threads add, read and remove positions without taking a
+ * queue lock. A position is assigned and published while holding the DispatchedAndCurrentEvents
+ * of its ThreadIdentifier, which is also where events are conflated, so the events of a thread
+ * are available in the order they were put. <BR>
  * <br>
- * For Blocking operations the object should be of type BlockingHARegionQueue. This class has just a
- * ReentrantLock . Condition object of this lock is used to issue signal to the waiting peek & take
- * threads for put operation. As a result , concurrency of peek operations is not possible. This
- * class is optimized for a single peek thread .
+ * For Blocking operations the object should be of type BlockingHARegionQueue. Its ReentrantLock
+ * is only used to park peek & take threads while the queue is empty, and a put only takes it to
+ * signal them if a thread is waiting.
  *
  * 30 May 2008: 5.7 onwards the underlying GemFire Region will continue to have key as counter(long)
  * but the value will be a wrapper object(HAEventWrapper) which will be a key in a separate data
@@ -168,12 +167,6 @@ public class HARegionQueue implements RegionQueue {
    */
   protected volatile Map indexes = Collections.unmodifiableMap(new HashMap());
 
-  private StoppableReentrantReadWriteLock rwLock;
-
-  private StoppableReentrantReadWriteLock.StoppableReadLock readLock;
-
-  private StoppableWriteLock writeLock;
-
   /** The name of the {@code Region} backing this queue */
   private String regionName;
 
@@ -186,9 +179,15 @@ public class HARegionQueue implements RegionQueue {
   public HARegionQueueStats stats;
 
   /**
-   * Accesses to this set must be protected via the rwLock.
+   * The positions of the available events, in the order of the positions.
    */
-  protected LinkedHashSet idsAvailable;
+  protected final ConcurrentSkipListSet<Long> idsAvailable = new ConcurrentSkipListSet<>();
+
+  /**
+   * The number of available IDs, including the IDs a durable queue has peeked. It is maintained
+   * next to idsAvailable because the size of a concurrent set is not a constant-time operation.
+   */
+  final AtomicInteger availableIDsCount = new AtomicInteger();
 
   /**
    * Map of HA queue region-name and value as a MapWrapper object (whose underlying map contains
@@ -370,7 +369,6 @@ public class HARegionQueue implements RegionQueue {
 
     this.regionName = processedRegionName;
     this.threadIdToSeqId = new MapWrapper();
-    this.idsAvailable = new LinkedHashSet();
     setClientConflation(clientConflation);
     this.isPrimary = isPrimary;
     // Initialize the statistics
@@ -380,9 +378,6 @@ public class HARegionQueue implements RegionQueue {
     this.clientProxyID = clientProxyId;
 
     this.stopper = this.region.getCancelCriterion();
-    this.rwLock = new StoppableReentrantReadWriteLock(region.getCancelCriterion());
-    this.readLock = this.rwLock.readLock();
-    this.writeLock = this.rwLock.writeLock();
 
     putGIIDataInRegion();
 
@@ -398,13 +393,12 @@ public class HARegionQueue implements RegionQueue {
   HARegionQueue(String regionName, HARegion haRegion, InternalCache cache, Map haContainer,
       ClientProxyMembershipID clientProxyId, final byte clientConflation, boolean isPrimary,
       HARegionQueueStats stats, StoppableReentrantReadWriteLock giiLock,
-      StoppableReentrantReadWriteLock rwLock, CancelCriterion cancelCriterion,
-      boolean puttingGIIDataInQueue, StatisticsClock statisticsClock)
+      CancelCriterion cancelCriterion, boolean puttingGIIDataInQueue,
+      StatisticsClock statisticsClock)
       throws IOException, ClassNotFoundException, CacheException, InterruptedException {
     this.regionName = regionName;
     this.region = haRegion;
     this.threadIdToSeqId = new MapWrapper();
-    this.idsAvailable = new LinkedHashSet();
     setClientConflation(clientConflation);
     this.isPrimary = isPrimary;
     // Initialize the statistics
@@ -414,9 +408,6 @@ public class HARegionQueue implements RegionQueue {
     this.clientProxyID = clientProxyId;
 
     this.stopper = cancelCriterion;
-    this.rwLock = rwLock;
-    this.readLock = this.rwLock.readLock();
-    this.writeLock = this.rwLock.writeLock();
 
     // false specifically set in tests only
     if (puttingGIIDataInQueue) {
@@ -629,7 +620,7 @@ public class HARegionQueue implements RegionQueue {
    * expired thus a one level recursion can occur to do a valid put
    *
    * The operation is thread safe & is guarded by taking a lock on LastDispatchedAndCurrentEvents
-   * object & SIZE Lock
+   * object
    *
    * @param object object to put onto the queue
    */
@@ -1059,27 +1050,23 @@ public class HARegionQueue implements RegionQueue {
 
   /**
    * This method adds the position of newly added object to the List of available IDs so that it is
-   * available for peek or take. This method is called from DispatchedAndCurrentEvents object. This
-   * method is invoked in a write lock for non blocking queue & in a reentrant lock in a blocking
-   * queue. In case of blocking queue , this method also signals the waiting take & peek threads to
-   * awake.
+   * available for peek or take. This method is called from DispatchedAndCurrentEvents object while
+   * holding it. In case of blocking queue , this method also signals the waiting take & peek
+   * threads to awake.
    *
    * @param position The Long position of the object which has been added
    */
   void publish(Long position) throws InterruptedException {
-    acquireWriteLock();
-    try {
-      if (logger.isDebugEnabled()) {
-        logger.debug("Adding position " + position + " to available IDs. Region: " + regionName);
-      }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Adding position " + position + " to available IDs. Region: " + regionName);
+    }
 
-      this.idsAvailable.add(position);
-      // Notify the waiting peek threads or take threads of blocking queue
-      // A void operation for the non blocking queue operations
-      notifyPeekAndTakeThreads();
-    } finally {
-      releaseWriteLock();
+    if (this.idsAvailable.add(position)) {
+      this.availableIDsCount.incrementAndGet();
     }
+    // Notify the waiting peek threads or take threads of blocking queue
+    // A void operation for the non blocking queue operations
+    notifyPeekAndTakeThreads();
   }
 
   protected boolean removeFromOtherLists(Long position) {
@@ -1099,18 +1086,13 @@ public class HARegionQueue implements RegionQueue {
       logger.debug("Removing position " + position + " from available IDs. Region: " + regionName);
     }
 
-    boolean removedOK = false;
-    acquireWriteLock();
-    try {
-      removedOK = this.idsAvailable.remove(position);
-      if (!removedOK) {
-        removedOK = this.removeFromOtherLists(position);
-      }
-      if (removedOK) {
-        this.incrementTakeSidePutPermits();
-      }
-    } finally {
-      releaseWriteLock();
+    boolean removedOK = this.idsAvailable.remove(position);
+    if (!removedOK) {
+      removedOK = this.removeFromOtherLists(position);
+    }
+    if (removedOK) {
+      this.availableIDsCount.decrementAndGet();
+      this.incrementTakeSidePutPermits();
     }
     return removedOK;
   }
@@ -1183,24 +1165,27 @@ public class HARegionQueue implements RegionQueue {
    * the thread encounters exception while waiting.
    */
   protected Long getAndRemoveNextAvailableID() throws InterruptedException {
-    Long next = null;
-    acquireWriteLock();
-    try {
-      if (this.idsAvailable.isEmpty()) {
-        if (waitForData()) {
-          Iterator itr = this.idsAvailable.iterator();
-          next = (Long) itr.next();
-          itr.remove();
-          this.incrementTakeSidePutPermits();
-        }
-      } else {
-        Iterator itr = this.idsAvailable.iterator();
-        next = (Long) itr.next();
-        itr.remove();
-        this.incrementTakeSidePutPermits();
-      }
-    } finally {
-      releaseWriteLock();
+    Long next = pollNextAvailableID();
+    if (next != null) {
+      this.incrementTakeSidePutPermits();
+    }
+    return next;
+  }
+
+  /**
+   * Removes and returns the first position in idsAvailable, waiting for one in case of a blocking
+   * queue.
+   *
+   * @return valid Long position or null depending upon the nature of the queue
+   */
+  Long pollNextAvailableID() throws InterruptedException {
+    Long next = this.idsAvailable.pollFirst();
+    // another take thread can remove the position that woke this one up
+    while (next == null && waitForData()) {
+      next = this.idsAvailable.pollFirst();
+    }
+    if (next != null) {
+      this.availableIDsCount.decrementAndGet();
     }
     return next;
   }
@@ -1213,23 +1198,19 @@ public class HARegionQueue implements RegionQueue {
    * @throws TimeoutException if operation is interrupted (unfortunately)
    */
   private Long getNextAvailableID() throws InterruptedException {
-    Long next = null;
-    acquireReadLock();
-    try {
-      if (this.idsAvailable.isEmpty()) {
-        // Asif:Wait in case it is a blocking thread
-        if (waitForData()) {
-          next = (Long) this.idsAvailable.iterator().next();
-        }
-      } else {
-        next = (Long) this.idsAvailable.iterator().next();
-      }
-    } finally {
-      releaseReadLock();
+    Long next = firstAvailableID();
+    // Asif:Wait in case it is a blocking thread
+    while (next == null && waitForData()) {
+      next = firstAvailableID();
     }
     return next;
   }
 
+  private Long firstAvailableID() {
+    Iterator<Long> itr = this.idsAvailable.iterator();
+    return itr.hasNext() ? itr.next() : null;
+  }
+
   /**
    * For non blocking queue , this method either returns null or an Object. For blocking queue it
    * will always return with an Object or wait for queue to be populated.
@@ -1461,20 +1442,15 @@ public class HARegionQueue implements RegionQueue {
    * @return null if minimum was not present
    */
   private List doReturn(int minSize, int maxSize) {
-    acquireReadLock();
-    try {
-      int numToReturn = this.idsAvailable.size();
-      if (numToReturn < minSize) {
-        return null;
-      }
-      if (numToReturn > maxSize) {
-        numToReturn = maxSize;
-      }
-      return getBatchAndUpdateThreadContext(numToReturn);
-    } finally {
-      releaseReadLock();
+    List<Long> counters = new ArrayList<>();
+    Iterator<Long> itr = this.idsAvailable.iterator();
+    while (counters.size() < maxSize && itr.hasNext()) {
+      counters.add(itr.next());
     }
-
+    if (counters.size() < minSize) {
+      return null;
+    }
+    return getBatchAndUpdateThreadContext(counters);
   }
 
   /**
@@ -1485,8 +1461,7 @@ public class HARegionQueue implements RegionQueue {
    * for the batch are added to the thread-context, so that upon calling of remove(), all the peeked
    * events of the batch are removed from the queue.
    *
-   * If the Queue is non blocking multiple peek operations can proceed but if it is of type non
-   * blocking only one peek operation will proceed as the blocking queue does not use ReadWriteLock
+   * Multiple peek operations can proceed concurrently.
    *
    * @param batchSize The number of objects to peek from the queue
    * @param timeToWait The number of milliseconds to attempt to peek
@@ -1552,23 +1527,19 @@ public class HARegionQueue implements RegionQueue {
   /**
    * This method prepares the batch of events and updates the thread-context with corresponding
    * counters, so that when remove is called by this thread, these events are destroyed from the
-   * queue.This method should always be invoked within the {@code rwLock}.
+   * queue.
    *
-   * @param batchSize - number of events to be peeked
+   * @param counters - the positions of the events to be peeked
    * @return - list of events peeked
    */
-  private List getBatchAndUpdateThreadContext(int batchSize) {
-    Iterator itr = this.idsAvailable.iterator();
-    int currSize = this.idsAvailable.size();
-    int limit = currSize >= batchSize ? batchSize : currSize;
-    List batch = new ArrayList(limit);
+  private List getBatchAndUpdateThreadContext(List<Long> counters) {
+    List batch = new ArrayList(counters.size());
 
     List peekedEventsThreadContext;
     if ((peekedEventsThreadContext = (List) HARegionQueue.peekedEventsContext.get()) == null) {
       peekedEventsThreadContext = new LinkedList();
     }
-    for (int i = 0; i < limit; i++) {
-      Long counter = (Long) itr.next();
+    for (Long counter : counters) {
       Object eventOrWrapper = this.region.get(counter);
       Object event;
       if (eventOrWrapper instanceof HAEventWrapper) {
@@ -1746,12 +1717,7 @@ public class HARegionQueue implements RegionQueue {
    *
    */
   Set getAvailableIds() {
-    acquireReadLock();
-    try {
-      return Collections.unmodifiableSet(this.idsAvailable);
-    } finally {
-      releaseReadLock();
-    }
+    return Collections.unmodifiableSet(this.idsAvailable);
   }
 
   /**
@@ -1800,12 +1766,7 @@ public class HARegionQueue implements RegionQueue {
    */
   @Override
   public int size() {
-    acquireReadLock();
-    try {
-      return this.idsAvailable.size();
-    } finally {
-      releaseReadLock();
-    }
+    return this.availableIDsCount.get();
   }
 
   void incrementTakeSidePutPermits() {
@@ -1860,9 +1821,7 @@ public class HARegionQueue implements RegionQueue {
   }
 
   /**
-   * Caller must hold the rwLock.
-   *
-   * @return true if the queue contains objects
+   * @return true if the queue contains no objects
    */
   boolean internalIsEmpty() {
     return this.idsAvailable.isEmpty();
@@ -1874,62 +1833,7 @@ public class HARegionQueue implements RegionQueue {
    * @return true if the queue is empty, false if not
    */
   public boolean isEmpty() {
-    acquireReadLock();
-    try {
-      return internalIsEmpty();
-    } finally {
-      releaseReadLock();
-    }
-  }
-
-  /**
-   * Acquires the write Lock for the non blocking class. This method is overridden in the
-   * BlockingHARegionQueue class which acquires the lock on a ReentrantLock instead of
-   * ReentrantReadWriteLock of this class. A write lock is aquired by any thread which intends to
-   * modify the idsAvailable HashSet , which can be either a put ,remove , take , QRM message or
-   * expiry thread
-   *
-   * All invocations of this method need to have {@link #releaseWriteLock()} in a matching finally
-   * block.
-   *
-   * <p>
-   * author Asif
-   */
-  void acquireWriteLock() {
-    this.writeLock.lock();
-  }
-
-  /**
-   * Acquires the read Lock for the non blocking class. This method is overridden in the
-   * BlockingHARegionQueue class which acquires the lock on a ReentrantLock instead of
-   * ReentrantReadWriteLock of this class. A read lock is aquired by a non blocking peek while
-   * operating on the idsAvailable LinkedHashSet without structurally modifying it.
-   *
-   * All invocations of this method must have {@link #releaseReadLock()} in a matching finally
-   * block.
-   *
-   * <p>
-   * author Asif
-   */
-  void acquireReadLock() {
-    // TODO should this be interruptible?
-    this.readLock.lock();
-  }
-
-  /**
-   * Releases the Read lock. Overridden in the BlockingHARegionQueue class.
-   *
-   */
-  void releaseReadLock() {
-    this.readLock.unlock();
-  }
-
-  /**
-   * Releases the write lock. Overridden in the BlockingHARegionQueue class.
-   *
-   */
-  void releaseWriteLock() {
-    this.writeLock.unlock();
+    return internalIsEmpty();
   }
 
   /**
@@ -2084,48 +1988,41 @@ public class HARegionQueue implements RegionQueue {
   }
 
   public void closeClientCq(ClientProxyMembershipID clientId, InternalCqQuery cqToClose) {
-    acquireReadLock();
-    try {
-      // Get all available Ids for the HA Region Queue
-      Object[] availableIds = this.availableIDsArray();
-      int currSize = availableIds.length;
-
-      Object event = null;
-      for (int i = 0; i < currSize; i++) {
-        Long counter = (Long) availableIds[i];
-        event = this.region.get(counter);
-        HAEventWrapper wrapper = null;
-        if (event instanceof HAEventWrapper) {
-          wrapper = (HAEventWrapper) event;
-          event = this.haContainer.get(event);
-        }
-
-        // Since this method is invoked in a readlock , the entry in HARegion
-        // cannot be null
-        if (event == null) {
-          Assert.assertTrue(this.destroyInProgress,
-              "Got event null when queue was not being destroyed");
-        }
-
-        if (event instanceof ClientUpdateMessageImpl) {
-          ClientUpdateMessageImpl updateEvent = (ClientUpdateMessageImpl) event;
-          updateEvent.removeClientCq(clientId, cqToClose);
-          // If no more interest and no more cqs remove from available ids and backing region
-          if (!updateEvent.hasCqs(clientId) && !updateEvent.isClientInterested(clientId)) {
-            if (wrapper != null) {
-              try {
-                if (this.destroyFromAvailableIDsAndRegion(counter)) {
-                  stats.incEventsRemoved();
-                }
-              } catch (InterruptedException ignore) {
-                Thread.currentThread().interrupt();
+    // Get all available Ids for the HA Region Queue
+    Object[] availableIds = this.availableIDsArray();
+    int currSize = availableIds.length;
+
+    Object event = null;
+    for (int i = 0; i < currSize; i++) {
+      Long counter = (Long) availableIds[i];
+      event = this.region.get(counter);
+      HAEventWrapper wrapper = null;
+      if (event instanceof HAEventWrapper) {
+        wrapper = (HAEventWrapper) event;
+        event = this.haContainer.get(event);
+      }
+
+      // the event was dispatched, conflated or expired since the IDs were read
+      if (event == null) {
+        continue;
+      }
+
+      if (event instanceof ClientUpdateMessageImpl) {
+        ClientUpdateMessageImpl updateEvent = (ClientUpdateMessageImpl) event;
+        updateEvent.removeClientCq(clientId, cqToClose);
+        // If no more interest and no more cqs remove from available ids and backing region
+        if (!updateEvent.hasCqs(clientId) && !updateEvent.isClientInterested(clientId)) {
+          if (wrapper != null) {
+            try {
+              if (this.destroyFromAvailableIDsAndRegion(counter)) {
+                stats.incEventsRemoved();
               }
+            } catch (InterruptedException ignore) {
+              Thread.currentThread().interrupt();
             }
           }
         }
       }
-    } finally {
-      releaseReadLock();
     }
   }
 
@@ -2202,12 +2099,9 @@ public class HARegionQueue implements RegionQueue {
 
   /**
    * This is an implementation of RegionQueue where peek() & take () are blocking operation and will
-   * not return unless it gets some legitimate value The Lock object used by this class is a
-   * ReentrantLock & not a ReadWriteLock as in the base class. This reduces the concurrency of peek
-   * operations, but it enables the condition object of the ReentrantLock used to guard the
-   * idsAvailable Set for notifying blocking peek & take operations. Previously a separate Lock
-   * object was used by the BlockingQueue for wait notify. This class will be performant if there is
-   * a single peek thread.
+   * not return unless it gets some legitimate value. Peek & take threads that find the queue empty
+   * wait on the condition object of a ReentrantLock. A put only takes the lock to signal them if a
+   * thread is waiting, so puts do not contend with each other or with the dispatcher.
    */
   private static class BlockingHARegionQueue extends HARegionQueue {
     /**
@@ -2234,13 +2128,20 @@ public class HARegionQueue implements RegionQueue {
 
     // Lock on which the take & remove threads block awaiting data from put
     // operations
-    private final StoppableReentrantLock lock;
+    protected final StoppableReentrantLock lock;
 
     /**
      * Condition object on which peek & take threads will block
      */
     protected final StoppableCondition blockCond;
 
+    /**
+     * The number of peek & take threads holding or waiting on the lock for data. Incremented under
+     * the lock before checking for data, so that a put which does not see a waiting thread added
+     * its position before that check.
+     */
+    protected final AtomicInteger waitingThreads = new AtomicInteger();
+
     /**
      * @param hrqa HARegionQueueAttributes through which expiry time etc for the HARegionQueue can
      *        be set
@@ -2382,100 +2283,80 @@ public class HARegionQueue implements RegionQueue {
       }
     }
 
-    /**
-     * Identical to the acquireReadLock as there is only one type of Lock object in this class.
-     */
-    @Override
-    void acquireWriteLock() {
-      this.lock.lock();
-    }
-
-    /**
-     * Identical to the acquireWriteLock as there is only one type of Lock object in this class.
-     */
-    @Override
-    void acquireReadLock() {
-      this.lock.lock();
-    }
-
     /**
      * This method is called by the publish method when a valid Long position is added to the
-     * idsAvailable set. It should always be called after acquiring the ReentrantLock. It notifies
-     * the waiting peek & take threads.
-     *
-     * <p>
-     * author Asif
+     * idsAvailable set. It notifies the waiting peek & take threads, if there are any.
      */
     @Override
     void notifyPeekAndTakeThreads() {
-      blockCond.signalAll();
+      if (this.waitingThreads.get() > 0) {
+        this.lock.lock();
+        try {
+          blockCond.signalAll();
+        } finally {
+          this.lock.unlock();
+        }
+      }
     }
 
     /**
-     * Returns true if data is available in the queue. This method should always be invoked after
-     * acquiring the lock on ReentrantLock object. It blocks the thread if the queue is empty or
+     * Returns true if data is available in the queue. It blocks the thread if the queue is empty or
      * returns true otherwise . This will always return true indicating that data is available for
      * retrieval or throw an Exception.It can never return false.
      */
     @Override
     boolean waitForData() throws InterruptedException {
-      while (this.internalIsEmpty()) {
-        region.getCache().getCancelCriterion().checkCancelInProgress(null);
-        boolean interrupted = Thread.currentThread().isInterrupted();
-        try {
-          blockCond.await(StoppableCondition.TIME_TO_WAIT);
-        } catch (InterruptedException ie) {
-          interrupted = true;
-          region.getCache().getCancelCriterion().checkCancelInProgress(ie);
-          throw new TimeoutException(ie);
-        } finally {
-          if (interrupted)
-            Thread.currentThread().interrupt();
+      this.lock.lock();
+      this.waitingThreads.incrementAndGet();
+      try {
+        while (this.internalIsEmpty()) {
+          awaitData();
         }
+      } finally {
+        this.waitingThreads.decrementAndGet();
+        this.lock.unlock();
       }
       return true;
     }
 
     /**
-     * Noop method to prevent HARegionQueue population before the constructor of BlockingQueue is
-     * complete.
-     *
-     * <p>
-     * author Asif
+     * Waits until a put signals the condition or the wait times out. Caller must hold the lock.
      */
-    @Override
-    void putGIIDataInRegion() {
-
-    }
-
-    /**
-     * Identical to the releaseWriteLock as there is only one type of Lock object in this class.
-     *
-     */
-
-    @Override
-    void releaseReadLock() {
-      this.lock.unlock();
+    void awaitData() throws InterruptedException {
+      region.getCache().getCancelCriterion().checkCancelInProgress(null);
+      boolean interrupted = Thread.currentThread().isInterrupted();
+      try {
+        blockCond.await(StoppableCondition.TIME_TO_WAIT);
+      } catch (InterruptedException ie) {
+        interrupted = true;
+        region.getCache().getCancelCriterion().checkCancelInProgress(ie);
+        throw new TimeoutException(ie);
+      } finally {
+        if (interrupted)
+          Thread.currentThread().interrupt();
+      }
     }
 
     /**
-     * Identical to the releaseReadLock as there is only one type of Lock object in this class.
+     * Noop method to prevent HARegionQueue population before the constructor of BlockingQueue is
+     * complete.
      *
      * <p>
      * author Asif
-     *
      */
-
     @Override
-    void releaseWriteLock() {
-      this.lock.unlock();
+    void putGIIDataInRegion() {
+
     }
 
   }
 
   private static class DurableHARegionQueue extends BlockingHARegionQueue {
 
-    private LinkedHashSet durableIDsList = null;
+    /**
+     * The positions peeked by the dispatcher that were not acknowledged by the client yet
+     */
+    private ConcurrentSkipListSet<Long> durableIDsList = null;
     LinkedList unremovedElements = null;
     HashMap currDurableMap = null;
 
@@ -2486,7 +2367,7 @@ public class HARegionQueue implements RegionQueue {
       super(regionName, cache, hrqa, haContainer, clientProxyId, clientConflation, isPrimary,
           statisticsClock);
       threadIdToSeqId.keepPrevAcks = true;
-      durableIDsList = new LinkedHashSet();
+      durableIDsList = new ConcurrentSkipListSet<>();
       ackedEvents = new HashMap();
 
       synchronized (initialized) {
@@ -2497,17 +2378,15 @@ public class HARegionQueue implements RegionQueue {
 
     @Override
     boolean waitForData() throws InterruptedException {
-      region.getCache().getCancelCriterion().checkCancelInProgress(null);
-      boolean interrupted = Thread.currentThread().isInterrupted();
+      this.lock.lock();
+      this.waitingThreads.incrementAndGet();
       try {
-        blockCond.await(StoppableCondition.TIME_TO_WAIT);
-      } catch (InterruptedException ie) {
-        interrupted = true;
-        region.getCache().getCancelCriterion().checkCancelInProgress(ie);
-        throw new TimeoutException(ie);
+        if (this.internalIsEmpty()) {
+          awaitData();
+        }
       } finally {
-        if (interrupted)
-          Thread.currentThread().interrupt();
+        this.waitingThreads.decrementAndGet();
+        this.lock.unlock();
       }
       return !this.internalIsEmpty();
     }
@@ -2523,33 +2402,13 @@ public class HARegionQueue implements RegionQueue {
      */
     @Override
     protected Long getAndRemoveNextAvailableID() throws InterruptedException {
-      Long next = null;
-      acquireWriteLock();
-      try {
-        if (this.idsAvailable.isEmpty()) {
-          if (waitForData()) {
-            Iterator itr = this.idsAvailable.iterator();
-            next = (Long) itr.next();
-            itr.remove();
-          }
-        } else {
-          Iterator itr = this.idsAvailable.iterator();
-          next = (Long) itr.next();
-          itr.remove();
-        }
-      } finally {
-        releaseWriteLock();
-      }
-      return next;
+      return pollNextAvailableID();
     }
 
     @Override
     protected void storePeekedID(Long id) {
-      acquireWriteLock();
-      try {
-        this.durableIDsList.add(id);
-      } finally {
-        releaseWriteLock();
+      if (this.durableIDsList.add(id)) {
+        this.availableIDsCount.incrementAndGet();
       }
     }
 
@@ -2603,11 +2462,19 @@ public class HARegionQueue implements RegionQueue {
     }
 
     /**
-     * Caller must hold the rwLock
+     * Removes the position from the peeked IDs. A position moved back to idsAvailable by
+     * {@link #initializeTransients()} after the caller failed to remove it from there is removed
+     * from idsAvailable.
      */
     @Override
     protected boolean removeFromOtherLists(Long position) {
-      return this.durableIDsList.remove(position);
+      // the durable list does not exist yet while the super constructor puts the GII data
+      if (this.durableIDsList == null) {
+        return false;
+      }
+      synchronized (this.durableIDsList) {
+        return this.durableIDsList.remove(position) || this.idsAvailable.remove(position);
+      }
     }
 
     @Override
@@ -2620,26 +2487,20 @@ public class HARegionQueue implements RegionQueue {
       // acks that are sent by client - each map corresponds to an ack message.
 
       if (!this.durableIDsList.isEmpty()) {
-        this.acquireWriteLock();
-        try {
-
-          // ARB: The following addAll() op is expensive. @todo
-          // Can be optimized by removing addAll and changing usage of idsAvailable:
-          // Use durableIDsList before idsAvailable, i.e. first peek() from durableIDsList,
-          // followed by idsAvailable. Similarly, destroy() operations should remove id from
-          // either durableIDsList or idsAvailable.
-
-          long start = System.currentTimeMillis();
-          this.durableIDsList.addAll(this.idsAvailable);
-          this.idsAvailable = this.durableIDsList;
-          this.durableIDsList = new LinkedHashSet();
-          long end = System.currentTimeMillis();
-          if ((end - start) > 3000) {
-            logger.warn("Durable client queue initialization took {} ms.",
-                Long.toString(end - start));
+        // The peeked IDs are moved back to idsAvailable, which is ordered by position, so they
+        // are dispatched again before the IDs that were not peeked yet. A position is in neither
+        // set while it is moved, so removeFromOtherLists synchronizes on the durable list.
+        long start = System.currentTimeMillis();
+        synchronized (this.durableIDsList) {
+          Long id;
+          while ((id = this.durableIDsList.pollFirst()) != null) {
+            this.idsAvailable.add(id);
           }
-        } finally {
-          this.releaseWriteLock();
+        }
+        long end = System.currentTimeMillis();
+        if ((end - start) > 3000) {
+          logger.warn("Durable client queue initialization took {} ms.",
+              Long.toString(end - start));
         }
       }
       /*
@@ -2652,19 +2513,6 @@ public class HARegionQueue implements RegionQueue {
       this.threadIdToSeqId.list.clear();
     }
 
-    /**
-     * Returns the size of the idsAvailable Set
-     *
-     * Caller must hold the rwLock
-     */
-    @Override
-    protected int availableIDsSize() {
-      return this.idsAvailable.size() + this.durableIDsList.size();
-    }
-
-    /**
-     * Caller must hold rwLock
-     */
     @Override
     protected Object[] availableIDsArray() {
       // ARB: potentially expensive operation.
@@ -2674,16 +2522,6 @@ public class HARegionQueue implements RegionQueue {
       return retVal.toArray();
     }
 
-    @Override
-    public int size() {
-      acquireReadLock();
-      try {
-        return this.idsAvailable.size() + this.durableIDsList.size();
-      } finally {
-        releaseReadLock();
-      }
-    }
-
     @Override
     public void createAckedEventsMap() {
       ackedEvents = new HashMap();
@@ -3037,11 +2875,8 @@ public class HARegionQueue implements RegionQueue {
             oldPosition = owningQueue.addToConflationMap(eventInHARegion, position);
           }
 
-          // Take the size lock & add to the list of availabelIds
-          // TODO: Asif : To implement blocking peek & take , ideally notify
-          // should be issued
-          // from this block & hence this function should be appropriately
-          // overridden
+          // Add to the list of availabelIds while holding this object, so that
+          // the positions of a thread are published in order
           owningQueue.publish(position);
         } else {
           rejected = true;
@@ -3577,17 +3412,13 @@ public class HARegionQueue implements RegionQueue {
   }
 
   /**
-   * Caller must hold the rwLock
-   *
-   * @return size of idsAvailable
+   * @return the number of available IDs
    */
   protected int availableIDsSize() {
-    return this.idsAvailable.size();
+    return this.availableIDsCount.get();
   }
 
   /**
-   * Caller must hold the rwLock
-   *
    * @return the idsAvailable Set as an array
    */
   protected Object[] availableIDsArray() {
@@ -3628,13 +3459,8 @@ public class HARegionQueue implements RegionQueue {
   private void updateHAContainer() {
     try {
       Object[] availableIdsArray = null;
-      acquireReadLock();
-      try {
-        if (this.availableIDsSize() != 0) {
-          availableIdsArray = this.availableIDsArray();
-        }
-      } finally {
-        releaseReadLock();
+      if (this.availableIDsSize() != 0) {
+        availableIdsArray = this.availableIDsArray();
       }
       if (availableIdsArray != null) {
         final Set wrapperSet = new HashSet();
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
 import org.apache.geode.internal.cache.tier.sockets.CacheServerStats;
@@ -110,4 +111,10 @@ public interface Acceptor extends CommBufferPool {
   int getMaximumTimeBetweenPings();
 
   SocketCloser getSocketCloser();
+
+  /**
+   * Returns the pool a gateway receiver applies the events of a batch concurrently in, or null if
+   * batches are applied by the thread that received them.
+   */
+  ExecutorService getGatewayBatchApplyPool();
 }
@@ -44,6 +44,18 @@ public interface ServerSideHandshake {
 
   Encryptor getEncryptor();
 
+  /**
+   * Returns true if messages on this connection use the {@link
+   * org.apache.geode.internal.cache.tier.sockets.CompactMessageFormat}.
+   */
+  boolean isCompactMessageFormat();
+
+  /**
+   * Returns true if gateway batches on this connection may use the {@link
+   * org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat}.
+   */
+  boolean isCompressedGatewayBatches();
+
   void handshakeWithClient(OutputStream out, InputStream in, byte endpointType, int queueSize,
       CommunicationMode communicationMode, Principal principal) throws IOException;
 }
@@ -89,6 +89,7 @@ import org.apache.geode.internal.cache.tier.CommunicationMode;
 import org.apache.geode.internal.cache.tier.OverflowAttributes;
 import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier.CacheClientNotifierProvider;
 import org.apache.geode.internal.cache.tier.sockets.ClientHealthMonitor.ClientHealthMonitorProvider;
+import org.apache.geode.internal.cache.tier.sockets.command.GatewayReceiverCommand;
 import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
 import org.apache.geode.internal.inet.LocalHostUtil;
 import org.apache.geode.internal.logging.CoreLoggingExecutors;
@@ -101,6 +102,7 @@ import org.apache.geode.internal.statistics.StatisticsClock;
 import org.apache.geode.internal.statistics.StatisticsClockFactory;
 import org.apache.geode.internal.tcp.ConnectionTable;
 import org.apache.geode.internal.util.ArrayUtils;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
 import org.apache.geode.logging.internal.executors.LoggingThread;
 import org.apache.geode.logging.internal.executors.LoggingThreadFactory.CommandWrapper;
 import org.apache.geode.logging.internal.executors.LoggingThreadFactory.ThreadInitializer;
@@ -136,6 +138,12 @@ public class AcceptorImpl implements Acceptor, Runnable {
    */
   private final ExecutorService clientQueueInitPool;
 
+  /**
+   * A pool used by a gateway receiver to apply the events of a batch concurrently. Null unless
+   * batches are applied in parallel.
+   */
+  private final ExecutorService gatewayBatchApplyPool;
+
   /**
    * The port on which this acceptor listens for client connections
    */
@@ -643,6 +651,7 @@ public class AcceptorImpl implements Acceptor, Runnable {
     pool = initializeServerConnectionThreadPool();
     hsPool = initializeHandshakerThreadPool();
     clientQueueInitPool = initializeClientQueueInitializerThreadPool();
+    gatewayBatchApplyPool = initializeGatewayBatchApplyThreadPool();
 
     isAuthenticationRequired = securityService.isClientSecurityRequired();
 
@@ -683,6 +692,14 @@ public class AcceptorImpl implements Acceptor, Runnable {
         getStats().getCnxPoolHelper(), getThreadMonitorObj());
   }
 
+  private ExecutorService initializeGatewayBatchApplyThreadPool() {
+    if (!isGatewayReceiver() || GatewayReceiverCommand.PARALLEL_APPLY_THREADS <= 1) {
+      return null;
+    }
+    return LoggingExecutors.newFixedThreadPool(GatewayReceiverCommand.PARALLEL_APPLY_THREADS,
+        "GatewayReceiverBatchApplier on port " + localPort + " Thread ", true);
+  }
+
   private ExecutorService initializeServerConnectionThreadPool() throws IOException {
     ThreadInitializer threadInitializer = thread -> getStats().incConnectionThreadsCreated();
     CommandWrapper commandWrapper = command -> {
@@ -1692,6 +1709,9 @@ public class AcceptorImpl implements Acceptor, Runnable {
     }
     clientQueueInitPool.shutdown();
     hsPool.shutdown();
+    if (gatewayBatchApplyPool != null) {
+      gatewayBatchApplyPool.shutdown();
+    }
   }
 
   private void shutdownSCs() {
@@ -1816,6 +1836,11 @@ public class AcceptorImpl implements Acceptor, Runnable {
     return isGatewayReceiver;
   }
 
+  @Override
+  public ExecutorService getGatewayBatchApplyPool() {
+    return gatewayBatchApplyPool;
+  }
+
   public List<GatewayTransportFilter> getGatewayTransportFilters() {
     return gatewayTransportFilters;
   }
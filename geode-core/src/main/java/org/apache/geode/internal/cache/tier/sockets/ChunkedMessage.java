@@ -118,6 +118,15 @@ public class ChunkedMessage extends Message {
     return CHUNK_MSG_HEADER_LENGTH;
   }
 
+  /**
+   * Chunks always use the fixed length chunk header, even on connections that use the compact
+   * message format.
+   */
+  @Override
+  boolean isCompactFormat() {
+    return false;
+  }
+
   /**
    * Sets whether this is the last chunk.
    *
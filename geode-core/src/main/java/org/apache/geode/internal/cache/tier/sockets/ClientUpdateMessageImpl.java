@@ -17,6 +17,7 @@ package org.apache.geode.internal.cache.tier.sockets;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -28,9 +29,11 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.DataSerializer;
 import org.apache.geode.GemFireIOException;
 import org.apache.geode.InternalGemFireError;
+import org.apache.geode.SerializationException;
 import org.apache.geode.annotations.VisibleForTesting;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
 import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.Sendable;
 import org.apache.geode.internal.cache.CachedDeserializableFactory;
@@ -48,6 +51,7 @@ import org.apache.geode.internal.serialization.DeserializationContext;
 import org.apache.geode.internal.serialization.KnownVersion;
 import org.apache.geode.internal.serialization.SerializationContext;
 import org.apache.geode.internal.size.Sizeable;
+import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 /**
@@ -143,6 +147,14 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
   private VersionTag<?> versionTag;
 
+  /**
+   * The parts of the message that are the same for all clients of a version, serialized once when
+   * the message is first dispatched to a client of that version. Holds one element per client
+   * version, and is replaced rather than modified when a version is added. Written while
+   * synchronized on this message.
+   */
+  private transient volatile SharedParts[] sharedParts;
+
   /* added up all constants and form single value */
   private static final int CONSTANT_MEMORY_OVERHEAD;
 
@@ -387,6 +399,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
     Message message;
     ClientProxyMembershipID proxyId = proxy.getProxyID();
+    SharedParts parts = getSharedParts(clientVersion);
     // Add CQ info.
     int cqMsgParts = 0;
     boolean clientHasCq = _hasCqs && (getCqs(proxyId) != null);
@@ -406,21 +419,21 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message = getMessage(7 + cqMsgParts, clientVersion);
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
         message.addStringPart(_regionName, true);
-        message.addStringOrObjPart(_keyOfInterest);
+        parts.addKeyPart(message);
       } else {
         // Notify by subscription - send the value
         message = getMessage(9 + cqMsgParts, clientVersion);
         if (isCreate()) {
           message.setMessageType(MessageType.LOCAL_CREATE);
           message.addStringPart(_regionName, true);
-          message.addStringOrObjPart(_keyOfInterest);
+          parts.addKeyPart(message);
           message.addObjPart(Boolean.FALSE); // NO delta
           // Add the value (which has already been serialized)
           message.addRawPart(latestValue, (_valueIsObject == 0x01));
         } else {
           message.setMessageType(MessageType.LOCAL_UPDATE);
           message.addStringPart(_regionName, true);
-          message.addStringOrObjPart(_keyOfInterest);
+          parts.addKeyPart(message);
 
           if (deltaBytes != null && !conflation && !proxy.isMarkerEnqueued()
               && !proxy.getRegionsWithEmptyDataPolicy().containsKey(_regionName)) {
@@ -441,11 +454,11 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         }
       }
 
-      message.addObjPart(_callbackArgument);
+      parts.addCallbackArgumentPart(message);
       if (versionTag != null) {
         versionTag.setCanonicalIDs(proxy.getCache().getDistributionManager());
       }
-      message.addObjPart(versionTag);
+      parts.addVersionTagPart(message);
       message.addObjPart(isClientInterested(proxyId));
       message.addObjPart(clientHasCq);
 
@@ -468,9 +481,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
       }
       message.addStringPart(_regionName, true);
-      message.addStringOrObjPart(_keyOfInterest);
-      message.addObjPart(_callbackArgument);
-      message.addObjPart(versionTag);
+      parts.addKeyPart(message);
+      parts.addCallbackArgumentPart(message);
+      parts.addVersionTagPart(message);
       message.addObjPart(isClientInterested(proxyId));
       message.addObjPart(clientHasCq);
 
@@ -486,7 +499,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.LOCAL_DESTROY_REGION);
       message.addStringPart(_regionName, true);
-      message.addObjPart(_callbackArgument);
+      parts.addCallbackArgumentPart(message);
       message.addObjPart(clientHasCq);
 
       if (clientHasCq) {
@@ -496,7 +509,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.CLEAR_REGION);
       message.addStringPart(_regionName, true);
-      message.addObjPart(_callbackArgument);
+      parts.addCallbackArgumentPart(message);
       message.addObjPart(clientHasCq);
 
       if (clientHasCq) {
@@ -506,7 +519,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.INVALIDATE_REGION);
       message.addStringPart(_regionName, true);
-      message.addObjPart(_callbackArgument);
+      parts.addCallbackArgumentPart(message);
 
       // Add CQ status.
       message.addObjPart(clientHasCq);
@@ -521,10 +534,119 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     message.setTransactionId(0);
     // Add the EventId since 5.1 (used to prevent duplicate events
     // received on the client side after a failover)
-    message.addObjPart(_eventIdentifier);
+    parts.addEventIdPart(message);
     return message;
   }
 
+  private SharedParts getSharedParts(KnownVersion clientVersion) {
+    SharedParts parts = findSharedParts(sharedParts, clientVersion);
+    if (parts == null) {
+      synchronized (this) {
+        SharedParts[] allParts = sharedParts;
+        parts = findSharedParts(allParts, clientVersion);
+        if (parts == null) {
+          parts = new SharedParts(clientVersion);
+          if (allParts == null) {
+            allParts = new SharedParts[] {parts};
+          } else {
+            allParts = Arrays.copyOf(allParts, allParts.length + 1);
+            allParts[allParts.length - 1] = parts;
+          }
+          sharedParts = allParts;
+        }
+      }
+    }
+    return parts;
+  }
+
+  private static SharedParts findSharedParts(SharedParts[] allParts, KnownVersion version) {
+    if (allParts != null) {
+      for (SharedParts parts : allParts) {
+        if (parts.version.equals(version)) {
+          return parts;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The serialized key, callback argument, version tag and event id of this message for one client
+   * version. Parts that are as cheap to add to a message as to copy, like string keys, booleans and
+   * nulls, are added as usual.
+   */
+  private class SharedParts {
+
+    private final KnownVersion version;
+
+    private final byte[] key;
+
+    private final byte[] callbackArgument;
+
+    private final byte[] versionTag;
+
+    private final byte[] eventId;
+
+    SharedParts(KnownVersion version) {
+      this.version = version;
+      key = _keyOfInterest instanceof String ? null : serialize(_keyOfInterest);
+      callbackArgument = _callbackArgument instanceof byte[] || _callbackArgument instanceof Boolean
+          ? null : serialize(_callbackArgument);
+      versionTag = serialize(ClientUpdateMessageImpl.this.versionTag);
+      eventId = serialize(_eventIdentifier);
+    }
+
+    int getSizeInBytes() {
+      // the object and its five references
+      return Sizeable.PER_OBJECT_OVERHEAD + 20 + CachedDeserializableFactory.calcMemSize(key)
+          + CachedDeserializableFactory.calcMemSize(callbackArgument)
+          + CachedDeserializableFactory.calcMemSize(versionTag)
+          + CachedDeserializableFactory.calcMemSize(eventId);
+    }
+
+    private byte[] serialize(Object o) {
+      if (o == null) {
+        return null;
+      }
+      HeapDataOutputStream hdos =
+          new HeapDataOutputStream(version.equals(KnownVersion.CURRENT) ? null : version);
+      try {
+        BlobHelper.serializeTo(o, hdos);
+      } catch (IOException ex) {
+        throw new SerializationException("failed serializing object", ex);
+      }
+      return hdos.toByteArray();
+    }
+
+    void addKeyPart(Message message) {
+      if (key == null) {
+        message.addStringOrObjPart(_keyOfInterest);
+      } else {
+        message.addRawPart(key, true);
+      }
+    }
+
+    void addCallbackArgumentPart(Message message) {
+      addObjPart(message, _callbackArgument, callbackArgument);
+    }
+
+    void addVersionTagPart(Message message) {
+      addObjPart(message, ClientUpdateMessageImpl.this.versionTag, versionTag);
+    }
+
+    void addEventIdPart(Message message) {
+      addObjPart(message, _eventIdentifier, eventId);
+    }
+
+    private void addObjPart(Message message, Object o, byte[] serialized) {
+      if (serialized == null) {
+        message.addObjPart(o);
+      } else {
+        message.addRawPart(serialized, true);
+      }
+    }
+  }
+
   private static final ThreadLocal<Map<Integer, Message>> CACHED_MESSAGES =
       ThreadLocal.withInitial(HashMap::new);
 
@@ -912,6 +1034,15 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
     // The sizeOf call gets the size of the input callback argument.
     size += sizeOf(getOriginalCallbackArgument());
+
+    // The parts serialized for the clients this message was dispatched to
+    SharedParts[] allParts = sharedParts;
+    if (allParts != null) {
+      size += Sizeable.PER_OBJECT_OVERHEAD + 4 * allParts.length;
+      for (SharedParts parts : allParts) {
+        size += parts.getSizeInBytes();
+      }
+    }
     return size;
   }
 
@@ -204,6 +204,7 @@ public class CommandInitializer implements CommandRegistry {
     allCommands.put(KnownVersion.GEODE_1_13_0, geode18Commands);
     allCommands.put(KnownVersion.GEODE_1_13_1, geode18Commands);
     allCommands.put(KnownVersion.GEODE_1_14_0, geode18Commands);
+    allCommands.put(KnownVersion.GEODE_1_16_0, geode18Commands);
 
     // as of GEODE_1_15_0 we only create new command sets when the
     // client/server protocol changes
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * The state of the compact {@link Message} format of one client/server connection. The format is
+ * requested by the client in its {@link Handshake} and used once the server has accepted it. It
+ * only applies to {@link Message}s; {@link ChunkedMessage}s keep their fixed length chunk headers.
+ *
+ * <PRE>
+ * headerLength  - byte   - number of bytes in the rest of the header
+ * msgType       - varint
+ * msgLength     - varint - number of bytes in the payload
+ * numParts      - varint
+ * transactionId - zigzag varint
+ * flags         - byte
+ * part header   - byte   - part type code, possibly with INTERNED_DEFINITION or INTERNED_REFERENCE
+ * partLength    - varint - not present for INTERNED_REFERENCE
+ * internedId    - varint - only present for INTERNED_DEFINITION and INTERNED_REFERENCE
+ * part bytes            - not present for INTERNED_REFERENCE
+ * </PRE>
+ *
+ * Parts added with {@link Message#addStringPart(String, boolean)} and caching enabled, which are
+ * region names, are interned: the first time one is sent on a connection it is sent with an id and
+ * after that only its id is sent.
+ *
+ * Each side of a connection only sends one message at a time and only receives one message at a
+ * time, so this class is not thread safe. The state of sent and received parts is kept apart, so
+ * that a gateway sender can send batches while its ack reader thread receives acks.
+ */
+public class CompactMessageFormat {
+
+  /**
+   * If true, clients request the compact message format when connecting to servers.
+   */
+  public static final String CLIENT_COMPACT_MESSAGE_FORMAT_PROPERTY =
+      GeodeGlossary.GEMFIRE_PREFIX + "client.compact-message-format";
+
+  /**
+   * The oldest version that understands the compact message format.
+   */
+  public static final KnownVersion COMPACT_MESSAGE_FORMAT_VERSION = KnownVersion.GEODE_1_16_0;
+
+  /** The bit of the handshake override byte that requests the compact message format */
+  public static final byte COMPACT_MESSAGE_FORMAT_OVERRIDE = (byte) 0x40;
+
+  /** A part that is sent with its bytes and the id they are interned with */
+  static final byte INTERNED_DEFINITION = (byte) 0x40;
+
+  /** A part that is sent as the id of bytes interned by an earlier part */
+  static final byte INTERNED_REFERENCE = (byte) 0x80;
+
+  static final byte PART_TYPE_MASK = (byte) 0x3F;
+
+  private static final int MAX_VAR_INT_SIZE = 5;
+
+  /** The size of the longest header, not including its length byte */
+  static final int MAX_HEADER_SIZE = 4 * MAX_VAR_INT_SIZE + 1;
+
+  static final int MAX_PART_HEADER_SIZE = 1 + 2 * MAX_VAR_INT_SIZE;
+
+  static final int MAX_INTERNED_PARTS = 1024;
+
+  private final Map<String, Integer> sentParts = new HashMap<>();
+
+  private final List<byte[]> receivedParts = new ArrayList<>();
+
+  public static boolean isRequestedByClient() {
+    return Boolean.getBoolean(CLIENT_COMPACT_MESSAGE_FORMAT_PROPERTY);
+  }
+
+  public static boolean isSupportedBy(short versionOrdinal) {
+    return versionOrdinal >= COMPACT_MESSAGE_FORMAT_VERSION.ordinal();
+  }
+
+  /**
+   * Returns the id of a part that has already been sent on this connection, or -1.
+   */
+  int getSentPartId(String key) {
+    Integer id = sentParts.get(key);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Returns the number of parts that have been interned by this side of the connection. The id of
+   * the next interned part is this number.
+   */
+  int getSentPartCount() {
+    return sentParts.size();
+  }
+
+  /**
+   * Records that the part has been sent with the given id.
+   */
+  void addSentPart(String key, int id) {
+    sentParts.put(key, id);
+  }
+
+  byte[] getReceivedPart(int id) throws IOException {
+    if (id < 0 || id >= receivedParts.size()) {
+      throw new IOException("Unknown interned message part " + id);
+    }
+    return receivedParts.get(id);
+  }
+
+  void addReceivedPart(int id, byte[] bytes) throws IOException {
+    if (id != receivedParts.size()) {
+      throw new IOException(
+          "Interned message part " + id + " received out of order, expected "
+              + receivedParts.size());
+    }
+    receivedParts.add(bytes);
+  }
+
+  static int getVarIntSize(int value) {
+    int size = 1;
+    while ((value & ~0x7F) != 0) {
+      value >>>= 7;
+      size++;
+    }
+    return size;
+  }
+
+  static void putVarInt(ByteBuffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  static int getVarInt(ByteBuffer buffer) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 7 * MAX_VAR_INT_SIZE; shift += 7) {
+      byte b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer in message");
+  }
+
+  static int encodeZigZag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  static int decodeZigZag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
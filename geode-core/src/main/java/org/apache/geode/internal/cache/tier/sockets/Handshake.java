@@ -129,6 +129,17 @@ public abstract class Handshake {
    */
   protected byte[] overrides;
 
+  /**
+   * True if the client requested the compact message format and the server understands it.
+   */
+  protected boolean compactMessageFormat;
+
+  /**
+   * True if the gateway sender requested compressed batches and the gateway receiver accepted
+   * them.
+   */
+  protected boolean compressedGatewayBatches;
+
   /**
    * Test hooks for per client conflation
    *
@@ -148,6 +159,8 @@ public abstract class Handshake {
     this.clientReadTimeout = handshake.clientReadTimeout;
     this.credentials = handshake.credentials;
     this.overrides = handshake.overrides;
+    this.compactMessageFormat = handshake.compactMessageFormat;
+    this.compressedGatewayBatches = handshake.compressedGatewayBatches;
     this.system = handshake.system;
     this.id = handshake.id;
     this.securityService = handshake.securityService;
@@ -170,6 +183,14 @@ public abstract class Handshake {
     return overrides;
   }
 
+  public boolean isCompactMessageFormat() {
+    return compactMessageFormat;
+  }
+
+  public boolean isCompressedGatewayBatches() {
+    return compressedGatewayBatches;
+  }
+
   protected void setOverrides(byte[] values) {
     byte override = values[0];
     setClientConflation(((byte) (override & 0x03)));
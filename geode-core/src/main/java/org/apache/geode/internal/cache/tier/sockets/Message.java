@@ -171,6 +171,9 @@ public class Message {
 
   private KnownVersion version;
 
+  /** The state of the compact format, or null if this message uses the fixed length format */
+  private CompactMessageFormat compactMessageFormat;
+
   /**
    * Creates a new message with the given number of parts
    */
@@ -206,6 +209,21 @@ public class Message {
     this.version = clientVersion;
   }
 
+  /**
+   * Sets the compact format negotiated for the connection this message is sent or received on, or
+   * null to use the fixed length format.
+   */
+  public void setCompactMessageFormat(CompactMessageFormat compactMessageFormat) {
+    this.compactMessageFormat = compactMessageFormat;
+  }
+
+  /**
+   * Returns true if the header and part headers of this message use the compact format.
+   */
+  boolean isCompactFormat() {
+    return this.compactMessageFormat != null;
+  }
+
   public void setMessageHasSecurePartFlag() {
     this.flags |= MESSAGE_HAS_SECURE_PART;
   }
@@ -295,7 +313,7 @@ public class Message {
           CACHED_STRINGS.put(str, bytes);
         }
       }
-      part.setPartState(bytes, false);
+      part.setInternablePartState(bytes, str);
 
     } else {
       // do NOT close the HeapDataOutputStream
@@ -521,6 +539,26 @@ public class Message {
   }
 
   protected void packHeaderInfoForSending(int msgLen, boolean isSecurityHeader) {
+    getCommBuffer().putInt(this.messageType).putInt(msgLen).putInt(this.numberOfParts)
+        .putInt(this.transactionId).put(getFlagsForSending(isSecurityHeader));
+  }
+
+  private void packCompactHeaderInfoForSending(int msgLen, boolean isSecurityHeader) {
+    int transactionId = CompactMessageFormat.encodeZigZag(this.transactionId);
+    int headerLen = CompactMessageFormat.getVarIntSize(this.messageType)
+        + CompactMessageFormat.getVarIntSize(msgLen)
+        + CompactMessageFormat.getVarIntSize(this.numberOfParts)
+        + CompactMessageFormat.getVarIntSize(transactionId) + 1;
+    ByteBuffer cb = getCommBuffer();
+    cb.put((byte) headerLen);
+    CompactMessageFormat.putVarInt(cb, this.messageType);
+    CompactMessageFormat.putVarInt(cb, msgLen);
+    CompactMessageFormat.putVarInt(cb, this.numberOfParts);
+    CompactMessageFormat.putVarInt(cb, transactionId);
+    cb.put(getFlagsForSending(isSecurityHeader));
+  }
+
+  private byte getFlagsForSending(boolean isSecurityHeader) {
     // setting second bit of flags byte for client this is not require but this makes all changes
     // easily at client side right now just see this bit and process security header
     byte flagsByte = this.flags;
@@ -530,8 +568,7 @@ public class Message {
     if (this.isRetry) {
       flagsByte |= MESSAGE_IS_RETRY;
     }
-    getCommBuffer().putInt(this.messageType).putInt(msgLen).putInt(this.numberOfParts)
-        .putInt(this.transactionId).put(flagsByte);
+    return flagsByte;
   }
 
   protected Part getSecurityPart() {
@@ -574,6 +611,15 @@ public class Message {
         throw new IOException("No buffer");
       }
       synchronized (commBuffer) {
+        Part securityPart = this.getSecurityPart();
+        if (securityPart == null) {
+          securityPart = this.securePart;
+        }
+        if (isCompactFormat()) {
+          sendCompactBytes(commBuffer, securityPart);
+          return;
+        }
+
         long totalPartLen = 0;
         long headerLen = 0;
         int partsToTransmit = this.numberOfParts;
@@ -584,10 +630,6 @@ public class Message {
           totalPartLen += part.getLength();
         }
 
-        Part securityPart = this.getSecurityPart();
-        if (securityPart == null) {
-          securityPart = this.securePart;
-        }
         if (securityPart != null) {
           headerLen += PART_HEADER_SIZE;
           totalPartLen += securityPart.getLength();
@@ -600,11 +642,7 @@ public class Message {
         }
 
         int msgLen = (int) (headerLen + totalPartLen);
-
-        if (msgLen > this.maxMessageSize) {
-          throw new MessageTooLargeException("Message size (" + msgLen
-              + ") exceeds gemfire.client.max-message-size setting (" + this.maxMessageSize + ")");
-        }
+        checkMessageSize(msgLen);
 
         commBuffer.clear();
         packHeaderInfoForSending(msgLen, securityPart != null);
@@ -618,27 +656,9 @@ public class Message {
           int partLen = part.getLength();
           commBuffer.putInt(partLen);
           commBuffer.put(part.getTypeCode());
-          if (partLen <= commBuffer.remaining()) {
-            part.writeTo(commBuffer);
-          } else {
-            flushBuffer();
-            if (this.socketChannel != null) {
-              part.writeTo(this.socketChannel, commBuffer);
-            } else {
-              part.writeTo(this.outputStream, commBuffer);
-            }
-            if (this.messageStats != null) {
-              this.messageStats.incSentBytes(partLen);
-            }
-          }
-        }
-        if (commBuffer.position() != 0) {
-          flushBuffer();
-        }
-        this.messageModified = false;
-        if (this.socketChannel == null) {
-          this.outputStream.flush();
+          writePartBytes(commBuffer, part, partLen);
         }
+        finishSending(commBuffer);
       }
     } finally {
       if (clearMessage) {
@@ -647,6 +667,110 @@ public class Message {
     }
   }
 
+  /**
+   * Sends this message in the compact format. Parts that can be interned are sent as a reference if
+   * they have already been sent on this connection.
+   */
+  private void sendCompactBytes(ByteBuffer commBuffer, Part securityPart) throws IOException {
+    final CompactMessageFormat format = this.compactMessageFormat;
+    int partsToTransmit = securityPart == null ? this.numberOfParts : this.numberOfParts + 1;
+
+    // the id each part is interned with, or -1 if the part is not interned
+    int[] internedIds = new int[partsToTransmit];
+    boolean[] isDefinition = new boolean[partsToTransmit];
+    int nextInternedId = format.getSentPartCount();
+    long msgLen = 0;
+    for (int i = 0; i < partsToTransmit; i++) {
+      Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
+      int partLen = part.getLength();
+      String internKey = part.getInternKey();
+      internedIds[i] = -1;
+      if (internKey != null && partLen > 0) {
+        internedIds[i] = format.getSentPartId(internKey);
+        if (internedIds[i] == -1 && nextInternedId < CompactMessageFormat.MAX_INTERNED_PARTS) {
+          internedIds[i] = nextInternedId++;
+          isDefinition[i] = true;
+        }
+      }
+      msgLen++; // type code
+      if (internedIds[i] != -1 && !isDefinition[i]) {
+        msgLen += CompactMessageFormat.getVarIntSize(internedIds[i]);
+      } else {
+        msgLen += CompactMessageFormat.getVarIntSize(partLen) + partLen;
+        if (isDefinition[i]) {
+          msgLen += CompactMessageFormat.getVarIntSize(internedIds[i]);
+        }
+      }
+    }
+
+    if (msgLen > Integer.MAX_VALUE) {
+      throw new MessageTooLargeException(
+          "Message size (" + msgLen + ") exceeds maximum integer value");
+    }
+    checkMessageSize((int) msgLen);
+
+    commBuffer.clear();
+    packCompactHeaderInfoForSending((int) msgLen, securityPart != null);
+    for (int i = 0; i < partsToTransmit; i++) {
+      Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
+
+      if (commBuffer.remaining() < CompactMessageFormat.MAX_PART_HEADER_SIZE) {
+        flushBuffer();
+      }
+
+      if (internedIds[i] != -1 && !isDefinition[i]) {
+        commBuffer.put((byte) (part.getTypeCode() | CompactMessageFormat.INTERNED_REFERENCE));
+        CompactMessageFormat.putVarInt(commBuffer, internedIds[i]);
+        continue;
+      }
+      int partLen = part.getLength();
+      if (isDefinition[i]) {
+        commBuffer.put((byte) (part.getTypeCode() | CompactMessageFormat.INTERNED_DEFINITION));
+        CompactMessageFormat.putVarInt(commBuffer, partLen);
+        CompactMessageFormat.putVarInt(commBuffer, internedIds[i]);
+        format.addSentPart(part.getInternKey(), internedIds[i]);
+      } else {
+        commBuffer.put(part.getTypeCode());
+        CompactMessageFormat.putVarInt(commBuffer, partLen);
+      }
+      writePartBytes(commBuffer, part, partLen);
+    }
+    finishSending(commBuffer);
+  }
+
+  private void checkMessageSize(int msgLen) {
+    if (msgLen > this.maxMessageSize) {
+      throw new MessageTooLargeException("Message size (" + msgLen
+          + ") exceeds gemfire.client.max-message-size setting (" + this.maxMessageSize + ")");
+    }
+  }
+
+  private void writePartBytes(ByteBuffer commBuffer, Part part, int partLen) throws IOException {
+    if (partLen <= commBuffer.remaining()) {
+      part.writeTo(commBuffer);
+    } else {
+      flushBuffer();
+      if (this.socketChannel != null) {
+        part.writeTo(this.socketChannel, commBuffer);
+      } else {
+        part.writeTo(this.outputStream, commBuffer);
+      }
+      if (this.messageStats != null) {
+        this.messageStats.incSentBytes(partLen);
+      }
+    }
+  }
+
+  private void finishSending(ByteBuffer commBuffer) throws IOException {
+    if (commBuffer.position() != 0) {
+      flushBuffer();
+    }
+    this.messageModified = false;
+    if (this.socketChannel == null) {
+      this.outputStream.flush();
+    }
+  }
+
   void flushBuffer() throws IOException {
     final ByteBuffer cb = getCommBuffer();
     if (this.socketChannel != null) {
@@ -674,7 +798,11 @@ public class Message {
       socket.setSoTimeout(headerReadTimeoutMillis);
     }
     try {
-      fetchHeader();
+      if (isCompactFormat()) {
+        fetchCompactHeader();
+      } else {
+        fetchHeader();
+      }
     } finally {
       if (setHeaderReadTimeout) {
         socket.setSoTimeout(oldTimeout);
@@ -682,10 +810,21 @@ public class Message {
     }
 
     final ByteBuffer cb = getCommBuffer();
-    final int type = cb.getInt();
-    final int len = cb.getInt();
-    final int numParts = cb.getInt();
-    final int txid = cb.getInt();
+    final int type;
+    final int len;
+    final int numParts;
+    final int txid;
+    if (isCompactFormat()) {
+      type = CompactMessageFormat.getVarInt(cb);
+      len = CompactMessageFormat.getVarInt(cb);
+      numParts = CompactMessageFormat.getVarInt(cb);
+      txid = CompactMessageFormat.decodeZigZag(CompactMessageFormat.getVarInt(cb));
+    } else {
+      type = cb.getInt();
+      len = cb.getInt();
+      numParts = cb.getInt();
+      txid = cb.getInt();
+    }
     byte bits = cb.get();
     cb.clear();
 
@@ -802,14 +941,34 @@ public class Message {
    * Read the actual bytes of the header off the socket
    */
   void fetchHeader() throws IOException {
-    final ByteBuffer cb = getCommBuffer();
-    cb.clear();
+    // messageType is invalidated here and can be used as an indicator
+    // of problems reading the message
+    this.messageType = MessageType.INVALID;
 
+    readHeaderBytes(getHeaderLength());
+  }
+
+  /**
+   * Read the bytes of a compact header off the socket. The first byte is the length of the rest of
+   * the header.
+   */
+  private void fetchCompactHeader() throws IOException {
     // messageType is invalidated here and can be used as an indicator
     // of problems reading the message
     this.messageType = MessageType.INVALID;
 
-    final int headerLength = getHeaderLength();
+    readHeaderBytes(1);
+    final int headerLength = getCommBuffer().get() & 0xFF;
+    if (headerLength == 0 || headerLength > CompactMessageFormat.MAX_HEADER_SIZE) {
+      throw new IOException("Invalid compact message header length " + headerLength);
+    }
+    readHeaderBytes(headerLength);
+  }
+
+  private void readHeaderBytes(int headerLength) throws IOException {
+    final ByteBuffer cb = getCommBuffer();
+    cb.clear();
+
     if (this.socketChannel != null) {
       cb.limit(headerLength);
       do {
@@ -895,8 +1054,25 @@ public class Message {
         part = this.securePart;
       }
 
-      int partLen = cb.getInt();
-      byte partType = cb.get();
+      int partLen;
+      byte partType;
+      int internedId = -1;
+      if (isCompactFormat()) {
+        byte typeCode = cb.get();
+        partType = (byte) (typeCode & CompactMessageFormat.PART_TYPE_MASK);
+        if ((typeCode & CompactMessageFormat.INTERNED_REFERENCE) != 0) {
+          int id = CompactMessageFormat.getVarInt(cb);
+          part.init(this.compactMessageFormat.getReceivedPart(id), partType);
+          continue;
+        }
+        partLen = CompactMessageFormat.getVarInt(cb);
+        if ((typeCode & CompactMessageFormat.INTERNED_DEFINITION) != 0) {
+          internedId = CompactMessageFormat.getVarInt(cb);
+        }
+      } else {
+        partLen = cb.getInt();
+        partType = cb.get();
+      }
       byte[] partBytes = null;
 
       if (partLen > 0) {
@@ -951,6 +1127,9 @@ public class Message {
         }
       }
       part.init(partBytes, partType);
+      if (internedId != -1) {
+        this.compactMessageFormat.addReceivedPart(internedId, partBytes);
+      }
     }
   }
 
@@ -970,7 +1149,9 @@ public class Message {
    */
   private int readPartChunk(int bytesRemaining) throws IOException {
     final ByteBuffer commBuffer = getCommBuffer();
-    if (commBuffer.remaining() >= PART_HEADER_SIZE) {
+    int partHeaderSize =
+        isCompactFormat() ? CompactMessageFormat.MAX_PART_HEADER_SIZE : PART_HEADER_SIZE;
+    if (commBuffer.remaining() >= partHeaderSize) {
       // we already have the next part header in commBuffer so just return
       return 0;
     }
@@ -1106,6 +1287,7 @@ public class Message {
     this.outputStream = null;
     this.cachedCommBuffer = null;
     this.messageStats = null;
+    this.compactMessageFormat = null;
   }
 
   /**
@@ -64,7 +64,13 @@ public class Part {
   /** Is the payload (<code>part</code>) a serialized object? */
   private byte typeCode;
 
+  /**
+   * If not null, the payload may be interned by the {@link CompactMessageFormat} under this key.
+   */
+  private String internKey;
+
   public void init(byte[] v, byte tc) {
+    this.internKey = null;
     if (tc == EMPTY_BYTEARRAY_CODE) {
       this.part = EMPTY_BYTE_ARRAY;
     } else {
@@ -74,6 +80,7 @@ public class Part {
   }
 
   public void clear() {
+    this.internKey = null;
     if (this.part != null) {
       if (this.part instanceof HeapDataOutputStream) {
         ((HeapDataOutputStream) this.part).close();
@@ -105,6 +112,7 @@ public class Part {
   }
 
   public void setPartState(byte[] b, boolean isObject) {
+    this.internKey = null;
     if (isObject) {
       this.typeCode = OBJECT_CODE;
     } else if (b != null && b.length == 0) {
@@ -117,6 +125,7 @@ public class Part {
   }
 
   public void setPartState(HeapDataOutputStream os, boolean isObject) {
+    this.internKey = null;
     if (isObject) {
       this.typeCode = OBJECT_CODE;
       this.part = os;
@@ -130,6 +139,7 @@ public class Part {
   }
 
   public void setPartState(StoredObject so, boolean isObject) {
+    this.internKey = null;
     if (isObject) {
       this.typeCode = OBJECT_CODE;
     } else if (so.getDataSize() == 0) {
@@ -146,6 +156,19 @@ public class Part {
     }
   }
 
+  /**
+   * Sets the payload to bytes that are identified by the given key, such as the bytes of a region
+   * name, so that they only need to be sent once per connection.
+   */
+  public void setInternablePartState(byte[] b, String key) {
+    setPartState(b, false);
+    this.internKey = key;
+  }
+
+  String getInternKey() {
+    return this.internKey;
+  }
+
   public byte getTypeCode() {
     return this.typeCode;
   }
@@ -242,6 +265,7 @@ public class Part {
   }
 
   public void setByte(byte b) {
+    this.internKey = null;
     this.typeCode = BYTE_CODE;
     this.part = BYTES[b + BYTES_OFFSET];
   }
@@ -279,6 +303,7 @@ public class Part {
   private static final Map<Integer, byte[]> CACHED_INTS = new ConcurrentHashMap<Integer, byte[]>();
 
   public void setInt(int v) {
+    this.internKey = null;
     byte[] bytes = CACHED_INTS.get(v);
     if (bytes == null) {
       bytes = new byte[4];
@@ -305,6 +330,7 @@ public class Part {
   }
 
   public void setLong(long v) {
+    this.internKey = null;
     byte[] bytes = new byte[8];
     bytes[0] = (byte) ((v & 0xFF00000000000000l) >> 56);
     bytes[1] = (byte) ((v & 0x00FF000000000000l) >> 48);
@@ -65,6 +65,7 @@ import org.apache.geode.internal.cache.tier.InternalClientMembership;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.ServerSideHandshake;
 import org.apache.geode.internal.cache.tier.sockets.command.Default;
+import org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat;
 import org.apache.geode.internal.logging.InternalLogWriter;
 import org.apache.geode.internal.monitoring.ThreadsMonitoring;
 import org.apache.geode.internal.monitoring.executor.AbstractExecutor;
@@ -228,6 +229,12 @@ public class ServerConnection implements Runnable {
    */
   private int latestBatchIdReplied = -1;
 
+  /**
+   * The dictionaries of compressed gateway batches received on this connection, or null if the
+   * gateway sender did not ask for compressed batches
+   */
+  private CompressedGatewayBatchFormat compressedGatewayBatchFormat;
+
   /**
    * Client identity from handshake
    */
@@ -500,6 +507,17 @@ public class ServerConnection implements Runnable {
     executeFunctionResponseMessage.setVersion(v);
     registerInterestResponseMessage.setVersion(v);
     keySetResponseMessage.setVersion(v);
+
+    if (handshake.isCompactMessageFormat()) {
+      CompactMessageFormat compactMessageFormat = new CompactMessageFormat();
+      replyMessage.setCompactMessageFormat(compactMessageFormat);
+      requestMessage.setCompactMessageFormat(compactMessageFormat);
+      responseMessage.setCompactMessageFormat(compactMessageFormat);
+      errorMessage.setCompactMessageFormat(compactMessageFormat);
+    }
+    if (handshake.isCompressedGatewayBatches()) {
+      compressedGatewayBatchFormat = new CompressedGatewayBatchFormat();
+    }
   }
 
   void setRequestMessage(Message requestMessage) {
@@ -1426,6 +1444,10 @@ public class ServerConnection implements Runnable {
     return latestBatchIdReplied;
   }
 
+  public CompressedGatewayBatchFormat getCompressedGatewayBatchFormat() {
+    return compressedGatewayBatchFormat;
+  }
+
   void initStreams(Socket s, int socketBufferSize, MessageStats messageStats) {
     try {
       if (getAcceptor().isSelector()) {
@@ -38,6 +38,11 @@ public class ServerQueueStatus {
   private DistributedMember memberId = null;
   /** size of the PDX registry on the server. Currently only set for gateways */
   private int pdxSize = 0;
+  /** true if the server accepted the compact message format */
+  private boolean compactMessageFormat = false;
+
+  /** true if the gateway receiver accepted compressed batches */
+  private boolean compressedGatewayBatches = false;
 
   /**
    * Constructor Called when connectionsPerServer is nto equal to 0
@@ -129,6 +134,22 @@ public class ServerQueueStatus {
     this.pdxSize = pdxSize;
   }
 
+  public boolean isCompactMessageFormat() {
+    return compactMessageFormat;
+  }
+
+  public void setCompactMessageFormat(boolean compactMessageFormat) {
+    this.compactMessageFormat = compactMessageFormat;
+  }
+
+  public boolean isCompressedGatewayBatches() {
+    return compressedGatewayBatches;
+  }
+
+  public void setCompressedGatewayBatches(boolean compressedGatewayBatches) {
+    this.compressedGatewayBatches = compressedGatewayBatches;
+  }
+
   /**
    * The member id of the server we connected to.
    *
@@ -33,6 +33,7 @@ import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.cache.tier.CommunicationMode;
 import org.apache.geode.internal.cache.tier.Encryptor;
 import org.apache.geode.internal.cache.tier.ServerSideHandshake;
+import org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat;
 import org.apache.geode.internal.security.SecurityService;
 import org.apache.geode.internal.serialization.KnownVersion;
 import org.apache.geode.internal.serialization.VersionedDataInputStream;
@@ -50,6 +51,9 @@ public class ServerSideHandshakeImpl extends Handshake implements ServerSideHand
 
   private final byte replyCode;
 
+  /** True if the gateway sender asked for compressed batches and expects a reply */
+  private boolean compressedGatewayBatchesRequested;
+
   @Override
   protected byte getReplyCode() {
     return replyCode;
@@ -94,7 +98,16 @@ public class ServerSideHandshakeImpl extends Handshake implements ServerSideHand
               new VersionedDataOutputStream(dataOutputStream, clientVersion);
         }
         id = ClientProxyMembershipID.readCanonicalized(dataInputStream);
-        setOverrides(new byte[] {dataInputStream.readByte()});
+        byte override = dataInputStream.readByte();
+        setOverrides(new byte[] {override});
+        compactMessageFormat =
+            (override & CompactMessageFormat.COMPACT_MESSAGE_FORMAT_OVERRIDE) != 0
+                && CompactMessageFormat.isSupportedBy(clientVersion.ordinal());
+        compressedGatewayBatchesRequested = communicationMode.isWAN()
+            && (override & CompressedGatewayBatchFormat.COMPRESSED_BATCH_OVERRIDE) != 0
+            && CompressedGatewayBatchFormat.isSupportedBy(clientVersion.ordinal());
+        compressedGatewayBatches = compressedGatewayBatchesRequested
+            && CompressedGatewayBatchFormat.isAcceptedByReceiver();
         // Note: credentials should always be the last piece in handshake for
         // Diffie-Hellman key exchange to work
         if (communicationMode.isWAN()) {
@@ -188,6 +201,16 @@ public class ServerSideHandshakeImpl extends Handshake implements ServerSideHand
       }
     }
 
+    // Accept the compact message format requested by the client
+    if (compactMessageFormat) {
+      dos.writeBoolean(true);
+    }
+
+    // Reply to the gateway sender's request for compressed batches
+    if (compressedGatewayBatchesRequested) {
+      dos.writeBoolean(compressedGatewayBatches);
+    }
+
     // Flush
     dos.flush();
   }
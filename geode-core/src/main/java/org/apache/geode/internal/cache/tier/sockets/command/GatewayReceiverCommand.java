@@ -15,10 +15,21 @@
 package org.apache.geode.internal.cache.tier.sockets.command;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.geode.CancelException;
+import org.apache.geode.InternalGemFireException;
 import org.apache.geode.annotations.Immutable;
 import org.apache.geode.cache.EntryNotFoundException;
 import org.apache.geode.cache.RegionDestroyedException;
@@ -42,6 +53,7 @@ import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat;
 import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
 import org.apache.geode.internal.security.AuthorizeRequest;
 import org.apache.geode.internal.security.SecurityService;
@@ -53,6 +65,7 @@ import org.apache.geode.pdx.internal.EnumId;
 import org.apache.geode.pdx.internal.EnumInfo;
 import org.apache.geode.pdx.internal.PdxType;
 import org.apache.geode.pdx.internal.PeerTypeRegistration;
+import org.apache.geode.util.internal.GeodeGlossary;
 
 public class GatewayReceiverCommand extends BaseCommand {
 
@@ -63,6 +76,13 @@ public class GatewayReceiverCommand extends BaseCommand {
     return SINGLETON;
   }
 
+  /**
+   * The number of partitions the events of a batch are applied in concurrently. Batches are
+   * applied serially by the thread that received them if this is 1 or less.
+   */
+  public static final int PARALLEL_APPLY_THREADS = Integer.getInteger(
+      GeodeGlossary.GEMFIRE_PREFIX + "GatewayReceiver.PARALLEL_APPLY_THREADS", 1);
+
   private GatewayReceiverCommand() {
     // nothing
   }
@@ -100,6 +120,20 @@ public class GatewayReceiverCommand extends BaseCommand {
     Part batchIdPart = clientMessage.getPart(1);
     int batchId = batchIdPart.getInt();
 
+    // Expand compressed events into the parts of an uncompressed batch. This is done before the
+    // batch may be dropped as a duplicate because it may define dictionary entries.
+    byte flags = clientMessage.getPart(3).getSerializedForm()[0];
+    if ((flags & CompressedGatewayBatchFormat.COMPRESSED_FLAG) != 0) {
+      CompressedGatewayBatchFormat compressedBatchFormat =
+          serverConnection.getCompressedGatewayBatchFormat();
+      if (compressedBatchFormat == null) {
+        throw new IOException(String.format(
+            "Received compressed batch %s on a connection that does not use compressed batches",
+            batchId));
+      }
+      compressedBatchFormat.decode(clientMessage);
+    }
+
     // If this batch has already been seen, do not reply.
     // Instead, drop the batch and continue.
     if (batchId <= serverConnection.getLatestBatchIdReplied()) {
@@ -142,572 +176,765 @@ public class GatewayReceiverCommand extends BaseCommand {
     int partNumber = 2;
     int dsid = clientMessage.getPart(partNumber++).getInt();
 
-    boolean removeOnException = clientMessage.getPart(partNumber++).getSerializedForm()[0] == 1;
+    boolean removeOnException =
+        (flags & CompressedGatewayBatchFormat.REMOVE_FROM_QUEUE_ON_EXCEPTION_FLAG) != 0;
+    partNumber++;
 
-    // event received in batch also have PDX events at the start of the batch,to
-    // represent correct index on which the exception occurred, number of PDX
-    // events need to be subtracted.
-    int indexWithoutPDXEvent = -1; //
-    Part valuePart = null;
-    Throwable fatalException = null;
+    BatchContext context = new BatchContext(clientMessage, serverConnection, crHelper, stats,
+        batchId, numberOfEvents, dsid, removeOnException);
+    List<BatchEvent> events = locateEvents(clientMessage, partNumber, numberOfEvents);
+
+    Throwable fatalException;
     List<BatchException70> exceptions = new ArrayList<>();
-    for (int i = 0; i < numberOfEvents; i++) {
-      indexWithoutPDXEvent++;
+    ExecutorService applyPool = serverConnection.getAcceptor().getGatewayBatchApplyPool();
+    try {
+      if (applyPool != null && numberOfEvents > 1) {
+        context.startParallelApply();
+        try {
+          fatalException = applyEventsInParallel(events, PARALLEL_APPLY_THREADS, applyPool,
+              (event, eventExceptions) -> applyEvent(context, event, eventExceptions), exceptions);
+        } finally {
+          context.finishParallelApply();
+        }
+      } else {
+        fatalException = applyEvents(context, events, exceptions);
+      }
+    } catch (CancelException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "{} ignoring message of type {} from client {} because shutdown occurred during message processing.",
+            serverConnection.getName(), MessageType.getString(clientMessage.getMessageType()),
+            serverConnection.getProxyID());
+      }
+      serverConnection.setFlagProcessMessagesAsFalse();
+      serverConnection.setClientDisconnectedException(e);
+      return;
+    }
 
-      Part actionTypePart = clientMessage.getPart(partNumber);
-      int actionType = actionTypePart.getInt();
+    {
+      long oldStart = start;
+      start = DistributionStats.getStatTime();
+      stats.incProcessBatchTime(start - oldStart);
+    }
+    if (fatalException != null) {
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+      writeFatalException(clientMessage, fatalException, serverConnection, batchId);
+      serverConnection.setAsTrue(RESPONDED);
+    } else if (!exceptions.isEmpty()) {
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+      writeBatchException(clientMessage, exceptions, serverConnection, batchId);
+      serverConnection.setAsTrue(RESPONDED);
+    } else {
+      // Increment the batch id unless the received batch id is -1 (a failover
+      // batch)
+      serverConnection.incrementLatestBatchIdReplied(batchId);
 
-      boolean callbackArgExists = false;
+      writeReply(clientMessage, serverConnection, batchId, numberOfEvents);
+      serverConnection.setAsTrue(RESPONDED);
+      stats.incWriteProcessBatchResponseTime(DistributionStats.getStatTime() - start);
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "{}: Sent process batch normal response for batch {} containing {} events ({} bytes) with {} acknowledgement on {}",
+            serverConnection.getName(), batchId, numberOfEvents, clientMessage.getPayloadLength(),
+            "normal", serverConnection.getSocketString());
+      }
+    }
+  }
+
+  /**
+   * Applies the given events of a batch in order.
+   *
+   * @return the fatal exception that stopped the processing of the events, or null
+   */
+  private Throwable applyEvents(BatchContext context, List<BatchEvent> events,
+      List<BatchException70> exceptions) throws InterruptedException, InterruptedIOException {
+    for (BatchEvent event : events) {
+      Throwable fatalException = applyEvent(context, event, exceptions);
+      if (fatalException != null) {
+        return fatalException;
+      }
+    }
+    return null;
+  }
 
+  /**
+   * Applies the PDX events of a batch in order, then partitions the other events by the hash of
+   * their region and key and applies the partitions concurrently. The events of a key are applied
+   * in the order they were received in. This thread applies one of the partitions itself, and
+   * does not return before all of them are done, since they read the parts of the message. Once an
+   * event fails fatally, the partitions stop applying events.
+   *
+   * @return the fatal exception that stopped the processing of the events, or null
+   */
+  static Throwable applyEventsInParallel(List<BatchEvent> events, int numberOfPartitions,
+      ExecutorService executor, EventApplier applier, List<BatchException70> exceptions)
+      throws InterruptedException, InterruptedIOException {
+    List<BatchEvent> pdxEvents = new ArrayList<>();
+    List<List<BatchEvent>> partitions = new ArrayList<>(numberOfPartitions);
+    for (int i = 0; i < numberOfPartitions; i++) {
+      partitions.add(new ArrayList<>());
+    }
+    for (BatchEvent event : events) {
+      if (event.isPdxEvent()) {
+        pdxEvents.add(event);
+      } else {
+        partitions.get(Math.floorMod(event.getPartitionHash(), numberOfPartitions)).add(event);
+      }
+    }
+
+    AtomicBoolean stopped = new AtomicBoolean();
+    Throwable fatalException = applyPartition(pdxEvents, applier, exceptions, stopped);
+    if (fatalException != null) {
+      return fatalException;
+    }
+
+    List<List<BatchEvent>> localPartitions = new ArrayList<>();
+    List<Future<Throwable>> futures = new ArrayList<>();
+    List<List<BatchException70>> futureExceptions = new ArrayList<>();
+    boolean appliedLocalPartitions = false;
+    try {
+      for (List<BatchEvent> partition : partitions) {
+        if (partition.isEmpty()) {
+          continue;
+        }
+        if (localPartitions.isEmpty()) {
+          localPartitions.add(partition);
+          continue;
+        }
+        List<BatchException70> partitionExceptions = new ArrayList<>();
+        try {
+          futures.add(executor
+              .submit(() -> applyPartition(partition, applier, partitionExceptions, stopped)));
+          futureExceptions.add(partitionExceptions);
+        } catch (RejectedExecutionException e) {
+          // the receiver is stopping, so this thread applies the partition itself
+          localPartitions.add(partition);
+        }
+      }
+      for (List<BatchEvent> partition : localPartitions) {
+        fatalException = applyPartition(partition, applier, exceptions, stopped);
+        if (fatalException != null) {
+          break;
+        }
+      }
+      appliedLocalPartitions = true;
+    } finally {
+      if (!appliedLocalPartitions) {
+        stopped.set(true);
+      }
+      awaitDone(futures);
+    }
+
+    Throwable partitionFailure = null;
+    for (int i = 0; i < futures.size(); i++) {
       try {
-        boolean isPdxEvent = false;
-        boolean retry = true;
-        do {
-          if (isPdxEvent) {
-            // This is a retried event. Reset the PDX event index.
-            indexWithoutPDXEvent++;
-          }
-          isPdxEvent = false;
-          Part possibleDuplicatePart = clientMessage.getPart(partNumber + 1);
-          byte[] possibleDuplicatePartBytes;
+        Throwable partitionFatalException = futures.get(i).get();
+        if (fatalException == null) {
+          fatalException = partitionFatalException;
+        }
+        exceptions.addAll(futureExceptions.get(i));
+      } catch (ExecutionException e) {
+        if (partitionFailure == null) {
+          partitionFailure = e.getCause();
+        }
+      }
+    }
+    if (partitionFailure instanceof InterruptedException) {
+      throw (InterruptedException) partitionFailure;
+    }
+    if (partitionFailure instanceof InterruptedIOException) {
+      throw (InterruptedIOException) partitionFailure;
+    }
+    if (partitionFailure instanceof RuntimeException) {
+      throw (RuntimeException) partitionFailure;
+    }
+    if (partitionFailure instanceof Error) {
+      throw (Error) partitionFailure;
+    }
+    if (partitionFailure != null) {
+      throw new InternalGemFireException(partitionFailure);
+    }
+    if (fatalException != null) {
+      return fatalException;
+    }
+    exceptions.sort(Comparator.comparingInt(BatchException70::getIndex));
+    return null;
+  }
+
+  /**
+   * Applies the given events of one partition of a batch in order, unless the batch was stopped.
+   *
+   * @return the fatal exception that stopped the processing of the events, or null
+   */
+  private static Throwable applyPartition(List<BatchEvent> events, EventApplier applier,
+      List<BatchException70> exceptions, AtomicBoolean stopped)
+      throws InterruptedException, InterruptedIOException {
+    for (BatchEvent event : events) {
+      if (stopped.get()) {
+        return null;
+      }
+      Throwable fatalException = applier.apply(event, exceptions);
+      if (fatalException != null) {
+        stopped.set(true);
+        return fatalException;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Waits until the given partitions are done, even if this thread is interrupted.
+   */
+  private static void awaitDone(List<Future<Throwable>> futures) {
+    boolean interrupted = false;
+    for (Future<Throwable> future : futures) {
+      while (!future.isDone()) {
+        try {
+          future.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException | CancellationException ignore) {
+          // handled by the caller
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Applies one event of a batch. Exceptions other than a {@link CancelException} are added to the
+   * exceptions of the batch.
+   *
+   * @return the fatal exception that should stop the processing of the batch, or null
+   */
+  private Throwable applyEvent(BatchContext context, BatchEvent event,
+      List<BatchException70> exceptions) throws InterruptedException, InterruptedIOException {
+    try {
+      applyEventParts(context, event.partNumber);
+    } catch (CancelException e) {
+      throw e;
+    } catch (Exception e) {
+      ServerConnection serverConnection = context.serverConnection;
+      // If an interrupted exception is thrown , rethrow it
+      checkForInterrupt(serverConnection, e);
+
+      // If we have an issue with the PDX registry, stop processing more data
+      if (e.getCause() instanceof PdxRegistryMismatchException) {
+        logger.fatal(String.format(
+            "This gateway receiver has received a PDX type from %s that does match the existing PDX type. This gateway receiver will not process any more events, in order to prevent receiving objects which may not be deserializable.",
+            serverConnection.getMembershipID()), e.getCause());
+        return e.getCause();
+      }
+
+      // Increment the batch id unless the received batch id is -1 (a
+      // failover batch)
+      DistributedSystem ds =
+          context.crHelper.getCacheForGatewayCommand().getDistributedSystem();
+      String exceptionMessage = String.format(
+          "Exception occurred while processing a batch on the receiver running on DistributedSystem with Id: %s, DistributedMember on which the receiver is running: %s",
+          ((InternalDistributedSystem) ds).getDistributionManager().getDistributedSystemId(),
+          ds.getDistributedMember());
+      exceptions.add(new BatchException70(exceptionMessage, e, event.index, context.batchId));
+    }
+    return null;
+  }
+
+  private void applyEventParts(BatchContext context, int partNumber) throws Exception {
+    Message clientMessage = context.clientMessage;
+    ServerConnection serverConnection = context.serverConnection;
+    CachedRegionHelper crHelper = context.crHelper;
+    GatewayReceiverStats stats = context.stats;
+    int batchId = context.batchId;
+    int numberOfEvents = context.numberOfEvents;
+    int dsid = context.dsid;
+    boolean removeOnException = context.removeOnException;
+
+    Part actionTypePart = clientMessage.getPart(partNumber);
+    int actionType = actionTypePart.getInt();
+    Part valuePart = null;
+    boolean callbackArgExists = false;
+    boolean isPdxEvent = false;
+    boolean retry = true;
+    do {
+      isPdxEvent = false;
+      Part possibleDuplicatePart = clientMessage.getPart(partNumber + 1);
+      byte[] possibleDuplicatePartBytes;
+      try {
+        possibleDuplicatePartBytes = (byte[]) possibleDuplicatePart.getObject();
+      } catch (Exception e) {
+        logger.warn(String.format(
+            "%s: Caught exception processing batch request %s containing %s events",
+            serverConnection.getName(), batchId, numberOfEvents), e);
+        handleException(removeOnException, stats, e);
+        break;
+      }
+      boolean possibleDuplicate = possibleDuplicatePartBytes[0] == 0x01;
+
+      // Make sure instance variables are null before each iteration
+      String regionName = null;
+      Object key = null;
+      Object callbackArg = null;
+
+      // Retrieve the region name from the message parts
+      Part regionNamePart = clientMessage.getPart(partNumber + 2);
+      regionName = regionNamePart.getCachedString();
+      if (regionName.equals(PeerTypeRegistration.REGION_FULL_PATH)) {
+        isPdxEvent = true;
+      }
+
+      // Retrieve the event id from the message parts
+      // This was going to be used to determine possible
+      // duplication of events, but it is unused now. In
+      // fact the event id is overridden by the FROM_GATEWAY
+      // token.
+      Part eventIdPart = clientMessage.getPart(partNumber + 3);
+      eventIdPart.setVersion(serverConnection.getClientVersion());
+      // String eventId = eventIdPart.getString();
+      EventID eventId;
+      try {
+        eventId = (EventID) eventIdPart.getObject();
+      } catch (Exception e) {
+        logger.warn(String.format(
+            "%s: Caught exception processing batch request %s containing %s events",
+            serverConnection.getName(), batchId, numberOfEvents), e);
+        handleException(removeOnException, stats, e);
+        break;
+      }
+
+      // Retrieve the key from the message parts
+      Part keyPart = clientMessage.getPart(partNumber + 4);
+      try {
+        key = keyPart.getStringOrObject();
+      } catch (Exception e) {
+        logger.warn(String.format(
+            "%s: Caught exception processing batch request %s containing %s events",
+            serverConnection.getName(), batchId, numberOfEvents), e);
+        handleException(removeOnException, stats, e);
+        break;
+      }
+      int index;
+      Part callbackArgPart;
+      EventIDHolder clientEvent;
+      long versionTimeStamp;
+      Part callbackArgExistsPart;
+      LocalRegion region;
+      switch (actionType) {
+        case 0: // Create
           try {
-            possibleDuplicatePartBytes = (byte[]) possibleDuplicatePart.getObject();
+
+            /*
+             * CLIENT EXCEPTION HANDLING TESTING CODE String keySt = (String) key;
+             * System.out.println("Processing new key: " + key); if
+             * (keySt.startsWith("failure")) { throw new Exception(LocalizedStrings
+             * .ProcessBatch_THIS_EXCEPTION_REPRESENTS_A_FAILURE_ON_THE_SERVER
+             * )); }
+             */
+
+            // Retrieve the value from the message parts (do not deserialize it)
+            valuePart = clientMessage.getPart(partNumber + 5);
+            // try {
+            // logger.warn(getName() + ": Creating key " + key + " value " +
+            // valuePart.getObject());
+            // } catch (Exception e) {}
+
+            // Retrieve the callbackArg from the message parts if necessary
+            index = partNumber + 6;
+            callbackArgExistsPart = clientMessage.getPart(index++);
+            {
+              byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+              callbackArgExists = partBytes[0] == 0x01;
+            }
+            if (callbackArgExists) {
+              callbackArgPart = clientMessage.getPart(index++);
+              try {
+                callbackArg = callbackArgPart.getObject();
+              } catch (Exception e) {
+                logger
+                    .warn(String.format(
+                        "%s: Caught exception processing batch create request %s for %s events",
+                        serverConnection.getName(), batchId, numberOfEvents),
+                        e);
+                throw e;
+              }
+            }
+            if (logger.isDebugEnabled()) {
+              logger.debug(
+                  "{}: Processing batch create request {} on {} for region {} key {} value {} callbackArg {}, eventId={}",
+                  serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                  regionName, key, valuePart, callbackArg, eventId);
+            }
+            versionTimeStamp = clientMessage.getPart(index++).getLong();
+            // Process the create request
+            if (key == null || regionName == null) {
+              String message = null;
+              if (key == null) {
+                message = "%s: The input key for the batch create request %s is null";
+              }
+              if (regionName == null) {
+                message = "%s: The input region name for the batch create request %s is null";
+              }
+              String s = String.format(message, serverConnection.getName(), batchId);
+              logger.warn(s);
+              throw new Exception(s);
+            }
+            region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+            if (region == null) {
+              handleRegionNull(serverConnection, regionName, batchId);
+            } else {
+              clientEvent = new EventIDHolder(eventId);
+              if (versionTimeStamp > 0) {
+                VersionTag tag = VersionTag.create(region.getVersionMember());
+                tag.setIsGatewayTag(true);
+                tag.setVersionTimeStamp(versionTimeStamp);
+                tag.setDistributedSystemId(dsid);
+                clientEvent.setVersionTag(tag);
+              }
+              clientEvent.setPossibleDuplicate(possibleDuplicate);
+              handleMessageRetry(region, clientEvent);
+              byte[] value = valuePart.getSerializedForm();
+              boolean isObject = valuePart.isObject();
+              // [sumedh] This should be done on client while sending
+              // since that is the WAN gateway
+              AuthorizeRequest authzRequest = context.getAuthzRequest();
+              if (authzRequest != null) {
+                PutOperationContext putContext =
+                    authzRequest.putAuthorize(regionName, key, value, isObject, callbackArg);
+                value = putContext.getSerializedValue();
+                isObject = putContext.isObject();
+              }
+              // Attempt to create the entry
+              boolean result = false;
+              if (isPdxEvent) {
+                result = addPdxType(crHelper, key, value);
+              } else {
+                result = region.basicBridgeCreate(key, value, isObject, callbackArg,
+                    serverConnection.getProxyID(), false, clientEvent, false);
+                // If the create fails (presumably because it already exists),
+                // attempt to update the entry
+                if (!result) {
+                  result = region.basicBridgePut(key, value, null, isObject, callbackArg,
+                      serverConnection.getProxyID(), false, clientEvent);
+                }
+              }
+
+              if (result || clientEvent.isConcurrencyConflict()) {
+                context.setModificationInfo(partNumber, regionName, key);
+                stats.incCreateRequest();
+                retry = false;
+              } else {
+                // This exception will be logged in the catch block below
+                throw new Exception(
+                    String.format(
+                        "%s: Failed to create or update entry for region %s key %s value %s callbackArg %s",
+                        serverConnection.getName(), regionName, key, valuePart, callbackArg));
+              }
+            }
           } catch (Exception e) {
             logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
+                "%s: Caught exception processing batch create request %s for %s events",
                 serverConnection.getName(), batchId, numberOfEvents), e);
             handleException(removeOnException, stats, e);
-            break;
-          }
-          boolean possibleDuplicate = possibleDuplicatePartBytes[0] == 0x01;
-
-          // Make sure instance variables are null before each iteration
-          String regionName = null;
-          Object key = null;
-          Object callbackArg = null;
-
-          // Retrieve the region name from the message parts
-          Part regionNamePart = clientMessage.getPart(partNumber + 2);
-          regionName = regionNamePart.getCachedString();
-          if (regionName.equals(PeerTypeRegistration.REGION_FULL_PATH)) {
-            indexWithoutPDXEvent--;
-            isPdxEvent = true;
           }
+          break;
 
-          // Retrieve the event id from the message parts
-          // This was going to be used to determine possible
-          // duplication of events, but it is unused now. In
-          // fact the event id is overridden by the FROM_GATEWAY
-          // token.
-          Part eventIdPart = clientMessage.getPart(partNumber + 3);
-          eventIdPart.setVersion(serverConnection.getClientVersion());
-          // String eventId = eventIdPart.getString();
-          EventID eventId;
+        case 1: // Update
           try {
-            eventId = (EventID) eventIdPart.getObject();
+            // Retrieve the value from the message parts (do not deserialize it)
+            valuePart = clientMessage.getPart(partNumber + 5);
+            // try {
+            // logger.warn(getName() + ": Updating key " + key + " value " +
+            // valuePart.getObject());
+            // } catch (Exception e) {}
+
+            // Retrieve the callbackArg from the message parts if necessary
+            index = partNumber + 6;
+            callbackArgExistsPart = clientMessage.getPart(index++);
+            {
+              byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+              callbackArgExists = partBytes[0] == 0x01;
+            }
+            if (callbackArgExists) {
+              callbackArgPart = clientMessage.getPart(index++);
+              try {
+                callbackArg = callbackArgPart.getObject();
+              } catch (Exception e) {
+                logger
+                    .warn(
+                        String.format(
+                            "%s: Caught exception processing batch update request %s containing %s events",
+                            serverConnection.getName(), batchId, numberOfEvents),
+                        e);
+                throw e;
+              }
+            }
+            versionTimeStamp = clientMessage.getPart(index++).getLong();
+            if (logger.isDebugEnabled()) {
+              logger.debug(
+                  "{}: Processing batch update request {} on {} for region {} key {} value {} callbackArg {}",
+                  serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                  regionName, key, valuePart, callbackArg);
+            }
+            // Process the update request
+            if (key == null || regionName == null) {
+              String message = null;
+              if (key == null) {
+                message = "%s: The input key for the batch update request %s is null";
+              }
+              if (regionName == null) {
+                message = "%s: The input region name for the batch update request %s is null";
+              }
+              String s = String.format(message, serverConnection.getName(), batchId);
+              logger.warn(s);
+              throw new Exception(s);
+            }
+            region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+            if (region == null) {
+              handleRegionNull(serverConnection, regionName, batchId);
+            } else {
+              clientEvent = new EventIDHolder(eventId);
+              if (versionTimeStamp > 0) {
+                VersionTag tag = VersionTag.create(region.getVersionMember());
+                tag.setIsGatewayTag(true);
+                tag.setVersionTimeStamp(versionTimeStamp);
+                tag.setDistributedSystemId(dsid);
+                clientEvent.setVersionTag(tag);
+              }
+              clientEvent.setPossibleDuplicate(possibleDuplicate);
+              handleMessageRetry(region, clientEvent);
+              byte[] value = valuePart.getSerializedForm();
+              boolean isObject = valuePart.isObject();
+              AuthorizeRequest authzRequest = context.getAuthzRequest();
+              if (authzRequest != null) {
+                PutOperationContext putContext = authzRequest.putAuthorize(regionName, key,
+                    value, isObject, callbackArg, PutOperationContext.UPDATE);
+                value = putContext.getSerializedValue();
+                isObject = putContext.isObject();
+              }
+              boolean result = false;
+              if (isPdxEvent) {
+                result = addPdxType(crHelper, key, value);
+              } else {
+                result = region.basicBridgePut(key, value, null, isObject, callbackArg,
+                    serverConnection.getProxyID(), false, clientEvent);
+              }
+              if (result || clientEvent.isConcurrencyConflict()) {
+                context.setModificationInfo(partNumber, regionName, key);
+                stats.incUpdateRequest();
+                retry = false;
+              } else {
+                final String message =
+                    "%s: Failed to update entry for region %s, key %s, value %s, and callbackArg %s";
+                String s = String.format(message, serverConnection.getName(), regionName,
+                    key, valuePart, callbackArg);
+                logger.info(s);
+                throw new Exception(s);
+              }
+            }
           } catch (Exception e) {
+            // Preserve the connection under all circumstances
             logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
+                "%s: Caught exception processing batch update request %s containing %s events",
                 serverConnection.getName(), batchId, numberOfEvents), e);
             handleException(removeOnException, stats, e);
-            break;
           }
+          break;
 
-          // Retrieve the key from the message parts
-          Part keyPart = clientMessage.getPart(partNumber + 4);
+        case 2: // Destroy
           try {
-            key = keyPart.getStringOrObject();
-          } catch (Exception e) {
-            logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
-                serverConnection.getName(), batchId, numberOfEvents), e);
-            handleException(removeOnException, stats, e);
-            break;
-          }
-          int index;
-          Part callbackArgPart;
-          EventIDHolder clientEvent;
-          long versionTimeStamp;
-          Part callbackArgExistsPart;
-          LocalRegion region;
-          switch (actionType) {
-            case 0: // Create
+            // Retrieve the callbackArg from the message parts if necessary
+            index = partNumber + 5;
+            callbackArgExistsPart = clientMessage.getPart(index++);
+            {
+              byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+              callbackArgExists = partBytes[0] == 0x01;
+            }
+            if (callbackArgExists) {
+              callbackArgPart = clientMessage.getPart(index++);
               try {
-
-                /*
-                 * CLIENT EXCEPTION HANDLING TESTING CODE String keySt = (String) key;
-                 * System.out.println("Processing new key: " + key); if
-                 * (keySt.startsWith("failure")) { throw new Exception(LocalizedStrings
-                 * .ProcessBatch_THIS_EXCEPTION_REPRESENTS_A_FAILURE_ON_THE_SERVER
-                 * )); }
-                 */
-
-                // Retrieve the value from the message parts (do not deserialize it)
-                valuePart = clientMessage.getPart(partNumber + 5);
-                // try {
-                // logger.warn(getName() + ": Creating key " + key + " value " +
-                // valuePart.getObject());
-                // } catch (Exception e) {}
-
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 6;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
-                }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(String.format(
-                            "%s: Caught exception processing batch create request %s for %s events",
-                            serverConnection.getName(), batchId, numberOfEvents),
-                            e);
-                    throw e;
-                  }
-                }
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch create request {} on {} for region {} key {} value {} callbackArg {}, eventId={}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg, eventId);
-                }
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                // Process the create request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  if (key == null) {
-                    message = "%s: The input key for the batch create request %s is null";
-                  }
-                  if (regionName == null) {
-                    message = "%s: The input region name for the batch create request %s is null";
-                  }
-                  String s = String.format(message, serverConnection.getName(), batchId);
-                  logger.warn(s);
-                  throw new Exception(s);
-                }
-                region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-                if (region == null) {
-                  handleRegionNull(serverConnection, regionName, batchId);
-                } else {
-                  clientEvent = new EventIDHolder(eventId);
-                  if (versionTimeStamp > 0) {
-                    VersionTag tag = VersionTag.create(region.getVersionMember());
-                    tag.setIsGatewayTag(true);
-                    tag.setVersionTimeStamp(versionTimeStamp);
-                    tag.setDistributedSystemId(dsid);
-                    clientEvent.setVersionTag(tag);
-                  }
-                  clientEvent.setPossibleDuplicate(possibleDuplicate);
-                  handleMessageRetry(region, clientEvent);
-                  byte[] value = valuePart.getSerializedForm();
-                  boolean isObject = valuePart.isObject();
-                  // [sumedh] This should be done on client while sending
-                  // since that is the WAN gateway
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    PutOperationContext putContext =
-                        authzRequest.putAuthorize(regionName, key, value, isObject, callbackArg);
-                    value = putContext.getSerializedValue();
-                    isObject = putContext.isObject();
-                  }
-                  // Attempt to create the entry
-                  boolean result = false;
-                  if (isPdxEvent) {
-                    result = addPdxType(crHelper, key, value);
-                  } else {
-                    result = region.basicBridgeCreate(key, value, isObject, callbackArg,
-                        serverConnection.getProxyID(), false, clientEvent, false);
-                    // If the create fails (presumably because it already exists),
-                    // attempt to update the entry
-                    if (!result) {
-                      result = region.basicBridgePut(key, value, null, isObject, callbackArg,
-                          serverConnection.getProxyID(), false, clientEvent);
-                    }
-                  }
-
-                  if (result || clientEvent.isConcurrencyConflict()) {
-                    serverConnection.setModificationInfo(true, regionName, key);
-                    stats.incCreateRequest();
-                    retry = false;
-                  } else {
-                    // This exception will be logged in the catch block below
-                    throw new Exception(
-                        String.format(
-                            "%s: Failed to create or update entry for region %s key %s value %s callbackArg %s",
-                            serverConnection.getName(), regionName, key, valuePart, callbackArg));
-                  }
-                }
+                callbackArg = callbackArgPart.getObject();
               } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch create request %s for %s events",
-                    serverConnection.getName(), batchId, numberOfEvents), e);
-                handleException(removeOnException, stats, e);
+                logger
+                    .warn(
+                        String.format(
+                            "%s: Caught exception processing batch destroy request %s containing %s events",
+                            serverConnection.getName(), batchId, numberOfEvents),
+                        e);
+                throw e;
               }
-              break;
+            }
 
-            case 1: // Update
+            versionTimeStamp = clientMessage.getPart(index++).getLong();
+            if (logger.isDebugEnabled()) {
+              logger.debug("{}: Processing batch destroy request {} on {} for region {} key {}",
+                  serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                  regionName, key);
+            }
+
+            // Process the destroy request
+            if (key == null || regionName == null) {
+              String message = null;
+              if (key == null) {
+                message =
+                    "%s: The input key for the batch destroy request %s is null";
+              }
+              if (regionName == null) {
+                message =
+                    "%s: The input region name for the batch destroy request %s is null";
+              }
+              String s = String.format(message, serverConnection.getName(), batchId);
+              logger.warn(s);
+              throw new Exception(s);
+            }
+            region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+            if (region == null) {
+              handleRegionNull(serverConnection, regionName, batchId);
+            } else {
+              clientEvent = new EventIDHolder(eventId);
+              if (versionTimeStamp > 0) {
+                VersionTag tag = VersionTag.create(region.getVersionMember());
+                tag.setIsGatewayTag(true);
+                tag.setVersionTimeStamp(versionTimeStamp);
+                tag.setDistributedSystemId(dsid);
+                clientEvent.setVersionTag(tag);
+              }
+              handleMessageRetry(region, clientEvent);
+              // Destroy the entry
+              AuthorizeRequest authzRequest = context.getAuthzRequest();
+              if (authzRequest != null) {
+                DestroyOperationContext destroyContext =
+                    authzRequest.destroyAuthorize(regionName, key, callbackArg);
+                callbackArg = destroyContext.getCallbackArg();
+              }
               try {
-                // Retrieve the value from the message parts (do not deserialize it)
-                valuePart = clientMessage.getPart(partNumber + 5);
-                // try {
-                // logger.warn(getName() + ": Updating key " + key + " value " +
-                // valuePart.getObject());
-                // } catch (Exception e) {}
-
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 6;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
-                }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(
-                            String.format(
-                                "%s: Caught exception processing batch update request %s containing %s events",
-                                serverConnection.getName(), batchId, numberOfEvents),
-                            e);
-                    throw e;
-                  }
-                }
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch update request {} on {} for region {} key {} value {} callbackArg {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg);
-                }
-                // Process the update request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  if (key == null) {
-                    message = "%s: The input key for the batch update request %s is null";
-                  }
-                  if (regionName == null) {
-                    message = "%s: The input region name for the batch update request %s is null";
-                  }
-                  String s = String.format(message, serverConnection.getName(), batchId);
-                  logger.warn(s);
-                  throw new Exception(s);
-                }
-                region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-                if (region == null) {
-                  handleRegionNull(serverConnection, regionName, batchId);
-                } else {
-                  clientEvent = new EventIDHolder(eventId);
-                  if (versionTimeStamp > 0) {
-                    VersionTag tag = VersionTag.create(region.getVersionMember());
-                    tag.setIsGatewayTag(true);
-                    tag.setVersionTimeStamp(versionTimeStamp);
-                    tag.setDistributedSystemId(dsid);
-                    clientEvent.setVersionTag(tag);
-                  }
-                  clientEvent.setPossibleDuplicate(possibleDuplicate);
-                  handleMessageRetry(region, clientEvent);
-                  byte[] value = valuePart.getSerializedForm();
-                  boolean isObject = valuePart.isObject();
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    PutOperationContext putContext = authzRequest.putAuthorize(regionName, key,
-                        value, isObject, callbackArg, PutOperationContext.UPDATE);
-                    value = putContext.getSerializedValue();
-                    isObject = putContext.isObject();
-                  }
-                  boolean result = false;
-                  if (isPdxEvent) {
-                    result = addPdxType(crHelper, key, value);
-                  } else {
-                    result = region.basicBridgePut(key, value, null, isObject, callbackArg,
-                        serverConnection.getProxyID(), false, clientEvent);
-                  }
-                  if (result || clientEvent.isConcurrencyConflict()) {
-                    serverConnection.setModificationInfo(true, regionName, key);
-                    stats.incUpdateRequest();
-                    retry = false;
-                  } else {
-                    final String message =
-                        "%s: Failed to update entry for region %s, key %s, value %s, and callbackArg %s";
-                    String s = String.format(message, serverConnection.getName(), regionName,
-                        key, valuePart, callbackArg);
-                    logger.info(s);
-                    throw new Exception(s);
-                  }
-                }
-              } catch (Exception e) {
-                // Preserve the connection under all circumstances
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch update request %s containing %s events",
-                    serverConnection.getName(), batchId, numberOfEvents), e);
-                handleException(removeOnException, stats, e);
+                region.basicBridgeDestroy(key, callbackArg, serverConnection.getProxyID(),
+                    false, clientEvent);
+                context.setModificationInfo(partNumber, regionName, key);
+              } catch (EntryNotFoundException e) {
+                logger.info("{}: during batch destroy no entry was found for key {}",
+                    serverConnection.getName(), key);
               }
-              break;
+              stats.incDestroyRequest();
+              retry = false;
+            }
+          } catch (Exception e) {
+            logger.warn(String.format(
+                "%s: Caught exception processing batch destroy request %s containing %s events",
+                serverConnection.getName(), batchId, numberOfEvents),
+                e);
+            handleException(removeOnException, stats, e);
+          }
+          break;
 
-            case 2: // Destroy
-              try {
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 5;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
-                }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(
-                            String.format(
-                                "%s: Caught exception processing batch destroy request %s containing %s events",
-                                serverConnection.getName(), batchId, numberOfEvents),
-                            e);
-                    throw e;
-                  }
-                }
+        case 3: // Update Time-stamp for a RegionEntry
+          try {
+            // Region name
+            regionNamePart = clientMessage.getPart(partNumber + 2);
+            regionName = regionNamePart.getCachedString();
 
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug("{}: Processing batch destroy request {} on {} for region {} key {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key);
-                }
+            // Retrieve the event id from the message parts
+            eventIdPart = clientMessage.getPart(partNumber + 3);
+            eventId = (EventID) eventIdPart.getObject();
 
-                // Process the destroy request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  if (key == null) {
-                    message =
-                        "%s: The input key for the batch destroy request %s is null";
-                  }
-                  if (regionName == null) {
-                    message =
-                        "%s: The input region name for the batch destroy request %s is null";
-                  }
-                  String s = String.format(message, serverConnection.getName(), batchId);
-                  logger.warn(s);
-                  throw new Exception(s);
-                }
-                region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-                if (region == null) {
-                  handleRegionNull(serverConnection, regionName, batchId);
-                } else {
-                  clientEvent = new EventIDHolder(eventId);
-                  if (versionTimeStamp > 0) {
-                    VersionTag tag = VersionTag.create(region.getVersionMember());
-                    tag.setIsGatewayTag(true);
-                    tag.setVersionTimeStamp(versionTimeStamp);
-                    tag.setDistributedSystemId(dsid);
-                    clientEvent.setVersionTag(tag);
-                  }
-                  handleMessageRetry(region, clientEvent);
-                  // Destroy the entry
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    DestroyOperationContext destroyContext =
-                        authzRequest.destroyAuthorize(regionName, key, callbackArg);
-                    callbackArg = destroyContext.getCallbackArg();
-                  }
-                  try {
-                    region.basicBridgeDestroy(key, callbackArg, serverConnection.getProxyID(),
-                        false, clientEvent);
-                    serverConnection.setModificationInfo(true, regionName, key);
-                  } catch (EntryNotFoundException e) {
-                    logger.info("{}: during batch destroy no entry was found for key {}",
-                        serverConnection.getName(), key);
-                  }
-                  stats.incDestroyRequest();
-                  retry = false;
-                }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch destroy request %s containing %s events",
-                    serverConnection.getName(), batchId, numberOfEvents),
-                    e);
-                handleException(removeOnException, stats, e);
-              }
-              break;
+            // Retrieve the key from the message parts
+            keyPart = clientMessage.getPart(partNumber + 4);
+            key = keyPart.getStringOrObject();
 
-            case 3: // Update Time-stamp for a RegionEntry
-              try {
-                // Region name
-                regionNamePart = clientMessage.getPart(partNumber + 2);
-                regionName = regionNamePart.getCachedString();
+            // Retrieve the callbackArg from the message parts if necessary
+            index = partNumber + 5;
+            callbackArgExistsPart = clientMessage.getPart(index++);
 
-                // Retrieve the event id from the message parts
-                eventIdPart = clientMessage.getPart(partNumber + 3);
-                eventId = (EventID) eventIdPart.getObject();
+            byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+            callbackArgExists = partBytes[0] == 0x01;
 
-                // Retrieve the key from the message parts
-                keyPart = clientMessage.getPart(partNumber + 4);
-                key = keyPart.getStringOrObject();
+            if (callbackArgExists) {
+              callbackArgPart = clientMessage.getPart(index++);
+              callbackArg = callbackArgPart.getObject();
+            }
 
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 5;
-                callbackArgExistsPart = clientMessage.getPart(index++);
+            versionTimeStamp = clientMessage.getPart(index++).getLong();
+            if (logger.isDebugEnabled()) {
+              logger.debug(
+                  "{}: Processing batch update-version request {} on {} for region {} key {} value {} callbackArg {}",
+                  serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                  regionName, key, valuePart, callbackArg);
+            }
+            // Process the update time-stamp request
+            if (key == null || regionName == null) {
+              String message =
+                  "%s: Caught exception processing batch update version request request %s containing %s events";
 
-                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                callbackArgExists = partBytes[0] == 0x01;
+              String s = String.format(message, serverConnection.getName(),
+                  batchId, numberOfEvents);
+              logger.warn(s);
+              throw new Exception(s);
 
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  callbackArg = callbackArgPart.getObject();
-                }
+            } else {
+              region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+
+              if (region == null) {
+                handleRegionNull(serverConnection, regionName, batchId);
+              } else {
+
+                clientEvent = new EventIDHolder(eventId);
 
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch update-version request {} on {} for region {} key {} value {} callbackArg {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg);
+                if (versionTimeStamp > 0) {
+                  VersionTag tag = VersionTag.create(region.getVersionMember());
+                  tag.setIsGatewayTag(true);
+                  tag.setVersionTimeStamp(versionTimeStamp);
+                  tag.setDistributedSystemId(dsid);
+                  clientEvent.setVersionTag(tag);
                 }
-                // Process the update time-stamp request
-                if (key == null || regionName == null) {
-                  String message =
-                      "%s: Caught exception processing batch update version request request %s containing %s events";
-
-                  String s = String.format(message, serverConnection.getName(),
-                      batchId, numberOfEvents);
-                  logger.warn(s);
-                  throw new Exception(s);
-
-                } else {
-                  region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-
-                  if (region == null) {
-                    handleRegionNull(serverConnection, regionName, batchId);
-                  } else {
-
-                    clientEvent = new EventIDHolder(eventId);
-
-                    if (versionTimeStamp > 0) {
-                      VersionTag tag = VersionTag.create(region.getVersionMember());
-                      tag.setIsGatewayTag(true);
-                      tag.setVersionTimeStamp(versionTimeStamp);
-                      tag.setDistributedSystemId(dsid);
-                      clientEvent.setVersionTag(tag);
-                    }
-
-                    // Update the version tag
-                    try {
-                      region.basicBridgeUpdateVersionStamp(key, callbackArg,
-                          serverConnection.getProxyID(), false, clientEvent);
-                    } catch (EntryNotFoundException e) {
-                      logger.info(
-                          "Entry for key {} was not found in Region {} during ProcessBatch for Update Entry Version",
-                          serverConnection.getName(), key);
-                    }
-                    retry = false;
-                  }
+
+                // Update the version tag
+                try {
+                  region.basicBridgeUpdateVersionStamp(key, callbackArg,
+                      serverConnection.getProxyID(), false, clientEvent);
+                } catch (EntryNotFoundException e) {
+                  logger.info(
+                      "Entry for key {} was not found in Region {} during ProcessBatch for Update Entry Version",
+                      serverConnection.getName(), key);
                 }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch update version request request %s containing %s events",
-                    serverConnection.getName(), batchId, numberOfEvents), e);
-                handleException(removeOnException, stats, e);
+                retry = false;
               }
-
-              break;
-            default:
-              logger.fatal("{}: Unknown action type ({}) for batch from {}",
-                  serverConnection.getName(), actionType, serverConnection.getSocketString());
-              stats.incUnknowsOperationsReceived();
+            }
+          } catch (Exception e) {
+            logger.warn(String.format(
+                "%s: Caught exception processing batch update version request request %s containing %s events",
+                serverConnection.getName(), batchId, numberOfEvents), e);
+            handleException(removeOnException, stats, e);
           }
-        } while (retry);
-      } catch (CancelException e) {
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              "{} ignoring message of type {} from client {} because shutdown occurred during message processing.",
-              serverConnection.getName(), MessageType.getString(clientMessage.getMessageType()),
-              serverConnection.getProxyID());
-        }
-        serverConnection.setFlagProcessMessagesAsFalse();
-        serverConnection.setClientDisconnectedException(e);
-        return;
-      } catch (Exception e) {
-        // If an interrupted exception is thrown , rethrow it
-        checkForInterrupt(serverConnection, e);
-
-        // If we have an issue with the PDX registry, stop processing more data
-        if (e.getCause() instanceof PdxRegistryMismatchException) {
-          fatalException = e.getCause();
-          logger.fatal(String.format(
-              "This gateway receiver has received a PDX type from %s that does match the existing PDX type. This gateway receiver will not process any more events, in order to prevent receiving objects which may not be deserializable.",
-              serverConnection.getMembershipID()), e.getCause());
-          break;
-        }
 
-        // Increment the batch id unless the received batch id is -1 (a
-        // failover batch)
-        DistributedSystem ds = crHelper.getCacheForGatewayCommand().getDistributedSystem();
-        String exceptionMessage = String.format(
-            "Exception occurred while processing a batch on the receiver running on DistributedSystem with Id: %s, DistributedMember on which the receiver is running: %s",
-            ((InternalDistributedSystem) ds).getDistributionManager().getDistributedSystemId(),
-            ds.getDistributedMember());
-        BatchException70 be =
-            new BatchException70(exceptionMessage, e, indexWithoutPDXEvent, batchId);
-        exceptions.add(be);
-      } finally {
-        // Increment the partNumber
-        if (actionType == 0 /* create */ || actionType == 1 /* update */) {
-          if (callbackArgExists) {
-            partNumber += 9;
-          } else {
-            partNumber += 8;
-          }
-        } else if (actionType == 2 /* destroy */) {
-          if (callbackArgExists) {
-            partNumber += 8;
-          } else {
-            partNumber += 7;
-          }
-        } else if (actionType == 3 /* update-version */) {
-          if (callbackArgExists) {
-            partNumber += 8;
-          } else {
-            partNumber += 7;
-          }
-        }
+          break;
+        default:
+          logger.fatal("{}: Unknown action type ({}) for batch from {}",
+              serverConnection.getName(), actionType, serverConnection.getSocketString());
+          stats.incUnknowsOperationsReceived();
       }
-    }
+    } while (retry);
+  }
 
-    {
-      long oldStart = start;
-      start = DistributionStats.getStatTime();
-      stats.incProcessBatchTime(start - oldStart);
+  /**
+   * Returns the number of parts of the event at the given part of a batch.
+   */
+  private static int getNumberOfEventParts(Message clientMessage, int partNumber) {
+    int actionType = clientMessage.getPart(partNumber).getInt();
+    switch (actionType) {
+      case 0: // Create
+      case 1: // Update
+        return hasCallbackArg(clientMessage, partNumber + 6) ? 9 : 8;
+      case 2: // Destroy
+      case 3: // Update Time-stamp
+        return hasCallbackArg(clientMessage, partNumber + 5) ? 8 : 7;
+      default:
+        return 0;
     }
-    if (fatalException != null) {
-      serverConnection.incrementLatestBatchIdReplied(batchId);
-      writeFatalException(clientMessage, fatalException, serverConnection, batchId);
-      serverConnection.setAsTrue(RESPONDED);
-    } else if (!exceptions.isEmpty()) {
-      serverConnection.incrementLatestBatchIdReplied(batchId);
-      writeBatchException(clientMessage, exceptions, serverConnection, batchId);
-      serverConnection.setAsTrue(RESPONDED);
-    } else {
-      // Increment the batch id unless the received batch id is -1 (a failover
-      // batch)
-      serverConnection.incrementLatestBatchIdReplied(batchId);
+  }
 
-      writeReply(clientMessage, serverConnection, batchId, numberOfEvents);
-      serverConnection.setAsTrue(RESPONDED);
-      stats.incWriteProcessBatchResponseTime(DistributionStats.getStatTime() - start);
-      if (logger.isDebugEnabled()) {
-        logger.debug(
-            "{}: Sent process batch normal response for batch {} containing {} events ({} bytes) with {} acknowledgement on {}",
-            serverConnection.getName(), batchId, numberOfEvents, clientMessage.getPayloadLength(),
-            "normal", serverConnection.getSocketString());
-      }
-    }
+  private static boolean hasCallbackArg(Message clientMessage, int callbackArgExistsPartNumber) {
+    byte[] partBytes = clientMessage.getPart(callbackArgExistsPartNumber).getSerializedForm();
+    return partBytes != null && partBytes.length > 0 && partBytes[0] == 0x01;
   }
 
   private boolean addPdxType(CachedRegionHelper crHelper, Object key, Object value)
@@ -815,4 +1042,169 @@ public class GatewayReceiverCommand extends BaseCommand {
     logger.warn(servConn.getName() + ": Wrote batch exception: ",
         exception);
   }
+
+  /**
+   * Returns the locations of the events of a batch, starting at the given part. Events received
+   * in a batch may be preceded by PDX events. To represent the correct index on which an exception
+   * occurred, PDX events are not counted in the index of an event.
+   */
+  static List<BatchEvent> locateEvents(Message clientMessage, int partNumber,
+      int numberOfEvents) {
+    List<BatchEvent> events = new ArrayList<>(numberOfEvents);
+    int indexWithoutPDXEvent = -1;
+    for (int i = 0; i < numberOfEvents; i++) {
+      BatchEvent event = new BatchEvent(clientMessage, partNumber);
+      indexWithoutPDXEvent++;
+      if (event.isPdxEvent()) {
+        indexWithoutPDXEvent--;
+      }
+      event.index = indexWithoutPDXEvent;
+      events.add(event);
+      partNumber += event.numberOfParts;
+    }
+    return events;
+  }
+
+  /**
+   * Applies one event of a batch.
+   */
+  @FunctionalInterface
+  interface EventApplier {
+    /**
+     * @return the fatal exception that should stop the processing of the batch, or null
+     */
+    Throwable apply(BatchEvent event, List<BatchException70> exceptions)
+        throws InterruptedException, InterruptedIOException;
+  }
+
+  /**
+   * The state shared by the events of one batch.
+   */
+  private static class BatchContext {
+    private final Message clientMessage;
+    private final ServerConnection serverConnection;
+    private final CachedRegionHelper crHelper;
+    private final GatewayReceiverStats stats;
+    private final int batchId;
+    private final int numberOfEvents;
+    private final int dsid;
+    private final boolean removeOnException;
+
+    /** Whether the events are applied by more than one thread */
+    private boolean parallel;
+    private AuthorizeRequest authzRequest;
+    private Exception authzRequestFailure;
+
+    /** The part number of the last event that was applied. GuardedBy this */
+    private int modifiedPartNumber = -1;
+    /** GuardedBy this */
+    private String modifiedRegionName;
+    /** GuardedBy this */
+    private Object modifiedKey;
+
+    BatchContext(Message clientMessage, ServerConnection serverConnection,
+        CachedRegionHelper crHelper, GatewayReceiverStats stats, int batchId, int numberOfEvents,
+        int dsid, boolean removeOnException) {
+      this.clientMessage = clientMessage;
+      this.serverConnection = serverConnection;
+      this.crHelper = crHelper;
+      this.stats = stats;
+      this.batchId = batchId;
+      this.numberOfEvents = numberOfEvents;
+      this.dsid = dsid;
+      this.removeOnException = removeOnException;
+    }
+
+    /**
+     * Prepares to apply the events by more than one thread. The server connection is not safe to
+     * use concurrently, so the authorization request is looked up here once, and the modification
+     * info is only set on the connection by {@link #finishParallelApply}.
+     */
+    void startParallelApply() {
+      parallel = true;
+      try {
+        authzRequest = serverConnection.getAuthzRequest();
+      } catch (IOException | RuntimeException e) {
+        authzRequestFailure = e;
+      }
+    }
+
+    synchronized void finishParallelApply() {
+      if (modifiedPartNumber >= 0) {
+        serverConnection.setModificationInfo(true, modifiedRegionName, modifiedKey);
+      }
+    }
+
+    AuthorizeRequest getAuthzRequest() throws Exception {
+      if (!parallel) {
+        return serverConnection.getAuthzRequest();
+      }
+      if (authzRequestFailure != null) {
+        throw authzRequestFailure;
+      }
+      return authzRequest;
+    }
+
+    void setModificationInfo(int partNumber, String regionName, Object key) {
+      if (!parallel) {
+        serverConnection.setModificationInfo(true, regionName, key);
+        return;
+      }
+      synchronized (this) {
+        if (partNumber > modifiedPartNumber) {
+          modifiedPartNumber = partNumber;
+          modifiedRegionName = regionName;
+          modifiedKey = key;
+        }
+      }
+    }
+  }
+
+  /**
+   * The location of one event in the parts of a batch.
+   */
+  static class BatchEvent {
+    private final int partNumber;
+    private final int numberOfParts;
+    private final String regionName;
+    private final Part keyPart;
+    /** The index of the event in the batch, not counting PDX events */
+    private int index;
+
+    BatchEvent(Message clientMessage, int partNumber) {
+      this.partNumber = partNumber;
+      numberOfParts = getNumberOfEventParts(clientMessage, partNumber);
+      if (numberOfParts > 0) {
+        regionName = clientMessage.getPart(partNumber + 2).getCachedString();
+        keyPart = clientMessage.getPart(partNumber + 4);
+      } else {
+        regionName = null;
+        keyPart = null;
+      }
+    }
+
+    int getIndex() {
+      return index;
+    }
+
+    boolean isPdxEvent() {
+      return PeerTypeRegistration.REGION_FULL_PATH.equals(regionName);
+    }
+
+    /**
+     * Returns a hash of the region and key of the event, so that the events of a key are applied
+     * by the same partition.
+     */
+    int getPartitionHash() {
+      Object key = null;
+      if (keyPart != null) {
+        try {
+          key = keyPart.getStringOrObject();
+        } catch (Exception ignore) {
+          // the event fails when it is applied
+        }
+      }
+      return 31 * Objects.hashCode(regionName) + Arrays.deepHashCode(new Object[] {key});
+    }
+  }
 }
@@ -120,10 +120,11 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   /*
    * The batchIdToEventsMap contains a mapping between batch id and an array of events. The first
    * element of the array is the list of events peeked from the queue. The second element of the
-   * array is the list of filtered events. These are the events actually sent.
+   * array is the list of filtered events. These are the events actually sent. The batches are kept
+   * in the order they were dispatched so acks can be applied cumulatively.
    */
   private Map<Integer, List<GatewaySenderEventImpl>[]> batchIdToEventsMap =
-      Collections.synchronizedMap(new HashMap<Integer, List<GatewaySenderEventImpl>[]>());
+      Collections.synchronizedMap(new LinkedHashMap<Integer, List<GatewaySenderEventImpl>[]>());
   private Map<Integer, List<GatewaySenderEventImpl>> batchIdToPDXEventsMap =
       Collections.synchronizedMap(new HashMap<Integer, List<GatewaySenderEventImpl>>());
 
@@ -148,6 +149,12 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   private int batchSize;
   private int batchTimeInterval;
 
+  /**
+   * Chooses the number of events to peek for each batch, bounded by {@link #batchSize}. Null unless
+   * adaptive batch sizing is enabled.
+   */
+  private final AdaptiveBatchSizer adaptiveBatchSizer;
+
   public AbstractGatewaySenderEventProcessor(String string,
       GatewaySender sender, ThreadsMonitoring tMonitoring) {
     super(string);
@@ -155,6 +162,8 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
     this.batchSize = sender.getBatchSize();
     this.batchTimeInterval = sender.getBatchTimeInterval();
     this.threadMonitoring = tMonitoring;
+    this.adaptiveBatchSizer = AdaptiveBatchSizer.ENABLED
+        ? new AdaptiveBatchSizer(this.sender.getStatistics()) : null;
   }
 
   public void setExpectedReceiverUniqueId(String uniqueId) {
@@ -268,6 +277,16 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
     this.batchTimeInterval = batchTimeInterval;
   }
 
+  /**
+   * Returns the number of events to peek for the next batch.
+   */
+  private int getPeekBatchSize() {
+    if (this.adaptiveBatchSizer == null) {
+      return this.batchSize;
+    }
+    return this.adaptiveBatchSizer.getBatchSize(this.batchSize, this.queue.size());
+  }
+
   /**
    * Returns the current batch id to be used to identify the next batch.
    *
@@ -393,6 +412,19 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   protected static final int FAILURE_LOG_MAX_INTERVAL = Integer.getInteger(
       GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.FAILURE_LOG_MAX_INTERVAL", 300000);
 
+  /**
+   * The maximum number of dispatched batches per processor that may be waiting for an ack from the
+   * remote site. Once this many batches are unacked the processor stops peeking new batches until
+   * an ack arrives. Zero or less means the number of unacked batches is not limited.
+   */
+  protected static final int MAX_UNACKED_BATCHES = Integer
+      .getInteger(GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.MAX_UNACKED_BATCHES", 0);
+
+  /**
+   * How long to wait for an ack before checking again whether this processor has been stopped.
+   */
+  private static final int UNACKED_BATCH_WAIT_INTERVAL = 100;
+
   public boolean skipFailureLogging(Integer batchId) {
     boolean skipLogging = false;
     // if map has become large then give up on new events but we don't expect
@@ -497,6 +529,10 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
               resetLastPeekedEvents = false;
             }
 
+            if (!waitForUnackedBatchWindow()) {
+              continue;
+            }
+
             {
               // Below code was added to consider the case of queue region is
               // destroyed due to userPRs localdestroy or destroy operation.
@@ -520,7 +556,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
                * Thread.currentThread().interrupt(); } } }
                */
             }
-            events = this.queue.peek(this.batchSize, this.batchTimeInterval);
+            events = this.queue.peek(getPeekBatchSize(), this.batchTimeInterval);
           } catch (InterruptedException e) {
             interrupted = true;
             this.sender.getCancelCriterion().checkCancelInProgress(e);
@@ -533,6 +569,9 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
           if (events.isEmpty()) {
             continue; // nothing to do!
           }
+          if (this.adaptiveBatchSizer != null) {
+            this.adaptiveBatchSizer.batchPeeked(events);
+          }
 
           beforeExecute();
           try {
@@ -656,17 +695,26 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
             eventsToBeDispatched.addAll(filteredList);
 
             // Conflate the batch. Event conflation only occurs on the queue.
-            // Once an event has been peeked into a batch, it won't be
-            // conflated. So if events go through the queue quickly (as in the
+            // Once an event has been peeked into a batch, it won't be removed
+            // from it. So if events go through the queue quickly (as in the
             // no-ack case), then multiple events for the same key may end up in
-            // the batch.
+            // the batch. Events of a parallel queue that have been conflated in
+            // their bucket since they were peeked are not dispatched.
             List conflatedEventsToBeDispatched = conflate(eventsToBeDispatched);
 
+            if (!eventsToBeDispatched.isEmpty() && conflatedEventsToBeDispatched.isEmpty()) {
+              handleSupersededBatch(events);
+              continue;
+            }
+
             if (isDebugEnabled) {
               logBatchFine("During normal processing, dispatching the following ",
                   conflatedEventsToBeDispatched);
             }
 
+            if (this.adaptiveBatchSizer != null) {
+              this.adaptiveBatchSizer.batchDispatched(getBatchId(), System.nanoTime());
+            }
             boolean success = this.dispatcher.dispatchBatch(conflatedEventsToBeDispatched,
                 sender.isRemoveFromQueueOnException(), false);
             if (success) {
@@ -692,6 +740,10 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
             // If the batch is successfully processed, remove it from the queue.
             if (success) {
               if (this.dispatcher instanceof GatewaySenderEventCallbackDispatcher) {
+                // the listener has processed the batch, so it is acknowledged now
+                if (this.adaptiveBatchSizer != null) {
+                  this.adaptiveBatchSizer.batchAcknowledged(getBatchId(), System.nanoTime());
+                }
                 handleSuccessfulBatchDispatch(conflatedEventsToBeDispatched, events);
               } else {
                 incrementBatchId();
@@ -707,6 +759,13 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
             } // successful batch
             else { // The batch was unsuccessful.
               if (this.dispatcher instanceof GatewaySenderEventCallbackDispatcher) {
+                int numberOfEventsProcessed =
+                    ((GatewaySenderEventCallbackDispatcher) this.dispatcher)
+                        .getNumberOfEventsProcessed();
+                if (numberOfEventsProcessed > 0) {
+                  handlePartiallySuccessfulBatchDispatch(conflatedEventsToBeDispatched, events,
+                      numberOfEventsProcessed);
+                }
                 handleUnSuccessfulBatchDispatch(events);
                 this.resetLastPeekedEvents = true;
               } else {
@@ -853,9 +912,44 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
     } else {
       conflatedEvents = events;
     }
+    if (this.sender.isBatchConflationEnabled()
+        && this.queue instanceof ParallelGatewaySenderQueue) {
+      // Events conflated in their bucket after they were peeked are not dispatched. The events
+      // that replaced them are dispatched in a later batch, so the order of the updates of a key
+      // is kept. They were counted as conflated from the queue when they were replaced.
+      List<GatewaySenderEventImpl> remainingEvents =
+          ((ParallelGatewaySenderQueue) this.queue).withoutConflatedEvents(conflatedEvents);
+      if (remainingEvents != conflatedEvents && logger.isDebugEnabled()) {
+        logEvents("not conflated in queue", remainingEvents);
+      }
+      conflatedEvents = remainingEvents;
+    }
     return conflatedEvents;
   }
 
+  /**
+   * Handles a batch whose events were all conflated in the queue after they were peeked, so there
+   * is nothing to dispatch. A listener batch is removed from the queue right away. A batch of a
+   * remote dispatcher is acknowledged right away if no earlier batch waits for an ack. Otherwise it
+   * is acknowledged by the ack of a later batch, since acks are cumulative and the events that
+   * replaced its events are dispatched in a later batch.
+   */
+  void handleSupersededBatch(List<GatewaySenderEventImpl> events) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("All {} events of batch #{} were conflated in the queue, not dispatching it",
+          events.size(), getBatchId());
+    }
+    if (this.dispatcher instanceof GatewaySenderEventCallbackDispatcher) {
+      handleSuccessfulBatchDispatch(new ArrayList<>(), events);
+      return;
+    }
+    int batchId = getBatchId();
+    if (getUnackedBatchIdsBefore(batchId).isEmpty()) {
+      handleSuccessBatchAck(batchId);
+    }
+    incrementBatchId();
+  }
+
   private void logEvents(String message, List<GatewaySenderEventImpl> events) {
     StringBuilder builder = new StringBuilder();
     builder.append("The batch contains the following ").append(events.size()).append(" ")
@@ -952,6 +1046,9 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
 
   private void resetLastPeekedEvents() {
     this.batchIdToEventsMap.clear();
+    if (this.adaptiveBatchSizer != null) {
+      this.adaptiveBatchSizer.clearDispatchedBatches();
+    }
     // make sure that when there is problem while receiving ack, pdx gateway
     // sender events isDispatched is set to false so that same events will be
     // dispatched in next batch
@@ -1008,6 +1105,38 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
 
   }
 
+  /**
+   * Removes the events a listener processed from the start of a batch it only partly processed.
+   * Peeked events that were conflated out of the batch are removed with the processed events that
+   * follow them, since the events that replaced them are either processed or redelivered. The rest
+   * of the batch is redelivered by the next peek without waiting, since the listener made progress.
+   */
+  void handlePartiallySuccessfulBatchDispatch(List<GatewaySenderEventImpl> dispatchedEvents,
+      List<GatewaySenderEventImpl> events, int numberOfEventsProcessed) {
+    GatewaySenderEventImpl firstUnprocessedEvent = dispatchedEvents.get(numberOfEventsProcessed);
+    int numberOfEventsToRemove = 0;
+    while (events.get(numberOfEventsToRemove) != firstUnprocessedEvent) {
+      numberOfEventsToRemove++;
+    }
+    List<GatewaySenderEventImpl> processedEvents =
+        new ArrayList<>(dispatchedEvents.subList(0, numberOfEventsProcessed));
+    for (GatewayEventFilter filter : sender.getGatewayEventFilters()) {
+      for (GatewaySenderEventImpl event : processedEvents) {
+        try {
+          filter.afterAcknowledgement(event);
+        } catch (Exception e) {
+          logger.fatal(
+              String.format(
+                  "Exception occurred while handling call to %s.afterAcknowledgement for event %s:",
+                  filter.toString(), event),
+              e);
+        }
+      }
+    }
+    eventQueueRemove(numberOfEventsToRemove);
+    increaseNumEventsDispatched(numberOfEventsProcessed);
+  }
+
   private void handleUnSuccessfulBatchDispatch(List events) {
     final GatewaySenderStats statistics = this.sender.getStatistics();
     statistics.incBatchesRedistributed();
@@ -1033,7 +1162,67 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
     this.resetLastPeekedEvents = true;
   }
 
+  /**
+   * Waits until fewer than {@link #MAX_UNACKED_BATCHES} dispatched batches are waiting for an ack.
+   *
+   * @return false if this processor stopped waiting because it was stopped, paused or its peeked
+   *         events need to be reset
+   */
+  private boolean waitForUnackedBatchWindow() throws InterruptedException {
+    if (MAX_UNACKED_BATCHES <= 0
+        || this.dispatcher instanceof GatewaySenderEventCallbackDispatcher) {
+      return true;
+    }
+    synchronized (this.batchIdToEventsMap) {
+      while (this.batchIdToEventsMap.size() >= MAX_UNACKED_BATCHES) {
+        if (stopped() || this.isPaused || this.resetLastPeekedEvents) {
+          return false;
+        }
+        this.batchIdToEventsMap.wait(UNACKED_BATCH_WAIT_INTERVAL);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Acknowledges the given batch. Acks are cumulative: the receiver processes the batches sent on a
+   * connection in order, so an ack for a batch also acknowledges every batch dispatched before it
+   * whose ack has not been received. The events are removed from the queue in dispatch order.
+   */
   public void handleSuccessBatchAck(int batchId) {
+    for (Integer earlierBatchId : getUnackedBatchIdsBefore(batchId)) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Batch id {} is acknowledged by the ack for batch id {}", earlierBatchId,
+            batchId);
+      }
+      acknowledgeBatch(earlierBatchId);
+    }
+    acknowledgeBatch(batchId);
+    synchronized (this.batchIdToEventsMap) {
+      this.batchIdToEventsMap.notifyAll();
+    }
+  }
+
+  private List<Integer> getUnackedBatchIdsBefore(int batchId) {
+    synchronized (this.batchIdToEventsMap) {
+      if (!this.batchIdToEventsMap.containsKey(batchId)) {
+        return Collections.emptyList();
+      }
+      List<Integer> result = new ArrayList<>();
+      for (Integer unackedBatchId : this.batchIdToEventsMap.keySet()) {
+        if (unackedBatchId == batchId) {
+          break;
+        }
+        result.add(unackedBatchId);
+      }
+      return result;
+    }
+  }
+
+  private void acknowledgeBatch(int batchId) {
+    if (this.adaptiveBatchSizer != null) {
+      this.adaptiveBatchSizer.batchAcknowledged(batchId, System.nanoTime());
+    }
     // this is to acknowledge PDX related events
     List<GatewaySenderEventImpl> pdxEvents = this.batchIdToPDXEventsMap.remove(batchId);
     if (pdxEvents != null) {
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * Chooses how many events an {@link AbstractGatewaySenderEventProcessor} peeks for its next batch
+ * instead of always peeking the configured batch size.
+ * <p>
+ * The batch size never exceeds the configured batch size. Within that limit it is bounded by:
+ * <ul>
+ * <li>the queue depth, so that a lightly loaded queue sends the events it has right away instead of
+ * waiting up to the batch time interval for a full batch,</li>
+ * <li>a byte limit divided by the observed average event size, so that batches of large events
+ * stay small,</li>
+ * <li>a window that is halved whenever the average time between dispatching a batch and receiving
+ * its ack exceeds a target, and doubled again while the queue has a backlog and acks are fast.</li>
+ * </ul>
+ * Its decisions are recorded in the {@link GatewaySenderStats} of the sender.
+ */
+public class AdaptiveBatchSizer {
+
+  /**
+   * Whether gateway senders and async event queues size their batches adaptively.
+   */
+  public static final boolean ENABLED =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.ADAPTIVE_BATCH_SIZE");
+
+  /**
+   * The average ack latency in milliseconds above which the batch size is decreased.
+   */
+  static final int TARGET_ACK_LATENCY = Integer.getInteger(
+      GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.ADAPTIVE_BATCH_TARGET_ACK_LATENCY", 1000);
+
+  /**
+   * The maximum number of value bytes an adaptively sized batch should contain.
+   */
+  static final int MAX_BATCH_BYTES = Integer.getInteger(
+      GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.ADAPTIVE_BATCH_MAX_BYTES", 16 * 1024 * 1024);
+
+  /**
+   * The weight of a new sample in the moving averages of the event size and ack latency.
+   */
+  private static final double SMOOTHING_FACTOR = 0.25;
+
+  private final GatewaySenderStats statistics;
+
+  private final long targetAckLatencyNanos;
+
+  private final long maxBatchBytes;
+
+  /** The dispatch time of each batch whose ack has not been received yet */
+  private final Map<Integer, Long> dispatchTimes = new HashMap<>();
+
+  private int window = Integer.MAX_VALUE;
+
+  private int limit = Integer.MAX_VALUE;
+
+  private int lastQueueSize;
+
+  private int lastBatchSize;
+
+  private double averageEventSize;
+
+  private double averageAckLatency;
+
+  public AdaptiveBatchSizer(GatewaySenderStats statistics) {
+    this(statistics, TimeUnit.MILLISECONDS.toNanos(TARGET_ACK_LATENCY), MAX_BATCH_BYTES);
+  }
+
+  AdaptiveBatchSizer(GatewaySenderStats statistics, long targetAckLatencyNanos,
+      long maxBatchBytes) {
+    this.statistics = statistics;
+    this.targetAckLatencyNanos = targetAckLatencyNanos;
+    this.maxBatchBytes = maxBatchBytes;
+  }
+
+  /**
+   * Returns the number of events to peek for the next batch.
+   *
+   * @param configuredBatchSize the batch size the processor would otherwise use
+   * @param queueSize the number of events currently in the queue
+   */
+  public synchronized int getBatchSize(int configuredBatchSize, int queueSize) {
+    limit = configuredBatchSize;
+    if (averageEventSize > 0) {
+      limit = (int) Math.max(1, Math.min(limit, maxBatchBytes / averageEventSize));
+    }
+    window = Math.max(1, Math.min(window, limit));
+    lastQueueSize = queueSize;
+
+    int batchSize = Math.max(1, Math.min(window, queueSize));
+    if (batchSize != lastBatchSize) {
+      lastBatchSize = batchSize;
+      statistics.setAdaptiveBatchSize(batchSize);
+    }
+    return batchSize;
+  }
+
+  /**
+   * Records the sizes of the events of a peeked batch.
+   */
+  public synchronized void batchPeeked(List<GatewaySenderEventImpl> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    long bytes = 0;
+    for (GatewaySenderEventImpl event : events) {
+      bytes += event.getSerializedValueSize();
+    }
+    averageEventSize = average(averageEventSize, (double) bytes / events.size());
+  }
+
+  /**
+   * Records that the batch with the given id is being dispatched.
+   */
+  public synchronized void batchDispatched(int batchId, long dispatchTime) {
+    dispatchTimes.put(batchId, dispatchTime);
+  }
+
+  /**
+   * Records that the batch with the given id was acknowledged and adjusts the batch size window.
+   */
+  public synchronized void batchAcknowledged(int batchId, long ackTime) {
+    Long dispatchTime = dispatchTimes.remove(batchId);
+    if (dispatchTime == null) {
+      return;
+    }
+    averageAckLatency = average(averageAckLatency, ackTime - dispatchTime);
+    if (averageAckLatency > targetAckLatencyNanos) {
+      if (window > 1) {
+        window = Math.max(1, window / 2);
+        statistics.incAdaptiveBatchSizeDecreases();
+      }
+    } else if (lastQueueSize > window && window < limit) {
+      window = (int) Math.min(limit, 2L * window);
+      statistics.incAdaptiveBatchSizeIncreases();
+    }
+  }
+
+  /**
+   * Forgets the dispatch times of the unacknowledged batches, which will be peeked and dispatched
+   * again.
+   */
+  public synchronized void clearDispatchedBatches() {
+    dispatchTimes.clear();
+  }
+
+  synchronized int getWindow() {
+    return window;
+  }
+
+  private static double average(double average, double sample) {
+    return average == 0 ? sample : average + SMOOTHING_FACTOR * (sample - average);
+  }
+}
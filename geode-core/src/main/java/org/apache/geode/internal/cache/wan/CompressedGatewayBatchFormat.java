@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.compression.CompressionException;
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.compression.SnappyCompressor;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * The state of the compressed batch format of one gateway sender to gateway receiver connection.
+ * The format is requested by the sender in its handshake and used once the receiver has accepted
+ * it.
+ * <p>
+ * A compressed batch has the same first four parts as an uncompressed batch: the number of events,
+ * the batch id, the distributed system id and a flags byte with {@link #COMPRESSED_FLAG} set. They
+ * are followed by one part with the Snappy compressed encoding of the events. The receiver decodes
+ * that part back into the parts of an uncompressed batch, so a batch is processed the same way
+ * whichever format it was sent in.
+ * <p>
+ * The encoding of an event leaves out what the connection has already sent: region paths and the
+ * member ids of event ids are sent once and referred to by a dictionary id after that. The sender
+ * only adds the entries of a batch to its dictionaries after the batch has been sent.
+ * <p>
+ * Each side of a connection only processes one batch at a time, so this class is not thread safe.
+ */
+public class CompressedGatewayBatchFormat {
+
+  /**
+   * If true, gateway senders request the compressed batch format from gateway receivers.
+   */
+  public static final String COMPRESS_BATCHES_PROPERTY =
+      GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.COMPRESS_BATCHES";
+
+  /**
+   * If true, gateway receivers do not accept the compressed batch format.
+   */
+  public static final String DISABLE_COMPRESSED_BATCHES_PROPERTY =
+      GeodeGlossary.GEMFIRE_PREFIX + "GatewayReceiver.DISABLE_COMPRESSED_BATCHES";
+
+  /**
+   * The oldest version that understands the compressed batch format.
+   */
+  public static final KnownVersion COMPRESSED_BATCH_VERSION = KnownVersion.GEODE_1_16_0;
+
+  /** The bit of the handshake override byte that requests the compressed batch format */
+  public static final byte COMPRESSED_BATCH_OVERRIDE = (byte) 0x20;
+
+  /** The bit of the flags part of a batch that is set if events should be removed on exception */
+  public static final byte REMOVE_FROM_QUEUE_ON_EXCEPTION_FLAG = (byte) 0x01;
+
+  /** The bit of the flags part of a batch that is set if its events are compressed */
+  public static final byte COMPRESSED_FLAG = (byte) 0x02;
+
+  /** The number of the part that contains the compressed events */
+  public static final int COMPRESSED_EVENTS_PART = 4;
+
+  static final int MAX_DICTIONARY_SIZE = 1024;
+
+  /**
+   * The dictionary reference of a value that is sent without being added to the dictionary. Other
+   * references are {@code 2 * id + 1} for a value that has been sent with that id and
+   * {@code 2 * id + 2} for a value that is sent and added to the dictionary with that id.
+   */
+  private static final int NOT_IN_DICTIONARY = 0;
+
+  private static final byte NULL_PART = 0;
+  private static final byte BYTES_PART = 1;
+  private static final byte OBJECT_PART = 2;
+
+  private final Compressor compressor = new SnappyCompressor();
+
+  private final Map<String, Integer> sentRegionPaths = new HashMap<>();
+
+  private final Map<ByteBuffer, Integer> sentMemberIds = new HashMap<>();
+
+  private final List<byte[]> receivedRegionPaths = new ArrayList<>();
+
+  private final List<byte[]> receivedMemberIds = new ArrayList<>();
+
+  public static boolean isRequestedBySender() {
+    return Boolean.getBoolean(COMPRESS_BATCHES_PROPERTY);
+  }
+
+  public static boolean isAcceptedByReceiver() {
+    return !Boolean.getBoolean(DISABLE_COMPRESSED_BATCHES_PROPERTY);
+  }
+
+  public static boolean isSupportedBy(short versionOrdinal) {
+    return versionOrdinal >= COMPRESSED_BATCH_VERSION.ordinal();
+  }
+
+  /**
+   * Encodes and compresses the events of a batch. {@link #batchSent(EncodedBatch)} must be called
+   * once the batch has been sent.
+   */
+  public EncodedBatch encode(List<GatewaySenderEventImpl> events) throws IOException {
+    EncodedBatch batch = new EncodedBatch();
+    try (HeapDataOutputStream hdos = new HeapDataOutputStream(KnownVersion.CURRENT)) {
+      InternalDataSerializer.writeUnsignedVL(countParts(events), hdos);
+      for (GatewaySenderEventImpl event : events) {
+        encodeEvent(event, batch, hdos);
+      }
+      batch.bytes = compressor.compress(hdos.toByteArray());
+    }
+    return batch;
+  }
+
+  /**
+   * Adds the region paths and member ids that were defined by a batch to the dictionaries of this
+   * connection.
+   */
+  public void batchSent(EncodedBatch batch) {
+    sentRegionPaths.putAll(batch.regionPaths);
+    sentMemberIds.putAll(batch.memberIds);
+  }
+
+  /**
+   * Decompresses the events of a batch and replaces the part that contains them with the parts of
+   * the uncompressed batch.
+   */
+  public void decode(Message message) throws IOException {
+    byte[] bytes;
+    try {
+      bytes = compressor.decompress(
+          message.getPart(COMPRESSED_EVENTS_PART).getSerializedForm());
+    } catch (CompressionException e) {
+      throw new IOException("Unable to decompress gateway batch", e);
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    int numberOfParts = (int) InternalDataSerializer.readUnsignedVL(in);
+    message.setNumberOfParts(COMPRESSED_EVENTS_PART + numberOfParts);
+    int partNumber = COMPRESSED_EVENTS_PART;
+    while (partNumber < message.getNumberOfParts()) {
+      partNumber = decodeEvent(in, message, partNumber);
+    }
+  }
+
+  /**
+   * Returns the number of parts the events have in an uncompressed batch.
+   */
+  private static int countParts(List<GatewaySenderEventImpl> events) {
+    int numberOfParts = 0;
+    for (GatewaySenderEventImpl event : events) {
+      int action = event.getAction();
+      // action and possible duplicate
+      numberOfParts += 2;
+      if (action >= 0 && action <= 3) {
+        // region path, event id, key, callback arg flag and version timestamp
+        numberOfParts += 5;
+        if (action < 2) {
+          numberOfParts++;
+        }
+        if (event.getSenderCallbackArgument() != null) {
+          numberOfParts++;
+        }
+      }
+    }
+    return numberOfParts;
+  }
+
+  private void encodeEvent(GatewaySenderEventImpl event, EncodedBatch batch, DataOutput out)
+      throws IOException {
+    int action = event.getAction();
+    InternalDataSerializer.writeSignedVL(action, out);
+    out.writeBoolean(event.getPossibleDuplicate());
+    if (action < 0 || action > 3) {
+      return;
+    }
+    writeRegionPath(event.getRegionPath(), batch, out);
+    EventID eventId = event.getEventId();
+    writeMemberId(eventId.getMembershipID(), batch, out);
+    InternalDataSerializer.writeSignedVL(eventId.getThreadID(), out);
+    InternalDataSerializer.writeSignedVL(eventId.getSequenceID(), out);
+    InternalDataSerializer.writeSignedVL(eventId.getBucketID(), out);
+    Object key = event.getKey();
+    if (key instanceof String) {
+      try (HeapDataOutputStream hdos = new HeapDataOutputStream((String) key)) {
+        writePart(hdos.toByteArray(), false, out);
+      }
+    } else if (key == null) {
+      writePart(null, false, out);
+    } else {
+      // keys are always serialized, even byte arrays
+      writePart(BlobHelper.serializeToBlob(key), true, out);
+    }
+    if (action < 2) {
+      writePart(event.getSerializedValue(), event.getValueIsObject() == 0x01, out);
+    }
+    Object callbackArg = event.getSenderCallbackArgument();
+    out.writeBoolean(callbackArg != null);
+    if (callbackArg != null) {
+      writeObjPart(callbackArg, out);
+    }
+    out.writeLong(event.getVersionTimeStamp());
+  }
+
+  private int decodeEvent(DataInput in, Message message, int partNumber) throws IOException {
+    int action = (int) InternalDataSerializer.readSignedVL(in);
+    message.getPart(partNumber++).setInt(action);
+    message.getPart(partNumber++).setPartState(new byte[] {(byte) (in.readBoolean() ? 1 : 0)},
+        false);
+    if (action < 0 || action > 3) {
+      return partNumber;
+    }
+    message.getPart(partNumber++).setPartState(readRegionPath(in), false);
+    EventID eventId = new EventID(readMemberId(in), InternalDataSerializer.readSignedVL(in),
+        InternalDataSerializer.readSignedVL(in), (int) InternalDataSerializer.readSignedVL(in));
+    message.getPart(partNumber++).setPartState(BlobHelper.serializeToBlob(eventId), true);
+    readPart(in, message.getPart(partNumber++));
+    if (action < 2) {
+      readPart(in, message.getPart(partNumber++));
+    }
+    boolean callbackArgExists = in.readBoolean();
+    message.getPart(partNumber++).setPartState(new byte[] {(byte) (callbackArgExists ? 1 : 0)},
+        false);
+    if (callbackArgExists) {
+      readPart(in, message.getPart(partNumber++));
+    }
+    message.getPart(partNumber++).setLong(in.readLong());
+    return partNumber;
+  }
+
+  private void writeRegionPath(String regionPath, EncodedBatch batch, DataOutput out)
+      throws IOException {
+    Integer id = sentRegionPaths.get(regionPath);
+    if (id == null) {
+      id = batch.regionPaths.get(regionPath);
+    }
+    if (id != null) {
+      InternalDataSerializer.writeUnsignedVL(2 * id + 1, out);
+      return;
+    }
+    int nextId = sentRegionPaths.size() + batch.regionPaths.size();
+    if (nextId < MAX_DICTIONARY_SIZE) {
+      batch.regionPaths.put(regionPath, nextId);
+      InternalDataSerializer.writeUnsignedVL(2 * nextId + 2, out);
+    } else {
+      InternalDataSerializer.writeUnsignedVL(NOT_IN_DICTIONARY, out);
+    }
+    try (HeapDataOutputStream hdos = new HeapDataOutputStream(regionPath)) {
+      DataSerializer.writeByteArray(hdos.toByteArray(), out);
+    }
+  }
+
+  private byte[] readRegionPath(DataInput in) throws IOException {
+    return readDictionaryValue(in, receivedRegionPaths, "region path");
+  }
+
+  private void writeMemberId(byte[] memberId, EncodedBatch batch, DataOutput out)
+      throws IOException {
+    if (memberId == null) {
+      InternalDataSerializer.writeUnsignedVL(NOT_IN_DICTIONARY, out);
+      DataSerializer.writeByteArray(null, out);
+      return;
+    }
+    ByteBuffer key = ByteBuffer.wrap(memberId);
+    Integer id = sentMemberIds.get(key);
+    if (id == null) {
+      id = batch.memberIds.get(key);
+    }
+    if (id != null) {
+      InternalDataSerializer.writeUnsignedVL(2 * id + 1, out);
+      return;
+    }
+    int nextId = sentMemberIds.size() + batch.memberIds.size();
+    if (nextId < MAX_DICTIONARY_SIZE) {
+      batch.memberIds.put(key, nextId);
+      InternalDataSerializer.writeUnsignedVL(2 * nextId + 2, out);
+    } else {
+      InternalDataSerializer.writeUnsignedVL(NOT_IN_DICTIONARY, out);
+    }
+    DataSerializer.writeByteArray(memberId, out);
+  }
+
+  private byte[] readMemberId(DataInput in) throws IOException {
+    return readDictionaryValue(in, receivedMemberIds, "member id");
+  }
+
+  private static byte[] readDictionaryValue(DataInput in, List<byte[]> dictionary, String name)
+      throws IOException {
+    int reference = (int) InternalDataSerializer.readUnsignedVL(in);
+    if (reference == NOT_IN_DICTIONARY) {
+      return DataSerializer.readByteArray(in);
+    }
+    int id = (reference - 1) / 2;
+    if (reference % 2 == 1) {
+      if (id >= dictionary.size()) {
+        throw new IOException("Unknown " + name + " " + id + " in gateway batch");
+      }
+      return dictionary.get(id);
+    }
+    if (id != dictionary.size()) {
+      throw new IOException(name + " " + id + " in gateway batch defined out of order, expected "
+          + dictionary.size());
+    }
+    byte[] value = DataSerializer.readByteArray(in);
+    dictionary.add(value);
+    return value;
+  }
+
+  /**
+   * Writes an object the way {@link Message#addObjPart(Object)} adds it to a message.
+   */
+  private static void writeObjPart(Object object, DataOutput out) throws IOException {
+    if (object == null || object instanceof byte[]) {
+      writePart((byte[]) object, false, out);
+    } else {
+      writePart(BlobHelper.serializeToBlob(object), true, out);
+    }
+  }
+
+  private static void writePart(byte[] bytes, boolean isObject, DataOutput out)
+      throws IOException {
+    if (bytes == null) {
+      out.writeByte(NULL_PART);
+    } else {
+      out.writeByte(isObject ? OBJECT_PART : BYTES_PART);
+      DataSerializer.writeByteArray(bytes, out);
+    }
+  }
+
+  private static void readPart(DataInput in, Part part) throws IOException {
+    byte type = in.readByte();
+    if (type == NULL_PART) {
+      part.setPartState((byte[]) null, false);
+    } else {
+      part.setPartState(DataSerializer.readByteArray(in), type == OBJECT_PART);
+    }
+  }
+
+  /**
+   * The compressed events of a batch and the dictionary entries they define.
+   */
+  public static class EncodedBatch {
+
+    private byte[] bytes;
+
+    private final Map<String, Integer> regionPaths = new HashMap<>();
+
+    private final Map<ByteBuffer, Integer> memberIds = new HashMap<>();
+
+    public byte[] getBytes() {
+      return bytes;
+    }
+  }
+}
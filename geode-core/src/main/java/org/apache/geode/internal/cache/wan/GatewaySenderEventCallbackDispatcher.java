@@ -23,6 +23,8 @@ import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CancelException;
 import org.apache.geode.cache.asyncqueue.AsyncEventListener;
+import org.apache.geode.cache.asyncqueue.BulkAsyncEventListener;
+import org.apache.geode.cache.asyncqueue.internal.AsyncEventBatchImpl;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 /**
@@ -53,6 +55,12 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
    */
   private final Object eventLock = new Object();
 
+  /**
+   * The number of events from the start of the last dispatched batch that were processed by all
+   * registered <code>AsyncEventListener</code>s.
+   */
+  private int numberOfEventsProcessed;
+
   public GatewaySenderEventCallbackDispatcher(AbstractGatewaySenderEventProcessor eventProcessor) {
     this.eventProcessor = eventProcessor;
     initializeEventListeners();
@@ -145,13 +153,23 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
     }
     int batchId = this.eventProcessor.getBatchId();
     boolean successAll = true;
+    numberOfEventsProcessed = 0;
+    int processedByAll = events.size();
     try {
       for (AsyncEventListener listener : this.eventListeners) {
-        boolean successOne = listener.processEvents(events);
-        if (!successOne) {
+        int processedByOne;
+        if (listener instanceof BulkAsyncEventListener) {
+          processedByOne =
+              ((BulkAsyncEventListener) listener).processBatch(new AsyncEventBatchImpl(events));
+        } else {
+          processedByOne = listener.processEvents(events) ? events.size() : 0;
+        }
+        if (processedByOne < events.size()) {
           successAll = false;
         }
+        processedByAll = Math.min(processedByAll, Math.max(0, processedByOne));
       }
+      numberOfEventsProcessed = processedByAll;
     } catch (Exception e) {
       final String alias =
           "%s: Exception during processing batch %s";
@@ -164,6 +182,14 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
     return successAll;
   }
 
+  /**
+   * Returns the number of events from the start of the last dispatched batch that were processed
+   * by all registered <code>AsyncEventListener</code>s.
+   */
+  public int getNumberOfEventsProcessed() {
+    return numberOfEventsProcessed;
+  }
+
   @Override
   public boolean isRemoteDispatcher() {
     return false;
@@ -102,6 +102,13 @@ public class GatewaySenderStats {
   protected static final String SYNCHRONIZATION_EVENTS_ENQUEUED = "synchronizationEventsEnqueued";
   protected static final String SYNCHRONIZATION_EVENTS_PROVIDED = "synchronizationEventsProvided";
 
+  protected static final String ADAPTIVE_BATCH_SIZE = "adaptiveBatchSize";
+  protected static final String ADAPTIVE_BATCH_SIZE_INCREASES = "adaptiveBatchSizeIncreases";
+  protected static final String ADAPTIVE_BATCH_SIZE_DECREASES = "adaptiveBatchSizeDecreases";
+
+  protected static final String EVENTS_CONFLATED_FROM_QUEUE = "eventsConflatedFromQueue";
+  protected static final String CONFLATION_RATIO = "conflationRatio";
+
   /** Id of the events queued statistic */
   private static final int eventsReceivedId;
   /** Id of the events queued statistic */
@@ -165,6 +172,16 @@ public class GatewaySenderStats {
   private static final int synchronizationEventsEnqueuedId;
   /** Id of synchronization events provided */
   private static final int synchronizationEventsProvidedId;
+  /** Id of the adaptive batch size */
+  private static final int adaptiveBatchSizeId;
+  /** Id of adaptive batch size increases */
+  private static final int adaptiveBatchSizeIncreasesId;
+  /** Id of adaptive batch size decreases */
+  private static final int adaptiveBatchSizeDecreasesId;
+  /** Id of events conflated from the queue */
+  private static final int eventsConflatedFromQueueId;
+  /** Id of the conflation ratio */
+  private static final int conflationRatioId;
 
   /*
    * Static initializer to create and initialize the <code>StatisticsType</code>
@@ -210,6 +227,11 @@ public class GatewaySenderStats {
     loadBalanceTimeId = type.nameToId(LOAD_BALANCE_TIME);
     synchronizationEventsEnqueuedId = type.nameToId(SYNCHRONIZATION_EVENTS_ENQUEUED);
     synchronizationEventsProvidedId = type.nameToId(SYNCHRONIZATION_EVENTS_PROVIDED);
+    adaptiveBatchSizeId = type.nameToId(ADAPTIVE_BATCH_SIZE);
+    adaptiveBatchSizeIncreasesId = type.nameToId(ADAPTIVE_BATCH_SIZE_INCREASES);
+    adaptiveBatchSizeDecreasesId = type.nameToId(ADAPTIVE_BATCH_SIZE_DECREASES);
+    eventsConflatedFromQueueId = type.nameToId(EVENTS_CONFLATED_FROM_QUEUE);
+    conflationRatioId = type.nameToId(CONFLATION_RATIO);
   }
 
   protected static StatisticsType createType(final StatisticsTypeFactory f, final String typeName,
@@ -293,7 +315,22 @@ public class GatewaySenderStats {
             f.createIntCounter(SYNCHRONIZATION_EVENTS_ENQUEUED,
                 "Number of synchronization events added to the event queue.", "operations"),
             f.createIntCounter(SYNCHRONIZATION_EVENTS_PROVIDED,
-                "Number of synchronization events provided to other members.", "operations"),});
+                "Number of synchronization events provided to other members.", "operations"),
+            f.createIntGauge(ADAPTIVE_BATCH_SIZE,
+                "Number of events most recently requested per batch when adaptive batch sizing is enabled.",
+                "operations", false),
+            f.createIntCounter(ADAPTIVE_BATCH_SIZE_INCREASES,
+                "Number of times adaptive batch sizing increased the batch size limit because of a queue backlog.",
+                "operations", false),
+            f.createIntCounter(ADAPTIVE_BATCH_SIZE_DECREASES,
+                "Number of times adaptive batch sizing decreased the batch size limit because of slow acknowledgements.",
+                "operations", false),
+            f.createIntCounter(EVENTS_CONFLATED_FROM_QUEUE,
+                "Number of queued events that were conflated by a later event with the same key.",
+                "operations"),
+            f.createDoubleGauge(CONFLATION_RATIO,
+                "Ratio of the queued events that were conflated by a later event with the same key to the events queued.",
+                "ratio", false),});
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -334,6 +371,7 @@ public class GatewaySenderStats {
       StatisticsClock statisticsClock) {
     stats = f.createAtomicStatistics(statType, textId);
     this.statisticsClock = statisticsClock;
+    stats.setDoubleSupplier(conflationRatioId, this::getConflationRatio);
   }
 
   ///////////////////// Instance Methods /////////////////////
@@ -924,6 +962,65 @@ public class GatewaySenderStats {
     this.stats.incInt(synchronizationEventsProvidedId, 1);
   }
 
+  /**
+   * Sets the "adaptiveBatchSize" stat.
+   *
+   * @param size The number of events most recently requested per batch
+   */
+  public void setAdaptiveBatchSize(int size) {
+    this.stats.setInt(adaptiveBatchSizeId, size);
+  }
+
+  public int getAdaptiveBatchSize() {
+    return this.stats.getInt(adaptiveBatchSizeId);
+  }
+
+  /**
+   * Increments the value of the "adaptiveBatchSizeIncreases" stat by 1.
+   */
+  public void incAdaptiveBatchSizeIncreases() {
+    this.stats.incInt(adaptiveBatchSizeIncreasesId, 1);
+  }
+
+  public int getAdaptiveBatchSizeIncreases() {
+    return this.stats.getInt(adaptiveBatchSizeIncreasesId);
+  }
+
+  /**
+   * Increments the value of the "adaptiveBatchSizeDecreases" stat by 1.
+   */
+  public void incAdaptiveBatchSizeDecreases() {
+    this.stats.incInt(adaptiveBatchSizeDecreasesId, 1);
+  }
+
+  public int getAdaptiveBatchSizeDecreases() {
+    return this.stats.getInt(adaptiveBatchSizeDecreasesId);
+  }
+
+  /**
+   * Increments the value of the "eventsConflatedFromQueue" stat by 1.
+   */
+  public void incEventsConflatedFromQueue() {
+    this.stats.incInt(eventsConflatedFromQueueId, 1);
+  }
+
+  public int getEventsConflatedFromQueue() {
+    return this.stats.getInt(eventsConflatedFromQueueId);
+  }
+
+  /**
+   * Returns the ratio of the "eventsConflatedFromQueue" stat to the "eventsQueued" stat. Serial and
+   * parallel queues both count an event as conflated from the queue when a later event with the
+   * same key replaces it. Events conflated in a batch are not included.
+   */
+  public double getConflationRatio() {
+    int eventsQueued = getEventsQueued();
+    if (eventsQueued == 0) {
+      return 0;
+    }
+    return (double) getEventsConflatedFromQueue() / eventsQueued;
+  }
+
   public Statistics getStats() {
     return stats;
   }
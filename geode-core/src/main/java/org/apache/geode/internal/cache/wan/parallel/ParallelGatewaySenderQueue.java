@@ -99,6 +99,7 @@ import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.management.ManagementService;
 import org.apache.geode.management.internal.beans.AsyncEventQueueMBean;
 import org.apache.geode.management.internal.beans.GatewaySenderMBean;
+import org.apache.geode.util.internal.GeodeGlossary;
 
 public class ParallelGatewaySenderQueue implements RegionQueue {
   protected static final Logger logger = LogService.getLogger();
@@ -179,6 +180,16 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
 
   public static final String QSTRING = "_PARALLEL_GATEWAY_SENDER_QUEUE";
 
+  /**
+   * If true, the shadow partitioned regions of parallel queues store their events serialized in
+   * off-heap memory. Only the queue keys and entries stay on the heap, and events beyond the
+   * maximum queue memory still overflow to the disk store of the sender. Like any off-heap region,
+   * the queue must be off-heap on all members that host it, so every member that hosts it must set
+   * this and have off-heap memory.
+   */
+  public static final boolean OFF_HEAP_QUEUE =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.OFF_HEAP_QUEUE");
+
   /**
    * Fixed size Thread pool for conflating the events in the queue. The size of the thread pool is
    * set to the number of processors available to the JVM. There will be one thread pool per
@@ -375,6 +386,7 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
             sender.getMaximumQueueMemory(), EvictionAction.OVERFLOW_TO_DISK);
 
         fact.setEvictionAttributes(ea);
+        fact.setOffHeap(isOffHeapQueue(cache, localMaxMemory == 0));
         fact.setPartitionAttributes(pfact.create());
 
         final RegionAttributes ra = fact.getCreateAttributes();
@@ -532,6 +544,7 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
             sender.getMaximumQueueMemory(), EvictionAction.OVERFLOW_TO_DISK);
 
         fact.setEvictionAttributes(ea);
+        fact.setOffHeap(isOffHeapQueue(cache, isAccessor));
         fact.setPartitionAttributes(pfact.create());
 
         final RegionAttributes ra = fact.getCreateAttributes();
@@ -1619,6 +1632,34 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
     return x -> transactionId.equals(x.getTransactionId());
   }
 
+  boolean isOffHeapQueueRequested() {
+    return OFF_HEAP_QUEUE;
+  }
+
+  /**
+   * Returns true if the queue region is created off-heap. Accessors store no events, so they may
+   * lack off-heap memory, but a member that hosts the queue fails to create it without off-heap
+   * memory instead of creating it on the heap, which the other members would reject.
+   */
+  boolean isOffHeapQueue(InternalCache cache, boolean isAccessor) {
+    if (!isOffHeapQueueRequested()) {
+      return false;
+    }
+    if (cache.getOffHeapStore() == null) {
+      if (isAccessor) {
+        return false;
+      }
+      throw new GatewaySenderConfigurationException(String.format(
+          "Parallel %s %s can not store its queue off-heap because %s is set but off-heap memory"
+              + " is not configured",
+          asyncEvent ? "Async Event Queue" : "Gateway Sender",
+          asyncEvent ? AsyncEventQueueImpl.getAsyncEventQueueIdFromSenderId(sender.getId())
+              : sender.getId(),
+          GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.OFF_HEAP_QUEUE"));
+    }
+    return true;
+  }
+
   protected BucketRegionQueue getBucketRegionQueueByBucketId(final PartitionedRegion prQ,
       final int bucketId) {
     return (BucketRegionQueue) prQ.getDataStore().getLocalBucketById(bucketId);
@@ -1835,6 +1876,61 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
     return brq.hasEventsMatching(condition);
   }
 
+  /**
+   * Returns the given peeked events without the ones that have been conflated in their bucket by
+   * an event queued after them, or the given list itself if none were. The shadow region of each
+   * region is only looked up once per call.
+   */
+  public List<GatewaySenderEventImpl> withoutConflatedEvents(List<GatewaySenderEventImpl> events) {
+    Map<String, PartitionedRegion> shadowRegions = new HashMap<>();
+    List<GatewaySenderEventImpl> remainingEvents = null;
+    for (int i = 0; i < events.size(); i++) {
+      GatewaySenderEventImpl event = events.get(i);
+      if (isConflated(event, shadowRegions)) {
+        if (remainingEvents == null) {
+          remainingEvents = new ArrayList<>(events.subList(0, i));
+        }
+      } else if (remainingEvents != null) {
+        remainingEvents.add(event);
+      }
+    }
+    return remainingEvents == null ? events : remainingEvents;
+  }
+
+  private boolean isConflated(GatewaySenderEventImpl event,
+      Map<String, PartitionedRegion> shadowRegions) {
+    if (!event.shouldBeConflated()) {
+      return false;
+    }
+    String regionPath = event.getRegionPath();
+    PartitionedRegion prQ;
+    if (shadowRegions.containsKey(regionPath)) {
+      prQ = shadowRegions.get(regionPath);
+    } else {
+      prQ = getShadowRegion(regionPath);
+      shadowRegions.put(regionPath, prQ);
+    }
+    if (prQ == null || prQ.getDataStore() == null) {
+      return false;
+    }
+    BucketRegionQueue brq = getBucketRegionQueueByBucketId(prQ, event.getBucketId());
+    return brq != null && brq.isConflated(event);
+  }
+
+  /**
+   * Returns the shadow region the events of the given region are queued in, or null if there is
+   * none.
+   */
+  private PartitionedRegion getShadowRegion(String regionPath) {
+    Region region = sender.getCache().getRegion(regionPath);
+    if (region instanceof PartitionedRegion) {
+      regionPath = ColocationHelper.getLeaderRegion((PartitionedRegion) region).getFullPath();
+    } else if (!(region instanceof DistributedRegion)) {
+      return null;
+    }
+    return this.userRegionNameToShadowPRMap.get(regionPath);
+  }
+
   // TODO:REF: Name for this class should be appropriate?
   private class BatchRemovalThread extends Thread {
     /**
@@ -631,6 +631,9 @@ public class SerialGatewaySenderQueue implements RegionQueue {
       if (!keepOldEntry) {
         Conflatable previous = (Conflatable) this.region.remove(previousIndex);
         this.stats.decQueueSize(1);
+        if (previous != null) {
+          this.stats.incEventsConflatedFromQueue();
+        }
         if (isDebugEnabled) {
           logger.debug("{}: Previous conflatable at key={} head={} tail={}: {}", this,
               previousIndex, this.headKey, tailKey, previous);
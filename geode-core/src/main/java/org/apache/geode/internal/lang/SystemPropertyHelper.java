@@ -58,6 +58,37 @@ public class SystemPropertyHelper {
 
   public static final String EVICTION_SEARCH_MAX_ENTRIES = "lru.maxSearchEntries";
 
+  /**
+   * When set to a positive number, LRU regions find the entries to evict by sweeping the region map
+   * instead of keeping their entries in an eviction list, and evict the first of that many recently
+   * used entries in a row. It defaults to 0, which keeps the eviction lists.
+   * {@link #EVICTION_SEARCH_MAX_ENTRIES} bounds the entries passed in one search, and defaults to
+   * ten times the sample size. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.SampledLRUList}.
+   */
+  public static final String EVICTION_SAMPLE_SIZE = "EvictionSampleSize";
+
+  /**
+   * When set to "true" LRU regions use a frequency aware eviction list that keeps entries used once
+   * from evicting frequently used entries (defaults to false). For more details see
+   * {@link org.apache.geode.internal.cache.eviction.TinyLFUList}.
+   */
+  public static final String EVICTION_TINY_LFU = "EvictionTinyLFU";
+
+  /**
+   * The percentage of the entries of a region that the window list of the frequency aware eviction
+   * list holds. It defaults to 1.
+   */
+  public static final String EVICTION_TINY_LFU_WINDOW_PERCENT = "EvictionTinyLFUWindowPercent";
+
+  /**
+   * When set to a positive number, memory and heap LRU regions that size their entries with one of
+   * the built-in object sizers learn the sizes of each class by sizing about one in that many
+   * instances instead. For more details see
+   * {@link org.apache.geode.internal.size.SampledClassObjectSizer}.
+   */
+  public static final String EVICTION_SIZE_SAMPLE_INTERVAL = "EvictionSizeSampleInterval";
+
   public static final String EARLY_ENTRY_EVENT_SERIALIZATION = "earlyEntryEventSerialization";
 
   public static final String DEFAULT_DISK_DIRS_PROPERTY = "defaultDiskDirs";
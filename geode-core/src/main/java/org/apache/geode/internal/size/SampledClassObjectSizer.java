@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.size;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.internal.util.concurrent.CopyOnWriteWeakHashMap;
+
+/**
+ * An implementation of {@link ObjectSizer} that learns the size of the instances of each class by
+ * sampling them. The first instances of a class are sized accurately with the
+ * {@link ReflectionObjectSizer}, and after that about one in every sample interval instances. All
+ * other instances are given the average of the sampled sizes of their class, which follows changes
+ * of the sizes over time.
+ *
+ * This sizer sits between {@link SizeClassOnceObjectSizer}, which sizes only the first instance of
+ * each class, and {@link ReflectionObjectSizer}, which sizes every instance. Like both of them it
+ * sizes strings and byte arrays accurately every time.
+ */
+public class SampledClassObjectSizer implements ObjectSizer {
+
+  /** The number of instances of each class that are sized before the sizes are sampled */
+  static final int INITIAL_SAMPLES = 16;
+
+  private final Map<Class, ClassSize> classSizes = new CopyOnWriteWeakHashMap<>();
+
+  private final ReflectionObjectSizer sizer = ReflectionObjectSizer.getInstance();
+
+  private final int sampleInterval;
+
+  /**
+   * @param sampleInterval one in how many instances of a class is sized once its initial instances
+   *        were sized
+   */
+  public SampledClassObjectSizer(int sampleInterval) {
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("sampleInterval must be positive");
+    }
+    this.sampleInterval = sampleInterval;
+  }
+
+  @Override
+  public int sizeof(Object o) {
+    if (o == null) {
+      return 0;
+    }
+    int wellKnownObjectSize = WellKnownClassSizer.sizeof(o);
+    if (wellKnownObjectSize != 0) {
+      return wellKnownObjectSize;
+    }
+
+    Class clazz = o.getClass();
+    ClassSize classSize = classSizes.get(clazz);
+    if (classSize == null) {
+      classSize = new ClassSize();
+      ClassSize existing = classSizes.putIfAbsent(clazz, classSize);
+      if (existing != null) {
+        classSize = existing;
+      }
+    }
+    if (classSize.samples < INITIAL_SAMPLES
+        || ThreadLocalRandom.current().nextInt(sampleInterval) == 0) {
+      int size = sizer.sizeof(o);
+      classSize.sample(size);
+      return size;
+    }
+    return classSize.averageSize;
+  }
+
+  /**
+   * The sampled sizes of the instances of one class.
+   */
+  private static class ClassSize {
+
+    private volatile int samples;
+
+    private volatile int averageSize;
+
+    /** GuardedBy this */
+    private long sampledBytes;
+
+    synchronized void sample(int size) {
+      if (samples < INITIAL_SAMPLES) {
+        sampledBytes += size;
+        averageSize = (int) (sampledBytes / (samples + 1));
+        samples++;
+      } else {
+        // an exponential moving average so that the average follows changes of the sizes
+        averageSize += (size - averageSize) / INITIAL_SAMPLES;
+      }
+    }
+  }
+}
@@ -20,6 +20,7 @@ import org.apache.geode.DataSerializer;
 import org.apache.geode.distributed.internal.DMStats;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.PooledHeapDataOutputStream;
 import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.serialization.ByteArrayDataInput;
@@ -50,7 +51,7 @@ public class BlobHelper {
   public static byte[] serializeToBlob(Object obj, KnownVersion version) throws IOException {
     final long start = startSerialization();
     byte[] result;
-    try (HeapDataOutputStream hdos = new HeapDataOutputStream(version)) {
+    try (HeapDataOutputStream hdos = PooledHeapDataOutputStream.create(version)) {
       DataSerializer.writeObject(obj, hdos);
       result = hdos.toByteArray();
     }
@@ -25,9 +25,12 @@ import com.fasterxml.jackson.core.JsonParser.Feature;
 import com.fasterxml.jackson.core.JsonParser.NumberType;
 import com.fasterxml.jackson.core.JsonToken;
 
+import org.apache.geode.cache.CacheFactory;
 import org.apache.geode.cache.RegionService;
 import org.apache.geode.cache.client.internal.ProxyCache;
 import org.apache.geode.cache.client.internal.UserAttributes;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.pdx.internal.json.JSONToPdxEncoder;
 import org.apache.geode.pdx.internal.json.JSONToPdxMapper;
 import org.apache.geode.pdx.internal.json.PdxInstanceHelper;
 import org.apache.geode.pdx.internal.json.PdxInstanceSortedHelper;
@@ -196,7 +199,10 @@ public class JSONFormatter {
         throw new JSONFormatterException("Could not parse the " + json.getClass() + " type");
       }
       enableJSONParserFeature(jp);
-      return getPdxInstance(jp, states.NONE, null, identityFields).getPdxInstance();
+      if (Boolean.getBoolean(SORT_JSON_FIELD_NAMES_PROPERTY)) {
+        return getPdxInstance(jp, states.NONE, null, identityFields).getPdxInstance();
+      }
+      return new JSONToPdxEncoder(getCache().getPdxRegistry(), identityFields).encode(jp);
     } catch (JsonParseException jpe) {
       throw new JSONFormatterException("Could not parse JSON document ", jpe);
     } catch (IOException e) {
@@ -210,6 +216,10 @@ public class JSONFormatter {
     }
   }
 
+  private InternalCache getCache() {
+    return (InternalCache) CacheFactory.getAnyInstance();
+  }
+
   private void enableJSONParserFeature(JsonParser jp) {
     jp.enable(Feature.ALLOW_BACKSLASH_ESCAPING_ANY_CHARACTER);
     jp.enable(Feature.ALLOW_UNQUOTED_FIELD_NAMES);
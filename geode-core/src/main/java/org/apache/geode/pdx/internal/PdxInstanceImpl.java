@@ -36,6 +36,7 @@ import org.apache.geode.distributed.internal.DMStats;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.SerializedValueComparator;
 import org.apache.geode.internal.classloader.ClassPathLoader;
 import org.apache.geode.internal.serialization.DSCODE;
 import org.apache.geode.internal.tcp.ByteBufferInputStream;
@@ -297,6 +298,12 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
           break;
         }
         case OBJECT: {
+          ByteSource serializedValue = ur.getRaw(ft);
+          if (serializedValue.remaining() > 0 && SerializedValueComparator
+              .hasHashCode(serializedValue.get(serializedValue.position()))) {
+            hashCode = hashCode * 31 + SerializedValueComparator.hashCode(serializedValue);
+            break;
+          }
           Object objectValue = ur.readObject(ft);
           if (objectValue == null) {
             // default value of null does not modify hashCode.
@@ -399,6 +406,13 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
           break;
 
         case OBJECT: {
+          SerializedValueComparator.Result result =
+              SerializedValueComparator.compare(ur1.getRaw(myType), ur2.getRaw(otherType));
+          if (result == SerializedValueComparator.Result.NOT_EQUAL) {
+            return false;
+          } else if (result == SerializedValueComparator.Result.EQUAL) {
+            break;
+          }
           Object myObject = ur1.readObject(myType);
           Object otherObject = ur2.readObject(otherType);
           if (myObject != otherObject) {
@@ -528,6 +542,15 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
     return this;
   }
 
+  /**
+   * Returns a reader of the current field values of this instance. Unlike {@link #getField}, the
+   * reader lets callers that walk every field read them by {@link PdxField} without looking each
+   * one up by name or boxing primitive values.
+   */
+  public PdxReaderImpl getFieldReader() {
+    return getUnmodifiableReader();
+  }
+
   protected PdxReaderImpl getUnmodifiableReader(String fieldName) {
     return this;
   }
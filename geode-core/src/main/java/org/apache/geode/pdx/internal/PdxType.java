@@ -269,7 +269,16 @@ public class PdxType implements DataSerializable {
   }
 
   public void initialize(PdxWriterImpl writer) {
-    this.vlfCount = writer.getVlfCount();
+    initialize(writer.getVlfCount());
+  }
+
+  /**
+   * Computes the offsets of the fields of this type.
+   *
+   * @param vlfCount the number of variable length field offsets written by the serialization
+   */
+  public void initialize(int vlfCount) {
+    this.vlfCount = vlfCount;
     int size = this.fields.size();
     int fixedLenFieldOffset = 0;
     boolean seenVariableLenType = false;
@@ -19,6 +19,7 @@ import static org.apache.geode.cache.Region.SEPARATOR;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -58,6 +59,7 @@ import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInitializationException;
 import org.apache.geode.pdx.PdxRegistryMismatchException;
+import org.apache.geode.util.internal.GeodeGlossary;
 
 public class PeerTypeRegistration implements TypeRegistration {
   private static final Logger logger = LogService.getLogger();
@@ -70,6 +72,24 @@ public class PeerTypeRegistration implements TypeRegistration {
   public static final String REGION_NAME = "PdxTypes";
   public static final String REGION_FULL_PATH = SEPARATOR + REGION_NAME;
 
+  /**
+   * The region that records which blocks of type ids have been reserved by which member. It is
+   * only created when {@link #TYPE_ID_BLOCK_SIZE} is set.
+   */
+  public static final String TYPE_ID_BLOCKS_REGION_NAME = "PdxTypeIdBlocks";
+
+  /**
+   * The number of type ids a member reserves at once. When this is greater than zero each member
+   * takes the distributed lock only to reserve a new block of ids, and defines new types from its
+   * own block without any further distributed locking. The same type defined concurrently by two
+   * members may then be given two ids, just as it would be in two WAN sites, and both ids remain
+   * valid. All members of the distributed system must use the same setting. The default of zero
+   * allocates every type id while holding the distributed lock.
+   */
+  private static final int TYPE_ID_BLOCK_SIZE =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "PeerTypeRegistration.TYPE_ID_BLOCK_SIZE",
+          0);
+
   @VisibleForTesting
   public static final int PLACE_HOLDER_FOR_TYPE_ID = 0xFFFFFF;
   private static final int PLACE_HOLDER_FOR_DS_ID = 0xFF000000;
@@ -80,6 +100,15 @@ public class PeerTypeRegistration implements TypeRegistration {
   private final int typeIdPrefix;
   private final Object dlsLock = new Object();
   private final InternalCache cache;
+  private final int typeIdBlockSize;
+
+  /**
+   * Guards the type id block reserved by this member. The ids are stored without the distributed
+   * system prefix.
+   */
+  private final Object typeIdBlockLock = new Object();
+  private int nextBlockTypeId;
+  private int typeIdBlockEnd;
 
   private volatile DistributedLockService dls;
 
@@ -90,6 +119,8 @@ public class PeerTypeRegistration implements TypeRegistration {
    */
   private Region<Object/* Integer or EnumCode */, Object/* PdxType or enum info */> idToType;
 
+  private Region<Integer/* first type id of the block */, String/* member */> typeIdBlocks;
+
   private PeerTypeRegistrationReverseMap reverseMap = new PeerTypeRegistrationReverseMap();
 
   private final Map<String, CopyOnWriteHashSet<PdxType>> classToType = new CopyOnWriteHashMap<>();
@@ -97,7 +128,13 @@ public class PeerTypeRegistration implements TypeRegistration {
   private volatile boolean typeRegistryInUse = false;
 
   public PeerTypeRegistration(final InternalCache cache) {
+    this(cache, TYPE_ID_BLOCK_SIZE);
+  }
+
+  @VisibleForTesting
+  PeerTypeRegistration(final InternalCache cache, final int typeIdBlockSize) {
     this.cache = cache;
+    this.typeIdBlockSize = Math.max(0, Math.min(typeIdBlockSize, MAX_TYPE_ID));
 
     final InternalDistributedSystem internalDistributedSystem =
         cache.getInternalDistributedSystem();
@@ -204,6 +241,10 @@ public class PeerTypeRegistration implements TypeRegistration {
       throw new PdxInitializationException("Could not create pdx registry", ex);
     }
 
+    if (typeIdBlockSize > 0) {
+      initializeTypeIdBlocks();
+    }
+
     statistics.initialize();
 
     // If there is anything in the id to type registry,
@@ -214,6 +255,23 @@ public class PeerTypeRegistration implements TypeRegistration {
     }
   }
 
+  /**
+   * Creates the region of reserved type id blocks. Reservations do not need to be persistent:
+   * every type allocated from a block is written to the persistent type region, and ids found
+   * there are never handed out again.
+   */
+  private void initializeTypeIdBlocks() {
+    InternalRegionFactory<Integer, String> factory = cache.createInternalRegionFactory();
+    factory.setScope(Scope.DISTRIBUTED_ACK);
+    factory.setDataPolicy(DataPolicy.REPLICATE);
+    factory.setIsUsedForMetaRegion(true);
+    try {
+      typeIdBlocks = factory.create(TYPE_ID_BLOCKS_REGION_NAME);
+    } catch (TimeoutException | RegionExistsException ex) {
+      throw new PdxInitializationException("Could not create pdx type id block registry", ex);
+    }
+  }
+
   protected DistributedLockService getLockService() {
     if (dls != null) {
       return dls;
@@ -266,6 +324,65 @@ public class PeerTypeRegistration implements TypeRegistration {
     }
   }
 
+  /**
+   * Returns the next free type id from the block reserved by this member, reserving a new block
+   * if the current one is used up. Must be called holding the typeIdBlockLock.
+   */
+  private int allocateTypeIdFromBlock(PdxType newType) {
+    TXStateProxy currentState = suspendTX();
+    Region<Object, Object> r = getIdToType();
+    try {
+      while (true) {
+        while (nextBlockTypeId < typeIdBlockEnd) {
+          int newTypeId = nextBlockTypeId++ | typeIdPrefix;
+          // ids in a block may already have been used before the block was reserved, for
+          // example by types recovered from disk
+          if (!r.containsKey(newTypeId)) {
+            return newTypeId;
+          }
+        }
+        lock();
+        try {
+          reserveTypeIdBlock(newType);
+        } finally {
+          unlock();
+        }
+      }
+    } finally {
+      resumeTX(currentState);
+    }
+  }
+
+  /**
+   * Should only be called holding the dlock. Finds a block of type ids that no member has
+   * reserved yet and records it as reserved by this member.
+   */
+  private void reserveTypeIdBlock(PdxType newType) {
+    int blockCount = (MAX_TYPE_ID + 1) / typeIdBlockSize;
+    int block = (newType.hashCode() & PLACE_HOLDER_FOR_TYPE_ID) % blockCount;
+    for (int i = 0; i < blockCount; i++) {
+      int blockStart = block * typeIdBlockSize;
+      Integer blockKey = blockStart | typeIdPrefix;
+      if (!typeIdBlocks.containsKey(blockKey)) {
+        boolean state = useUDPMessagingIfNecessary();
+        try {
+          typeIdBlocks.put(blockKey, cache.getMyId().toString());
+        } finally {
+          releaseUDPMessaging(state);
+        }
+        // type id zero is never used
+        nextBlockTypeId = Math.max(blockStart, 1);
+        typeIdBlockEnd = blockStart + typeIdBlockSize;
+        statistics.typeIdBlockReserved();
+        return;
+      }
+      block = (block + 1) % blockCount;
+    }
+    throw new InternalGemFireError(
+        "Used up all of the PDX type id blocks for this distributed system. The maximum number of PDX types is "
+            + MAX_TYPE_ID);
+  }
+
   private EnumId allocateEnumId(EnumInfo ei) {
     TXStateProxy currentState = suspendTX();
     Region<Object, Object> r = getIdToType();
@@ -352,6 +469,38 @@ public class PeerTypeRegistration implements TypeRegistration {
     if (existingId != null) {
       return existingId;
     }
+    if (typeIdBlockSize > 0) {
+      return defineTypeFromBlock(newType);
+    }
+    lock();
+    try {
+      if (shouldReload()) {
+        buildReverseMapsFromRegion();
+      }
+      reverseMap.flushPendingReverseMap();
+
+      return defineTypeHoldingLock(newType);
+    } finally {
+      // flush the reverse map for the member that introduced this new PdxType
+      reverseMap.flushPendingReverseMap();
+      unlock();
+    }
+  }
+
+  /**
+   * Defines all of the given types while taking the distributed lock only once, rather than once
+   * per type.
+   */
+  @Override
+  public int[] defineTypes(List<PdxType> newTypes) {
+    int[] ids = new int[newTypes.size()];
+    if (typeIdBlockSize > 0) {
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = defineType(newTypes.get(i));
+      }
+      return ids;
+    }
+    verifyConfiguration();
     lock();
     try {
       if (shouldReload()) {
@@ -359,21 +508,48 @@ public class PeerTypeRegistration implements TypeRegistration {
       }
       reverseMap.flushPendingReverseMap();
 
-      // double check if my PdxType is in the reverse map in case it was just flushed into it
-      existingId = reverseMap.getIdFromReverseMap(newType);
+      for (int i = 0; i < ids.length; i++) {
+        statistics.typeDefined();
+        ids[i] = defineTypeHoldingLock(newTypes.get(i));
+        // make the type visible to any equal type later in the batch
+        reverseMap.flushPendingReverseMap();
+      }
+      return ids;
+    } finally {
+      reverseMap.flushPendingReverseMap();
+      unlock();
+    }
+  }
+
+  private int defineTypeHoldingLock(PdxType newType) {
+    // double check if my PdxType is in the reverse map in case it was just flushed into it
+    Integer existingId = reverseMap.getIdFromReverseMap(newType);
+    if (existingId != null) {
+      return existingId;
+    }
+
+    int id = allocateTypeId(newType);
+    newType.setTypeId(id);
+    updateIdToTypeRegion(newType);
+
+    return newType.getTypeId();
+  }
+
+  private int defineTypeFromBlock(PdxType newType) {
+    synchronized (typeIdBlockLock) {
+      // double check in case another thread in this member just defined the same type
+      Integer existingId = reverseMap.getIdFromReverseMap(newType);
       if (existingId != null) {
         return existingId;
       }
 
-      int id = allocateTypeId(newType);
+      int id = allocateTypeIdFromBlock(newType);
       newType.setTypeId(id);
       updateIdToTypeRegion(newType);
+      // the put above has been distributed to every member, so the type can be used right away
+      reverseMap.saveDistributedType(id, newType);
 
-      return newType.getTypeId();
-    } finally {
-      // flush the reverse map for the member that introduced this new PdxType
-      reverseMap.flushPendingReverseMap();
-      unlock();
+      return id;
     }
   }
 
@@ -18,6 +18,7 @@ package org.apache.geode.pdx.internal;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.geode.annotations.VisibleForTesting;
 import org.apache.geode.cache.Region;
@@ -45,23 +46,36 @@ public class PeerTypeRegistrationReverseMap {
 
   private final Map<EnumInfo, EnumId> enumToId = Collections.synchronizedMap(new HashMap<>());
 
+  /**
+   * The number of region entries that are not represented in the maps above because an equal
+   * type or enum was already mapped to a different id. This happens when members allocate type
+   * ids from their own reserved blocks and define the same type concurrently.
+   */
+  private final AtomicInteger overwrittenIds = new AtomicInteger();
+
   void save(Object key, Object value) {
     if (value instanceof PdxType) {
       PdxType type = (PdxType) value;
-      typeToId.put(type, (Integer) key);
+      countOverwrite(key, typeToId.put(type, (Integer) key));
     } else if (value instanceof EnumInfo) {
       EnumInfo info = (EnumInfo) value;
-      enumToId.put(info, (EnumId) key);
+      countOverwrite(key, enumToId.put(info, (EnumId) key));
     }
   }
 
   void saveToPending(Object key, Object value) {
     if (value instanceof PdxType) {
       PdxType type = (PdxType) value;
-      pendingTypeToId.put(type, (Integer) key);
+      countOverwrite(key, pendingTypeToId.put(type, (Integer) key));
     } else if (value instanceof EnumInfo) {
       EnumInfo info = (EnumInfo) value;
-      pendingEnumToId.put(info, (EnumId) key);
+      countOverwrite(key, pendingEnumToId.put(info, (EnumId) key));
+    }
+  }
+
+  private void countOverwrite(Object newId, Object oldId) {
+    if (oldId != null && !oldId.equals(newId)) {
+      overwrittenIds.incrementAndGet();
     }
   }
 
@@ -89,26 +103,45 @@ public class PeerTypeRegistrationReverseMap {
       return false;
     }
     return ((typeToId.size() + pendingTypeToId.size() + enumToId.size()
-        + pendingEnumToId.size()) != pdxRegion.size());
+        + pendingEnumToId.size() + overwrittenIds.get()) != pdxRegion.size());
   }
 
   void flushPendingReverseMap() {
     if (!pendingTypeToId.isEmpty()) {
-      typeToId.putAll(pendingTypeToId);
-      pendingTypeToId.clear();
+      synchronized (pendingTypeToId) {
+        for (Map.Entry<PdxType, Integer> entry : pendingTypeToId.entrySet()) {
+          countOverwrite(entry.getValue(), typeToId.put(entry.getKey(), entry.getValue()));
+        }
+        pendingTypeToId.clear();
+      }
     }
     if (!pendingEnumToId.isEmpty()) {
-      enumToId.putAll(pendingEnumToId);
-      pendingEnumToId.clear();
+      synchronized (pendingEnumToId) {
+        for (Map.Entry<EnumInfo, EnumId> entry : pendingEnumToId.entrySet()) {
+          countOverwrite(entry.getValue(), enumToId.put(entry.getKey(), entry.getValue()));
+        }
+        pendingEnumToId.clear();
+      }
     }
   }
 
+  /**
+   * Saves a type that this member has just distributed itself. The type is known to have reached
+   * all members, so it goes straight into the reverse map without publishing any pending types
+   * from other members that may still be in flight.
+   */
+  void saveDistributedType(Integer id, PdxType type) {
+    pendingTypeToId.remove(type, id);
+    save(id, type);
+  }
+
   // This should only be called prior to reloading the maps from the region
   void clear() {
     typeToId.clear();
     enumToId.clear();
     pendingTypeToId.clear();
     pendingEnumToId.clear();
+    overwrittenIds.set(0);
   }
 
   @VisibleForTesting
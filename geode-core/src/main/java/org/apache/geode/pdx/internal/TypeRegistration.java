@@ -14,6 +14,7 @@
  */
 package org.apache.geode.pdx.internal;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,6 +31,20 @@ public interface TypeRegistration {
    */
   int defineType(PdxType newType);
 
+  /**
+   * Define several types in the distributed system at once. Implementations that need to
+   * coordinate with other members should do so once for the whole batch.
+   *
+   * @return the ids of the types, in the same order as the given list
+   */
+  default int[] defineTypes(List<PdxType> newTypes) {
+    int[] ids = new int[newTypes.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = defineType(newTypes.get(i));
+    }
+    return ids;
+  }
+
   /**
    * Get the type id from the distributed system
    */
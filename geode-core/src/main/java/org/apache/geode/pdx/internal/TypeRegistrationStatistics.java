@@ -25,6 +25,7 @@ class TypeRegistrationStatistics {
   static final String TYPE_CREATED = "typeCreated";
   static final String ENUM_DEFINED = "enumDefined";
   static final String ENUM_CREATED = "enumCreated";
+  static final String TYPE_ID_BLOCK_RESERVED = "typeIdBlockReserved";
   static final String SIZE = "size";
 
   private final TypeRegistration typeRegistration;
@@ -32,6 +33,7 @@ class TypeRegistrationStatistics {
   private final int typeCreatedId;
   private final int enumDefinedId;
   private final int enumCreatedId;
+  private final int typeIdBlockReservedId;
   private final Statistics statistics;
 
   TypeRegistrationStatistics(final StatisticsFactory statisticsFactory,
@@ -49,6 +51,8 @@ class TypeRegistrationStatistics {
                     "ops"),
                 statisticsFactory.createLongCounter(ENUM_CREATED, "Number of PDX enums created.",
                     "ops"),
+                statisticsFactory.createLongCounter(TYPE_ID_BLOCK_RESERVED,
+                    "Number of blocks of PDX type ids reserved by this member.", "ops"),
                 statisticsFactory.createLongGauge(SIZE, "Size of PDX type and enum registry.",
                     "entries")
             });
@@ -57,6 +61,7 @@ class TypeRegistrationStatistics {
     typeCreatedId = statisticsType.nameToId(TYPE_CREATED);
     enumDefinedId = statisticsType.nameToId(ENUM_DEFINED);
     enumCreatedId = statisticsType.nameToId(ENUM_CREATED);
+    typeIdBlockReservedId = statisticsType.nameToId(TYPE_ID_BLOCK_RESERVED);
 
     statistics = statisticsFactory.createAtomicStatistics(statisticsType,
         typeRegistration.getClass().getSimpleName());
@@ -82,4 +87,8 @@ class TypeRegistrationStatistics {
     statistics.incLong(enumCreatedId, 1);
   }
 
+  void typeIdBlockReserved() {
+    statistics.incLong(typeIdBlockReservedId, 1);
+  }
+
 }
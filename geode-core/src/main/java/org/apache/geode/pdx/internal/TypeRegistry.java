@@ -16,8 +16,11 @@ package org.apache.geode.pdx.internal;
 
 import static java.lang.Integer.valueOf;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.logging.log4j.Logger;
@@ -36,6 +39,7 @@ import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.PdxSerializer;
 import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.pdx.internal.json.JSONTypeCache;
 import org.apache.geode.util.internal.GeodeGlossary;
 
 public class TypeRegistry {
@@ -44,9 +48,14 @@ public class TypeRegistry {
   private static final boolean DISABLE_TYPE_REGISTRY =
       Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "TypeRegistry.DISABLE_PDX_REGISTRY");
 
-  private final Map<Integer, PdxType> idToType = new CopyOnWriteHashMap<>();
+  /**
+   * The id and type maps can grow to tens of thousands of entries, for example when many JSON
+   * documents are stored, so they are concurrent maps rather than copy-on-write maps that would
+   * copy every entry each time a type is added.
+   */
+  private final Map<Integer, PdxType> idToType = new ConcurrentHashMap<>();
 
-  private final Map<PdxType, Integer> typeToId = new CopyOnWriteHashMap<>();
+  private final Map<PdxType, Integer> typeToId = new ConcurrentHashMap<>();
 
   private final Map<Class<?>, PdxType> localTypeIds = new CopyOnWriteWeakHashMap<>();
 
@@ -56,12 +65,15 @@ public class TypeRegistry {
   private final WeakConcurrentIdentityHashMap<Object, PdxUnreadData> unreadDataMap =
       WeakConcurrentIdentityHashMap.make();
 
-  private final Map<Integer, EnumInfo> idToEnum = new CopyOnWriteHashMap<>();
+  private final Map<Integer, EnumInfo> idToEnum = new ConcurrentHashMap<>();
 
-  private final Map<EnumInfo, Integer> enumInfoToId = new CopyOnWriteHashMap<>();
+  private final Map<EnumInfo, Integer> enumInfoToId = new ConcurrentHashMap<>();
 
   private final Map<Enum<?>, Integer> localEnumIds = new CopyOnWriteWeakHashMap<>();
 
+  /** The types of JSON documents converted by JSONFormatter, keyed by their fields */
+  private final JSONTypeCache jsonTypeCache = new JSONTypeCache();
+
   private final TypeRegistration distributedTypeRegistry;
 
   private final InternalCache cache;
@@ -92,6 +104,11 @@ public class TypeRegistry {
     this.localTypeIds.clear();
     this.localTypeIdMaps.clear();
     this.localEnumIds.clear();
+    this.jsonTypeCache.clear();
+  }
+
+  public JSONTypeCache getJSONTypeCache() {
+    return this.jsonTypeCache;
   }
 
   public static boolean mayNeedDiskStore(InternalCache cache) {
@@ -191,15 +208,57 @@ public class TypeRegistry {
    * @return the existing type or the new type
    */
   public PdxType defineType(PdxType newType) {
+    PdxType existingType = getCachedType(newType);
+    if (existingType != null) {
+      return existingType;
+    }
+
+    int id = this.distributedTypeRegistry.defineType(newType);
+    return cacheDefinedType(id, newType);
+  }
+
+  /**
+   * Create type ids for several types at once. Types that are not yet known locally are defined
+   * in the distributed system as a single batch, which lets the distributed registry coordinate
+   * with other members once instead of once per type. This is useful to pre-register types, for
+   * example before a bulk load of JSON documents.
+   *
+   * @return the existing or new types, in the same order as the given list
+   */
+  public List<PdxType> defineTypes(List<PdxType> newTypes) {
+    List<PdxType> result = new ArrayList<>(newTypes.size());
+    List<PdxType> undefinedTypes = new ArrayList<>();
+    for (PdxType newType : newTypes) {
+      PdxType existingType = getCachedType(newType);
+      result.add(existingType);
+      if (existingType == null) {
+        undefinedTypes.add(newType);
+      }
+    }
+    if (undefinedTypes.isEmpty()) {
+      return result;
+    }
+
+    int[] ids = this.distributedTypeRegistry.defineTypes(undefinedTypes);
+    int undefinedIndex = 0;
+    for (int i = 0; i < result.size(); i++) {
+      if (result.get(i) == null) {
+        result.set(i, cacheDefinedType(ids[undefinedIndex], undefinedTypes.get(undefinedIndex)));
+        undefinedIndex++;
+      }
+    }
+    return result;
+  }
+
+  private PdxType getCachedType(PdxType newType) {
     Integer existingId = this.typeToId.get(newType);
     if (existingId != null) {
-      PdxType existingType = this.idToType.get(existingId);
-      if (existingType != null) {
-        return existingType;
-      }
+      return this.idToType.get(existingId);
     }
+    return null;
+  }
 
-    int id = this.distributedTypeRegistry.defineType(newType);
+  private PdxType cacheDefinedType(int id, PdxType newType) {
     PdxType oldType = this.idToType.get(id);
     if (oldType == null) {
       newType.setTypeId(id);
@@ -454,6 +513,7 @@ public class TypeRegistry {
       this.idToEnum.clear();
       this.enumInfoToId.clear();
       this.localEnumIds.clear();
+      this.jsonTypeCache.clear();
       AutoSerializableManager autoSerializer = getAutoSerializableManager();
       if (autoSerializer != null) {
         autoSerializer.resetCachedTypes();
@@ -0,0 +1,366 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.serialization.DSCODE;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.DataSize;
+import org.apache.geode.pdx.internal.PdxInputStream;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.PdxWriterImpl;
+import org.apache.geode.pdx.internal.TypeRegistry;
+
+/**
+ * Converts a JSON document into a {@link PdxInstance} by writing the PDX serialized form directly
+ * from the parser's tokens. Unlike {@link PdxInstanceHelper} it does not create a PdxInstance for
+ * every nested object or a List for every array before serializing them into their parent, and it
+ * finds the type of each object in a {@link JSONTypeCache} instead of defining a new PdxType.
+ * <p>
+ * The serialized form is the same as the one produced by {@link PdxInstanceHelper}, so documents
+ * converted either way have the same types.
+ */
+public class JSONToPdxEncoder {
+
+  private static final int BYTES_TO_SKIP =
+      DataSize.BYTE_SIZE + DataSize.INTEGER_SIZE + PdxWriterImpl.TYPE_ID_SIZE;
+
+  private final TypeRegistry typeRegistry;
+  private final JSONTypeCache typeCache;
+  private final Set<String> identityFields;
+
+  /**
+   * The state of the objects currently being written, indexed by nesting depth. Entries are reused
+   * by later objects at the same depth.
+   */
+  private final List<ObjectState> objectStates = new ArrayList<>();
+  private int depth;
+
+  public JSONToPdxEncoder(TypeRegistry typeRegistry, String... identityFields) {
+    this.typeRegistry = typeRegistry;
+    this.typeCache = typeRegistry.getJSONTypeCache();
+    if (identityFields.length == 0) {
+      this.identityFields = Collections.emptySet();
+    } else {
+      this.identityFields = new HashSet<>(Arrays.asList(identityFields));
+    }
+  }
+
+  /**
+   * Reads a JSON object from the parser and returns it as a PdxInstance.
+   *
+   * @throws IllegalStateException if the document does not start with an object
+   */
+  public PdxInstance encode(JsonParser jp) throws IOException {
+    JsonToken token = jp.nextToken();
+    if (token != JsonToken.START_OBJECT) {
+      throw new IllegalStateException("Expected a JSON object but found " + token);
+    }
+    HeapDataOutputStream out = new HeapDataOutputStream(KnownVersion.CURRENT);
+    PdxType pdxType = writeObject(jp, out);
+    ByteBuffer bb = out.toByteBuffer(BYTES_TO_SKIP);
+    return new PdxInstanceImpl(pdxType, new PdxInputStream(bb), bb.limit());
+  }
+
+  /**
+   * Writes the object whose START_OBJECT token was just read, up to and including its END_OBJECT
+   * token, in the same form as {@link PdxWriterImpl}.
+   *
+   * @return the type of the object
+   */
+  private PdxType writeObject(JsonParser jp, HeapDataOutputStream out) throws IOException {
+    ObjectState state = enterObject();
+    try {
+      out.write(DSCODE.PDX.toByte());
+      HeapDataOutputStream.LongUpdater header = out.reserveLong(); // length and type id
+      state.baseOffset = out.size();
+
+      JsonToken token;
+      while ((token = jp.nextToken()) != JsonToken.END_OBJECT) {
+        if (token != JsonToken.FIELD_NAME) {
+          throw new IllegalStateException("Expected a field name but found " + token);
+        }
+        writeField(jp, jp.getCurrentName(), out, state);
+      }
+
+      state.appendOffsets(out);
+      PdxType pdxType = getPdxType(state.fields);
+      long lengthAndTypeId = ((long) (out.size() - state.baseOffset)) << 32
+          | (0x00000000FFFFFFFFL & pdxType.getTypeId());
+      header.update(lengthAndTypeId);
+      return pdxType;
+    } finally {
+      depth--;
+    }
+  }
+
+  /**
+   * Reads the value of the field whose name was just read and writes it the way
+   * {@link PdxInstanceHelper} writes the field to its PdxInstanceFactory.
+   */
+  private void writeField(JsonParser jp, String fieldName, HeapDataOutputStream out,
+      ObjectState state) throws IOException {
+    JsonToken token = jp.nextToken();
+    switch (token) {
+      case START_OBJECT:
+        // nested objects are not identity fields, see PdxInstanceHelper.addObjectField
+        state.markVariableField(out);
+        state.fields.add(fieldName, FieldType.OBJECT, false);
+        writeObject(jp, out);
+        break;
+      case START_ARRAY:
+        state.markVariableField(out);
+        state.fields.add(fieldName, FieldType.OBJECT, isIdentityField(fieldName));
+        writeList(jp, out);
+        break;
+      case VALUE_STRING:
+        // strings are not identity fields, see PdxInstanceHelper.addObjectField
+        state.markVariableField(out);
+        state.fields.add(fieldName, FieldType.OBJECT, false);
+        InternalDataSerializer.basicWriteObject(jp.getText(), out, false);
+        break;
+      case VALUE_NULL:
+        state.markVariableField(out);
+        state.fields.add(fieldName, FieldType.OBJECT, isIdentityField(fieldName));
+        InternalDataSerializer.basicWriteObject(null, out, false);
+        break;
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        state.fields.add(fieldName, FieldType.BOOLEAN, isIdentityField(fieldName));
+        out.writeByte(token == JsonToken.VALUE_TRUE ? 0x1 : 0x0);
+        break;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        writeNumberField(jp, fieldName, out, state);
+        break;
+      default:
+        throw new IllegalStateException("Token not handled " + token);
+    }
+  }
+
+  private void writeNumberField(JsonParser jp, String fieldName, HeapDataOutputStream out,
+      ObjectState state) throws IOException {
+    boolean identityField = isIdentityField(fieldName);
+    JsonParser.NumberType numberType = jp.getNumberType();
+    switch (numberType) {
+      case BIG_DECIMAL:
+        state.markVariableField(out);
+        state.fields.add(fieldName, FieldType.OBJECT, identityField);
+        InternalDataSerializer.basicWriteObject(jp.getDecimalValue(), out, false);
+        break;
+      case BIG_INTEGER:
+        state.markVariableField(out);
+        state.fields.add(fieldName, FieldType.OBJECT, identityField);
+        InternalDataSerializer.basicWriteObject(jp.getBigIntegerValue(), out, false);
+        break;
+      case DOUBLE:
+        state.fields.add(fieldName, FieldType.DOUBLE, identityField);
+        out.writeDouble(jp.getDoubleValue());
+        break;
+      case FLOAT:
+        state.fields.add(fieldName, FieldType.FLOAT, identityField);
+        out.writeFloat(jp.getFloatValue());
+        break;
+      case INT: {
+        int val = jp.getIntValue();
+        if (val > Short.MAX_VALUE || val < Short.MIN_VALUE) {
+          state.fields.add(fieldName, FieldType.INT, identityField);
+          out.writeInt(val);
+        } else if (val > Byte.MAX_VALUE || val < Byte.MIN_VALUE) {
+          state.fields.add(fieldName, FieldType.SHORT, identityField);
+          out.writeShort(val);
+        } else {
+          state.fields.add(fieldName, FieldType.BYTE, identityField);
+          out.writeByte(val);
+        }
+        break;
+      }
+      case LONG:
+        state.fields.add(fieldName, FieldType.LONG, identityField);
+        out.writeLong(jp.getLongValue());
+        break;
+      default:
+        throw new IllegalStateException("setNumberField:unknow number type " + numberType);
+    }
+  }
+
+  /**
+   * Writes the array whose START_ARRAY token was just read as a serialized LinkedList, the form
+   * {@link PdxListHelper#getList()} is serialized in. The elements are written to a separate stream
+   * first because the list length precedes them.
+   */
+  private void writeList(JsonParser jp, HeapDataOutputStream out) throws IOException {
+    HeapDataOutputStream elements = new HeapDataOutputStream(KnownVersion.CURRENT);
+    try {
+      int size = 0;
+      JsonToken token;
+      while ((token = jp.nextToken()) != JsonToken.END_ARRAY) {
+        writeListElement(jp, token, elements);
+        size++;
+      }
+      out.writeByte(DSCODE.LINKED_LIST.toByte());
+      InternalDataSerializer.writeArrayLength(size, out);
+      elements.sendTo(out);
+    } finally {
+      elements.close();
+    }
+  }
+
+  private void writeListElement(JsonParser jp, JsonToken token, HeapDataOutputStream out)
+      throws IOException {
+    switch (token) {
+      case START_OBJECT:
+        writeObject(jp, out);
+        break;
+      case START_ARRAY:
+        writeList(jp, out);
+        break;
+      case VALUE_STRING:
+        DataSerializer.writeObject(jp.getText(), out);
+        break;
+      case VALUE_NULL:
+        DataSerializer.writeObject(null, out);
+        break;
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        DataSerializer.writeObject(jp.getBooleanValue(), out);
+        break;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        DataSerializer.writeObject(getListNumber(jp), out);
+        break;
+      default:
+        throw new IllegalStateException("Token not handled in getlist" + token);
+    }
+  }
+
+  private Object getListNumber(JsonParser jp) throws IOException {
+    JsonParser.NumberType numberType = jp.getNumberType();
+    switch (numberType) {
+      case BIG_DECIMAL:
+        return jp.getDecimalValue();
+      case BIG_INTEGER:
+        return jp.getBigIntegerValue();
+      case DOUBLE:
+        return jp.getDoubleValue();
+      case FLOAT:
+        return jp.getFloatValue();
+      case INT: {
+        int val = jp.getIntValue();
+        if (val > Short.MAX_VALUE || val < Short.MIN_VALUE) {
+          return val;
+        } else if (val > Byte.MAX_VALUE || val < Byte.MIN_VALUE) {
+          return (short) val;
+        } else {
+          return (byte) val;
+        }
+      }
+      case LONG:
+        return jp.getLongValue();
+      default:
+        throw new IllegalStateException("setNumberField:unknow number type " + numberType);
+    }
+  }
+
+  private boolean isIdentityField(String fieldName) {
+    return identityFields.contains(fieldName);
+  }
+
+  private PdxType getPdxType(JSONTypeCache.FieldSequence fields) {
+    PdxType pdxType = typeCache.get(fields);
+    if (pdxType == null) {
+      pdxType = typeRegistry.defineType(fields.createPdxType());
+      typeCache.put(fields, pdxType);
+    }
+    return pdxType;
+  }
+
+  private ObjectState enterObject() {
+    ObjectState state;
+    if (depth == objectStates.size()) {
+      state = new ObjectState();
+      objectStates.add(state);
+    } else {
+      state = objectStates.get(depth);
+    }
+    depth++;
+    state.reset();
+    return state;
+  }
+
+  /**
+   * The fields and variable length field offsets of an object being written.
+   */
+  private static class ObjectState {
+    private final JSONTypeCache.FieldSequence fields = new JSONTypeCache.FieldSequence();
+    private int[] vlfOffsets = new int[PdxWriterImpl.EXPAND_SIZE];
+    private int vlfCount;
+    private boolean hasSeenFirstVlf;
+    private int baseOffset;
+
+    void reset() {
+      fields.reset();
+      vlfCount = 0;
+      hasSeenFirstVlf = false;
+    }
+
+    void markVariableField(HeapDataOutputStream out) {
+      if (!hasSeenFirstVlf) {
+        hasSeenFirstVlf = true;
+      } else {
+        if (vlfCount == vlfOffsets.length) {
+          vlfOffsets = Arrays.copyOf(vlfOffsets, vlfCount + PdxWriterImpl.EXPAND_SIZE);
+        }
+        vlfOffsets[vlfCount++] = out.size() - baseOffset;
+      }
+    }
+
+    void appendOffsets(HeapDataOutputStream out) {
+      byte sizeOfOffset = PdxWriterImpl.getSizeOfOffset(vlfCount, out.size() - baseOffset);
+      for (int i = vlfCount - 1; i >= 0; i--) {
+        switch (sizeOfOffset) {
+          case 1:
+            out.writeByte(vlfOffsets[i]);
+            break;
+          case 2:
+            out.writeShort(vlfOffsets[i]);
+            break;
+          case 4:
+            out.writeInt(vlfOffsets[i]);
+            break;
+          default:
+            break;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal.json;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.JSONFormatter;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxType;
+
+/**
+ * Caches the {@link PdxType}s of JSON documents by the sequence of their field names and field
+ * types. Looking a type up here only compares names and types, while defining it in the
+ * TypeRegistry requires building a PdxType and all of its PdxFields first.
+ */
+public class JSONTypeCache {
+
+  private final Map<FieldSequence, PdxType> types = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the registered type for the given fields or null if it has not been cached yet.
+   */
+  public PdxType get(FieldSequence fields) {
+    return types.get(fields);
+  }
+
+  /**
+   * Caches the registered type for the given fields. The fields are copied so the caller may reuse
+   * the given sequence.
+   */
+  public void put(FieldSequence fields, PdxType type) {
+    types.putIfAbsent(fields.copy(), type);
+  }
+
+  public void clear() {
+    types.clear();
+  }
+
+  public int size() {
+    return types.size();
+  }
+
+  /**
+   * The names and types of the fields of a JSON object in the order they were written. Instances
+   * are mutable so that an encoder can reuse one for every object it writes.
+   */
+  public static class FieldSequence {
+    private static final byte IDENTITY_FIELD_BIT = (byte) 0x80;
+    private static final FieldType[] FIELD_TYPES = FieldType.values();
+
+    private String[] names;
+    private byte[] kinds;
+    private int count;
+    private int hash;
+
+    public FieldSequence() {
+      this(8);
+    }
+
+    private FieldSequence(int capacity) {
+      names = new String[capacity];
+      kinds = new byte[capacity];
+      reset();
+    }
+
+    public void reset() {
+      count = 0;
+      hash = 1;
+    }
+
+    public void add(String name, FieldType type, boolean identityField) {
+      if (count == names.length) {
+        names = Arrays.copyOf(names, count * 2);
+        kinds = Arrays.copyOf(kinds, count * 2);
+      }
+      byte kind = (byte) type.ordinal();
+      if (identityField) {
+        kind |= IDENTITY_FIELD_BIT;
+      }
+      names[count] = name;
+      kinds[count] = kind;
+      count++;
+      hash = 31 * (31 * hash + name.hashCode()) + kind;
+    }
+
+    public int size() {
+      return count;
+    }
+
+    /**
+     * Creates a new PdxType for a JSON document with these fields. The type has not been registered
+     * yet.
+     */
+    public PdxType createPdxType() {
+      PdxType type = new PdxType(JSONFormatter.JSON_CLASSNAME, false);
+      int vlfCount = 0;
+      boolean seenFirstVlf = false;
+      for (int i = 0; i < count; i++) {
+        FieldType fieldType = FIELD_TYPES[kinds[i] & ~IDENTITY_FIELD_BIT];
+        if (!fieldType.isFixedWidth()) {
+          // the first variable length field does not have an offset
+          if (seenFirstVlf) {
+            vlfCount++;
+          } else {
+            seenFirstVlf = true;
+          }
+        }
+        type.addField(
+            new PdxField(names[i], i, vlfCount, fieldType, (kinds[i] & IDENTITY_FIELD_BIT) != 0));
+      }
+      type.initialize(vlfCount);
+      return type;
+    }
+
+    FieldSequence copy() {
+      FieldSequence copy = new FieldSequence(Math.max(count, 1));
+      System.arraycopy(names, 0, copy.names, 0, count);
+      System.arraycopy(kinds, 0, copy.kinds, 0, count);
+      copy.count = count;
+      copy.hash = hash;
+      return copy;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof FieldSequence)) {
+        return false;
+      }
+      FieldSequence that = (FieldSequence) other;
+      if (count != that.count || hash != that.hash) {
+        return false;
+      }
+      for (int i = 0; i < count; i++) {
+        if (kinds[i] != that.kinds[i] || !names[i].equals(that.names[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -35,6 +35,9 @@ import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.internal.EnumInfo;
 import org.apache.geode.pdx.internal.EnumInfo.PdxInstanceEnumInfo;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxReaderImpl;
 
 /*
  * This class converts a PdxInstance into a JSON document.
@@ -166,6 +169,10 @@ public class PdxToJSON {
 
   private String getJSONString(JsonGenerator jg, PdxInstance pdxInstance)
       throws JsonGenerationException, IOException {
+    if (pdxInstance instanceof PdxInstanceImpl) {
+      writePdxInstanceImpl(jg, (PdxInstanceImpl) pdxInstance);
+      return null;
+    }
     jg.writeStartObject();
 
     List<String> pdxFields = pdxInstance.getFieldNames();
@@ -179,6 +186,51 @@ public class PdxToJSON {
     return null;
   }
 
+  /**
+   * Writes the fields of a PdxInstanceImpl in the order of its type, reading primitive fields
+   * directly from the serialized form instead of boxing them.
+   */
+  private void writePdxInstanceImpl(JsonGenerator jg, PdxInstanceImpl pdxInstance)
+      throws IOException {
+    jg.writeStartObject();
+
+    PdxReaderImpl reader = pdxInstance.getFieldReader();
+    for (PdxField field : reader.getPdxType().getFields()) {
+      if (field.isDeleted()) {
+        continue;
+      }
+      String pf = field.getFieldName();
+      jg.writeFieldName(pf);
+      switch (field.getFieldType()) {
+        case BOOLEAN:
+          jg.writeBoolean(reader.readBoolean(field));
+          break;
+        case BYTE:
+          jg.writeNumber(reader.readByte(field));
+          break;
+        case SHORT:
+          jg.writeNumber(reader.readShort(field));
+          break;
+        case INT:
+          jg.writeNumber(reader.readInt(field));
+          break;
+        case LONG:
+          jg.writeNumber(reader.readLong(field));
+          break;
+        case FLOAT:
+          jg.writeNumber(reader.readFloat(field));
+          break;
+        case DOUBLE:
+          jg.writeNumber(reader.readDouble(field));
+          break;
+        default:
+          writeValue(jg, reader.readField(pf), pf);
+          break;
+      }
+    }
+    jg.writeEndObject();
+  }
+
   private void getJSONStringFromArray(JsonGenerator jg, Object value, String pf)
       throws JsonGenerationException, IOException {
 
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.cache.NoSubscriptionServersAvailableException;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+
+public class NearCacheTest {
+
+  private final LocalRegion region = mock(LocalRegion.class);
+
+  private final ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+
+  private final AtomicBoolean subscriptionConnected = new AtomicBoolean(true);
+
+  private NearCache nearCache;
+
+  @Before
+  public void setUp() {
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return null;
+    }).when(executor).execute(any());
+    nearCache = new NearCache(region, executor, subscriptionConnected::get, 1000, 3, 10, 4);
+  }
+
+  @Test
+  public void keysAreRegisteredOnceTheBatchIsFull() {
+    nearCache.valueLoaded("a");
+    nearCache.valueLoaded("b");
+    verify(region, never()).registerInterestList(anyList(), any(), eq(false), eq(false));
+
+    nearCache.valueLoaded("c");
+
+    verify(region).registerInterestList(Arrays.asList("a", "b", "c"),
+        InterestResultPolicy.KEYS_VALUES, false, false);
+    verify(executor).schedule(any(Runnable.class), eq(10L), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void flushRegistersThePendingKeys() {
+    nearCache.valueLoaded("a");
+
+    nearCache.flush();
+
+    verify(region).registerInterestList(Collections.singletonList("a"),
+        InterestResultPolicy.KEYS_VALUES, false, false);
+  }
+
+  @Test
+  public void registeredKeysAreNotRegisteredAgain() {
+    nearCache.valueLoaded("a");
+    nearCache.flush();
+    nearCache.valueLoaded("a");
+    nearCache.flush();
+
+    verify(region, times(1)).registerInterestList(anyList(), any(), eq(false), eq(false));
+  }
+
+  @Test
+  public void keysAreRegisteredAgainAfterTheirRegistrationFailed() {
+    doThrow(new NoSubscriptionServersAvailableException("test")).doNothing().when(region)
+        .registerInterestList(anyList(), any(), eq(false), eq(false));
+    nearCache.valueLoaded("a");
+    nearCache.flush();
+
+    nearCache.valueLoaded("a");
+    nearCache.flush();
+
+    verify(region, times(2)).registerInterestList(Collections.singletonList("a"),
+        InterestResultPolicy.KEYS_VALUES, false, false);
+  }
+
+  @Test
+  public void entriesAreDestroyedLocallyWhenTheirRegistrationFailed() {
+    doThrow(new NoSubscriptionServersAvailableException("test")).when(region)
+        .registerInterestList(anyList(), any(), eq(false), eq(false));
+    nearCache.valueLoaded("a");
+
+    nearCache.flush();
+
+    verify(region).localDestroy("a");
+    assertThat(nearCache.getRegisteredKeyCount()).isZero();
+  }
+
+  @Test
+  public void leastRecentlyUsedKeysAreUnregisteredWhenTheMaximumIsExceeded() {
+    nearCache.valueLoaded("a");
+    nearCache.valueLoaded("b");
+    nearCache.flush();
+    nearCache.valueLoaded("c");
+    nearCache.valueLoaded("d");
+    nearCache.flush();
+    nearCache.valueLoaded("a");
+
+    nearCache.valueLoaded("e");
+    nearCache.flush();
+
+    verify(region).unregisterInterest(Collections.singletonList("b"));
+    verify(region).registerInterestList(Collections.singletonList("e"),
+        InterestResultPolicy.KEYS_VALUES, false, false);
+    assertThat(nearCache.getRegisteredKeyCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void unregisteredKeysAreDestroyedLocallyBeforeTheirInterestIsUnregistered() {
+    nearCache.valueLoaded("a");
+    nearCache.valueLoaded("b");
+    nearCache.valueLoaded("c");
+    nearCache.valueLoaded("d");
+    nearCache.flush();
+
+    nearCache.valueLoaded("e");
+    nearCache.flush();
+
+    InOrder inOrder = inOrder(region);
+    inOrder.verify(region).localDestroy("a");
+    inOrder.verify(region).unregisterInterest(Collections.singletonList("a"));
+    verify(region, never()).localDestroy("b");
+  }
+
+  @Test
+  public void readKeysAreUnregisteredAfterLessRecentlyUsedKeys() {
+    nearCache.valueLoaded("a");
+    nearCache.valueLoaded("b");
+    nearCache.valueLoaded("c");
+    nearCache.valueLoaded("d");
+    nearCache.flush();
+    nearCache.valueRead("a");
+
+    nearCache.valueLoaded("e");
+    nearCache.flush();
+
+    verify(region).localDestroy("b");
+    verify(region).unregisterInterest(Collections.singletonList("b"));
+    verify(region, never()).localDestroy("a");
+  }
+
+  @Test
+  public void loadingAnUnregisteredKeyAgainKeepsItsEntry() {
+    nearCache.valueLoaded("a");
+    nearCache.valueLoaded("b");
+    nearCache.valueLoaded("c");
+    nearCache.valueLoaded("d");
+    nearCache.flush();
+    nearCache.valueLoaded("e");
+
+    nearCache.valueLoaded("a");
+    nearCache.flush();
+
+    verify(region, never()).localDestroy("a");
+    verify(region).localDestroy("b");
+    verify(region).unregisterInterest(Collections.singletonList("b"));
+  }
+
+  @Test
+  public void removedKeysAreUnregistered() {
+    nearCache.valueLoaded("a");
+    nearCache.flush();
+
+    nearCache.valueRemoved("a");
+    nearCache.flush();
+
+    verify(region).unregisterInterest(Collections.singletonList("a"));
+    assertThat(nearCache.getRegisteredKeyCount()).isZero();
+  }
+
+  @Test
+  public void keysThatWereNeverLoadedAreNotUnregistered() {
+    nearCache.valueRemoved("a");
+    nearCache.flush();
+
+    verify(region, never()).unregisterInterest(any());
+  }
+
+  @Test
+  public void removingAPendingKeyCancelsItsRegistration() {
+    nearCache.valueLoaded("a");
+    nearCache.valueLoaded("b");
+
+    nearCache.valueRemoved("a");
+    nearCache.flush();
+
+    verify(region).registerInterestList(Collections.singletonList("b"),
+        InterestResultPolicy.KEYS_VALUES, false, false);
+    verify(region, never()).unregisterInterest(any());
+  }
+
+  @Test
+  public void loadingAKeyAgainCancelsItsPendingRemoval() {
+    nearCache.valueLoaded("a");
+    nearCache.flush();
+    nearCache.valueRemoved("a");
+
+    nearCache.valueLoaded("a");
+    nearCache.flush();
+
+    verify(region, never()).unregisterInterest(any());
+    verify(region, times(1)).registerInterestList(anyList(), any(), eq(false), eq(false));
+    assertThat(nearCache.getRegisteredKeyCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void entriesAreOnlyStaleWhileDisconnectedFromThePrimary() {
+    RegionEntry entry = mock(RegionEntry.class);
+    when(entry.getLastModified()).thenReturn(1000L);
+    when(region.cacheTimeMillis()).thenReturn(3000L);
+
+    assertThat(nearCache.mayBeStale()).isFalse();
+    assertThat(nearCache.isStale(entry)).isFalse();
+
+    subscriptionConnected.set(false);
+
+    assertThat(nearCache.mayBeStale()).isTrue();
+    assertThat(nearCache.isStale(entry)).isTrue();
+    when(entry.getLastModified()).thenReturn(2500L);
+    assertThat(nearCache.isStale(entry)).isFalse();
+  }
+
+  @Test
+  public void entriesAreNeverStaleWithoutAMaximumStaleness() {
+    nearCache = new NearCache(region, executor, () -> false, 0, 3, 10, 4);
+    RegionEntry entry = mock(RegionEntry.class);
+    when(region.cacheTimeMillis()).thenReturn(Long.MAX_VALUE);
+
+    assertThat(nearCache.mayBeStale()).isFalse();
+    assertThat(nearCache.isStale(entry)).isFalse();
+    verify(entry, never()).getLastModified();
+    verify(executor, never()).schedule(any(Runnable.class), anyLong(), any());
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.geode.compression.DictionaryCompressor.SAMPLES;
+import static org.apache.geode.compression.DictionaryCompressor.SAMPLE_INTERVAL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class DictionaryCompressorTest {
+
+  private final DictionaryCompressor compressor = new DictionaryCompressor(10, SAMPLE_INTERVAL);
+
+  @Test
+  public void decompressesACompressedValue() {
+    byte[] value = json(1);
+
+    assertThat(compressor.decompress(compressor.compress(value))).isEqualTo(value);
+  }
+
+  @Test
+  public void decompressesAnEmptyValue() {
+    assertThat(compressor.decompress(compressor.compress(new byte[0]))).isEmpty();
+  }
+
+  @Test
+  public void trainsADictionaryFromSampledValues() {
+    byte[] value = json(-1);
+    int sizeWithoutDictionary = compressor.compress(value).length;
+
+    compressSamples(0);
+
+    assertThat(compressor.getDictionaryVersion()).isEqualTo(1);
+    byte[] compressed = compressor.compress(value);
+    assertThat(compressed.length).isLessThan(sizeWithoutDictionary);
+    assertThat(compressor.decompress(compressed)).isEqualTo(value);
+  }
+
+  @Test
+  public void decompressesValuesCompressedWithAnOlderDictionary() {
+    compressSamples(0);
+    byte[] value = json(-1);
+    byte[] compressed = compressor.compress(value);
+
+    compressSamples(SAMPLES * SAMPLE_INTERVAL);
+
+    assertThat(compressor.getDictionaryVersion()).isGreaterThan(1);
+    assertThat(compressor.decompress(compressed)).isEqualTo(value);
+  }
+
+  @Test
+  public void cachedDecompressedValuesAreNotSharedWithCallers() {
+    byte[] value = json(1);
+    byte[] compressed = compressor.compress(value);
+
+    byte[] decompressed = compressor.decompress(compressed);
+    Arrays.fill(decompressed, (byte) 0);
+
+    assertThat(compressor.decompress(compressed)).isEqualTo(value);
+  }
+
+  @Test
+  public void doesNotCacheWithACacheSizeOfZero() {
+    DictionaryCompressor uncached = new DictionaryCompressor();
+    byte[] value = json(1);
+    byte[] compressed = uncached.compress(value);
+
+    assertThat(uncached.decompress(compressed)).isEqualTo(value);
+    assertThat(uncached.decompress(compressed)).isEqualTo(value);
+  }
+
+  @Test
+  public void trainedDictionaryKeepsTheNewestSamples() {
+    byte[] dictionary = DictionaryCompressor.trainDictionary(
+        Arrays.asList(new byte[DictionaryCompressor.MAX_DICTIONARY_SIZE], new byte[] {1, 2}));
+
+    assertThat(dictionary).hasSize(DictionaryCompressor.MAX_DICTIONARY_SIZE);
+    assertThat(Arrays.copyOfRange(dictionary, dictionary.length - 2, dictionary.length))
+        .containsExactly(1, 2);
+  }
+
+  @Test
+  public void rejectsATruncatedValue() {
+    byte[] compressed = compressor.compress(json(1));
+
+    assertThatThrownBy(() -> compressor.decompress(Arrays.copyOf(compressed, 3)))
+        .isInstanceOf(CompressionException.class);
+    assertThatThrownBy(() -> compressor.decompress(Arrays.copyOf(compressed, 8)))
+        .isInstanceOf(CompressionException.class);
+  }
+
+  @Test
+  public void rejectsANegativeCacheSize() {
+    assertThatThrownBy(() -> new DictionaryCompressor(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void decompressedCacheHoldsAtMostItsSize() {
+    DictionaryCompressor.DecompressedCache cache = new DictionaryCompressor.DecompressedCache(100);
+    byte[] last = null;
+
+    for (int i = 0; i < 1000; i++) {
+      last = new byte[] {(byte) i};
+      cache.put(last, json(i));
+    }
+
+    assertThat(cache.size()).isLessThanOrEqualTo(100);
+    assertThat(cache.get(last)).isEqualTo(json(999));
+  }
+
+  @Test
+  public void decompressedCacheWithFewerValuesThanStripesHoldsEachValue() {
+    DictionaryCompressor.DecompressedCache cache = new DictionaryCompressor.DecompressedCache(3);
+    byte[] value = new byte[] {1};
+
+    cache.put(value, json(1));
+
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.get(value)).isEqualTo(json(1));
+  }
+
+  private void compressSamples(int firstId) {
+    for (int i = 0; i < SAMPLES * SAMPLE_INTERVAL; i++) {
+      compressor.compress(json(firstId + i));
+    }
+  }
+
+  private static byte[] json(int id) {
+    return ("{\"id\":" + id + ",\"name\":\"customer\",\"address\":{\"street\":\"main street\","
+        + "\"city\":\"springfield\"},\"status\":\"active\"}").getBytes(UTF_8);
+  }
+}
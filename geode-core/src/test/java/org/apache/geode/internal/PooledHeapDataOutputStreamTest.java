@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class PooledHeapDataOutputStreamTest {
+
+  private final SerializationBufferPool pool = new SerializationBufferPool();
+
+  @After
+  public void noBuffersAreLeaked() {
+    assertThat(pool.getOutstandingCount()).isZero();
+  }
+
+  @Test
+  public void closeReleasesTheBufferForReuse() {
+    PooledHeapDataOutputStream first = new PooledHeapDataOutputStream(pool, 1024, null);
+    assertThat(pool.getOutstandingCount()).isEqualTo(1);
+    first.writeInt(1);
+    first.close();
+
+    ByteBuffer buffer = pool.acquire(1000);
+    assertThat(buffer.capacity()).isEqualTo(1024);
+    assertThat(buffer.position()).isZero();
+    pool.release(buffer);
+  }
+
+  @Test
+  public void closingTwiceReleasesTheBufferOnce() {
+    PooledHeapDataOutputStream hdos = new PooledHeapDataOutputStream(pool, 1024, null);
+    hdos.close();
+    hdos.close();
+  }
+
+  @Test
+  public void releasingABufferTwiceIsDetected() {
+    ByteBuffer buffer = pool.acquire(100);
+    pool.release(buffer);
+
+    assertThatThrownBy(() -> pool.release(buffer)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void releasingABufferTwiceIsDetectedWhileAnotherBufferIsOutstanding() {
+    ByteBuffer buffer = pool.acquire(100);
+    ByteBuffer other = pool.acquire(100);
+    pool.release(buffer);
+
+    assertThatThrownBy(() -> pool.release(buffer)).isInstanceOf(IllegalStateException.class);
+    assertThat(pool.getOutstandingCount()).isEqualTo(1);
+    pool.release(other);
+  }
+
+  @Test
+  public void releasingABufferThatWasNotAcquiredIsDetected() {
+    ByteBuffer acquired = pool.acquire(256);
+
+    assertThatThrownBy(() -> pool.release(ByteBuffer.allocate(256)))
+        .isInstanceOf(IllegalStateException.class);
+    pool.release(acquired);
+  }
+
+  @Test
+  public void acquireRoundsUpToASizeClass() {
+    ByteBuffer small = pool.acquire(1);
+    ByteBuffer medium = pool.acquire(1025);
+
+    assertThat(small.capacity()).isEqualTo(256);
+    assertThat(medium.capacity()).isEqualTo(4 * 1024);
+
+    pool.release(small);
+    pool.release(medium);
+  }
+
+  @Test
+  public void largeBuffersAreNotPooled() {
+    ByteBuffer large = pool.acquire(1024 * 1024);
+
+    assertThat(pool.getOutstandingCount()).isZero();
+    pool.release(large);
+  }
+
+  @Test
+  public void toByteArrayDoesNotReturnThePooledArray() throws IOException {
+    byte[] bytes;
+    try (PooledHeapDataOutputStream hdos = new PooledHeapDataOutputStream(pool, 256, null)) {
+      // fill the buffer exactly so HeapDataOutputStream would return its array
+      hdos.write(new byte[256]);
+      bytes = hdos.toByteArray();
+    }
+    ByteBuffer reused = pool.acquire(256);
+    reused.put((byte) 1);
+
+    assertThat(bytes).hasSize(256).containsOnly(0);
+    assertThat(reused.array()).isNotSameAs(bytes);
+    pool.release(reused);
+  }
+
+  @Test
+  public void contentsThatOutgrowTheBufferAreSerialized()
+      throws IOException, ClassNotFoundException {
+    String value = new String(new char[5000]).replace('\0', 'a');
+    byte[] bytes;
+    try (PooledHeapDataOutputStream hdos =
+        new PooledHeapDataOutputStream(pool, 256, KnownVersion.CURRENT)) {
+      DataSerializer.writeObject(value, hdos);
+      bytes = hdos.toByteArray();
+    }
+
+    assertThat((String) DataSerializer.readObject(
+        new DataInputStream(new ByteArrayInputStream(bytes)))).isEqualTo(value);
+  }
+}
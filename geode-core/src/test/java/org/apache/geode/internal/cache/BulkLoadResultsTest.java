@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class BulkLoadResultsTest {
+
+  private final PartitionedRegion region = mock(PartitionedRegion.class);
+
+  @Test
+  public void resultsAreAvailableToTheRegionAndItsBucketsUntilClosed() {
+    BucketRegion bucket = mock(BucketRegion.class);
+    when(bucket.getPartitionedRegion()).thenReturn(region);
+
+    try (BulkLoadResults results =
+        BulkLoadResults.open(region, Collections.singletonMap("key", "value"))) {
+      assertThat(BulkLoadResults.get(region)).isSameAs(results);
+      assertThat(BulkLoadResults.get(bucket)).isSameAs(results);
+      assertThat(BulkLoadResults.get(mock(LocalRegion.class))).isNull();
+
+      assertThat(results.containsKey("key")).isTrue();
+      assertThat(results.remove("key")).isEqualTo("value");
+      assertThat(results.containsKey("key")).isFalse();
+    }
+
+    assertThat(BulkLoadResults.get(region)).isNull();
+  }
+
+  @Test
+  public void closingNestedResultsRestoresTheOuterResults() {
+    LocalRegion otherRegion = mock(LocalRegion.class);
+
+    try (BulkLoadResults outer = BulkLoadResults.open(region, Collections.emptyMap())) {
+      try (BulkLoadResults inner = BulkLoadResults.open(otherRegion, Collections.emptyMap())) {
+        assertThat(BulkLoadResults.get(otherRegion)).isSameAs(inner);
+        assertThat(BulkLoadResults.get(region)).isNull();
+      }
+      assertThat(BulkLoadResults.get(region)).isSameAs(outer);
+    }
+  }
+}
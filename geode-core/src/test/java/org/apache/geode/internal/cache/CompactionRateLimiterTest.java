@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.internal.cache.CompactionRateLimiter.ADJUST_INTERVAL_NANOS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class CompactionRateLimiterTest {
+
+  private static final long MAX_BYTES_PER_SECOND = 1_000_000;
+
+  private static final long TARGET_LATENCY = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private final CompactionRateLimiter limiter =
+      new CompactionRateLimiter(MAX_BYTES_PER_SECOND, TARGET_LATENCY, clock::get);
+
+  @Test
+  public void doesNotWaitWithinTheBurst() {
+    assertThat(limiter.acquire(MAX_BYTES_PER_SECOND / 10)).isZero();
+  }
+
+  @Test
+  public void waitsUntilAnOverdrawnBudgetIsPaidBack() {
+    limiter.acquire(MAX_BYTES_PER_SECOND / 10);
+
+    assertThat(limiter.acquire(MAX_BYTES_PER_SECOND / 2))
+        .isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+  }
+
+  @Test
+  public void budgetRefillsOverTime() {
+    limiter.acquire(MAX_BYTES_PER_SECOND / 10);
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+
+    assertThat(limiter.acquire(MAX_BYTES_PER_SECOND / 20)).isZero();
+    assertThat(limiter.acquire(1)).isPositive();
+  }
+
+  @Test
+  public void halvesTheRateWhenForegroundWritesAreSlow() {
+    for (int i = 0; i < 100; i++) {
+      limiter.foregroundWrite(TARGET_LATENCY * 10);
+    }
+    clock.addAndGet(ADJUST_INTERVAL_NANOS);
+    limiter.acquire(0);
+
+    assertThat(limiter.getBytesPerSecond()).isEqualTo(MAX_BYTES_PER_SECOND / 2);
+  }
+
+  @Test
+  public void rateRecoversWithoutForegroundWrites() {
+    for (int i = 0; i < 100; i++) {
+      limiter.foregroundWrite(TARGET_LATENCY * 10);
+    }
+    clock.addAndGet(ADJUST_INTERVAL_NANOS);
+    limiter.acquire(0);
+    clock.addAndGet(ADJUST_INTERVAL_NANOS);
+    limiter.acquire(0);
+
+    assertThat(limiter.getBytesPerSecond())
+        .isEqualTo(MAX_BYTES_PER_SECOND / 2 + MAX_BYTES_PER_SECOND / 10);
+  }
+
+  @Test
+  public void rateDoesNotAdaptWithoutATargetLatency() {
+    CompactionRateLimiter fixedLimiter =
+        new CompactionRateLimiter(MAX_BYTES_PER_SECOND, 0, clock::get);
+    for (int i = 0; i < 100; i++) {
+      fixedLimiter.foregroundWrite(TARGET_LATENCY * 10);
+    }
+    clock.addAndGet(ADJUST_INTERVAL_NANOS);
+    fixedLimiter.acquire(0);
+
+    assertThat(fixedLimiter.getBytesPerSecond()).isEqualTo(MAX_BYTES_PER_SECOND);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class ConflationIndexTest {
+
+  private final ConflationIndex index = new ConflationIndex();
+
+  @Test
+  public void putReturnsThePreviousQueueKeyOfTheRegionAndKey() {
+    assertThat(index.put("/region", "key", 1L)).isNull();
+    assertThat(index.put("/region", "key", 2L)).isEqualTo(1L);
+    assertThat(index.put("/other", "key", 3L)).isNull();
+
+    assertThat(index.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void removeOnlyRemovesTheLatestQueueKey() {
+    index.put("/region", "key", 1L);
+    index.put("/region", "key", 2L);
+
+    assertThat(index.remove("/region", "key", 1L)).isFalse();
+    assertThat(index.size()).isEqualTo(1);
+    assertThat(index.remove("/region", "key", 2L)).isTrue();
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  public void removeComparesQueueKeysByValue() {
+    // queue keys outside the range of Long.valueOf's cache are boxed into distinct instances
+    Long queueKey = Long.valueOf(1000L);
+    Long equalQueueKey = Long.valueOf(1000L);
+    index.put("/region", "key", queueKey);
+
+    assertThat(index.remove("/region", "key", equalQueueKey)).isTrue();
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  public void queueKeysBeforeTheLatestOneAreSuperseded() {
+    index.put("/region", "key", 1L);
+    index.put("/region", "key", 2L);
+
+    assertThat(index.isSuperseded("/region", "key", 1L)).isTrue();
+    assertThat(index.isSuperseded("/region", "key", 2L)).isFalse();
+    assertThat(index.isSuperseded("/region", "other", 1L)).isFalse();
+
+    index.clear();
+
+    assertThat(index.isSuperseded("/region", "key", 1L)).isFalse();
+  }
+}
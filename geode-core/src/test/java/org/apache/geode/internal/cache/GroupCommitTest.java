@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class GroupCommitTest {
+
+  private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+  private final AtomicInteger commits = new AtomicInteger();
+
+  @Test
+  public void commitsAnAppendedWrite() throws Exception {
+    GroupCommit groupCommit = new GroupCommit(0, 1024, commits::incrementAndGet, System::nanoTime);
+
+    long ticket = groupCommit.append(10);
+    groupCommit.await(ticket);
+
+    assertThat(commits.get()).isEqualTo(1);
+    assertThat(groupCommit.getCommitted()).isEqualTo(ticket);
+  }
+
+  @Test
+  public void commitsAllPendingWritesInOneBatch() throws Exception {
+    GroupCommit groupCommit = new GroupCommit(0, 1024, commits::incrementAndGet, System::nanoTime);
+    long first = groupCommit.append(10);
+    long second = groupCommit.append(10);
+
+    groupCommit.await(first);
+    groupCommit.await(second);
+
+    assertThat(commits.get()).isEqualTo(1);
+    assertThat(groupCommit.getCommitted()).isEqualTo(second);
+  }
+
+  @Test
+  public void doesNotWaitForTheWindowOnceTheBatchIsFull() throws Exception {
+    GroupCommit groupCommit =
+        new GroupCommit(TimeUnit.HOURS.toNanos(1), 20, commits::incrementAndGet, System::nanoTime);
+    groupCommit.append(10);
+    long ticket = groupCommit.append(10);
+
+    groupCommit.await(ticket);
+
+    assertThat(commits.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void concurrentWritersShareCommits() throws Exception {
+    GroupCommit groupCommit =
+        new GroupCommit(WINDOW, Long.MAX_VALUE, commits::incrementAndGet, System::nanoTime);
+    List<Thread> writers = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      writers.add(new Thread(() -> {
+        try {
+          groupCommit.await(groupCommit.append(10));
+        } catch (IOException | InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }));
+    }
+
+    writers.forEach(Thread::start);
+    for (Thread writer : writers) {
+      writer.join();
+    }
+
+    assertThat(groupCommit.getCommitted()).isEqualTo(8);
+    assertThat(commits.get()).isLessThan(8);
+  }
+
+  @Test
+  public void retriesAFailedCommit() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    GroupCommit groupCommit = new GroupCommit(0, 1024, () -> {
+      if (attempts.incrementAndGet() == 1) {
+        throw new IOException("disk full");
+      }
+    }, System::nanoTime);
+    long ticket = groupCommit.append(10);
+
+    assertThatThrownBy(() -> groupCommit.await(ticket)).isInstanceOf(IOException.class);
+    assertThat(groupCommit.getCommitted()).isZero();
+
+    groupCommit.await(ticket);
+    assertThat(groupCommit.getCommitted()).isEqualTo(ticket);
+  }
+
+  @Test
+  public void rejectsANegativeWindow() {
+    assertThatThrownBy(() -> new GroupCommit(-1, 1024, commits::incrementAndGet, System::nanoTime))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.SerializedValueComparator.Result;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSource;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSourceFactory;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class SerializedValueComparatorTest {
+
+  @Test
+  public void equalCanonicalValuesCompareEqual() throws IOException {
+    for (Object value : Arrays.asList(null, "value", 7, 7L, 7.5d, 'c', new Date(123),
+        new int[] {1, 2})) {
+      assertThat(SerializedValueComparator.compare(serialize(value), serialize(value)))
+          .as(String.valueOf(value)).isEqualTo(Result.EQUAL);
+    }
+  }
+
+  @Test
+  public void differentCanonicalValuesAreNotEqual() throws IOException {
+    assertThat(SerializedValueComparator.compare(serialize("a"), serialize("b")))
+        .isEqualTo(Result.NOT_EQUAL);
+    assertThat(SerializedValueComparator.compare(serialize(7), serialize(7L)))
+        .isEqualTo(Result.NOT_EQUAL);
+    assertThat(SerializedValueComparator.compare(serialize(null), serialize("a")))
+        .isEqualTo(Result.NOT_EQUAL);
+  }
+
+  @Test
+  public void otherValuesAreNotCompared() throws IOException {
+    ArrayList<String> list = new ArrayList<>();
+    list.add("a");
+
+    assertThat(SerializedValueComparator.compare(serialize(list), serialize(list)))
+        .isEqualTo(Result.UNKNOWN);
+    assertThat(SerializedValueComparator.compare(serialize("a"), serialize(list)))
+        .isEqualTo(Result.UNKNOWN);
+  }
+
+  @Test
+  public void comparingByteSourcesDoesNotChangeThem() throws IOException {
+    ByteSource source1 = ByteSourceFactory.wrap(serialize("value"));
+    ByteSource source2 = ByteSourceFactory.wrap(serialize("value"));
+
+    assertThat(SerializedValueComparator.compare(source1, source2)).isEqualTo(Result.EQUAL);
+    assertThat(source1.position()).isZero();
+    assertThat(source2.position()).isZero();
+  }
+
+  @Test
+  public void hashCodeIsTheHashCodeOfTheDeserializedValue() throws IOException {
+    char[] hugeChars = new char[70000];
+    Arrays.fill(hugeChars, 'h');
+    String huge = new String(hugeChars);
+    hugeChars[0] = '\u20ac';
+    String hugeUtf = new String(hugeChars);
+
+    for (Object value : Arrays.asList("ascii", "\u00e9t\u00e9 \u20ac\u0000", huge, hugeUtf,
+        true, false, 'c', (byte) -3, (short) -300, -7, Long.MIN_VALUE, 1.5f, Float.NaN, -2.5d,
+        new Date(1234567890123L))) {
+      ByteSource serialized = ByteSourceFactory.wrap(serialize(value));
+      assertThat(SerializedValueComparator.hasHashCode(serialized.get(0)))
+          .as(String.valueOf(value)).isTrue();
+      assertThat(SerializedValueComparator.hashCode(serialized)).as(String.valueOf(value))
+          .isEqualTo(value.hashCode());
+    }
+  }
+
+  @Test
+  public void nullsAndArraysDoNotHaveAHashCode() throws IOException {
+    assertThat(SerializedValueComparator.hasHashCode(serialize(null)[0])).isFalse();
+    assertThat(SerializedValueComparator.hasHashCode(serialize(new int[] {1})[0])).isFalse();
+  }
+
+  private byte[] serialize(Object value) throws IOException {
+    return BlobHelper.serializeToBlob(value);
+  }
+}
@@ -27,6 +27,7 @@ import java.util.Arrays;
 import org.junit.Test;
 
 import org.apache.geode.internal.offheap.StoredObject;
+import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.pdx.PdxInstance;
 
 public class ValueComparisonHelperTest {
@@ -612,10 +613,31 @@ public class ValueComparisonHelperTest {
         mock(InternalCache.class))).isTrue();
   }
 
+  @Test
+  public void checkEqualsComparesSerializedStringsWithoutDeserializingThem() throws Exception {
+    CachedDeserializable cachedDeserializable = serializedCachedDeserializable(STRING);
+    CachedDeserializable object = serializedCachedDeserializable(STRING);
+    CachedDeserializable other = serializedCachedDeserializable(STRING2);
+
+    assertThat(ValueComparisonHelper.checkEquals(cachedDeserializable, object, false,
+        mock(InternalCache.class))).isTrue();
+    assertThat(ValueComparisonHelper.checkEquals(cachedDeserializable, other, false,
+        mock(InternalCache.class))).isFalse();
+    verify(cachedDeserializable, never()).getDeserializedForReading();
+    verify(object, never()).getDeserializedForReading();
+    verify(other, never()).getDeserializedForReading();
+  }
+
   @Test
   public void checkEqualsCanCompareTwoObjects() {
     assertThat(ValueComparisonHelper.checkEquals(BOOLEAN_ARRAY, BOOLEAN_ARRAY2, false,
         mock(InternalCache.class))).isTrue();
   }
 
+  private CachedDeserializable serializedCachedDeserializable(Object value) throws Exception {
+    CachedDeserializable cachedDeserializable = mock(CachedDeserializable.class);
+    when(cachedDeserializable.isSerialized()).thenReturn(true);
+    when(cachedDeserializable.getValue()).thenReturn(BlobHelper.serializeToBlob(value));
+    return cachedDeserializable;
+  }
 }
@@ -14,11 +14,15 @@
  */
 package org.apache.geode.internal.cache.eviction;
 
+import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_SAMPLE_SIZE;
 import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_SCAN_ASYNC;
+import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_TINY_LFU;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -28,9 +32,12 @@ import org.apache.geode.cache.EvictionAlgorithm;
 
 public class EvictionListBuilderTest {
   private static final String EVICTION_PROPERTY_NAME = "geode." + EVICTION_SCAN_ASYNC;
+  private static final String SAMPLE_SIZE_PROPERTY_NAME = "geode." + EVICTION_SAMPLE_SIZE;
+  private static final String TINY_LFU_PROPERTY_NAME = "geode." + EVICTION_TINY_LFU;
 
   @Rule
-  public ClearSystemProperties clearProperties = new ClearSystemProperties(EVICTION_PROPERTY_NAME);
+  public ClearSystemProperties clearProperties = new ClearSystemProperties(EVICTION_PROPERTY_NAME,
+      SAMPLE_SIZE_PROPERTY_NAME, TINY_LFU_PROPERTY_NAME);
 
   private EvictionListBuilder builder;
   private EvictionController controller;
@@ -74,4 +81,28 @@ public class EvictionListBuilderTest {
     assertThat(builder.create()).isInstanceOf(LRUListWithSyncSorting.class);
 
   }
+
+  @Test
+  public void createsSampledLruWhenSystemConfiguredToUseIt() {
+    System.setProperty(SAMPLE_SIZE_PROPERTY_NAME, "5");
+    builder = new EvictionListBuilder(controller, Collections::emptyList);
+
+    assertThat(builder.create()).isInstanceOf(SampledLRUList.class);
+  }
+
+  @Test
+  public void createsTinyLfuWhenSystemConfiguredToUseIt() {
+    System.setProperty(TINY_LFU_PROPERTY_NAME, "true");
+    builder = new EvictionListBuilder(controller);
+
+    assertThat(builder.create()).isInstanceOf(TinyLFUList.class);
+  }
+
+  @Test
+  public void createsAsyncLruWhenSampledLruIsConfiguredWithoutEntries() {
+    System.setProperty(SAMPLE_SIZE_PROPERTY_NAME, "5");
+    builder = new EvictionListBuilder(controller);
+
+    assertThat(builder.create()).isInstanceOf(LRUListWithAsyncSorting.class);
+  }
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class EvictionPacerTest {
+
+  private final EvictionPacer pacer = new EvictionPacer(100, 10);
+
+  @Test
+  public void evictsTheMaximumBeforeAnyUsageIsReported() {
+    assertThat(pacer.getBytesToEvict(5000)).isEqualTo(5000);
+  }
+
+  @Test
+  public void evictsAShareOfTheUsageAboveTheClearThreshold() {
+    pacer.usageReported(1100, 100, 0);
+
+    assertThat(pacer.getBytesToEvict(5000)).isEqualTo(100);
+  }
+
+  @Test
+  public void evictedBytesAreNotEvictedAgain() {
+    pacer.usageReported(1100, 100, 0);
+    pacer.bytesEvicted(600);
+
+    assertThat(pacer.getBytesToEvict(5000)).isEqualTo(40);
+
+    pacer.bytesEvicted(600);
+
+    assertThat(pacer.getBytesToEvict(5000)).isZero();
+  }
+
+  @Test
+  public void evictsTheExpectedGrowthOfTheUsage() {
+    pacer.usageReported(1000, 0, 0);
+    pacer.usageReported(2000, 0, 100);
+
+    assertThat(pacer.getBytesToEvict(5000)).isEqualTo(200 + 1000);
+  }
+
+  @Test
+  public void evictedBytesAreNotEvictedAgainWhenTheSameUsageIsReportedAgain() {
+    pacer.usageReported(1100, 100, 0);
+    pacer.bytesEvicted(600);
+
+    pacer.usageReported(1100, 100, 100);
+
+    assertThat(pacer.getBytesToEvict(5000)).isEqualTo(40);
+  }
+
+  @Test
+  public void growthDoesNotIncludeBytesEvictedWithoutACollection() {
+    pacer.usageReported(1000, 0, 0);
+    pacer.bytesEvicted(1000);
+
+    pacer.usageReported(1000, 0, 100);
+
+    assertThat(pacer.getBytesToEvict(5000)).isZero();
+  }
+
+  @Test
+  public void evictedBytesAreFreedOnceTheUsageDrops() {
+    pacer.usageReported(2000, 0, 0);
+    pacer.bytesEvicted(1500);
+
+    pacer.usageReported(1000, 0, 100);
+
+    assertThat(pacer.getBytesToEvict(5000)).isEqualTo(100);
+  }
+
+  @Test
+  public void evictsAtMostTheMaximum() {
+    pacer.usageReported(100_000, 0, 0);
+
+    assertThat(pacer.getBytesToEvict(5000)).isEqualTo(5000);
+  }
+}
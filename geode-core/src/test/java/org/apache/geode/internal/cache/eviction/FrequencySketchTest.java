@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class FrequencySketchTest {
+
+  private final FrequencySketch sketch = new FrequencySketch();
+
+  @Test
+  public void countsUsesUpToTheMaximumFrequency() {
+    sketch.ensureCapacity(64);
+
+    assertThat(sketch.frequency("key")).isZero();
+    for (int i = 0; i < 5; i++) {
+      sketch.increment("key");
+    }
+    assertThat(sketch.frequency("key")).isEqualTo(5);
+
+    for (int i = 0; i < 20; i++) {
+      sketch.increment("key");
+    }
+    assertThat(sketch.frequency("key")).isEqualTo(15);
+  }
+
+  @Test
+  public void ensureCapacityRoundsUpToAPowerOfTwo() {
+    sketch.ensureCapacity(100);
+
+    assertThat(sketch.capacity()).isEqualTo(128);
+
+    sketch.ensureCapacity(10);
+
+    assertThat(sketch.capacity()).isEqualTo(128);
+  }
+
+  @Test
+  public void frequenciesAgeAsUsesAreCounted() {
+    sketch.ensureCapacity(64);
+    for (int i = 0; i < 15; i++) {
+      sketch.increment("key");
+    }
+
+    for (int i = 0; i < 64 * 10; i++) {
+      sketch.increment(i);
+    }
+
+    assertThat(sketch.frequency("key")).isLessThan(15);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.Token;
+
+public class SampledLRUListTest {
+
+  private final List<RegionEntry> entries = new ArrayList<>();
+
+  private EvictionCounters stats;
+  private EvictionController controller;
+
+  @Before
+  public void setup() {
+    stats = mock(EvictionCounters.class);
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(stats);
+  }
+
+  @Test
+  public void evictingFromEmptyMapReturnsNull() {
+    SampledLRUList list = new SampledLRUList(controller, () -> entries, 5);
+
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void returnsEntriesInMapOrder() {
+    EvictableEntry first = createEntry(false);
+    EvictableEntry second = createEntry(false);
+    SampledLRUList list = new SampledLRUList(controller, () -> entries, 5);
+
+    assertThat(list.getEvictableEntry()).isSameAs(first);
+    assertThat(list.getEvictableEntry()).isSameAs(second);
+    assertThat(list.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void skipsAndClearsRecentlyUsedEntries() {
+    EvictableEntry recentlyUsed = createEntry(true);
+    EvictableEntry unused = createEntry(false);
+    SampledLRUList list = new SampledLRUList(controller, () -> entries, 5);
+
+    assertThat(list.getEvictableEntry()).isSameAs(unused);
+    verify(recentlyUsed).unsetRecentlyUsed();
+  }
+
+  @Test
+  public void returnsFirstSampledEntryIfAllSampledEntriesWereRecentlyUsed() {
+    EvictableEntry first = createEntry(true);
+    createEntry(true);
+    createEntry(false);
+    SampledLRUList list = new SampledLRUList(controller, () -> entries, 2);
+
+    assertThat(list.getEvictableEntry()).isSameAs(first);
+    verify(stats).incGreedyReturns(1);
+  }
+
+  @Test
+  public void skipsEntriesWithoutValuesInMemory() {
+    EvictableEntry evicted = createEntry(false);
+    when(evicted.isEvicted()).thenReturn(true);
+    EvictableEntry tombstone = createEntry(false);
+    when(tombstone.getValueAsToken()).thenReturn(Token.TOMBSTONE);
+    EvictableEntry inTransaction = createEntry(false);
+    when(inTransaction.isInUseByTransaction()).thenReturn(true);
+    SampledLRUList list = new SampledLRUList(controller, () -> entries, 5);
+
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void returnsNullIfNoEntryIsEvictable() {
+    EvictableEntry evicted = createEntry(false);
+    when(evicted.isEvicted()).thenReturn(true);
+    SampledLRUList list = new SampledLRUList(controller, () -> entries, 5);
+
+    assertThat(list.getEvictableEntry()).isNull();
+    verify(stats).incEvaluations(2);
+  }
+
+  @Test
+  public void stopsAfterPassingTheMaxSearchEntries() {
+    for (int i = 0; i < 10; i++) {
+      when(createEntry(false).isEvicted()).thenReturn(true);
+    }
+    EvictableEntry unused = createEntry(false);
+    SampledLRUList list = new SampledLRUList(controller, () -> entries, 5, 4);
+
+    assertThat(list.getEvictableEntry()).isNull();
+    verify(stats).incEvaluations(4);
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.getEvictableEntry()).isSameAs(unused);
+  }
+
+  @Test
+  public void boundsTheEntriesPassedByDefault() {
+    for (int i = 0; i < 100; i++) {
+      when(createEntry(false).isEvicted()).thenReturn(true);
+    }
+    SampledLRUList list = new SampledLRUList(controller, () -> entries, 2);
+
+    assertThat(list.getEvictableEntry()).isNull();
+    verify(stats).incEvaluations(2 * SampledLRUList.SEARCH_ENTRIES_PER_SAMPLE);
+  }
+
+  private EvictableEntry createEntry(boolean recentlyUsed) {
+    EvictableEntry entry = mock(EvictableEntry.class);
+    when(entry.getValueAsToken()).thenReturn(Token.NOT_A_TOKEN);
+    when(entry.isRecentlyUsed()).thenReturn(recentlyUsed);
+    entries.add(entry);
+    return entry;
+  }
+}
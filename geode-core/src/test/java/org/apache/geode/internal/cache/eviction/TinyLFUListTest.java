@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TinyLFUListTest {
+
+  private EvictionCounters stats;
+  private EvictionController controller;
+  private TinyLFUList list;
+
+  @Before
+  public void setup() {
+    stats = mock(EvictionCounters.class);
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(stats);
+    list = new TinyLFUList(controller);
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void evictsFromTheWindowIfItHoldsAllEntries() {
+    EvictableEntry entry = createEntry("key", false);
+    list.appendEntry(entry);
+
+    assertThat(list.getEvictableEntry()).isSameAs(entry);
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void candidatesUsedLessOftenThanTheMainVictimAreEvicted() {
+    EvictableEntry hot = createEntry("hot", false);
+    list.appendEntry(hot);
+    EvictableEntry scanned1 = createEntry("scanned1", false);
+    list.appendEntry(scanned1);
+    setRecentlyUsed(hot);
+    EvictableEntry scanned2 = createEntry("scanned2", false);
+    list.appendEntry(scanned2);
+
+    assertThat(list.getEvictableEntry()).isSameAs(scanned1);
+
+    list.appendEntry(createEntry("scanned3", false));
+
+    assertThat(list.getEvictableEntry()).isSameAs(scanned2);
+    assertThat(list.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void candidatesUsedMoreOftenThanTheMainVictimReplaceIt() {
+    for (int i = 0; i < 2; i++) {
+      EvictableEntry previous = createEntry("frequent", false);
+      list.appendEntry(previous);
+      list.destroyEntry(previous);
+    }
+    EvictableEntry first = createEntry("first", true);
+    list.appendEntry(first);
+    EvictableEntry second = createEntry("second", true);
+    list.appendEntry(second);
+    EvictableEntry frequent = createEntry("frequent", false);
+    list.appendEntry(frequent);
+    list.appendEntry(createEntry("last", false));
+
+    assertThat(list.getEvictableEntry()).isSameAs(first);
+    assertThat(list.size()).isEqualTo(3);
+  }
+
+  private EvictableEntry createEntry(Object key, boolean recentlyUsed) {
+    EvictableEntry entry = mock(EvictableEntry.class);
+    AtomicReference<EvictionNode> next = new AtomicReference<>();
+    AtomicReference<EvictionNode> previous = new AtomicReference<>();
+    AtomicBoolean used = new AtomicBoolean(recentlyUsed);
+    doAnswer(invocation -> {
+      next.set(invocation.getArgument(0));
+      return null;
+    }).when(entry).setNext(any());
+    doAnswer(invocation -> {
+      previous.set(invocation.getArgument(0));
+      return null;
+    }).when(entry).setPrevious(any());
+    when(entry.next()).thenAnswer(invocation -> next.get());
+    when(entry.previous()).thenAnswer(invocation -> previous.get());
+    when(entry.isRecentlyUsed()).thenAnswer(invocation -> used.get());
+    doAnswer(invocation -> {
+      used.set(false);
+      return null;
+    }).when(entry).unsetRecentlyUsed();
+    doAnswer(invocation -> {
+      used.set(true);
+      return null;
+    }).when(entry).setRecentlyUsed(any());
+    when(entry.getKey()).thenReturn(key);
+    return entry;
+  }
+
+  private void setRecentlyUsed(EvictableEntry entry) {
+    entry.setRecentlyUsed(null);
+  }
+}
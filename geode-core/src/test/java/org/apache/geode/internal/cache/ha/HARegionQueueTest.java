@@ -33,6 +33,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.Before;
@@ -80,12 +81,6 @@ public class HARegionQueueTest {
     when(giiLock.readLock())
         .thenReturn(mock(StoppableReentrantReadWriteLock.StoppableReadLock.class));
 
-    StoppableReentrantReadWriteLock rwLock = mock(StoppableReentrantReadWriteLock.class);
-    when(rwLock.writeLock())
-        .thenReturn(mock(StoppableReentrantReadWriteLock.StoppableWriteLock.class));
-    when(rwLock.readLock())
-        .thenReturn(mock(StoppableReentrantReadWriteLock.StoppableReadLock.class));
-
     HashMap map = new HashMap();
     when(haRegion.put(any(), any())).then((invocationOnMock) -> {
       return map.put(invocationOnMock.getArgument(0), invocationOnMock.getArgument(1));
@@ -96,7 +91,7 @@ public class HARegionQueueTest {
     when(haRegion.getGemFireCache()).thenReturn(internalCache);
     haRegionQueue = new HARegionQueue("haRegion", haRegion, internalCache,
         new HAContainerMap(new ConcurrentHashMap()), null, (byte) 1, true,
-        mock(HARegionQueueStats.class), giiLock, rwLock, mock(CancelCriterion.class), false,
+        mock(HARegionQueueStats.class), giiLock, mock(CancelCriterion.class), false,
         mock(StatisticsClock.class));
 
     CacheClientNotifier.resetInstance();
@@ -170,6 +165,73 @@ public class HARegionQueueTest {
     assertEquals(3, haRegionQueue.size());
   }
 
+  @Test
+  public void sizeReflectsIDsRemovedFromTheQueue() throws Exception {
+    haRegionQueue.put(new ConflatableObject("key1", "value1", new EventID(new byte[] {1}, 1, 1),
+        false, "someRegion"));
+    haRegionQueue.put(new ConflatableObject("key2", "value2", new EventID(new byte[] {1}, 1, 2),
+        false, "someRegion"));
+    assertEquals(2, haRegionQueue.size());
+
+    assertThat(haRegionQueue.destroyFromAvailableIDs(1L)).isTrue();
+
+    assertEquals(1, haRegionQueue.size());
+  }
+
+  @Test
+  public void availableIDsAreOrderedByPosition() throws Exception {
+    haRegionQueue.publish(3L);
+    haRegionQueue.publish(1L);
+    haRegionQueue.publish(2L);
+
+    Set<Long> availableIDs = uncheckedCast(haRegionQueue.getAvailableIds());
+    assertThat(availableIDs).containsExactly(1L, 2L, 3L);
+    assertEquals(3, haRegionQueue.size());
+  }
+
+  @Test
+  public void peekReturnsTheEventsOfAThreadInTheOrderTheyWerePut() throws Exception {
+    ConflatableObject event1 = new ConflatableObject("key1", "value1",
+        new EventID(new byte[] {1}, 1, 1), false, "someRegion");
+    ConflatableObject event2 = new ConflatableObject("key2", "value2",
+        new EventID(new byte[] {1}, 1, 2), false, "someRegion");
+    ConflatableObject event3 = new ConflatableObject("key3", "value3",
+        new EventID(new byte[] {1}, 1, 3), false, "someRegion");
+    haRegionQueue.put(event1);
+    haRegionQueue.put(event2);
+    haRegionQueue.put(event3);
+
+    List<Object> peeked = uncheckedCast(haRegionQueue.peek(3));
+
+    assertThat(peeked).containsExactly(event1, event2, event3);
+    assertEquals(3, haRegionQueue.size());
+  }
+
+  @Test
+  public void concurrentlyPublishedIDsAreAllAvailable() throws Exception {
+    List<Thread> publishers = new LinkedList<>();
+    for (int i = 0; i < 4; i++) {
+      long first = i * 1000L + 1;
+      publishers.add(new Thread(() -> {
+        for (long position = first; position < first + 1000; position++) {
+          try {
+            haRegionQueue.publish(position);
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      }));
+    }
+
+    publishers.forEach(Thread::start);
+    for (Thread publisher : publishers) {
+      publisher.join();
+    }
+
+    assertEquals(4000, haRegionQueue.size());
+    assertThat(haRegionQueue.getAvailableIds()).hasSize(4000);
+  }
+
   @Test
   public void isQueueInitializedWithWaitDoesNotWaitIfInitialized() throws Exception {
     long time = 1;
@@ -29,7 +29,10 @@ import org.apache.geode.CopyHelper;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.DurableClientAttributes;
 import org.apache.geode.internal.cache.EnumListenerEvent;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.InternalRegion;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.serialization.KnownVersion;
 import org.apache.geode.internal.statistics.StatisticsClock;
 import org.apache.geode.test.fake.Fakes;
 
@@ -103,6 +106,78 @@ public class ClientUpdateMessageImplTest implements Serializable {
         .isTrue();
   }
 
+  @Test
+  public void messagesForClientsOfTheSameVersionShareTheSerializedParts() throws Exception {
+    InternalRegion region = mock(InternalRegion.class);
+    when(region.getFullPath()).thenReturn("/region");
+    ClientUpdateMessageImpl clientUpdateMessageImpl =
+        new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_DESTROY, region, 1, null, (byte) 0x01,
+            "callback", null, new EventID(new byte[] {1}, 1, 1));
+
+    Message message = clientUpdateMessageImpl.getMessage(createProxy(), null);
+    byte[] key = message.getPart(1).getSerializedForm();
+    byte[] callbackArgument = message.getPart(2).getSerializedForm();
+    byte[] eventId = message.getPart(6).getSerializedForm();
+    assertThat(message.getPart(1).getObject()).isEqualTo(1);
+    assertThat(message.getPart(2).getObject()).isEqualTo("callback");
+    assertThat(message.getPart(6).getObject()).isEqualTo(new EventID(new byte[] {1}, 1, 1));
+
+    message = clientUpdateMessageImpl.getMessage(createProxy(), null);
+    assertThat(message.getPart(1).getSerializedForm()).isSameAs(key);
+    assertThat(message.getPart(2).getSerializedForm()).isSameAs(callbackArgument);
+    assertThat(message.getPart(6).getSerializedForm()).isSameAs(eventId);
+  }
+
+  @Test
+  public void messagesForClientsOfAlternatingVersionsShareTheSerializedPartsOfTheirVersion()
+      throws Exception {
+    ClientUpdateMessageImpl clientUpdateMessageImpl = createDestroyMessage();
+
+    byte[] currentKey = clientUpdateMessageImpl.getMessage(createProxy(), null).getPart(1)
+        .getSerializedForm();
+    byte[] olderKey =
+        clientUpdateMessageImpl.getMessage(createProxy(KnownVersion.GEODE_1_15_0), null)
+            .getPart(1).getSerializedForm();
+
+    assertThat(clientUpdateMessageImpl.getMessage(createProxy(), null).getPart(1)
+        .getSerializedForm()).isSameAs(currentKey);
+    assertThat(clientUpdateMessageImpl.getMessage(createProxy(KnownVersion.GEODE_1_15_0), null)
+        .getPart(1).getSerializedForm()).isSameAs(olderKey);
+  }
+
+  @Test
+  public void sizeIncludesTheSerializedPartsOfEachClientVersion() throws Exception {
+    ClientUpdateMessageImpl clientUpdateMessageImpl = createDestroyMessage();
+    int sizeBeforeDispatch = clientUpdateMessageImpl.getSizeInBytes();
+
+    clientUpdateMessageImpl.getMessage(createProxy(), null);
+    int sizeWithOneVersion = clientUpdateMessageImpl.getSizeInBytes();
+    clientUpdateMessageImpl.getMessage(createProxy(), null);
+    assertThat(clientUpdateMessageImpl.getSizeInBytes()).isEqualTo(sizeWithOneVersion);
+    clientUpdateMessageImpl.getMessage(createProxy(KnownVersion.GEODE_1_15_0), null);
+
+    assertThat(sizeWithOneVersion).isGreaterThan(sizeBeforeDispatch);
+    assertThat(clientUpdateMessageImpl.getSizeInBytes()).isGreaterThan(sizeWithOneVersion);
+  }
+
+  private ClientUpdateMessageImpl createDestroyMessage() {
+    InternalRegion region = mock(InternalRegion.class);
+    when(region.getFullPath()).thenReturn("/region");
+    return new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_DESTROY, region, 1, null,
+        (byte) 0x01, "callback", null, new EventID(new byte[] {1}, 1, 1));
+  }
+
+  private CacheClientProxy createProxy() {
+    return createProxy(KnownVersion.CURRENT);
+  }
+
+  private CacheClientProxy createProxy(KnownVersion version) {
+    CacheClientProxy proxy = mock(CacheClientProxy.class);
+    when(proxy.getVersion()).thenReturn(version);
+    when(proxy.getProxyID()).thenReturn(mock(ClientProxyMembershipID.class));
+    return proxy;
+  }
+
   private ClientUpdateMessageImpl getTestClientUpdateMessage() {
     LocalRegion localRegion = mock(LocalRegion.class);
     String regionName = "regionName";
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class CompactMessageFormatTest {
+
+  private final Socket socket = mock(Socket.class);
+  private final MessageStats stats = mock(MessageStats.class);
+
+  @Test
+  public void isNotSupportedByReleasedVersions() {
+    assertThat(CompactMessageFormat.isSupportedBy(KnownVersion.GEODE_1_15_0.ordinal())).isFalse();
+    assertThat(CompactMessageFormat.isSupportedBy(KnownVersion.CURRENT_ORDINAL)).isTrue();
+  }
+
+  @Test
+  public void varIntRoundTrips() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(100);
+    int[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1};
+    for (int value : values) {
+      CompactMessageFormat.putVarInt(buffer, value);
+    }
+    buffer.flip();
+    for (int value : values) {
+      int position = buffer.position();
+      assertThat(CompactMessageFormat.getVarInt(buffer)).isEqualTo(value);
+      assertThat(buffer.position() - position)
+          .isEqualTo(CompactMessageFormat.getVarIntSize(value));
+    }
+  }
+
+  @Test
+  public void zigZagEncodesSmallNegativeNumbersInOneByte() {
+    assertThat(CompactMessageFormat.getVarIntSize(CompactMessageFormat.encodeZigZag(-1)))
+        .isEqualTo(1);
+    assertThat(CompactMessageFormat.decodeZigZag(CompactMessageFormat.encodeZigZag(-1)))
+        .isEqualTo(-1);
+    assertThat(CompactMessageFormat.decodeZigZag(
+        CompactMessageFormat.encodeZigZag(Integer.MIN_VALUE))).isEqualTo(Integer.MIN_VALUE);
+  }
+
+  @Test
+  public void messageRoundTripsInCompactFormat() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CompactMessageFormat senderFormat = new CompactMessageFormat();
+    send(createPutMessage("/region", "key"), senderFormat, out);
+
+    Message received = receive(out.toByteArray(), new CompactMessageFormat());
+
+    assertThat(received.getMessageType()).isEqualTo(MessageType.PUT);
+    assertThat(received.getTransactionId()).isEqualTo(-1);
+    assertThat(received.getNumberOfParts()).isEqualTo(3);
+    assertThat(received.getPart(0).getCachedString()).isEqualTo("/region");
+    assertThat(received.getPart(1).getString()).isEqualTo("key");
+    assertThat(received.getPart(2).getInt()).isEqualTo(7);
+  }
+
+  @Test
+  public void regionNameIsOnlySentOncePerConnection() throws IOException {
+    String regionName = "/aRegionWithAFairlyLongName";
+    CompactMessageFormat senderFormat = new CompactMessageFormat();
+    ByteArrayOutputStream first = new ByteArrayOutputStream();
+    send(createPutMessage(regionName, "key"), senderFormat, first);
+    ByteArrayOutputStream second = new ByteArrayOutputStream();
+    send(createPutMessage(regionName, "key"), senderFormat, second);
+
+    assertThat(second.size()).isLessThan(first.size() - regionName.length() + 3);
+
+    CompactMessageFormat receiverFormat = new CompactMessageFormat();
+    receive(first.toByteArray(), receiverFormat);
+    Message received = receive(second.toByteArray(), receiverFormat);
+    assertThat(received.getPart(0).getCachedString()).isEqualTo(regionName);
+  }
+
+  @Test
+  public void compactFormatIsSmallerThanFixedLengthFormat() throws IOException {
+    ByteArrayOutputStream compact = new ByteArrayOutputStream();
+    send(createPutMessage("/region", "key"), new CompactMessageFormat(), compact);
+    ByteArrayOutputStream fixed = new ByteArrayOutputStream();
+    send(createPutMessage("/region", "key"), null, fixed);
+
+    assertThat(compact.size()).isLessThan(fixed.size());
+  }
+
+  @Test
+  public void referenceToUnknownInternedPartIsRejected() throws IOException {
+    CompactMessageFormat senderFormat = new CompactMessageFormat();
+    send(createPutMessage("/region", "key"), senderFormat, new ByteArrayOutputStream());
+    ByteArrayOutputStream second = new ByteArrayOutputStream();
+    send(createPutMessage("/region", "key"), senderFormat, second);
+
+    assertThatThrownBy(() -> receive(second.toByteArray(), new CompactMessageFormat()))
+        .isInstanceOf(IOException.class).hasMessageContaining("Unknown interned message part");
+  }
+
+  private Message createPutMessage(String regionName, String key) {
+    Message message = new Message(3, KnownVersion.CURRENT);
+    message.setMessageType(MessageType.PUT);
+    message.setTransactionId(-1);
+    message.addStringPart(regionName, true);
+    message.addStringPart(key);
+    message.addIntPart(7);
+    return message;
+  }
+
+  private void send(Message message, CompactMessageFormat format, ByteArrayOutputStream out)
+      throws IOException {
+    message.setComms(socket, null, out, ByteBuffer.allocate(1000), stats);
+    message.setCompactMessageFormat(format);
+    message.send();
+  }
+
+  private Message receive(byte[] bytes, CompactMessageFormat format) throws IOException {
+    Message message = new Message(1, KnownVersion.CURRENT);
+    message.setComms(socket, new ByteArrayInputStream(bytes), null, ByteBuffer.allocate(1000),
+        stats);
+    message.setCompactMessageFormat(format);
+    message.receive();
+    return message;
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.internal.cache.tier.sockets.command.GatewayReceiverCommand.BatchEvent;
+import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.pdx.PdxRegistryMismatchException;
+import org.apache.geode.pdx.internal.PeerTypeRegistration;
+import org.apache.geode.test.junit.categories.WanTest;
+
+@Category({WanTest.class})
+public class GatewayReceiverCommandTest {
+
+  private static final int PARTITIONS = 4;
+
+  private final Message message = mock(Message.class);
+  private final List<String> regionNames = new ArrayList<>();
+  private final List<Object> keys = new ArrayList<>();
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(PARTITIONS);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void locatesEventsWithoutCountingPdxEventsInTheIndex() throws Exception {
+    addEvent(PeerTypeRegistration.REGION_FULL_PATH, 1);
+    addEvent("/region", "key1");
+    addEvent("/region", "key2");
+
+    List<BatchEvent> events = locateEvents();
+
+    assertThat(events).extracting(BatchEvent::isPdxEvent).containsExactly(true, false, false);
+    assertThat(events).extracting(BatchEvent::getIndex).containsExactly(-1, 0, 1);
+  }
+
+  @Test
+  public void appliesTheEventsOfAKeyInTheOrderTheyWereReceived() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      addEvent("/region" + (i % 2), "key" + (i % 10));
+    }
+    List<BatchEvent> events = locateEvents();
+    List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+
+    Throwable fatalException =
+        GatewayReceiverCommand.applyEventsInParallel(events, PARTITIONS, executor,
+            (event, exceptions) -> {
+              applied.add(event.getIndex());
+              return null;
+            }, new ArrayList<>());
+
+    assertThat(fatalException).isNull();
+    assertThat(applied).hasSize(100).doesNotHaveDuplicates();
+    for (int key = 0; key < 10; key++) {
+      List<Integer> appliedForKey = new ArrayList<>();
+      for (int index : applied) {
+        if (index % 10 == key) {
+          appliedForKey.add(index);
+        }
+      }
+      assertThat(appliedForKey).isSorted();
+    }
+  }
+
+  @Test
+  public void appliesPdxEventsBeforeOtherEvents() throws Exception {
+    addEvent("/region", "key0");
+    addEvent(PeerTypeRegistration.REGION_FULL_PATH, 1);
+    addEvent("/region", "key1");
+    List<BatchEvent> events = locateEvents();
+    List<Boolean> applied = Collections.synchronizedList(new ArrayList<>());
+
+    GatewayReceiverCommand.applyEventsInParallel(events, PARTITIONS, executor,
+        (event, exceptions) -> {
+          applied.add(event.isPdxEvent());
+          return null;
+        }, new ArrayList<>());
+
+    assertThat(applied).containsExactly(true, false, false);
+  }
+
+  @Test
+  public void ordersBatchExceptionsByEventIndex() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      addEvent("/region", "key" + i);
+    }
+    List<BatchEvent> events = locateEvents();
+    List<BatchException70> exceptions = new ArrayList<>();
+
+    Throwable fatalException =
+        GatewayReceiverCommand.applyEventsInParallel(events, PARTITIONS, executor,
+            (event, eventExceptions) -> {
+              if (event.getIndex() % 2 == 1) {
+                eventExceptions.add(new BatchException70("failed",
+                    new RuntimeException(), event.getIndex(), 1));
+              }
+              return null;
+            }, exceptions);
+
+    assertThat(fatalException).isNull();
+    assertThat(exceptions).hasSize(25);
+    assertThat(exceptions).extracting(BatchException70::getIndex).isSorted()
+        .allMatch(index -> index % 2 == 1);
+  }
+
+  @Test
+  public void fatalExceptionOfAPdxEventStopsTheBatch() throws Exception {
+    addEvent(PeerTypeRegistration.REGION_FULL_PATH, 1);
+    addEvent("/region", "key0");
+    addEvent("/region", "key1");
+    List<BatchEvent> events = locateEvents();
+    Throwable mismatch = new PdxRegistryMismatchException("mismatch");
+    AtomicInteger applied = new AtomicInteger();
+
+    Throwable fatalException =
+        GatewayReceiverCommand.applyEventsInParallel(events, PARTITIONS, executor,
+            (event, exceptions) -> {
+              applied.incrementAndGet();
+              return event.isPdxEvent() ? mismatch : null;
+            }, new ArrayList<>());
+
+    assertThat(fatalException).isSameAs(mismatch);
+    assertThat(applied).hasValue(1);
+  }
+
+  @Test
+  public void fatalExceptionOfAPartitionIsReturnedAfterAllPartitionsAreDone() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      addEvent("/region", "key" + i);
+    }
+    List<BatchEvent> events = locateEvents();
+    Throwable mismatch = new PdxRegistryMismatchException("mismatch");
+    AtomicBoolean returned = new AtomicBoolean();
+    AtomicBoolean appliedAfterReturn = new AtomicBoolean();
+
+    Throwable fatalException =
+        GatewayReceiverCommand.applyEventsInParallel(events, PARTITIONS, executor,
+            (event, exceptions) -> {
+              if (returned.get()) {
+                appliedAfterReturn.set(true);
+              }
+              return event.getIndex() == 50 ? mismatch : null;
+            }, new ArrayList<>());
+    returned.set(true);
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+
+    assertThat(fatalException).isSameAs(mismatch);
+    assertThat(appliedAfterReturn).isFalse();
+  }
+
+  @Test
+  public void failureOfThisThreadWaitsForTheOtherPartitionsAndStopsThem() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      addEvent("/region", "key" + i);
+    }
+    List<BatchEvent> events = locateEvents();
+    Thread receivingThread = Thread.currentThread();
+    AtomicBoolean returned = new AtomicBoolean();
+    AtomicBoolean appliedAfterReturn = new AtomicBoolean();
+
+    assertThatThrownBy(() -> GatewayReceiverCommand.applyEventsInParallel(events, PARTITIONS,
+        executor, (event, exceptions) -> {
+          if (Thread.currentThread() == receivingThread) {
+            throw new IllegalStateException("failed");
+          }
+          if (returned.get()) {
+            appliedAfterReturn.set(true);
+          }
+          Thread.sleep(1);
+          return null;
+        }, new ArrayList<>())).isInstanceOf(IllegalStateException.class);
+    returned.set(true);
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+
+    assertThat(appliedAfterReturn).isFalse();
+  }
+
+  @Test
+  public void failureOfAnotherPartitionIsRethrownAfterAllPartitionsAreDone() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      addEvent("/region", "key" + i);
+    }
+    List<BatchEvent> events = locateEvents();
+    Thread receivingThread = Thread.currentThread();
+
+    assertThatThrownBy(() -> GatewayReceiverCommand.applyEventsInParallel(events, PARTITIONS,
+        executor, (event, exceptions) -> {
+          if (Thread.currentThread() != receivingThread) {
+            throw new IllegalStateException("failed");
+          }
+          return null;
+        }, new ArrayList<>())).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void appliesRejectedPartitionsOnThisThread() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      addEvent("/region", "key" + i);
+    }
+    List<BatchEvent> events = locateEvents();
+    executor.shutdown();
+    AtomicInteger applied = new AtomicInteger();
+
+    Throwable fatalException =
+        GatewayReceiverCommand.applyEventsInParallel(events, PARTITIONS, executor,
+            (event, exceptions) -> {
+              applied.incrementAndGet();
+              return null;
+            }, new ArrayList<>());
+
+    assertThat(fatalException).isNull();
+    assertThat(applied).hasValue(20);
+  }
+
+  /**
+   * Adds a create event without a callback argument to the batch.
+   */
+  private void addEvent(String regionName, Object key) {
+    regionNames.add(regionName);
+    keys.add(key);
+  }
+
+  private List<BatchEvent> locateEvents() throws Exception {
+    int partNumber = 0;
+    for (int i = 0; i < regionNames.size(); i++) {
+      Part actionTypePart = mock(Part.class);
+      when(actionTypePart.getInt()).thenReturn(0);
+      Part regionNamePart = mock(Part.class);
+      when(regionNamePart.getCachedString()).thenReturn(regionNames.get(i));
+      Part keyPart = mock(Part.class);
+      when(keyPart.getStringOrObject()).thenReturn(keys.get(i));
+      Part callbackArgExistsPart = mock(Part.class);
+      when(callbackArgExistsPart.getSerializedForm()).thenReturn(new byte[] {0x00});
+      when(message.getPart(partNumber)).thenReturn(actionTypePart);
+      when(message.getPart(partNumber + 2)).thenReturn(regionNamePart);
+      when(message.getPart(partNumber + 4)).thenReturn(keyPart);
+      when(message.getPart(partNumber + 6)).thenReturn(callbackArgExistsPart);
+      partNumber += 8;
+    }
+    return GatewayReceiverCommand.locateEvents(message, 0, regionNames.size());
+  }
+}
@@ -14,21 +14,38 @@
  */
 package org.apache.geode.internal.cache.wan;
 
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 
+import org.apache.geode.cache.wan.GatewayEventFilter;
 import org.apache.geode.internal.cache.RegionQueue;
+import org.apache.geode.internal.cache.wan.parallel.ParallelGatewaySenderQueue;
 
 public class AbstractGatewaySenderEventProcessorTest {
 
   private RegionQueue queue = mock(RegionQueue.class);
 
+  private final AbstractGatewaySender sender = mock(AbstractGatewaySender.class);
+
   @Test
   public void eventQueueSizeReturnsQueueSize() {
     AbstractGatewaySenderEventProcessor processor = mock(AbstractGatewaySenderEventProcessor.class);
@@ -49,4 +66,181 @@ public class AbstractGatewaySenderEventProcessorTest {
 
     verify(queue, never()).size();
   }
+
+  @Test
+  public void ackForABatchAlsoAcknowledgesEarlierUnackedBatchesInOrder() {
+    AbstractGatewaySenderEventProcessor processor = createProcessor();
+    addBatch(processor, 0, 1);
+    addBatch(processor, 1, 2);
+    addBatch(processor, 2, 3);
+
+    processor.handleSuccessBatchAck(1);
+
+    InOrder inOrder = inOrder(queue);
+    inOrder.verify(queue).remove(1);
+    inOrder.verify(queue).remove(2);
+    verify(queue, never()).remove(3);
+    assertThat(processor.getBatchIdToEventsMap()).containsOnlyKeys(2);
+  }
+
+  @Test
+  public void ackForAnUnknownBatchDoesNotAcknowledgeOtherBatches() {
+    AbstractGatewaySenderEventProcessor processor = createProcessor();
+    addBatch(processor, 0, 1);
+
+    processor.handleSuccessBatchAck(5);
+
+    verify(queue, never()).remove(anyInt());
+    assertThat(processor.getBatchIdToEventsMap()).containsOnlyKeys(0);
+  }
+
+  @Test
+  public void conflateSkipsEventsConflatedInTheQueueWithoutCountingThemAgain() {
+    ParallelGatewaySenderQueue parallelQueue = mock(ParallelGatewaySenderQueue.class);
+    queue = parallelQueue;
+    GatewaySenderStats statistics = mock(GatewaySenderStats.class);
+    when(sender.getStatistics()).thenReturn(statistics);
+    when(sender.isBatchConflationEnabled()).thenReturn(true);
+    when(parallelQueue.withoutConflatedEvents(any())).thenReturn(Collections.emptyList());
+    AbstractGatewaySenderEventProcessor processor = createProcessor();
+    List<GatewaySenderEventImpl> events = new ArrayList<>();
+    events.add(mock(GatewaySenderEventImpl.class));
+
+    assertThat(processor.conflate(events)).isEmpty();
+
+    verify(statistics, never()).incEventsConflatedFromBatches(anyInt());
+  }
+
+  @Test
+  public void supersededBatchOfAListenerIsRemovedWithoutDispatching() {
+    AbstractGatewaySenderEventProcessor processor = createProcessor();
+    processor.dispatcher = mock(GatewaySenderEventCallbackDispatcher.class);
+    List<GatewaySenderEventImpl> events = createEvents(2);
+
+    processor.handleSupersededBatch(events);
+
+    verify(queue).remove(2);
+    verify(processor.dispatcher, never()).dispatchBatch(any(), anyBoolean(), anyBoolean());
+    assertThat(processor.getBatchId()).isEqualTo(1);
+  }
+
+  @Test
+  public void supersededBatchIsAcknowledgedIfNoEarlierBatchIsUnacked() {
+    AbstractGatewaySenderEventProcessor processor = createProcessor();
+    processor.dispatcher = mock(GatewaySenderEventDispatcher.class);
+    List<GatewaySenderEventImpl> events = addBatch(processor, 0, 2);
+
+    processor.handleSupersededBatch(events);
+
+    verify(queue).remove(2);
+    verify(processor.dispatcher, never()).dispatchBatch(any(), anyBoolean(), anyBoolean());
+    assertThat(processor.getBatchIdToEventsMap()).isEmpty();
+    assertThat(processor.getBatchId()).isEqualTo(1);
+  }
+
+  @Test
+  public void supersededBatchIsAcknowledgedByTheAckForALaterBatch() {
+    AbstractGatewaySenderEventProcessor processor = createProcessor();
+    processor.dispatcher = mock(GatewaySenderEventDispatcher.class);
+    addBatch(processor, 0, 1);
+    processor.incrementBatchId();
+    List<GatewaySenderEventImpl> events = addBatch(processor, 1, 2);
+
+    processor.handleSupersededBatch(events);
+
+    verify(queue, never()).remove(anyInt());
+    assertThat(processor.getBatchIdToEventsMap()).containsOnlyKeys(0, 1);
+    assertThat(processor.getBatchId()).isEqualTo(2);
+
+    addBatch(processor, 2, 3);
+    processor.handleSuccessBatchAck(2);
+
+    InOrder inOrder = inOrder(queue);
+    inOrder.verify(queue).remove(1);
+    inOrder.verify(queue).remove(2);
+    inOrder.verify(queue).remove(3);
+    assertThat(processor.getBatchIdToEventsMap()).isEmpty();
+  }
+
+  @Test
+  public void partiallyProcessedBatchRemovesOnlyTheProcessedEvents() {
+    GatewayEventFilter filter = mock(GatewayEventFilter.class);
+    when(sender.getGatewayEventFilters()).thenReturn(Collections.singletonList(filter));
+    AbstractGatewaySenderEventProcessor processor = createProcessor();
+    List<GatewaySenderEventImpl> events = createEvents(4);
+
+    processor.handlePartiallySuccessfulBatchDispatch(new ArrayList<>(events), events, 2);
+
+    verify(queue).remove(2);
+    verify(queue, never()).remove(4);
+    verify(filter).afterAcknowledgement(events.get(0));
+    verify(filter).afterAcknowledgement(events.get(1));
+    verify(filter, never()).afterAcknowledgement(events.get(2));
+    verify(filter, never()).afterAcknowledgement(events.get(3));
+    assertThat(processor.getNumEventsDispatched()).isEqualTo(2);
+  }
+
+  @Test
+  public void partiallyProcessedBatchKeepsTheUnprocessedEventsForRedelivery() {
+    AbstractGatewaySenderEventProcessor processor = createProcessor();
+    List<GatewaySenderEventImpl> events = createEvents(3);
+
+    processor.handlePartiallySuccessfulBatchDispatch(new ArrayList<>(events), events, 1);
+
+    verify(queue).remove(1);
+    verify(queue, never()).remove(2);
+    verify(queue, never()).remove(3);
+    assertThat(processor.getBatchId()).isEqualTo(0);
+  }
+
+  @Test
+  public void partiallyProcessedBatchIsRedeliveredWithoutWaitingForTheBatchTimeInterval() {
+    when(sender.getBatchTimeInterval()).thenReturn(Integer.MAX_VALUE);
+    AbstractGatewaySenderEventProcessor processor = createProcessor();
+    List<GatewaySenderEventImpl> events = createEvents(3);
+
+    CompletableFuture<Void> handled = CompletableFuture.runAsync(
+        () -> processor.handlePartiallySuccessfulBatchDispatch(new ArrayList<>(events), events, 1));
+
+    await().until(handled::isDone);
+    verify(queue).remove(1);
+  }
+
+  @Test
+  public void partiallyProcessedBatchAlsoRemovesEventsConflatedBeforeTheFirstUnprocessedEvent() {
+    AbstractGatewaySenderEventProcessor processor = createProcessor();
+    List<GatewaySenderEventImpl> events = createEvents(5);
+    List<GatewaySenderEventImpl> dispatchedEvents = new ArrayList<>(events);
+    dispatchedEvents.remove(2);
+    dispatchedEvents.remove(0);
+
+    processor.handlePartiallySuccessfulBatchDispatch(dispatchedEvents, events, 2);
+
+    verify(queue).remove(4);
+    assertThat(processor.getNumEventsDispatched()).isEqualTo(2);
+  }
+
+  private AbstractGatewaySenderEventProcessor createProcessor() {
+    AbstractGatewaySenderEventProcessor processor =
+        mock(AbstractGatewaySenderEventProcessor.class, withSettings()
+            .useConstructor("processor", sender, null).defaultAnswer(CALLS_REAL_METHODS));
+    processor.queue = queue;
+    return processor;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<GatewaySenderEventImpl> addBatch(AbstractGatewaySenderEventProcessor processor,
+      int batchId, int numEvents) {
+    List<GatewaySenderEventImpl> events = createEvents(numEvents);
+    processor.getBatchIdToEventsMap().put(batchId, new List[] {events, events});
+    return events;
+  }
+
+  private List<GatewaySenderEventImpl> createEvents(int numEvents) {
+    List<GatewaySenderEventImpl> events = new ArrayList<>();
+    for (int i = 0; i < numEvents; i++) {
+      events.add(mock(GatewaySenderEventImpl.class));
+    }
+    return events;
+  }
 }
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class AdaptiveBatchSizerTest {
+
+  private static final long TARGET_LATENCY = 1000;
+
+  private final GatewaySenderStats statistics = mock(GatewaySenderStats.class);
+
+  private final AdaptiveBatchSizer sizer =
+      new AdaptiveBatchSizer(statistics, TARGET_LATENCY, 10000);
+
+  @Test
+  public void batchSizeIsBoundedByTheQueueSize() {
+    assertThat(sizer.getBatchSize(100, 7)).isEqualTo(7);
+    assertThat(sizer.getBatchSize(100, 0)).isEqualTo(1);
+    assertThat(sizer.getBatchSize(100, 500)).isEqualTo(100);
+
+    verify(statistics).setAdaptiveBatchSize(7);
+    verify(statistics).setAdaptiveBatchSize(1);
+    verify(statistics).setAdaptiveBatchSize(100);
+  }
+
+  @Test
+  public void batchSizeIsBoundedByTheAverageEventSize() {
+    GatewaySenderEventImpl event = mock(GatewaySenderEventImpl.class);
+    when(event.getSerializedValueSize()).thenReturn(1000);
+
+    sizer.batchPeeked(Collections.nCopies(5, event));
+
+    assertThat(sizer.getBatchSize(100, 500)).isEqualTo(10);
+  }
+
+  @Test
+  public void slowAcksDecreaseTheBatchSize() {
+    assertThat(sizer.getBatchSize(100, 500)).isEqualTo(100);
+    sizer.batchDispatched(0, 0);
+    sizer.batchAcknowledged(0, 2 * TARGET_LATENCY);
+
+    assertThat(sizer.getBatchSize(100, 500)).isEqualTo(50);
+    verify(statistics).incAdaptiveBatchSizeDecreases();
+  }
+
+  @Test
+  public void fastAcksIncreaseTheBatchSizeWhileTheQueueHasABacklog() {
+    sizer.getBatchSize(100, 500);
+    sizer.batchDispatched(0, 0);
+    sizer.batchAcknowledged(0, 2 * TARGET_LATENCY);
+    sizer.batchDispatched(1, 0);
+    sizer.batchAcknowledged(1, 2 * TARGET_LATENCY);
+    assertThat(sizer.getWindow()).isEqualTo(25);
+
+    // the average latency drops below the target after a few fast acks
+    for (int batchId = 2; sizer.getWindow() < 100; batchId++) {
+      sizer.getBatchSize(100, 500);
+      sizer.batchDispatched(batchId, 0);
+      sizer.batchAcknowledged(batchId, 0);
+    }
+
+    assertThat(sizer.getBatchSize(100, 500)).isEqualTo(100);
+    verify(statistics, atLeastOnce()).incAdaptiveBatchSizeIncreases();
+  }
+
+  @Test
+  public void fastAcksDoNotIncreaseTheBatchSizeWithoutABacklog() {
+    // the window shrinks with the configured batch size and is not reset when it grows again
+    sizer.getBatchSize(10, 500);
+    assertThat(sizer.getWindow()).isEqualTo(10);
+
+    for (int batchId = 1; batchId < 20; batchId++) {
+      sizer.getBatchSize(100, 10);
+      sizer.batchDispatched(batchId, 0);
+      sizer.batchAcknowledged(batchId, 0);
+    }
+
+    assertThat(sizer.getWindow()).isEqualTo(10);
+  }
+
+  @Test
+  public void acksOfBatchesThatWereNotDispatchedAreIgnored() {
+    sizer.getBatchSize(100, 500);
+    sizer.batchDispatched(0, 0);
+    sizer.clearDispatchedBatches();
+    sizer.batchAcknowledged(0, 2 * TARGET_LATENCY);
+
+    assertThat(sizer.getWindow()).isEqualTo(100);
+  }
+}
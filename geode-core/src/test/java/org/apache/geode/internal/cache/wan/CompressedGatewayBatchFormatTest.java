@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.internal.util.BlobHelper;
+
+public class CompressedGatewayBatchFormatTest {
+
+  private final CompressedGatewayBatchFormat sender = new CompressedGatewayBatchFormat();
+
+  private final CompressedGatewayBatchFormat receiver = new CompressedGatewayBatchFormat();
+
+  @Test
+  public void isNotSupportedByReleasedVersions() {
+    assertThat(CompressedGatewayBatchFormat.isSupportedBy(KnownVersion.GEODE_1_15_0.ordinal()))
+        .isFalse();
+    assertThat(CompressedGatewayBatchFormat.isSupportedBy(KnownVersion.CURRENT_ORDINAL)).isTrue();
+  }
+
+  @Test
+  public void decodedBatchHasThePartsOfAnUncompressedBatch() throws Exception {
+    EventID eventId = new EventID(new byte[] {1, 2, 3}, 4, 5, 6);
+    byte[] value = BlobHelper.serializeToBlob("value");
+    GatewaySenderEventImpl create = event(0, "/region", eventId, "key", value);
+    GatewaySenderEventImpl destroy = event(2, "/region", eventId, 7, null);
+    when(destroy.getSenderCallbackArgument()).thenReturn("callback");
+
+    Message message = receive(sender.encode(Arrays.asList(create, destroy)));
+    receiver.decode(message);
+
+    assertThat(message.getNumberOfParts()).isEqualTo(4 + 8 + 8);
+    assertThat(message.getPart(4).getInt()).isEqualTo(0);
+    assertThat(message.getPart(5).getSerializedForm()).containsExactly(0);
+    assertThat(message.getPart(6).getCachedString()).isEqualTo("/region");
+    assertThat(message.getPart(7).getObject()).isEqualTo(eventId);
+    assertThat(message.getPart(8).getStringOrObject()).isEqualTo("key");
+    assertThat(message.getPart(9).isObject()).isTrue();
+    assertThat(message.getPart(9).getSerializedForm()).isEqualTo(value);
+    assertThat(message.getPart(10).getSerializedForm()).containsExactly(0);
+    assertThat(message.getPart(11).getLong()).isEqualTo(42L);
+
+    assertThat(message.getPart(12).getInt()).isEqualTo(2);
+    assertThat(message.getPart(14).getCachedString()).isEqualTo("/region");
+    assertThat(message.getPart(15).getObject()).isEqualTo(eventId);
+    assertThat(message.getPart(16).getStringOrObject()).isEqualTo(7);
+    assertThat(message.getPart(17).getSerializedForm()).containsExactly(1);
+    assertThat(message.getPart(18).getObject()).isEqualTo("callback");
+    assertThat(message.getPart(19).getLong()).isEqualTo(42L);
+  }
+
+  @Test
+  public void dictionaryEntriesAreReferencedByLaterBatches() throws Exception {
+    List<GatewaySenderEventImpl> events = Collections.singletonList(
+        event(1, "/region", new EventID(new byte[] {1, 2, 3}, 4, 5, 6), "key", new byte[] {9}));
+    CompressedGatewayBatchFormat.EncodedBatch first = sender.encode(events);
+    sender.batchSent(first);
+    CompressedGatewayBatchFormat.EncodedBatch secondBatch = sender.encode(events);
+
+    assertThatThrownBy(() -> new CompressedGatewayBatchFormat().decode(receive(secondBatch)))
+        .isInstanceOf(IOException.class);
+
+    Message second = receive(secondBatch);
+    receiver.decode(receive(first));
+    receiver.decode(second);
+    assertThat(second.getPart(6).getCachedString()).isEqualTo("/region");
+    assertThat(((EventID) second.getPart(7).getObject()).getMembershipID())
+        .containsExactly(1, 2, 3);
+  }
+
+  @Test
+  public void dictionaryEntriesOfBatchesThatWereNotSentAreNotReferenced() throws Exception {
+    List<GatewaySenderEventImpl> events = Collections.singletonList(
+        event(1, "/region", new EventID(new byte[] {1, 2, 3}, 4, 5, 6), "key", new byte[] {9}));
+    sender.encode(events);
+    Message message = receive(sender.encode(events));
+
+    receiver.decode(message);
+
+    assertThat(message.getPart(6).getCachedString()).isEqualTo("/region");
+  }
+
+  private GatewaySenderEventImpl event(int action, String regionPath, EventID eventId, Object key,
+      byte[] value) {
+    GatewaySenderEventImpl event = mock(GatewaySenderEventImpl.class);
+    when(event.getAction()).thenReturn(action);
+    when(event.getRegionPath()).thenReturn(regionPath);
+    when(event.getEventId()).thenReturn(eventId);
+    when(event.getKey()).thenReturn(key);
+    when(event.getSerializedValue()).thenReturn(value);
+    when(event.getValueIsObject()).thenReturn((byte) 0x01);
+    when(event.getVersionTimeStamp()).thenReturn(42L);
+    return event;
+  }
+
+  private Message receive(CompressedGatewayBatchFormat.EncodedBatch batch) {
+    Message message = new Message(5, KnownVersion.CURRENT);
+    message.addIntPart(1);
+    message.addIntPart(0);
+    message.addIntPart(1);
+    message.addBytesPart(new byte[] {CompressedGatewayBatchFormat.COMPRESSED_FLAG});
+    message.addBytesPart(batch.getBytes());
+    return message;
+  }
+}
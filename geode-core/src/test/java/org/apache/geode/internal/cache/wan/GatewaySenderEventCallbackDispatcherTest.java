@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.asyncqueue.AsyncEventBatch;
+import org.apache.geode.cache.asyncqueue.AsyncEventListener;
+import org.apache.geode.cache.asyncqueue.BulkAsyncEventListener;
+
+public class GatewaySenderEventCallbackDispatcherTest {
+
+  private final AbstractGatewaySender sender = mock(AbstractGatewaySender.class);
+
+  private final AbstractGatewaySenderEventProcessor processor =
+      mock(AbstractGatewaySenderEventProcessor.class);
+
+  private final List<GatewaySenderEventImpl> events = Arrays.asList(
+      mock(GatewaySenderEventImpl.class), mock(GatewaySenderEventImpl.class),
+      mock(GatewaySenderEventImpl.class));
+
+  @Before
+  public void setUp() {
+    when(processor.getSender()).thenReturn(sender);
+  }
+
+  @Test
+  public void bulkListenerReceivesTheEventsAsABatch() {
+    BulkAsyncEventListener listener = mock(BulkAsyncEventListener.class);
+    when(listener.processBatch(any())).thenAnswer(invocation -> {
+      AsyncEventBatch batch = invocation.getArgument(0);
+      assertThat(batch.getEvents()).isEqualTo(events);
+      return batch.size();
+    });
+    GatewaySenderEventCallbackDispatcher dispatcher = createDispatcher(listener);
+
+    assertThat(dispatcher.dispatchBatch(events)).isTrue();
+    assertThat(dispatcher.getNumberOfEventsProcessed()).isEqualTo(3);
+  }
+
+  @Test
+  public void batchPartlyProcessedByABulkListenerIsNotSuccessful() {
+    BulkAsyncEventListener listener = mock(BulkAsyncEventListener.class);
+    when(listener.processBatch(any())).thenReturn(2);
+    GatewaySenderEventCallbackDispatcher dispatcher = createDispatcher(listener);
+
+    assertThat(dispatcher.dispatchBatch(events)).isFalse();
+    assertThat(dispatcher.getNumberOfEventsProcessed()).isEqualTo(2);
+  }
+
+  @Test
+  public void eventsProcessedAreTheEventsProcessedByAllListeners() {
+    BulkAsyncEventListener bulkListener = mock(BulkAsyncEventListener.class);
+    when(bulkListener.processBatch(any())).thenReturn(2);
+    AsyncEventListener listener = mock(AsyncEventListener.class);
+    when(listener.processEvents(any())).thenReturn(false);
+    GatewaySenderEventCallbackDispatcher dispatcher = createDispatcher(bulkListener, listener);
+
+    assertThat(dispatcher.dispatchBatch(events)).isFalse();
+    assertThat(dispatcher.getNumberOfEventsProcessed()).isZero();
+  }
+
+  private GatewaySenderEventCallbackDispatcher createDispatcher(AsyncEventListener... listeners) {
+    when(sender.getAsyncEventListeners()).thenReturn(Arrays.asList(listeners));
+    return new GatewaySenderEventCallbackDispatcher(processor);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.internal.statistics.StatisticsClock;
+import org.apache.geode.internal.statistics.StatisticsManager;
+import org.apache.geode.internal.statistics.StripedStatisticsImpl;
+
+public class GatewaySenderStatsTest {
+
+  private GatewaySenderStats gatewaySenderStats;
+
+  @Before
+  public void setUp() {
+    StatisticsManager statisticsManager = mock(StatisticsManager.class);
+    StatisticsFactory statisticsFactory = mock(StatisticsFactory.class);
+    when(statisticsFactory.createAtomicStatistics(any(), any()))
+        .thenAnswer(invocation -> new StripedStatisticsImpl(invocation.getArgument(0),
+            invocation.getArgument(1), 1, 1, statisticsManager));
+
+    gatewaySenderStats = new GatewaySenderStats(statisticsFactory, "gatewaySenderStats-", "sender",
+        mock(StatisticsClock.class));
+  }
+
+  @Test
+  public void conflationRatioIsZeroBeforeAnyEventIsQueued() {
+    assertThat(gatewaySenderStats.getConflationRatio()).isZero();
+  }
+
+  @Test
+  public void conflationRatioIsTheRatioOfTheEventsConflatedFromTheQueue() {
+    for (int i = 0; i < 4; i++) {
+      gatewaySenderStats.endPut(0);
+    }
+    gatewaySenderStats.incEventsConflatedFromQueue();
+
+    assertThat(gatewaySenderStats.getConflationRatio()).isEqualTo(0.25);
+  }
+
+  @Test
+  public void conflationRatioDoesNotIncludeTheEventsConflatedFromBatches() {
+    for (int i = 0; i < 4; i++) {
+      gatewaySenderStats.endPut(0);
+    }
+    gatewaySenderStats.incEventsConflatedFromBatches(2);
+
+    assertThat(gatewaySenderStats.getConflationRatio()).isZero();
+  }
+}
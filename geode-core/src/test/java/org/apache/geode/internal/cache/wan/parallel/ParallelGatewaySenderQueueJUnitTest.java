@@ -15,6 +15,7 @@
 package org.apache.geode.internal.cache.wan.parallel;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
@@ -58,10 +59,12 @@ import org.apache.geode.internal.cache.PartitionedRegionDataStore;
 import org.apache.geode.internal.cache.TXId;
 import org.apache.geode.internal.cache.partitioned.RegionAdvisor;
 import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
+import org.apache.geode.internal.cache.wan.GatewaySenderConfigurationException;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.internal.cache.wan.GatewaySenderStats;
 import org.apache.geode.internal.cache.wan.parallel.ParallelGatewaySenderQueue.MetaRegionFactory;
 import org.apache.geode.internal.cache.wan.parallel.ParallelGatewaySenderQueue.ParallelGatewaySenderQueueMetaRegion;
+import org.apache.geode.internal.offheap.MemoryAllocator;
 
 public class ParallelGatewaySenderQueueJUnitTest {
 
@@ -304,6 +307,45 @@ public class ParallelGatewaySenderQueueJUnitTest {
     assertEquals(3, queue.localSize());
   }
 
+  @Test
+  public void queueRegionIsOnHeapByDefault() throws Exception {
+    InternalRegionFactory regionFactory = mockRegionFactory();
+
+    queue.addShadowPartitionedRegionForUserPR(mockPR("region1"));
+
+    verify(regionFactory).setOffHeap(false);
+  }
+
+  @Test
+  public void queueRegionIsOffHeapWhenRequested() throws Exception {
+    when(cache.getOffHeapStore()).thenReturn(mock(MemoryAllocator.class));
+    InternalRegionFactory regionFactory = mockRegionFactory();
+    queue = spy(queue);
+    doReturn(true).when(queue).isOffHeapQueueRequested();
+
+    queue.addShadowPartitionedRegionForUserPR(mockPR("region1"));
+
+    verify(regionFactory).setOffHeap(true);
+  }
+
+  @Test
+  public void hostingAnOffHeapQueueWithoutOffHeapMemoryFails() {
+    queue = spy(queue);
+    doReturn(true).when(queue).isOffHeapQueueRequested();
+
+    assertThatThrownBy(() -> queue.isOffHeapQueue(cache, false))
+        .isInstanceOf(GatewaySenderConfigurationException.class)
+        .hasMessageContaining("off-heap memory is not configured");
+  }
+
+  @Test
+  public void accessorOfAnOffHeapQueueDoesNotNeedOffHeapMemory() {
+    queue = spy(queue);
+    doReturn(true).when(queue).isOffHeapQueueRequested();
+
+    assertThat(queue.isOffHeapQueue(cache, true)).isFalse();
+  }
+
   @Test
   public void isDREventReturnsTrueForDistributedRegionEvent() {
     String regionPath = "regionPath";
@@ -511,6 +553,16 @@ public class ParallelGatewaySenderQueueJUnitTest {
     return event;
   }
 
+  private InternalRegionFactory mockRegionFactory() throws Exception {
+    ParallelGatewaySenderQueueMetaRegion mockMetaRegion =
+        mock(ParallelGatewaySenderQueueMetaRegion.class);
+    when(metaRegionFactory.newMetataRegion(any(), any(), any(), any())).thenReturn(mockMetaRegion);
+    InternalRegionFactory regionFactory = mock(InternalRegionFactory.class);
+    when(regionFactory.create(any())).thenReturn(mockMetaRegion);
+    when(cache.createInternalRegionFactory(any())).thenReturn(regionFactory);
+    return regionFactory;
+  }
+
   private PartitionedRegion mockPR(String name) {
     PartitionedRegion region = mock(PartitionedRegion.class);
     when(region.getFullPath()).thenReturn(name);
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.size;
+
+import static org.apache.geode.internal.size.SampledClassObjectSizer.INITIAL_SAMPLES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+public class SampledClassObjectSizerTest {
+
+  private final ReflectionObjectSizer reflectionSizer = ReflectionObjectSizer.getInstance();
+
+  @Test
+  public void sizesTheInitialInstancesOfAClass() {
+    SampledClassObjectSizer sizer = new SampledClassObjectSizer(Integer.MAX_VALUE);
+
+    for (int i = 0; i < INITIAL_SAMPLES; i++) {
+      TestObject object = new TestObject(i * 8);
+      assertThat(sizer.sizeof(object)).isEqualTo(reflectionSizer.sizeof(object));
+    }
+  }
+
+  @Test
+  public void returnsTheAverageSizeOfTheSampledInstances() {
+    SampledClassObjectSizer sizer = new SampledClassObjectSizer(Integer.MAX_VALUE);
+    long sampledBytes = 0;
+    for (int i = 0; i < INITIAL_SAMPLES; i++) {
+      sampledBytes += sizer.sizeof(new TestObject(i % 2 == 0 ? 8 : 64));
+    }
+
+    int averageSize = (int) (sampledBytes / INITIAL_SAMPLES);
+    assertThat(sizer.sizeof(new TestObject(1000))).isEqualTo(averageSize);
+  }
+
+  @Test
+  public void sizesEveryInstanceWithASampleIntervalOfOne() {
+    SampledClassObjectSizer sizer = new SampledClassObjectSizer(1);
+    for (int i = 0; i < INITIAL_SAMPLES; i++) {
+      sizer.sizeof(new TestObject(8));
+    }
+
+    TestObject object = new TestObject(1000);
+    assertThat(sizer.sizeof(object)).isEqualTo(reflectionSizer.sizeof(object));
+  }
+
+  @Test
+  public void sizesStringsAndByteArraysEveryTime() {
+    SampledClassObjectSizer sizer = new SampledClassObjectSizer(Integer.MAX_VALUE);
+    for (int i = 0; i < INITIAL_SAMPLES; i++) {
+      sizer.sizeof("");
+      sizer.sizeof(new byte[0]);
+    }
+
+    assertThat(sizer.sizeof("1234567890")).isEqualTo(WellKnownClassSizer.sizeof("1234567890"));
+    byte[] bytes = new byte[1000];
+    assertThat(sizer.sizeof(bytes)).isEqualTo(WellKnownClassSizer.sizeof(bytes));
+  }
+
+  @Test
+  public void sizeOfNullIsZero() {
+    assertThat(new SampledClassObjectSizer(1).sizeof(null)).isZero();
+  }
+
+  @Test
+  public void rejectsANonPositiveSampleInterval() {
+    assertThatThrownBy(() -> new SampledClassObjectSizer(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static class TestObject {
+    private final byte[] field;
+
+    TestObject(int size) {
+      this.field = new byte[size];
+    }
+  }
+}
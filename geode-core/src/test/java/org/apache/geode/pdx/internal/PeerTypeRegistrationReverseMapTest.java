@@ -120,6 +120,44 @@ public class PeerTypeRegistrationReverseMapTest {
     assertThat(map.shouldReloadFromRegion(region)).isTrue();
   }
 
+  @Test
+  public void shouldReloadFromRegionCountsTypesDefinedWithMoreThanOneId() {
+    PeerTypeRegistrationReverseMap map = new PeerTypeRegistrationReverseMap();
+    Region region = mock(Region.class);
+    when(region.size()).thenReturn(2);
+    PdxType pdxType = mock(PdxType.class);
+
+    map.saveToPending(1, pdxType);
+    map.saveToPending(2, pdxType);
+    // Both ids are in the region but only one of them is in the reverse maps
+    assertThat(map.shouldReloadFromRegion(region)).isFalse();
+
+    map.flushPendingReverseMap();
+    map.save(1, pdxType);
+    // Saving an id that was already flushed counts it twice
+    assertThat(map.shouldReloadFromRegion(region)).isTrue();
+
+    map.clear();
+    map.save(1, pdxType);
+    map.save(2, pdxType);
+    assertThat(map.shouldReloadFromRegion(region)).isFalse();
+  }
+
+  @Test
+  public void saveDistributedTypeMovesOnlyThatTypeFromPendingMap() {
+    PeerTypeRegistrationReverseMap map = new PeerTypeRegistrationReverseMap();
+    PdxType distributedType = mock(PdxType.class);
+    PdxType otherType = mock(PdxType.class);
+    map.saveToPending(1, distributedType);
+    map.saveToPending(2, otherType);
+
+    map.saveDistributedType(1, distributedType);
+
+    assertThat(map.getIdFromReverseMap(distributedType)).isEqualTo(1);
+    assertThat(map.getIdFromReverseMap(otherType)).isNull();
+    assertThat(map.pendingTypeToIdSize()).isEqualTo(1);
+  }
+
   @Test
   public void flushPendingReverseMapCorrectlyPopulatesReverseMap() {
     PeerTypeRegistrationReverseMap map = new PeerTypeRegistrationReverseMap();
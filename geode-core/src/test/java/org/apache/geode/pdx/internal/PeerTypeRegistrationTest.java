@@ -31,6 +31,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -44,6 +45,7 @@ import org.apache.geode.cache.RegionExistsException;
 import org.apache.geode.distributed.DistributedLockService;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.CacheConfig;
 import org.apache.geode.internal.cache.DiskStoreImpl;
 import org.apache.geode.internal.cache.InternalCache;
@@ -201,4 +203,65 @@ public class PeerTypeRegistrationTest {
 
     verify(peerTypeRegistration, times(0)).buildReverseMapsFromRegion();
   }
+
+  @Test
+  public void defineTypesTakesTheDistributedLockOnceForTheWholeBatch() {
+    PeerTypeRegistration peerTypeRegistration = spy(new PeerTypeRegistration(internalCache, 0));
+    DistributedLockService dlockService = mockLockService(peerTypeRegistration);
+    peerTypeRegistration.initialize();
+
+    int[] ids = peerTypeRegistration.defineTypes(
+        Arrays.asList(new PdxType("firstClass", true), new PdxType("secondClass", true)));
+
+    assertThat(ids).hasSize(2);
+    assertThat(ids[0]).isNotEqualTo(ids[1]);
+    verify(dlockService, times(1)).lock(anyString(), anyLong(), anyLong());
+  }
+
+  @Test
+  public void defineTypeWithTypeIdBlocksTakesTheDistributedLockOncePerBlock() {
+    PeerTypeRegistration peerTypeRegistration = spy(new PeerTypeRegistration(internalCache, 10));
+    DistributedLockService dlockService = mockLockService(peerTypeRegistration);
+    @SuppressWarnings("unchecked")
+    Region<Object, Object> typeIdBlocks = mock(Region.class);
+    when(factory.create(eq(PeerTypeRegistration.TYPE_ID_BLOCKS_REGION_NAME)))
+        .thenReturn(typeIdBlocks);
+    when(internalCache.getMyId()).thenReturn(mock(InternalDistributedMember.class));
+    peerTypeRegistration.initialize();
+
+    int firstId = peerTypeRegistration.defineType(new PdxType("firstClass", true));
+    int secondId = peerTypeRegistration.defineType(new PdxType("secondClass", true));
+
+    assertThat(secondId).isEqualTo(firstId + 1);
+    verify(dlockService, times(1)).lock(anyString(), anyLong(), anyLong());
+    verify(typeIdBlocks).put(eq(firstId / 10 * 10), any());
+  }
+
+  @Test
+  public void defineTypeWithTypeIdBlocksReturnsTheSameIdForAnEqualType() {
+    PeerTypeRegistration peerTypeRegistration = spy(new PeerTypeRegistration(internalCache, 10));
+    mockLockService(peerTypeRegistration);
+    @SuppressWarnings("unchecked")
+    Region<Object, Object> typeIdBlocks = mock(Region.class);
+    when(factory.create(eq(PeerTypeRegistration.TYPE_ID_BLOCKS_REGION_NAME)))
+        .thenReturn(typeIdBlocks);
+    when(internalCache.getMyId()).thenReturn(mock(InternalDistributedMember.class));
+    peerTypeRegistration.initialize();
+
+    int firstId = peerTypeRegistration.defineType(new PdxType("myClass", true));
+    int secondId = peerTypeRegistration.defineType(new PdxType("myClass", true));
+
+    assertThat(secondId).isEqualTo(firstId);
+  }
+
+  private DistributedLockService mockLockService(PeerTypeRegistration peerTypeRegistration) {
+    DistributedLockService dlockService = mock(DistributedLockService.class);
+    doReturn(dlockService).when(peerTypeRegistration).getLockService();
+    when(dlockService.lock(anyString(), anyLong(), anyLong())).thenReturn(true);
+
+    when(internalCache.getDistributionManager()).thenReturn(distributionManager);
+    when(distributionManager.getSystem()).thenReturn(internalDistributedSystem);
+    when(distributionManager.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    return dlockService;
+  }
 }
@@ -16,11 +16,17 @@ package org.apache.geode.pdx.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -56,7 +62,6 @@ public class TypeRegistryTest {
   public void defineTypeGivenANewTypeThatIsInTypeToIdButNotIdToTypeStoresItWithTheCorrectIdAndReturnsIt() {
     when(typeRegistration.defineType(newType)).thenReturn(37);
     typeRegistry.getTypeToId().put(newType, 37);
-    typeRegistry.getIdToType().put(37, null);
 
     PdxType result = typeRegistry.defineType(newType);
 
@@ -82,7 +87,6 @@ public class TypeRegistryTest {
   public void defineTypeGivenATypeEqualToAnExistingButNotInTypeToIdTypeReturnsTheExistingType() {
     PdxType existingType = new PdxType("myClass", true);
     PdxType equalType = new PdxType("myClass", true);
-    typeRegistry.getTypeToId().put(existingType, null);
     typeRegistry.getIdToType().put(37, existingType);
     when(typeRegistration.defineType(equalType)).thenReturn(37);
 
@@ -94,7 +98,6 @@ public class TypeRegistryTest {
   @Test
   public void defineTypeGivenATypeNotEqualToAnExistingButWithTheSameIdThrows() {
     PdxType existingType = mock(PdxType.class);
-    typeRegistry.getTypeToId().put(existingType, null);
     typeRegistry.getIdToType().put(37, existingType);
     when(typeRegistration.defineType(newType)).thenReturn(37);
 
@@ -102,6 +105,38 @@ public class TypeRegistryTest {
         .hasMessageContaining("Old type does not equal new type for the same id.");
   }
 
+  @Test
+  public void defineTypesDefinesOnlyUnknownTypesAsOneBatch() {
+    PdxType existingType = new PdxType("existingClass", true);
+    PdxType equalType = new PdxType("existingClass", true);
+    PdxType otherType = new PdxType("otherClass", true);
+    typeRegistry.getTypeToId().put(existingType, 37);
+    typeRegistry.getIdToType().put(37, existingType);
+    when(typeRegistration.defineTypes(Arrays.asList(newType, otherType)))
+        .thenReturn(new int[] {38, 39});
+
+    List<PdxType> result = typeRegistry.defineTypes(Arrays.asList(newType, equalType, otherType));
+
+    assertThat(result).containsExactly(newType, existingType, otherType);
+    verify(newType).setTypeId(38);
+    assertThat(otherType.getTypeId()).isEqualTo(39);
+    assertThat(typeRegistry.getIdToType().get(38)).isSameAs(newType);
+    assertThat(typeRegistry.getTypeToId().get(otherType)).isEqualTo(39);
+  }
+
+  @Test
+  public void defineTypesGivenOnlyKnownTypesDoesNotCallTypeRegistration() {
+    PdxType existingType = new PdxType("existingClass", true);
+    typeRegistry.getTypeToId().put(existingType, 37);
+    typeRegistry.getIdToType().put(37, existingType);
+
+    List<PdxType> result =
+        typeRegistry.defineTypes(Collections.singletonList(new PdxType("existingClass", true)));
+
+    assertThat(result).containsExactly(existingType);
+    verify(typeRegistration, never()).defineTypes(any());
+  }
+
   @Test
   public void defineLocalTypeGivenNullCallsDefineType() {
     TypeRegistry spy = spy(typeRegistry);
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.JSONFormatter;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class JSONTypeCacheTest {
+
+  private final JSONTypeCache cache = new JSONTypeCache();
+
+  @Test
+  public void getReturnsTypeCachedForEqualFields() {
+    PdxType type = mock(PdxType.class);
+    JSONTypeCache.FieldSequence fields = sequence("name", FieldType.OBJECT, false);
+    cache.put(fields, type);
+
+    assertThat(cache.get(sequence("name", FieldType.OBJECT, false))).isSameAs(type);
+  }
+
+  @Test
+  public void putCopiesTheFieldsSoTheyCanBeReused() {
+    PdxType type = mock(PdxType.class);
+    JSONTypeCache.FieldSequence fields = sequence("name", FieldType.OBJECT, false);
+    cache.put(fields, type);
+
+    fields.reset();
+    fields.add("age", FieldType.INT, false);
+
+    assertThat(cache.get(sequence("name", FieldType.OBJECT, false))).isSameAs(type);
+    assertThat(cache.get(fields)).isNull();
+  }
+
+  @Test
+  public void getDoesNotReturnTypeForDifferentFieldTypeOrIdentity() {
+    cache.put(sequence("age", FieldType.INT, false), mock(PdxType.class));
+
+    assertThat(cache.get(sequence("age", FieldType.SHORT, false))).isNull();
+    assertThat(cache.get(sequence("age", FieldType.INT, true))).isNull();
+  }
+
+  @Test
+  public void getDoesNotReturnTypeForDifferentFieldOrder() {
+    JSONTypeCache.FieldSequence fields = new JSONTypeCache.FieldSequence();
+    fields.add("a", FieldType.INT, false);
+    fields.add("b", FieldType.INT, false);
+    cache.put(fields, mock(PdxType.class));
+
+    JSONTypeCache.FieldSequence reversed = new JSONTypeCache.FieldSequence();
+    reversed.add("b", FieldType.INT, false);
+    reversed.add("a", FieldType.INT, false);
+
+    assertThat(cache.get(reversed)).isNull();
+  }
+
+  @Test
+  public void clearRemovesCachedTypes() {
+    cache.put(sequence("name", FieldType.OBJECT, false), mock(PdxType.class));
+
+    cache.clear();
+
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void createPdxTypeAssignsVariableLengthFieldIdsLikePdxWriterImpl() {
+    JSONTypeCache.FieldSequence fields = new JSONTypeCache.FieldSequence();
+    fields.add("a", FieldType.INT, true);
+    fields.add("b", FieldType.OBJECT, false);
+    fields.add("c", FieldType.OBJECT, false);
+    fields.add("d", FieldType.LONG, false);
+    fields.add("e", FieldType.OBJECT, false);
+
+    PdxType type = fields.createPdxType();
+
+    assertThat(type.getClassName()).isEqualTo(JSONFormatter.JSON_CLASSNAME);
+    assertThat(type.getNoDomainClass()).isTrue();
+    assertThat(type.getFieldCount()).isEqualTo(5);
+    assertThat(type.getVariableLengthFieldCount()).isEqualTo(2);
+    assertThat(type.getPdxField("a").isIdentityField()).isTrue();
+    assertThat(type.getPdxField("b").getVarLenFieldSeqId()).isEqualTo(0);
+    assertThat(type.getPdxField("c").getVarLenFieldSeqId()).isEqualTo(1);
+    assertThat(type.getPdxField("e").getVarLenFieldSeqId()).isEqualTo(2);
+    assertThat(type.getPdxField("d").getFieldIndex()).isEqualTo(3);
+  }
+
+  @Test
+  public void createPdxTypeReturnsEqualTypesForEqualFields() {
+    PdxType type = sequence("name", FieldType.OBJECT, false).createPdxType();
+
+    assertThat(sequence("name", FieldType.OBJECT, false).createPdxType()).isEqualTo(type);
+  }
+
+  private JSONTypeCache.FieldSequence sequence(String name, FieldType type, boolean identity) {
+    JSONTypeCache.FieldSequence fields = new JSONTypeCache.FieldSequence();
+    fields.add(name, type, identity);
+    return fields;
+  }
+}
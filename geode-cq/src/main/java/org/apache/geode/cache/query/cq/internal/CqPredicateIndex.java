@@ -0,0 +1,407 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.cq.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.CompiledComparison;
+import org.apache.geode.cache.query.internal.CompiledID;
+import org.apache.geode.cache.query.internal.CompiledIteratorDef;
+import org.apache.geode.cache.query.internal.CompiledJunction;
+import org.apache.geode.cache.query.internal.CompiledLiteral;
+import org.apache.geode.cache.query.internal.CompiledPath;
+import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.CompiledValue;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.PathUtils;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.pdx.internal.PdxString;
+
+/**
+ * Finds the CQs of a region whose queries may match a value without evaluating every query.
+ * <p>
+ * Each CQ whose where clause has a top level conjunct comparing an attribute path of the value to
+ * a string, integral or boolean literal is indexed by that conjunct: equality comparisons in a hash
+ * table and range comparisons in sorted maps, per attribute path. For a value, each indexed
+ * attribute path is read once and the CQs whose conjunct it satisfies are looked up, so only those
+ * CQs and the CQs that could not be indexed need to evaluate their query.
+ * <p>
+ * The index only ever rules out CQs whose query is certain to be false for the value. If an
+ * attribute cannot be read, or its value is of a type the conjunct does not compare exactly like
+ * the query engine, all CQs on that attribute path are candidates.
+ */
+class CqPredicateIndex {
+
+  private final Set<ServerCQImpl> cqs = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  private final Map<ServerCQImpl, Predicate> predicates = new IdentityHashMap<>();
+
+  private final Map<List<String>, AttributeIndex> attributeIndexes = new HashMap<>();
+
+  private volatile boolean stale;
+
+  CqPredicateIndex(Collection<?> cqs) {
+    for (Object cq : cqs) {
+      if (cq instanceof ServerCQImpl) {
+        add((ServerCQImpl) cq);
+      }
+    }
+  }
+
+  private void add(ServerCQImpl cq) {
+    cqs.add(cq);
+    Predicate predicate = getPredicate(cq);
+    if (predicate == null) {
+      return;
+    }
+    predicates.put(cq, predicate);
+    attributeIndexes.computeIfAbsent(predicate.path, path -> new AttributeIndex(path, cq))
+        .add(predicate, cq);
+  }
+
+  /**
+   * Returns the number of CQs the index was built from, indexed or not.
+   */
+  int size() {
+    return cqs.size();
+  }
+
+  /**
+   * Returns true if a CQ unknown to the index was seen since the index was built.
+   */
+  boolean isStale() {
+    return stale;
+  }
+
+  /**
+   * Returns the indexed CQs whose query may match the given value.
+   */
+  Set<ServerCQImpl> getCandidates(Object value) {
+    Set<ServerCQImpl> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (AttributeIndex attributeIndex : attributeIndexes.values()) {
+      attributeIndex.addCandidates(value, candidates);
+    }
+    return candidates;
+  }
+
+  /**
+   * Returns true if the query of the given CQ needs to be evaluated for a value with the given
+   * candidates, that is if the CQ is a candidate or is not indexed.
+   */
+  boolean mayMatch(ServerCQImpl cq, Set<ServerCQImpl> candidates) {
+    if (!cqs.contains(cq)) {
+      stale = true;
+      return true;
+    }
+    return !predicates.containsKey(cq) || candidates.contains(cq);
+  }
+
+  /**
+   * Returns the indexable conjunct of the where clause of the given CQ, or null if it has none.
+   * Equality comparisons are preferred to range comparisons.
+   */
+  static Predicate getPredicate(ServerCQImpl cq) {
+    if (!(cq.getQuery() instanceof DefaultQuery)) {
+      return null;
+    }
+    CompiledSelect select = ((DefaultQuery) cq.getQuery()).getSimpleSelect();
+    if (select == null || select.getWhereClause() == null || select.getIterators().size() != 1) {
+      return null;
+    }
+    String iteratorName = ((CompiledIteratorDef) select.getIterators().get(0)).getName();
+
+    CompiledValue whereClause = select.getWhereClause();
+    List<?> conjuncts;
+    if (whereClause instanceof CompiledJunction) {
+      if (((CompiledJunction) whereClause).getOperator() != OQLLexerTokenTypes.LITERAL_and) {
+        return null;
+      }
+      conjuncts = whereClause.getChildren();
+    } else {
+      conjuncts = Collections.singletonList(whereClause);
+    }
+
+    Predicate rangePredicate = null;
+    for (Object conjunct : conjuncts) {
+      if (conjunct instanceof CompiledComparison) {
+        Predicate predicate = getPredicate((CompiledComparison) conjunct, iteratorName);
+        if (predicate != null && predicate.operator == OQLLexerTokenTypes.TOK_EQ) {
+          return predicate;
+        }
+        if (predicate != null && rangePredicate == null) {
+          rangePredicate = predicate;
+        }
+      }
+    }
+    return rangePredicate;
+  }
+
+  private static Predicate getPredicate(CompiledComparison comparison, String iteratorName) {
+    int operator = comparison.getOperator();
+    CompiledValue attribute = comparison._left;
+    CompiledValue literal = comparison._right;
+    if (attribute instanceof CompiledLiteral) {
+      attribute = comparison._right;
+      literal = comparison._left;
+      operator = reverse(operator);
+    }
+    if (!(literal instanceof CompiledLiteral)) {
+      return null;
+    }
+    List<String> path = getPath(attribute, iteratorName);
+    Object value;
+    try {
+      value = normalize(literal.evaluate(null));
+    } catch (Exception e) {
+      return null;
+    }
+    if (path == null || value == null) {
+      return null;
+    }
+    switch (operator) {
+      case OQLLexerTokenTypes.TOK_EQ:
+        return new Predicate(path, operator, value);
+      case OQLLexerTokenTypes.TOK_LT:
+      case OQLLexerTokenTypes.TOK_LE:
+      case OQLLexerTokenTypes.TOK_GT:
+      case OQLLexerTokenTypes.TOK_GE:
+        return value instanceof Boolean ? null : new Predicate(path, operator, value);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Returns the attribute names leading from the iterator of the query to the given value, or null
+   * if the value is not an attribute path.
+   */
+  private static List<String> getPath(CompiledValue value, String iteratorName) {
+    List<String> path = new ArrayList<>();
+    while (value instanceof CompiledPath) {
+      path.add(0, ((CompiledPath) value).getTailID());
+      value = value.getReceiver();
+    }
+    if (!(value instanceof CompiledID)) {
+      return null;
+    }
+    String id = ((CompiledID) value).getId();
+    if (!id.equals(iteratorName)) {
+      // an implicit attribute of the iterator
+      path.add(0, id);
+    }
+    return path;
+  }
+
+  private static int reverse(int operator) {
+    switch (operator) {
+      case OQLLexerTokenTypes.TOK_LT:
+        return OQLLexerTokenTypes.TOK_GT;
+      case OQLLexerTokenTypes.TOK_LE:
+        return OQLLexerTokenTypes.TOK_GE;
+      case OQLLexerTokenTypes.TOK_GT:
+        return OQLLexerTokenTypes.TOK_LT;
+      case OQLLexerTokenTypes.TOK_GE:
+        return OQLLexerTokenTypes.TOK_LE;
+      default:
+        return operator;
+    }
+  }
+
+  /**
+   * Returns the given value in the form the index compares it in, or null if the index cannot
+   * compare it exactly like the query engine. Integral numbers compare equal across types, so they
+   * are all compared as longs.
+   */
+  private static Object normalize(Object value) {
+    if (value instanceof String || value instanceof Boolean) {
+      return value;
+    }
+    if (value instanceof Integer || value instanceof Long || value instanceof Short
+        || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    return null;
+  }
+
+  static class Predicate {
+
+    private final List<String> path;
+
+    private final int operator;
+
+    private final Object value;
+
+    Predicate(List<String> path, int operator, Object value) {
+      this.path = path;
+      this.operator = operator;
+      this.value = value;
+    }
+
+    List<String> getPath() {
+      return path;
+    }
+
+    int getOperator() {
+      return operator;
+    }
+
+    Object getValue() {
+      return value;
+    }
+  }
+
+  /**
+   * The indexed CQs of one attribute path, by the type of the literal they compare it to.
+   */
+  private static class AttributeIndex {
+
+    private final List<String> path;
+
+    /** The CQ whose execution context is used to read the attribute */
+    private final ServerCQImpl reader;
+
+    private final Map<Class<?>, LiteralIndex> literalIndexes = new HashMap<>();
+
+    AttributeIndex(List<String> path, ServerCQImpl reader) {
+      this.path = path;
+      this.reader = reader;
+    }
+
+    void add(Predicate predicate, ServerCQImpl cq) {
+      literalIndexes.computeIfAbsent(predicate.value.getClass(), type -> new LiteralIndex())
+          .add(predicate, cq);
+    }
+
+    void addCandidates(Object value, Set<ServerCQImpl> candidates) {
+      Object attribute = read(value);
+      // PdxStrings do not order like Strings, so only their equality is looked up
+      boolean ordered = !(attribute instanceof PdxString);
+      Object key = normalize(attribute instanceof PdxString ? attribute.toString() : attribute);
+      for (Map.Entry<Class<?>, LiteralIndex> entry : literalIndexes.entrySet()) {
+        if (key != null && entry.getKey() == key.getClass()) {
+          entry.getValue().addCandidates(key, ordered, candidates);
+        } else {
+          entry.getValue().addAll(candidates);
+        }
+      }
+    }
+
+    /**
+     * Returns the value of the attribute path of the given value, or null if it cannot be read.
+     */
+    private Object read(Object value) {
+      ExecutionContext context = reader.getQueryExecutionContext();
+      if (context == null) {
+        return null;
+      }
+      Object attribute = value;
+      try {
+        synchronized (reader) {
+          for (String name : path) {
+            if (attribute == null || attribute == QueryService.UNDEFINED) {
+              return null;
+            }
+            attribute = PathUtils.evaluateAttribute(context, attribute, name);
+          }
+        }
+      } catch (Exception e) {
+        return null;
+      }
+      return attribute;
+    }
+  }
+
+  /**
+   * The CQs comparing an attribute path to literals of one type.
+   */
+  private static class LiteralIndex {
+
+    private final Map<Object, List<ServerCQImpl>> equalTo = new HashMap<>();
+
+    /** CQs by the literal their attribute must be less than */
+    private final NavigableMap<Object, List<ServerCQImpl>> lessThan = new TreeMap<>();
+
+    private final NavigableMap<Object, List<ServerCQImpl>> lessThanOrEqualTo = new TreeMap<>();
+
+    /** CQs by the literal their attribute must be greater than */
+    private final NavigableMap<Object, List<ServerCQImpl>> greaterThan = new TreeMap<>();
+
+    private final NavigableMap<Object, List<ServerCQImpl>> greaterThanOrEqualTo = new TreeMap<>();
+
+    void add(Predicate predicate, ServerCQImpl cq) {
+      getMap(predicate.operator).computeIfAbsent(predicate.value, value -> new ArrayList<>())
+          .add(cq);
+    }
+
+    private Map<Object, List<ServerCQImpl>> getMap(int operator) {
+      switch (operator) {
+        case OQLLexerTokenTypes.TOK_LT:
+          return lessThan;
+        case OQLLexerTokenTypes.TOK_LE:
+          return lessThanOrEqualTo;
+        case OQLLexerTokenTypes.TOK_GT:
+          return greaterThan;
+        case OQLLexerTokenTypes.TOK_GE:
+          return greaterThanOrEqualTo;
+        default:
+          return equalTo;
+      }
+    }
+
+    void addCandidates(Object key, boolean ordered, Set<ServerCQImpl> candidates) {
+      List<ServerCQImpl> equal = equalTo.get(key);
+      if (equal != null) {
+        candidates.addAll(equal);
+      }
+      if (ordered) {
+        addAll(lessThan.tailMap(key, false), candidates);
+        addAll(lessThanOrEqualTo.tailMap(key, true), candidates);
+        addAll(greaterThan.headMap(key, false), candidates);
+        addAll(greaterThanOrEqualTo.headMap(key, true), candidates);
+      } else {
+        addAll(lessThan, candidates);
+        addAll(lessThanOrEqualTo, candidates);
+        addAll(greaterThan, candidates);
+        addAll(greaterThanOrEqualTo, candidates);
+      }
+    }
+
+    void addAll(Set<ServerCQImpl> candidates) {
+      addAll(equalTo, candidates);
+      addAll(lessThan, candidates);
+      addAll(lessThanOrEqualTo, candidates);
+      addAll(greaterThan, candidates);
+      addAll(greaterThanOrEqualTo, candidates);
+    }
+
+    private static void addAll(Map<Object, List<ServerCQImpl>> cqs,
+        Set<ServerCQImpl> candidates) {
+      for (List<ServerCQImpl> list : cqs.values()) {
+        candidates.addAll(list);
+      }
+    }
+  }
+}
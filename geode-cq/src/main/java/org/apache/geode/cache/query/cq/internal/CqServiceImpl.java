@@ -23,6 +23,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -102,6 +103,13 @@ public class CqServiceImpl implements CqService {
   public static boolean EXECUTE_QUERY_DURING_INIT = Boolean.valueOf(System
       .getProperty(GeodeGlossary.GEMFIRE_PREFIX + "cq.EXECUTE_QUERY_DURING_INIT", "true"));
 
+  /**
+   * System property to evaluate the query of a CQ on an event only if the predicate index of the
+   * region's CQs finds that the query may match the event's value.
+   */
+  static boolean INDEX_PREDICATES = Boolean.valueOf(System
+      .getProperty(GeodeGlossary.GEMFIRE_PREFIX + "cq.INDEX_PREDICATES", "true"));
+
 
   private static final String CQ_NAME_PREFIX = "GfCq";
 
@@ -121,6 +129,12 @@ public class CqServiceImpl implements CqService {
 
   private final Object cqQueryMapLock = new Object();
 
+  /**
+   * The predicate indexes of the CQs of filter profiles, rebuilt when the CQs of a profile change.
+   */
+  private final Map<FilterProfile, CqPredicateIndex> cqPredicateIndexes =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
   private volatile boolean isRunning = false;
 
   /**
@@ -1311,6 +1325,14 @@ public class CqServiceImpl implements CqService {
 
       HashMap<Long, Integer> cqInfo = new HashMap<>();
 
+      CqPredicateIndex predicateIndex = INDEX_PREDICATES ? getCqPredicateIndex(pf) : null;
+      Set<ServerCQImpl> newValueCandidates = null;
+      Set<ServerCQImpl> oldValueCandidates = null;
+      if (predicateIndex != null && !cqUnfilteredEventsSet_newValue.isEmpty()) {
+        newValueCandidates =
+            predicateIndex.getCandidates(cqUnfilteredEventsSet_newValue.iterator().next());
+      }
+
       for (Object o : cqs.entrySet()) {
         Map.Entry cqEntry = (Map.Entry) o;
         ServerCQImpl cQuery = (ServerCQImpl) cqEntry.getValue();
@@ -1348,7 +1370,8 @@ public class CqServiceImpl implements CqService {
           {
             try {
               // Apply query on new value.
-              if (!cqUnfilteredEventsSet_newValue.isEmpty()) {
+              if (!cqUnfilteredEventsSet_newValue.isEmpty() && (predicateIndex == null
+                  || predicateIndex.mayMatch(cQuery, newValueCandidates))) {
                 executionStartTime = this.stats.startCqQueryExecution();
 
                 synchronized (cQuery) {
@@ -1392,8 +1415,15 @@ public class CqServiceImpl implements CqService {
                     }
                   }
 
+                  if (predicateIndex != null && oldValueCandidates == null
+                      && !cqUnfilteredEventsSet_oldValue.isEmpty()) {
+                    oldValueCandidates = predicateIndex
+                        .getCandidates(cqUnfilteredEventsSet_oldValue.iterator().next());
+                  }
+
                   // Apply query on old value.
-                  if (!cqUnfilteredEventsSet_oldValue.isEmpty()) {
+                  if (!cqUnfilteredEventsSet_oldValue.isEmpty() && (predicateIndex == null
+                      || predicateIndex.mayMatch(cQuery, oldValueCandidates))) {
                     executionStartTime = this.stats.startCqQueryExecution();
 
                     synchronized (cQuery) {
@@ -1492,6 +1522,20 @@ public class CqServiceImpl implements CqService {
     } // iteration over Profiles.
   }
 
+  /**
+   * Returns the predicate index of the CQs of the given profile, building a new one if the CQs
+   * changed since the current one was built.
+   */
+  private CqPredicateIndex getCqPredicateIndex(FilterProfile pf) {
+    Map cqs = pf.getCqMap();
+    CqPredicateIndex index = cqPredicateIndexes.get(pf);
+    if (index == null || index.isStale() || index.size() != cqs.size()) {
+      index = new CqPredicateIndex(cqs.values());
+      cqPredicateIndexes.put(pf, index);
+    }
+    return index;
+  }
+
   private Integer generateCqRegionEvent(CacheEvent event) {
     Integer cqEvent = null;
     if (event.getOperation().isRegionDestroy()) {
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.cq.internal;
+
+import static org.apache.geode.cache.Region.SEPARATOR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.internal.cache.InternalCache;
+
+public class CqPredicateIndexTest {
+
+  private final InternalCache cache = mock(InternalCache.class);
+
+  private final ExecutionContext context = mock(ExecutionContext.class);
+
+  @Before
+  public void setUp() {
+    when(context.getCache()).thenReturn(cache);
+    when(context.isCqQueryContext()).thenReturn(true);
+  }
+
+  @Test
+  public void equalityConjunctsArePreferredToRangeConjuncts() {
+    CqPredicateIndex.Predicate predicate = CqPredicateIndex
+        .getPredicate(createCq("p.id > 3 AND p.status = 'active' AND p.id < 10"));
+
+    assertThat(predicate.getPath()).containsExactly("status");
+    assertThat(predicate.getOperator()).isEqualTo(OQLLexerTokenTypes.TOK_EQ);
+    assertThat(predicate.getValue()).isEqualTo("active");
+  }
+
+  @Test
+  public void queriesWithoutAnIndexableConjunctAreNotIndexed() {
+    assertThat(CqPredicateIndex.getPredicate(createCq("p.status <> 'active'"))).isNull();
+    assertThat(CqPredicateIndex.getPredicate(createCq("p.id > 3 OR p.id < 1"))).isNull();
+    assertThat(CqPredicateIndex.getPredicate(createCq("p.price > 1.5"))).isNull();
+  }
+
+  @Test
+  public void onlyCandidatesAndCqsThatAreNotIndexedMayMatch() {
+    ServerCQImpl active = createCq("p.status = 'active'");
+    ServerCQImpl inactive = createCq("status = 'inactive'");
+    ServerCQImpl notIndexed = createCq("p.status <> 'active'");
+    CqPredicateIndex index = new CqPredicateIndex(Arrays.asList(active, inactive, notIndexed));
+
+    Set<ServerCQImpl> candidates = index.getCandidates(new Value("active", 1));
+
+    assertThat(candidates).containsExactly(active);
+    assertThat(index.mayMatch(active, candidates)).isTrue();
+    assertThat(index.mayMatch(inactive, candidates)).isFalse();
+    assertThat(index.mayMatch(notIndexed, candidates)).isTrue();
+  }
+
+  @Test
+  public void rangeConjunctsMatchValuesOfOtherIntegralTypes() {
+    ServerCQImpl greaterThan10 = createCq("p.id > 10L");
+    ServerCQImpl atMost5 = createCq("p.id <= 5");
+    ServerCQImpl greaterThan5 = createCq("5 < p.id");
+    ServerCQImpl atLeast7 = createCq("p.id >= 7");
+    CqPredicateIndex index =
+        new CqPredicateIndex(Arrays.asList(greaterThan10, atMost5, greaterThan5, atLeast7));
+
+    assertThat(index.getCandidates(new Value("active", 7)))
+        .containsExactlyInAnyOrder(greaterThan5, atLeast7);
+    assertThat(index.getCandidates(new Value("active", 5))).containsExactly(atMost5);
+  }
+
+  @Test
+  public void allCqsOfAnAttributeAreCandidatesIfItCannotBeCompared() {
+    ServerCQImpl active = createCq("p.status = 'active'");
+    ServerCQImpl greaterThan10 = createCq("p.id > 10");
+    CqPredicateIndex index = new CqPredicateIndex(Arrays.asList(active, greaterThan10));
+
+    assertThat(index.getCandidates(new Value(null, 1))).containsExactly(active);
+    assertThat(index.getCandidates("not a value"))
+        .containsExactlyInAnyOrder(active, greaterThan10);
+  }
+
+  @Test
+  public void indexIsStaleAfterSeeingAnUnknownCq() {
+    CqPredicateIndex index = new CqPredicateIndex(Arrays.asList(createCq("p.id = 1")));
+    ServerCQImpl unknown = createCq("p.id = 2");
+
+    assertThat(index.isStale()).isFalse();
+    assertThat(index.mayMatch(unknown, index.getCandidates(new Value("active", 1)))).isTrue();
+    assertThat(index.isStale()).isTrue();
+  }
+
+  private ServerCQImpl createCq(String whereClause) {
+    ServerCQImpl cq = mock(ServerCQImpl.class);
+    when(cq.getQuery()).thenReturn(new DefaultQuery(
+        "SELECT * FROM " + SEPARATOR + "region p WHERE " + whereClause, cache, false));
+    when(cq.getQueryExecutionContext()).thenReturn(context);
+    return cq;
+  }
+
+  public static class Value {
+    public final String status;
+    public final int id;
+
+    Value(String status, int id) {
+      this.status = status;
+      this.id = id;
+    }
+  }
+}
@@ -43,6 +43,7 @@ public class KnownVersionJUnitTest {
     compare(KnownVersion.GEODE_1_13_1, KnownVersion.GEODE_1_13_0);
     compare(KnownVersion.GEODE_1_14_0, KnownVersion.GEODE_1_13_1);
     compare(KnownVersion.GEODE_1_15_0, KnownVersion.GEODE_1_14_0);
+    compare(KnownVersion.GEODE_1_16_0, KnownVersion.GEODE_1_15_0);
   }
 
   @Test
@@ -69,6 +70,8 @@ public class KnownVersionJUnitTest {
         .isEqualTo(KnownVersion.GEODE_1_14_0);
     assertThat(KnownVersion.GEODE_1_15_0.getClientServerProtocolVersion())
         .isEqualTo(KnownVersion.GEODE_1_14_0);
+    assertThat(KnownVersion.GEODE_1_16_0.getClientServerProtocolVersion())
+        .isEqualTo(KnownVersion.GEODE_1_16_0);
   }
 
   private void compare(KnownVersion later, KnownVersion earlier) {
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.cache.wan.internal.client.locator;
 
+import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.util.Iterator;
 import java.util.List;
@@ -21,6 +22,7 @@ import java.util.List;
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.InternalGemFireError;
+import org.apache.geode.SerializationException;
 import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.client.internal.AbstractOp;
 import org.apache.geode.cache.client.internal.Connection;
@@ -34,6 +36,8 @@ import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
 import org.apache.geode.internal.cache.tier.sockets.Message;
 import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat;
+import org.apache.geode.internal.cache.wan.CompressedGatewayBatchFormat.EncodedBatch;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
@@ -55,8 +59,15 @@ public class GatewaySenderBatchOp {
    */
   public static void executeOn(Connection con, ExecutablePool pool, List events, int batchId,
       boolean removeFromQueueOnException, boolean isRetry) {
-    AbstractOp op = new GatewaySenderGFEBatchOpImpl(events, batchId, removeFromQueueOnException,
-        con.getDistributedSystemId(), isRetry);
+    CompressedGatewayBatchFormat compressedBatchFormat = con.getCompressedGatewayBatchFormat();
+    AbstractOp op;
+    if (compressedBatchFormat != null) {
+      op = new GatewaySenderCompressedBatchOpImpl(compressedBatchFormat, events, batchId,
+          removeFromQueueOnException, con.getDistributedSystemId(), isRetry);
+    } else {
+      op = new GatewaySenderGFEBatchOpImpl(events, batchId, removeFromQueueOnException,
+          con.getDistributedSystemId(), isRetry);
+    }
     pool.executeOn(con, op, true/* timeoutFatal */);
   }
 
@@ -70,6 +81,48 @@ public class GatewaySenderBatchOp {
     // no instances allowed
   }
 
+  /**
+   * Sends the events of a batch as one compressed part. See {@link CompressedGatewayBatchFormat}.
+   */
+  static class GatewaySenderCompressedBatchOpImpl extends GatewaySenderGFEBatchOpImpl {
+
+    private final CompressedGatewayBatchFormat compressedBatchFormat;
+
+    private final EncodedBatch encodedBatch;
+
+    /**
+     * @throws org.apache.geode.SerializationException if serialization fails
+     */
+    GatewaySenderCompressedBatchOpImpl(CompressedGatewayBatchFormat compressedBatchFormat,
+        List events, int batchId, boolean removeFromQueueOnException, int dsId, boolean isRetry) {
+      super(CompressedGatewayBatchFormat.COMPRESSED_EVENTS_PART + 1);
+      this.compressedBatchFormat = compressedBatchFormat;
+      try {
+        this.encodedBatch = compressedBatchFormat.encode(events);
+      } catch (IOException e) {
+        throw new SerializationException("failed compressing gateway batch", e);
+      }
+      if (isRetry) {
+        getMessage().setIsRetry();
+      }
+      byte flags = CompressedGatewayBatchFormat.COMPRESSED_FLAG;
+      if (removeFromQueueOnException) {
+        flags |= CompressedGatewayBatchFormat.REMOVE_FROM_QUEUE_ON_EXCEPTION_FLAG;
+      }
+      getMessage().addIntPart(events.size());
+      getMessage().addIntPart(batchId);
+      getMessage().addIntPart(dsId);
+      getMessage().addBytesPart(new byte[] {flags});
+      getMessage().addBytesPart(encodedBatch.getBytes());
+    }
+
+    @Override
+    protected void sendMessage(Connection cnx) throws Exception {
+      super.sendMessage(cnx);
+      compressedBatchFormat.batchSent(encodedBatch);
+    }
+  }
+
   static class GatewaySenderGFEBatchOpImpl extends AbstractOp {
 
     /**
@@ -132,6 +185,10 @@ public class GatewaySenderBatchOp {
       super(MessageType.GATEWAY_RECEIVER_COMMAND, 0);
     }
 
+    GatewaySenderGFEBatchOpImpl(int numberOfParts) {
+      super(MessageType.GATEWAY_RECEIVER_COMMAND, numberOfParts);
+    }
+
     @Override
     public Object attempt(Connection cnx) throws Exception {
       if (getMessage().getNumberOfParts() == 0) {
@@ -181,6 +238,8 @@ public class GatewaySenderBatchOp {
       if (msg != null) {
         msg.setComms(cnx.getSocket(), cnx.getInputStream(), cnx.getOutputStream(),
             ((ConnectionImpl) cnx).getCommBufferForAsyncRead(), cnx.getStats());
+        // the receiver sends its acks in the format negotiated for the connection
+        msg.setCompactMessageFormat(cnx.getCompactMessageFormat());
         if (msg instanceof ChunkedMessage) {
           try {
             return processResponse(msg, cnx);
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.wan.internal.client.locator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.internal.ConnectionImpl;
+import org.apache.geode.cache.client.internal.ConnectionStats;
+import org.apache.geode.cache.wan.internal.GatewaySenderEventRemoteDispatcher.GatewayAck;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.CompactMessageFormat;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.test.junit.categories.WanTest;
+
+@Category({WanTest.class})
+public class GatewaySenderBatchOpTest {
+
+  private final Socket socket = mock(Socket.class);
+  private final ConnectionStats stats = mock(ConnectionStats.class);
+  private final ConnectionImpl connection = mock(ConnectionImpl.class);
+
+  @Before
+  public void setUp() throws Exception {
+    when(connection.getSocket()).thenReturn(socket);
+    when(connection.getStats()).thenReturn(stats);
+    when(connection.getServer()).thenReturn(new ServerLocation("localhost", 1234));
+    when(connection.getCommBuffer()).thenReturn(ByteBuffer.allocate(1000));
+    when(connection.getCommBufferForAsyncRead()).thenReturn(ByteBuffer.allocate(1000));
+  }
+
+  @Test
+  public void sendsBatchAndReadsAckAsynchronouslyInCompactFormat() throws Exception {
+    when(connection.getCompactMessageFormat()).thenReturn(new CompactMessageFormat());
+    ByteArrayOutputStream sent = new ByteArrayOutputStream();
+    when(connection.getOutputStream()).thenReturn(sent);
+
+    new GatewaySenderBatchOp.GatewaySenderGFEBatchOpImpl(Collections.emptyList(), 7, false, 1,
+        false).attempt(connection);
+
+    Message batch = receive(sent.toByteArray(), new CompactMessageFormat());
+    assertThat(batch.getMessageType()).isEqualTo(MessageType.GATEWAY_RECEIVER_COMMAND);
+    assertThat(batch.getPart(1).getInt()).isEqualTo(7);
+
+    when(connection.getInputStream())
+        .thenReturn(new ByteArrayInputStream(createAck(7, 3, new CompactMessageFormat())));
+
+    GatewayAck ack =
+        (GatewayAck) new GatewaySenderBatchOp.GatewaySenderGFEBatchOpImpl().attempt(connection);
+
+    assertThat(ack.getBatchId()).isEqualTo(7);
+    assertThat(ack.getNumEvents()).isEqualTo(3);
+  }
+
+  @Test
+  public void readsAckAsynchronouslyInFixedLengthFormat() throws Exception {
+    when(connection.getInputStream())
+        .thenReturn(new ByteArrayInputStream(createAck(7, 3, null)));
+
+    GatewayAck ack =
+        (GatewayAck) new GatewaySenderBatchOp.GatewaySenderGFEBatchOpImpl().attempt(connection);
+
+    assertThat(ack.getBatchId()).isEqualTo(7);
+    assertThat(ack.getNumEvents()).isEqualTo(3);
+  }
+
+  private byte[] createAck(int batchId, int numEvents, CompactMessageFormat format)
+      throws IOException {
+    Message ack = new Message(2, KnownVersion.CURRENT);
+    ack.setMessageType(MessageType.REPLY);
+    ack.setTransactionId(-1);
+    ack.addIntPart(batchId);
+    ack.addIntPart(numEvents);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ack.setComms(socket, null, out, ByteBuffer.allocate(1000), stats);
+    ack.setCompactMessageFormat(format);
+    ack.send();
+    return out.toByteArray();
+  }
+
+  private Message receive(byte[] bytes, CompactMessageFormat format) throws IOException {
+    Message message = new Message(1, KnownVersion.CURRENT);
+    message.setComms(socket, new ByteArrayInputStream(bytes), null, ByteBuffer.allocate(1000),
+        stats);
+    message.setCompactMessageFormat(format);
+    message.receive();
+    return message;
+  }
+}